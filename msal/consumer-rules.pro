@@ -33,6 +33,8 @@
 
 # Gson specific classes
 -dontwarn sun.misc.**
+# OkHttp is an optional dependency, only referenced by MsalOkHttpAuthenticator.
+-dontwarn okhttp3.**
 #-keep class com.google.gson.stream.** { *; }
 
 # Application classes that will be serialized/deserialized over Gson
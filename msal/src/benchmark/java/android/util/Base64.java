@@ -0,0 +1,90 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package android.util;
+
+// JDK backed codec for the microbenchmarks in com.microsoft.identity.client.benchmark, which
+// run in forked JVMs where Robolectric is not available. Only put on the unit test classpath
+// with -Pbenchmark, regular unit tests needing Base64 run under Robolectric.
+// Only the flags used by MSAL are honoured.
+public class Base64 {
+
+    public static final int DEFAULT = 0;
+    public static final int NO_PADDING = 1;
+    public static final int NO_WRAP = 2;
+    public static final int CRLF = 4;
+    public static final int URL_SAFE = 8;
+    public static final int NO_CLOSE = 16;
+
+    private static final int LINE_LENGTH = 76;
+
+    public static byte[] decode(String str, int flags) {
+        return decode(str.getBytes(java.nio.charset.StandardCharsets.US_ASCII), flags);
+    }
+
+    public static byte[] decode(byte[] input, int flags) {
+        final StringBuilder stripped = new StringBuilder(input.length);
+        for (final byte b : input) {
+            if (!Character.isWhitespace((char) b)) {
+                stripped.append((char) b);
+            }
+        }
+
+        final java.util.Base64.Decoder decoder = (flags & URL_SAFE) != 0
+                ? java.util.Base64.getUrlDecoder()
+                : java.util.Base64.getDecoder();
+        return decoder.decode(stripped.toString());
+    }
+
+    public static String encodeToString(byte[] input, int flags) {
+        return new String(encode(input, flags), java.nio.charset.StandardCharsets.US_ASCII);
+    }
+
+    public static byte[] encode(byte[] input, int flags) {
+        final byte[] lineBreak = (flags & CRLF) != 0 ? new byte[]{'\r', '\n'} : new byte[]{'\n'};
+        // Line wrapping is only supported for the default alphabet.
+        final boolean wrap = (flags & (NO_WRAP | URL_SAFE)) == 0;
+
+        java.util.Base64.Encoder encoder;
+        if ((flags & URL_SAFE) != 0) {
+            encoder = java.util.Base64.getUrlEncoder();
+        } else if (wrap) {
+            encoder = java.util.Base64.getMimeEncoder(LINE_LENGTH, lineBreak);
+        } else {
+            encoder = java.util.Base64.getEncoder();
+        }
+
+        if ((flags & NO_PADDING) != 0) {
+            encoder = encoder.withoutPadding();
+        }
+
+        final byte[] encoded = encoder.encode(input);
+        if (!wrap || encoded.length == 0) {
+            return encoded;
+        }
+
+        // Android terminates wrapped output with a line break.
+        final byte[] result = java.util.Arrays.copyOf(encoded, encoded.length + lineBreak.length);
+        System.arraycopy(lineBreak, 0, result, encoded.length, lineBreak.length);
+        return result;
+    }
+}
@@ -0,0 +1,96 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.benchmark;
+
+import com.microsoft.identity.client.AccountAdapter;
+import com.microsoft.identity.client.IAccount;
+import com.microsoft.identity.client.IMultiTenantAccount;
+import com.microsoft.identity.client.ITenantProfile;
+import com.microsoft.identity.common.java.cache.ICacheRecord;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures turning cache records into {@link IAccount} trees, which runs on every getAccounts()
+ * and on every token result, and reading the account id from either client info (home accounts)
+ * or id token claims (guest profiles).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountAdapterBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int accountCount;
+
+    @Param({"0", "3"})
+    public int guestTenantsPerUser;
+
+    private List<ICacheRecord> mCacheRecords;
+    private IAccount mHomeAccount;
+    private ITenantProfile mGuestProfile;
+
+    @Setup
+    public void setup() {
+        mCacheRecords = SyntheticCacheRecords.create(accountCount, guestTenantsPerUser);
+        mHomeAccount = AccountAdapter.adapt(mCacheRecords).get(0);
+
+        if (guestTenantsPerUser > 0) {
+            mGuestProfile = ((IMultiTenantAccount) mHomeAccount)
+                    .getTenantProfiles()
+                    .get(SyntheticCacheRecords.guestTenantId(1));
+        }
+    }
+
+    @Benchmark
+    public List<IAccount> adapt() {
+        return AccountAdapter.adapt(mCacheRecords);
+    }
+
+    @Benchmark
+    public String getIdFromClientInfo() {
+        return mHomeAccount.getId();
+    }
+
+    @Benchmark
+    public String getIdFromIdTokenClaims() {
+        // Without guest profiles this measures the same path as getIdFromClientInfo.
+        return mGuestProfile != null ? mGuestProfile.getId() : mHomeAccount.getId();
+    }
+}
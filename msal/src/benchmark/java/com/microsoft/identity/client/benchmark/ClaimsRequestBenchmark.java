@@ -0,0 +1,82 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.benchmark;
+
+import com.microsoft.identity.client.claims.ClaimsRequest;
+import com.microsoft.identity.client.claims.RequestedClaimAdditionalInformation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the JSON round trip of a claims request carrying client capabilities and an essential
+ * claim, as merged into every request made by a CP1 capable application.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClaimsRequestBenchmark {
+
+    private ClaimsRequest mClaimsRequest;
+    private String mClaimsRequestJson;
+
+    @Setup
+    public void setup() {
+        final RequestedClaimAdditionalInformation capabilities = new RequestedClaimAdditionalInformation();
+        capabilities.setValues(Arrays.<Object>asList("cp1", "llt"));
+
+        final RequestedClaimAdditionalInformation essential = new RequestedClaimAdditionalInformation();
+        essential.setEssential(true);
+
+        mClaimsRequest = new ClaimsRequest();
+        mClaimsRequest.requestClaimInAccessToken("xms_cc", capabilities);
+        mClaimsRequest.requestClaimInAccessToken("nbf", essential);
+        mClaimsRequest.requestClaimInIdToken("auth_time", essential);
+
+        mClaimsRequestJson = ClaimsRequest.getJsonStringFromClaimsRequest(mClaimsRequest);
+    }
+
+    @Benchmark
+    public String serialize() {
+        return ClaimsRequest.getJsonStringFromClaimsRequest(mClaimsRequest);
+    }
+
+    @Benchmark
+    public ClaimsRequest deserialize() {
+        return ClaimsRequest.getClaimsRequestFromJsonString(mClaimsRequestJson);
+    }
+}
@@ -0,0 +1,71 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.benchmark;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.util.Collection;
+
+/**
+ * Runs the JMH benchmarks in this package from the unit test task, so that they execute against
+ * the same classpath as the unit tests, plus the Android stubs under src/benchmark/java.
+ * <p>
+ * This package, like JMH itself, is only added to the unit tests with {@code -Pbenchmark}, optionally
+ * passing a regular expression to select benchmarks, e.g. {@code -Pbenchmark=AccountAdapter}.
+ * Results, including normalized allocation per operation from the GC profiler, are written to
+ * {@code build/reports/jmh/msal-benchmarks.json} so they can be archived per release.
+ */
+public class MsalBenchmarkRunner {
+
+    private static final String REPORT_DIR_PROPERTY = "msalBenchmarkReportDir";
+    private static final String INCLUDE_PROPERTY = "msalBenchmarkInclude";
+    private static final String REPORT_FILE_NAME = "msal-benchmarks.json";
+
+    @Test
+    public void runBenchmarks() throws RunnerException {
+        final File reportDir = new File(System.getProperty(REPORT_DIR_PROPERTY, "build/reports/jmh"));
+        Assert.assertTrue(reportDir.isDirectory() || reportDir.mkdirs());
+
+        final String include = System.getProperty(INCLUDE_PROPERTY, "");
+
+        final ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(MsalBenchmarkRunner.class.getPackage().getName()
+                        + ".*" + (include.isEmpty() || "true".equals(include) ? "" : include))
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(new File(reportDir, REPORT_FILE_NAME).getAbsolutePath())
+                .shouldFailOnError(true);
+
+        final Collection<RunResult> results = new Runner(options.build()).run();
+        Assert.assertFalse("No benchmarks matched " + include, results.isEmpty());
+    }
+}
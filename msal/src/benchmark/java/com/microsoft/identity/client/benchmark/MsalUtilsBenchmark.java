@@ -0,0 +1,85 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.benchmark;
+
+import com.microsoft.identity.client.internal.MsalUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.UnsupportedEncodingException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the URL helpers used when building authorization requests and reading redirects.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MsalUtilsBenchmark {
+
+    private static final String AUTHORIZE_ENDPOINT =
+            "https://login.microsoftonline.com/common/oauth2/v2.0/authorize";
+
+    private static final String REDIRECT_QUERY =
+            "code=0.AXEA5rW3kT8dW0ubt2bQpnHH4cK4DUsmnxdEi94_DjZW-OBxAPk.AgABAAIAAAAmoFfGtYxvRrNriQdPKIZ-AgDs_wUA9P"
+                    + "&client_info=eyJ1aWQiOiIwMDAwMzAwMC0wMDAwLTQwMDAtODAwMC0wMDAwMDAwMDAwMDAiLCJ1dGlkIjoiMDAwMDEwMDAifQ"
+                    + "&state=a2V5PXZhbHVlJnNlY29uZD10cnVl"
+                    + "&session_state=4b6c2b3e-7d0a-4b29-9b1f-2f3c2c2d0b8c";
+
+    private Map<String, String> mRequestParameters;
+
+    @Setup
+    public void setup() {
+        mRequestParameters = new LinkedHashMap<>();
+        mRequestParameters.put("client_id", "4b0db8c2-9f26-4417-8bde-3f0e3656f8e0");
+        mRequestParameters.put("redirect_uri", "msauth://com.contoso.app/1wIqXSqBj7w%2Bh11ZifsnqwgyKrY%3D");
+        mRequestParameters.put("scope", "openid offline_access profile User.Read");
+        mRequestParameters.put("response_type", "code");
+        mRequestParameters.put("login_hint", "user0@contoso.com");
+        mRequestParameters.put("state", "a2V5PXZhbHVlJnNlY29uZD10cnVl");
+    }
+
+    @Benchmark
+    public Map<String, String> decodeUrlToMap() {
+        return MsalUtils.decodeUrlToMap(REDIRECT_QUERY, "&");
+    }
+
+    @Benchmark
+    public String appendQueryParameterToUrl() throws UnsupportedEncodingException {
+        return MsalUtils.appendQueryParameterToUrl(AUTHORIZE_ENDPOINT, mRequestParameters);
+    }
+}
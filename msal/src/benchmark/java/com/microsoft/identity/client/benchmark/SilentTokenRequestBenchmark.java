@@ -0,0 +1,127 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.benchmark;
+
+import android.content.Context;
+
+import com.microsoft.identity.client.AcquireTokenSilentParameters;
+import com.microsoft.identity.client.AccountAdapter;
+import com.microsoft.identity.client.IAccount;
+import com.microsoft.identity.client.PublicClientApplication;
+import com.microsoft.identity.client.PublicClientApplicationConfiguration;
+import com.microsoft.identity.client.internal.CommandParametersAdapter;
+import com.microsoft.identity.common.java.commands.parameters.SilentTokenCommandParameters;
+import com.microsoft.identity.common.java.dto.AccountRecord;
+import com.microsoft.identity.common.java.exception.BaseException;
+import com.microsoft.identity.common.java.exception.ClientException;
+import com.microsoft.identity.common.java.providers.oauth2.OAuth2TokenCache;
+
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the work done on the calling thread before a silent token request is dispatched:
+ * picking the account record for the requested tenant and building the command parameters.
+ * <p>
+ * The application configuration, context and token cache are Mockito mocks, so absolute numbers
+ * include mock dispatch; compare them across releases rather than reading them in isolation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SilentTokenRequestBenchmark {
+
+    private static final List<String> SCOPES = Collections.singletonList("User.Read");
+
+    /**
+     * Whether the request targets the home tenant (resolved from the home account claims) or a
+     * guest tenant (resolved from the tenant profiles).
+     */
+    @Param({"home", "guest"})
+    public String tenant;
+
+    private PublicClientApplicationConfiguration mConfiguration;
+    private OAuth2TokenCache mTokenCache;
+    private AcquireTokenSilentParameters mParameters;
+
+    @Setup
+    public void setup() throws BaseException {
+        final Context context = Mockito.mock(Context.class, Mockito.RETURNS_DEEP_STUBS);
+        Mockito.when(context.getPackageName()).thenReturn("com.contoso.app");
+
+        mConfiguration = Mockito.mock(PublicClientApplicationConfiguration.class);
+        Mockito.when(mConfiguration.getAppContext()).thenReturn(context);
+        Mockito.when(mConfiguration.getClientId()).thenReturn("4b0db8c2-9f26-4417-8bde-3f0e3656f8e0");
+        Mockito.when(mConfiguration.getRedirectUri()).thenReturn("msauth://com.contoso.app/1wIqXSqBj7w%2Bh11ZifsnqwgyKrY%3D");
+        Mockito.when(mConfiguration.getClientCapabilities()).thenReturn("cp1");
+
+        mTokenCache = Mockito.mock(OAuth2TokenCache.class);
+
+        final IAccount account = AccountAdapter.adapt(SyntheticCacheRecords.create(1, 3)).get(0);
+        final String authority = "https://login.microsoftonline.com/"
+                + ("home".equals(tenant)
+                ? SyntheticCacheRecords.homeTenantId(0)
+                : SyntheticCacheRecords.guestTenantId(1));
+
+        // The authority is set explicitly, so neither benchmark mutates the parameters.
+        mParameters = new AcquireTokenSilentParameters.Builder()
+                .withScopes(SCOPES)
+                .forAccount(account)
+                .fromAuthority(authority)
+                .build();
+        mParameters.setAccountRecord(
+                PublicClientApplication.selectAccountRecordForTokenRequest(mConfiguration, mParameters)
+        );
+    }
+
+    @Benchmark
+    public AccountRecord selectAccountRecordForTokenRequest() throws BaseException {
+        return PublicClientApplication.selectAccountRecordForTokenRequest(mConfiguration, mParameters);
+    }
+
+    @Benchmark
+    public SilentTokenCommandParameters createSilentTokenCommandParameters() throws ClientException {
+        return CommandParametersAdapter.createSilentTokenCommandParameters(
+                mConfiguration,
+                mTokenCache,
+                mParameters
+        );
+    }
+}
@@ -0,0 +1,143 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.benchmark;
+
+import com.microsoft.identity.common.java.cache.CacheRecord;
+import com.microsoft.identity.common.java.cache.ICacheRecord;
+import com.microsoft.identity.common.java.dto.AccountRecord;
+import com.microsoft.identity.common.java.dto.IdTokenRecord;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Builds cache records resembling what the token cache returns for a device with several signed in
+ * users, each of whom may also be a guest in other tenants. Identifiers are deterministic so that
+ * benchmark runs are comparable across releases.
+ */
+final class SyntheticCacheRecords {
+
+    static final String ENVIRONMENT = "login.windows.net";
+
+    private SyntheticCacheRecords() {
+        // Utility class.
+    }
+
+    /**
+     * @param accountCount        The number of home accounts.
+     * @param guestTenantsPerUser The number of guest tenant profiles added to each home account.
+     * @return One record per home account followed by its guest profiles.
+     */
+    static List<ICacheRecord> create(final int accountCount, final int guestTenantsPerUser) {
+        final List<ICacheRecord> records = new ArrayList<>(accountCount * (1 + guestTenantsPerUser));
+
+        for (int account = 0; account < accountCount; account++) {
+            final String uid = objectId(account, 0);
+            final String utid = homeTenantId(account);
+
+            records.add(createRecord(uid, utid, uid, utid, clientInfo(uid, utid), account));
+
+            for (int guest = 1; guest <= guestTenantsPerUser; guest++) {
+                records.add(createRecord(uid, utid, objectId(account, guest), guestTenantId(guest), null, account));
+            }
+        }
+
+        return records;
+    }
+
+    static String homeTenantId(final int account) {
+        return guid(0x1000 + account, 0);
+    }
+
+    static String guestTenantId(final int guest) {
+        return guid(0x2000, guest);
+    }
+
+    static String objectId(final int account, final int tenant) {
+        return guid(0x3000 + account, tenant);
+    }
+
+    private static ICacheRecord createRecord(final String uid,
+                                             final String utid,
+                                             final String oid,
+                                             final String tenantId,
+                                             final String clientInfo,
+                                             final int account) {
+        final String username = "user" + account + "@contoso.com";
+
+        final AccountRecord accountRecord = new AccountRecord();
+        accountRecord.setHomeAccountId(uid + "." + utid);
+        accountRecord.setLocalAccountId(oid);
+        accountRecord.setEnvironment(ENVIRONMENT);
+        accountRecord.setRealm(tenantId);
+        accountRecord.setUsername(username);
+        accountRecord.setAuthorityType("MSSTS");
+        accountRecord.setClientInfo(clientInfo);
+
+        final IdTokenRecord idTokenRecord = new IdTokenRecord();
+        idTokenRecord.setHomeAccountId(accountRecord.getHomeAccountId());
+        idTokenRecord.setEnvironment(ENVIRONMENT);
+        idTokenRecord.setRealm(tenantId);
+        idTokenRecord.setSecret(idToken(oid, tenantId, username));
+
+        return CacheRecord.builder()
+                .account(accountRecord)
+                .idToken(idTokenRecord)
+                .build();
+    }
+
+    private static String idToken(final String oid, final String tenantId, final String username) {
+        final String header = "{\"alg\":\"none\",\"typ\":\"JWT\"}";
+        final String claims = "{"
+                + "\"aud\":\"4b0db8c2-9f26-4417-8bde-3f0e3656f8e0\","
+                + "\"iss\":\"https://login.microsoftonline.com/" + tenantId + "/v2.0\","
+                + "\"iat\":1700000000,\"nbf\":1700000000,\"exp\":1700003600,"
+                + "\"name\":\"Synthetic User\","
+                + "\"oid\":\"" + oid + "\","
+                + "\"preferred_username\":\"" + username + "\","
+                + "\"sub\":\"" + oid + "\","
+                + "\"tid\":\"" + tenantId + "\","
+                + "\"ver\":\"2.0\""
+                + "}";
+
+        // Unsigned JWT, the signature segment is empty.
+        return base64Url(header) + "." + base64Url(claims) + ".";
+    }
+
+    private static String clientInfo(final String uid, final String utid) {
+        return base64Url("{\"uid\":\"" + uid + "\",\"utid\":\"" + utid + "\"}");
+    }
+
+    private static String base64Url(final String value) {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String guid(final int high, final int low) {
+        return String.format(Locale.US, "%08x-0000-4000-8000-%012x", high, low);
+    }
+}
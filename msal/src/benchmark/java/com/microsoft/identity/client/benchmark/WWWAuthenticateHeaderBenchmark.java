@@ -0,0 +1,98 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.benchmark;
+
+import com.microsoft.identity.client.claims.AuthenticationChallenge;
+import com.microsoft.identity.client.claims.ClaimsRequest;
+import com.microsoft.identity.client.claims.WWWAuthenticateHeader;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing of WWW-Authenticate header values as returned by resources on a 401.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WWWAuthenticateHeaderBenchmark {
+
+    private static final String BEARER =
+            "Bearer realm=\"\", authorization_uri=\"https://login.microsoftonline.com/common/oauth2/authorize\", "
+                    + "client_id=\"00000003-0000-0000-c000-000000000000\"";
+
+    private static final String CLAIMS_CHALLENGE =
+            "Bearer realm=\"\", authorization_uri=\"https://login.microsoftonline.com/common/oauth2/authorize\", "
+                    + "error=\"insufficient_claims\", "
+                    + "claims=\"{\"access_token\":{\"nbf\":{\"essential\":true,\"value\":\"1700000000\"}}}\"";
+
+    private static final String MULTIPLE_CHALLENGES =
+            "PoP realm=\"\", authorization_uri=\"https://login.microsoftonline.com/common/oauth2/authorize\", "
+                    + "client_id=\"00000003-0000-0000-c000-000000000000\", nonce=\"eyJ0cyI6MTcwMDAwMDAwMH0\", "
+                    + CLAIMS_CHALLENGE;
+
+    @Param({"bearer", "claims", "multiple"})
+    public String header;
+
+    private String mHeaderValue;
+
+    @Setup
+    public void setup() {
+        switch (header) {
+            case "bearer":
+                mHeaderValue = BEARER;
+                break;
+            case "claims":
+                mHeaderValue = CLAIMS_CHALLENGE;
+                break;
+            default:
+                mHeaderValue = MULTIPLE_CHALLENGES;
+                break;
+        }
+    }
+
+    @Benchmark
+    public List<AuthenticationChallenge> parseChallenges() {
+        return WWWAuthenticateHeader.parseChallenges(mHeaderValue);
+    }
+
+    @Benchmark
+    public ClaimsRequest getClaimsRequest() {
+        return WWWAuthenticateHeader.getClaimsRequestFromWWWAuthenticateHeaderValue(mHeaderValue);
+    }
+}
@@ -0,0 +1,122 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.common.java.exception.ServiceException;
+import com.microsoft.identity.common.java.providers.oauth2.IDToken;
+import com.microsoft.identity.common.logging.Logger;
+
+/**
+ * The values an {@link IAccount} is built from: its identifiers and raw ID token. Unlike the
+ * account itself it does not hold the parsed ID token claims, so it can be written compactly, e.g.
+ * into a Parcel, and turned back into an account with {@link #toAccount()} when it is needed.
+ * <p>
+ * Tenant profiles are not kept; the rebuilt account only describes the home tenant.
+ */
+public final class AccountSnapshot {
+
+    private static final String TAG = AccountSnapshot.class.getSimpleName();
+
+    private final String mId;
+    private final String mTenantId;
+    private final String mEnvironment;
+    private final String mRawIdToken;
+
+    public AccountSnapshot(@NonNull final String id,
+                           @Nullable final String tenantId,
+                           @Nullable final String environment,
+                           @Nullable final String rawIdToken) {
+        mId = id;
+        mTenantId = tenantId;
+        mEnvironment = environment;
+        mRawIdToken = rawIdToken;
+    }
+
+    /**
+     * @param account The account to take a snapshot of.
+     * @return A snapshot of the given account.
+     */
+    @NonNull
+    public static AccountSnapshot of(@NonNull final IAccount account) {
+        return new AccountSnapshot(
+                account.getId(),
+                account.getTenantId(),
+                account instanceof Account ? ((Account) account).getEnvironment() : null,
+                account.getIdToken()
+        );
+    }
+
+    @NonNull
+    public String getId() {
+        return mId;
+    }
+
+    @Nullable
+    public String getTenantId() {
+        return mTenantId;
+    }
+
+    @Nullable
+    public String getEnvironment() {
+        return mEnvironment;
+    }
+
+    @Nullable
+    public String getRawIdToken() {
+        return mRawIdToken;
+    }
+
+    /**
+     * Builds the account, parsing the ID token.
+     *
+     * @return The account described by this snapshot.
+     */
+    @NonNull
+    public IAccount toAccount() {
+        final String methodTag = TAG + ":toAccount";
+
+        IDToken idToken = null;
+        if (mRawIdToken != null) {
+            try {
+                idToken = new IDToken(mRawIdToken);
+            } catch (final ServiceException e) {
+                // The ID token was validated when it was first received, keep the identifiers.
+                Logger.warn(methodTag, "Failed to parse the ID token of the account snapshot.");
+            }
+        }
+
+        final MultiTenantAccount account = new MultiTenantAccount(null, idToken);
+        account.setId(mId);
+        if (mTenantId != null) {
+            account.setTenantId(mTenantId);
+            account.setHomeAccountId(mId + "." + mTenantId);
+        }
+        if (mEnvironment != null) {
+            account.setEnvironment(mEnvironment);
+        }
+        return account;
+    }
+}
@@ -0,0 +1,274 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Decouples logging threads from an {@link IBatchLoggerCallback}. Log lines are offered to a
+ * bounded lock-free ring buffer and drained in batches by a single daemon thread. When the buffer
+ * is full, new lines are dropped and counted rather than blocking the logging thread.
+ * <p>
+ * The ring buffer is a multi-producer, single-consumer variant of the bounded queue where each
+ * slot carries a sequence number: a producer claims a slot by advancing the tail with a CAS, then
+ * publishes the record by bumping the slot's sequence, which the consumer waits for. On shutdown
+ * the tail is sealed so no further slot can be claimed, and the consumer drains up to the sealed
+ * tail before closing the callback.
+ */
+class AsyncLogDispatcher {
+
+    private static final String TAG = AsyncLogDispatcher.class.getSimpleName();
+
+    static final int MAX_BATCH_SIZE = 256;
+
+    /**
+     * Upper bound on how long the consumer sleeps when it missed a wake up.
+     */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /**
+     * Set on the tail once the dispatcher is shut down. Producers fail to claim a slot from a
+     * sealed tail, so every record is either delivered or counted as dropped.
+     */
+    private static final long SEALED = Long.MIN_VALUE;
+
+    private final IBatchLoggerCallback mCallback;
+    private final AtomicReferenceArray<LogRecord> mBuffer;
+    private final AtomicLongArray mSequences;
+    private final int mMask;
+    private final AtomicLong mTail = new AtomicLong();
+    private final AtomicLong mDroppedCount = new AtomicLong();
+    private final Thread mConsumer;
+
+    // Only touched by the consumer thread.
+    private long mHead;
+
+    private volatile boolean mConsumerParked;
+    private volatile boolean mShutdown;
+
+    /**
+     * @param callback   The callback receiving batches. If it is {@link Closeable}, it is closed
+     *                   once the dispatcher has shut down and delivered every buffered line.
+     * @param capacity   The maximum number of lines buffered, rounded up to a power of two.
+     * @param threadName The name of the consumer thread.
+     */
+    AsyncLogDispatcher(@NonNull final IBatchLoggerCallback callback,
+                       final int capacity,
+                       @NonNull final String threadName) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+
+        final int size = capacity > (1 << 30) ? 1 << 30 : Integer.highestOneBit(capacity - 1) << 1;
+        final int slots = Math.max(size, 2);
+
+        mCallback = callback;
+        mBuffer = new AtomicReferenceArray<>(slots);
+        mSequences = new AtomicLongArray(slots);
+        mMask = slots - 1;
+        for (int i = 0; i < slots; i++) {
+            mSequences.set(i, i);
+        }
+
+        mConsumer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                consume();
+            }
+        }, threadName);
+        mConsumer.setDaemon(true);
+        mConsumer.start();
+    }
+
+    /**
+     * @return The number of slots in the ring buffer.
+     */
+    int getCapacity() {
+        return mMask + 1;
+    }
+
+    /**
+     * @return The number of lines dropped because the buffer was full.
+     */
+    long getDroppedCount() {
+        return mDroppedCount.get();
+    }
+
+    /**
+     * Offers a line without blocking.
+     *
+     * @return false if the line was dropped.
+     */
+    boolean enqueue(@NonNull final LogRecord record) {
+        if (mShutdown || !offer(record)) {
+            mDroppedCount.incrementAndGet();
+            return false;
+        }
+
+        if (mConsumerParked) {
+            mConsumerParked = false;
+            LockSupport.unpark(mConsumer);
+        }
+
+        return true;
+    }
+
+    /**
+     * Stops accepting lines. Lines already buffered are still delivered.
+     */
+    void shutdown() {
+        mShutdown = true;
+
+        long tail;
+        do {
+            tail = mTail.get();
+        } while (tail >= 0 && !mTail.compareAndSet(tail, tail | SEALED));
+
+        LockSupport.unpark(mConsumer);
+    }
+
+    private boolean offer(@NonNull final LogRecord record) {
+        while (true) {
+            final long tail = mTail.get();
+            if (tail < 0) {
+                // Sealed by shutdown().
+                return false;
+            }
+
+            final int index = (int) (tail & mMask);
+            final long delta = mSequences.get(index) - tail;
+
+            if (delta == 0) {
+                if (mTail.compareAndSet(tail, tail + 1)) {
+                    mBuffer.lazySet(index, record);
+                    // Publishes the record to the consumer.
+                    mSequences.set(index, tail + 1);
+                    return true;
+                }
+            } else if (delta < 0) {
+                // The consumer has not freed this slot yet, the buffer is full.
+                return false;
+            }
+            // Otherwise another producer claimed the slot first, retry with the new tail.
+        }
+    }
+
+    @Nullable
+    private LogRecord poll() {
+        final int index = (int) (mHead & mMask);
+        if (mSequences.get(index) != mHead + 1) {
+            return null;
+        }
+
+        final LogRecord record = mBuffer.get(index);
+        mBuffer.lazySet(index, null);
+        // Hands the slot back to producers for the next lap.
+        mSequences.set(index, mHead + mMask + 1);
+        mHead++;
+        return record;
+    }
+
+    private void consume() {
+        while (true) {
+            final List<LogRecord> batch = drain();
+
+            if (batch != null) {
+                deliver(batch);
+                continue;
+            }
+
+            if (mShutdown) {
+                final long tail = mTail.get();
+
+                // Wait for shutdown() to seal the tail, then for producers that claimed a slot
+                // before it did to publish their record.
+                if (tail >= 0 || mHead != (tail & ~SEALED)) {
+                    Thread.yield();
+                    continue;
+                }
+
+                close();
+                return;
+            }
+
+            mConsumerParked = true;
+            // Re-check after advertising that we are parked so a concurrent offer is not missed.
+            if (!hasPending()) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            mConsumerParked = false;
+        }
+    }
+
+    private boolean hasPending() {
+        return mSequences.get((int) (mHead & mMask)) == mHead + 1;
+    }
+
+    @Nullable
+    private List<LogRecord> drain() {
+        LogRecord record = poll();
+        if (record == null) {
+            return null;
+        }
+
+        final List<LogRecord> batch = new ArrayList<>(Math.min(MAX_BATCH_SIZE, mMask + 1));
+        do {
+            batch.add(record);
+        } while (batch.size() < MAX_BATCH_SIZE && (record = poll()) != null);
+
+        return batch;
+    }
+
+    private void close() {
+        if (mCallback instanceof Closeable) {
+            try {
+                ((Closeable) mCallback).close();
+            } catch (final IOException e) {
+                Log.w(TAG, "Failed to close IBatchLoggerCallback: " + e.getClass().getSimpleName());
+            }
+        }
+    }
+
+    private void deliver(@NonNull final List<LogRecord> batch) {
+        try {
+            mCallback.log(Collections.unmodifiableList(batch));
+        } catch (final RuntimeException e) {
+            // Logging through the MSAL logger here would feed back into this dispatcher.
+            Log.w(TAG, "IBatchLoggerCallback threw: " + e.getClass().getSimpleName());
+        }
+    }
+}
@@ -45,10 +45,15 @@ public final class AuthenticationResult implements IAuthenticationResult {
 
     private static final String TAG = AuthenticationResult.class.getSimpleName();
 
+    private static final String[] EMPTY_SCOPES = new String[0];
+
     private final String mTenantId;
     private final AccessTokenRecord mAccessToken;
-    private final IAccount mAccount;
     private final UUID mCorrelationId;
+    private final String[] mScopes;
+    private final long mExpiresOnMillis;
+    private final String mAuthorizationHeader;
+    private final IAccount mAccount;
 
     AuthenticationResult(@NonNull final List<ICacheRecord> cacheRecords,
                          @Nullable final String correlationId) {
@@ -57,6 +62,9 @@ public final class AuthenticationResult implements IAuthenticationResult {
         mTenantId = mostRecentlyAuthorized.getAccount().getRealm();
         mAccount = AccountAdapter.adapt(cacheRecords).get(0);
         mCorrelationId = sanitizeCorrelationId(correlationId);
+        mScopes = parseScopes(mAccessToken);
+        mExpiresOnMillis = parseExpiresOnMillis(mAccessToken);
+        mAuthorizationHeader = buildAuthorizationHeader(mAccessToken);
     }
 
     @Override
@@ -68,11 +76,7 @@ public final class AuthenticationResult implements IAuthenticationResult {
     @NonNull
     @Override
     public String getAuthorizationHeader() {
-        final String scheme = mAccessToken.getAccessTokenType();
-
-        return scheme
-                + TokenAuthenticationScheme.SCHEME_DELIMITER
-                + mAccessToken.getSecret();
+        return mAuthorizationHeader;
     }
 
     @NonNull
@@ -87,17 +91,17 @@ public final class AuthenticationResult implements IAuthenticationResult {
         // TODO how should this work for PoP?
         // Middleware will assume 5 min expiry for PoP tokens
         // Client (MSAL) will not be aware of configured value
-        final Date expiresOn;
+        return new Date(mExpiresOnMillis);
+    }
 
-        expiresOn = new Date(
-                TimeUnit.SECONDS.toMillis(
-                        Long.parseLong(
-                                mAccessToken.getExpiresOn()
-                        )
-                )
-        );
+    @Override
+    public long getExpiresOnEpochMillis() {
+        return mExpiresOnMillis;
+    }
 
-        return expiresOn;
+    @Override
+    public boolean isExpired(final long skewMillis) {
+        return System.currentTimeMillis() + skewMillis >= mExpiresOnMillis;
     }
 
     @Override
@@ -115,7 +119,8 @@ public final class AuthenticationResult implements IAuthenticationResult {
     @Override
     @NonNull
     public String[] getScope() {
-        return mAccessToken.getTarget().split("\\s");
+        // Hand out a copy so callers cannot mutate the cached array.
+        return mScopes.clone();
     }
 
     @Nullable
@@ -124,6 +129,41 @@ public final class AuthenticationResult implements IAuthenticationResult {
         return mCorrelationId;
     }
 
+    @NonNull
+    private static String buildAuthorizationHeader(@Nullable final AccessTokenRecord accessToken) {
+        if (accessToken == null) {
+            return "";
+        }
+
+        return accessToken.getAccessTokenType()
+                + TokenAuthenticationScheme.SCHEME_DELIMITER
+                + accessToken.getSecret();
+    }
+
+    @NonNull
+    private static String[] parseScopes(@Nullable final AccessTokenRecord accessToken) {
+        if (accessToken == null || accessToken.getTarget() == null) {
+            return EMPTY_SCOPES;
+        }
+
+        return accessToken.getTarget().split("\\s");
+    }
+
+    private static long parseExpiresOnMillis(@Nullable final AccessTokenRecord accessToken) {
+        final String methodTag = TAG + ":parseExpiresOnMillis";
+
+        if (accessToken == null || TextUtils.isEmpty(accessToken.getExpiresOn())) {
+            return 0L;
+        }
+
+        try {
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(accessToken.getExpiresOn()));
+        } catch (final NumberFormatException e) {
+            Logger.error(methodTag, "Access token expiry is not a valid epoch value.", e);
+            return 0L;
+        }
+    }
+
     @Nullable
     private UUID sanitizeCorrelationId(@Nullable final String correlationId) {
         final String methodTag = TAG + ":sanitizeCorrelationId";
@@ -0,0 +1,203 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.UUID;
+
+/**
+ * Reads the files written by {@link BinaryLogFileSink}. It only depends on the JDK, so it can be
+ * run on a workstation against files pulled from a device:
+ * <pre>
+ * {@code
+ *     adb shell run-as <package> tar c cache/msal_logs | tar x
+ *     java -cp msal-classes.jar com.microsoft.identity.client.BinaryLogDecoder cache/msal_logs
+ * }
+ * </pre>
+ */
+public final class BinaryLogDecoder {
+
+    /**
+     * Appended to messages that were cut to {@link BinaryLogFileSink#MAX_MESSAGE_BYTES} when written.
+     */
+    public static final String TRUNCATED_SUFFIX = " [truncated]";
+
+    private BinaryLogDecoder() {
+    }
+
+    /**
+     * Prints the records of each file or log directory given as argument, one line per record.
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: BinaryLogDecoder <log directory or file>...");
+            System.exit(1);
+        }
+
+        final SimpleDateFormat timestampFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", Locale.US);
+        timestampFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+
+        for (final String path : args) {
+            final File file = new File(path);
+            final List<LogRecord> records = file.isDirectory() ? decodeDirectory(file) : decode(file);
+            for (final LogRecord record : records) {
+                System.out.println(format(record, timestampFormat));
+            }
+        }
+    }
+
+    /**
+     * Decodes every log file in a directory, oldest first.
+     *
+     * @param directory The directory passed to {@link BinaryLogFileSink}.
+     * @return The records in the order they were written.
+     */
+    @NonNull
+    public static List<LogRecord> decodeDirectory(@NonNull final File directory) throws IOException {
+        final List<LogRecord> records = new ArrayList<>();
+        for (final File file : BinaryLogFileSink.listLogFiles(directory)) {
+            records.addAll(decode(file));
+        }
+        return records;
+    }
+
+    /**
+     * Decodes a single log file. A record cut short, e.g. by a crash during the write, ends the
+     * file.
+     *
+     * @param file The file to decode.
+     * @return The records of the file in the order they were written.
+     * @throws IOException if the file cannot be read or is not a log file.
+     */
+    @NonNull
+    public static List<LogRecord> decode(@NonNull final File file) throws IOException {
+        final byte[] content;
+        try (RandomAccessFile input = new RandomAccessFile(file, "r")) {
+            content = new byte[(int) input.length()];
+            input.readFully(content);
+        }
+
+        return decode(ByteBuffer.wrap(content));
+    }
+
+    @NonNull
+    static List<LogRecord> decode(@NonNull final ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < BinaryLogFileSink.FILE_HEADER_SIZE
+                || buffer.getInt() != BinaryLogFileSink.MAGIC) {
+            throw new IOException("Not an MSAL binary log file");
+        }
+
+        final short version = buffer.getShort();
+        if (version != BinaryLogFileSink.FORMAT_VERSION) {
+            throw new IOException("Unsupported binary log format version " + version);
+        }
+
+        // Sequence number and creation time.
+        buffer.getLong();
+        buffer.getLong();
+
+        final Logger.LogLevel[] levels = Logger.LogLevel.values();
+        final Map<Integer, String> tags = new HashMap<>();
+        final List<LogRecord> records = new ArrayList<>();
+
+        while (buffer.remaining() >= 4) {
+            final int length = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                break;
+            }
+
+            final ByteBuffer record = buffer.slice();
+            record.limit(length);
+            buffer.position(buffer.position() + length);
+
+            try {
+                final byte type = record.get();
+                if (type == BinaryLogFileSink.RECORD_TAG) {
+                    final int tagId = record.getShort() & 0xFFFF;
+                    tags.put(tagId, readString(record, record.remaining()));
+                } else if (type == BinaryLogFileSink.RECORD_LOG) {
+                    final long timestamp = record.getLong();
+                    final int tagId = record.getShort() & 0xFFFF;
+                    final int level = record.get();
+                    final byte flags = record.get();
+
+                    String correlationId = null;
+                    if ((flags & BinaryLogFileSink.FLAG_UUID_CORRELATION_ID) != 0) {
+                        correlationId = new UUID(record.getLong(), record.getLong()).toString();
+                    } else if ((flags & BinaryLogFileSink.FLAG_STRING_CORRELATION_ID) != 0) {
+                        correlationId = readString(record, record.getShort() & 0xFFFF);
+                    }
+
+                    String message = readString(record, record.remaining());
+                    if ((flags & BinaryLogFileSink.FLAG_TRUNCATED) != 0) {
+                        message += TRUNCATED_SUFFIX;
+                    }
+
+                    records.add(new LogRecord(
+                            timestamp,
+                            tags.get(tagId),
+                            level >= 0 && level < levels.length ? levels[level] : Logger.LogLevel.VERBOSE,
+                            message,
+                            (flags & BinaryLogFileSink.FLAG_PII) != 0,
+                            correlationId
+                    ));
+                }
+                // Unknown record types are skipped so newer writers stay readable.
+            } catch (final BufferUnderflowException e) {
+                break;
+            }
+        }
+
+        return records;
+    }
+
+    @NonNull
+    static String format(@NonNull final LogRecord record, @NonNull final SimpleDateFormat timestampFormat) {
+        return timestampFormat.format(new Date(record.getTimestampMillis()))
+                + ' ' + record.getLogLevel()
+                + ' ' + record.getTag()
+                + (record.getCorrelationId() == null ? "" : " [" + record.getCorrelationId() + "]")
+                + (record.containsPII() ? " (PII)" : "")
+                + ": " + record.getMessage();
+    }
+
+    private static String readString(@NonNull final ByteBuffer buffer, final int length) {
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, BinaryLogFileSink.UTF_8);
+    }
+}
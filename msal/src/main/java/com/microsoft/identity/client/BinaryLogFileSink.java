@@ -0,0 +1,367 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Writes log lines as compact binary records to a fixed set of memory-mapped files that are
+ * reused in rotation. Enable it with {@link Logger#enableBinaryFileLog(android.content.Context)}
+ * and read the files back with {@link BinaryLogDecoder}.
+ * <p>
+ * Each file starts with a header (magic, format version, sequence number, creation time) followed
+ * by length-prefixed records. Tags are written once per file as a definition record and then
+ * referenced by id, and UUID correlation ids take 16 bytes. Because the files are memory mapped,
+ * records already written survive a process crash without any explicit flush.
+ * <p>
+ * Records are written by the single dispatcher thread feeding the sink. The public methods are
+ * synchronized so the files can be collected from any thread.
+ */
+public final class BinaryLogFileSink implements IBatchLoggerCallback, Closeable {
+
+    public static final String DEFAULT_DIRECTORY_NAME = "msal_logs";
+    public static final int DEFAULT_FILE_SIZE_BYTES = 512 * 1024;
+    public static final int DEFAULT_FILE_COUNT = 4;
+
+    static final int MAGIC = 0x4D534C47; // "MSLG"
+    static final short FORMAT_VERSION = 1;
+    static final int FILE_HEADER_SIZE = 4 + 2 + 8 + 8;
+    static final String FILE_PREFIX = "msal-log-";
+    static final String FILE_SUFFIX = ".bin";
+
+    static final byte RECORD_TAG = 1;
+    static final byte RECORD_LOG = 2;
+
+    static final byte FLAG_PII = 1;
+    static final byte FLAG_UUID_CORRELATION_ID = 1 << 1;
+    static final byte FLAG_STRING_CORRELATION_ID = 1 << 2;
+    static final byte FLAG_TRUNCATED = 1 << 3;
+
+    static final int MAX_MESSAGE_BYTES = 8 * 1024;
+    static final int MAX_TAG_BYTES = 256;
+    static final int MIN_FILE_SIZE_BYTES = 4 * MAX_MESSAGE_BYTES;
+
+    /**
+     * Tag id written once the tag table is full. It has no definition record.
+     */
+    static final int UNKNOWN_TAG_ID = 0xFFFF;
+
+    static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final File mDirectory;
+    private final int mFileSize;
+    private final int mFileCount;
+    private final Map<String, Integer> mTagIds = new HashMap<>();
+    private final BitSet mTagsDefinedInFile = new BitSet();
+
+    private long mSequence;
+    private RandomAccessFile mFile;
+    private MappedByteBuffer mBuffer;
+    private boolean mClosed;
+
+    /**
+     * @param directory The directory the files are written to, created if missing.
+     * @param fileSize  The size of each file in bytes.
+     * @param fileCount The number of files kept before the oldest is overwritten.
+     * @throws IOException if the directory or the first file cannot be created.
+     */
+    public BinaryLogFileSink(@NonNull final File directory, final int fileSize, final int fileCount) throws IOException {
+        if (fileSize < MIN_FILE_SIZE_BYTES) {
+            throw new IllegalArgumentException("fileSize must be at least " + MIN_FILE_SIZE_BYTES);
+        }
+        if (fileCount < 2) {
+            throw new IllegalArgumentException("fileCount must be at least 2");
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create log directory " + directory);
+        }
+
+        mDirectory = directory;
+        mFileSize = fileSize;
+        mFileCount = fileCount;
+
+        for (int i = 0; i < fileCount; i++) {
+            mSequence = Math.max(mSequence, readSequence(fileForIndex(i)));
+        }
+
+        // Always start a new file so the previous run's last file is kept intact.
+        openNextFile();
+    }
+
+    @Override
+    public synchronized void log(@NonNull final List<LogRecord> records) {
+        if (mClosed) {
+            return;
+        }
+
+        try {
+            for (final LogRecord record : records) {
+                write(record);
+            }
+        } catch (final IOException e) {
+            // Keep logging going, a failed rotation leaves the sink closed.
+            close();
+        }
+    }
+
+    /**
+     * Forces the records written so far to storage. Not needed to survive a process crash, only
+     * to survive a device crash or power loss.
+     */
+    public synchronized void flush() {
+        if (mBuffer != null) {
+            mBuffer.force();
+        }
+    }
+
+    /**
+     * @return The log files, oldest first. Pass them to {@link BinaryLogDecoder} or attach them to
+     * a diagnostics report.
+     */
+    @NonNull
+    public synchronized List<File> getLogFiles() {
+        flush();
+        return listLogFiles(mDirectory);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (mClosed) {
+            return;
+        }
+
+        mClosed = true;
+        closeCurrentFile();
+    }
+
+    /**
+     * @return The valid log files in the directory, oldest first.
+     */
+    @NonNull
+    static List<File> listLogFiles(@NonNull final File directory) {
+        final File[] candidates = directory.listFiles();
+        if (candidates == null) {
+            return Collections.emptyList();
+        }
+
+        final Map<File, Long> sequences = new HashMap<>();
+        for (final File candidate : candidates) {
+            if (candidate.getName().startsWith(FILE_PREFIX) && candidate.getName().endsWith(FILE_SUFFIX)) {
+                final long sequence = readSequence(candidate);
+                if (sequence > 0) {
+                    sequences.put(candidate, sequence);
+                }
+            }
+        }
+
+        final List<File> files = new ArrayList<>(sequences.keySet());
+        Collections.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(final File first, final File second) {
+                return Long.compare(sequences.get(first), sequences.get(second));
+            }
+        });
+        return files;
+    }
+
+    /**
+     * @return The sequence number of a log file, or 0 if it is missing or not a log file.
+     */
+    static long readSequence(@NonNull final File file) {
+        if (!file.isFile() || file.length() < FILE_HEADER_SIZE) {
+            return 0;
+        }
+
+        try (RandomAccessFile input = new RandomAccessFile(file, "r")) {
+            if (input.readInt() != MAGIC || input.readShort() != FORMAT_VERSION) {
+                return 0;
+            }
+            return input.readLong();
+        } catch (final IOException e) {
+            return 0;
+        }
+    }
+
+    private File fileForIndex(final int index) {
+        return new File(mDirectory, FILE_PREFIX + index + FILE_SUFFIX);
+    }
+
+    private void openNextFile() throws IOException {
+        closeCurrentFile();
+
+        mSequence++;
+        final RandomAccessFile file = new RandomAccessFile(fileForIndex((int) (mSequence % mFileCount)), "rw");
+        // Truncating first zero-fills the reused file, a zero length marks the end of the records.
+        file.setLength(0);
+        file.setLength(mFileSize);
+
+        mFile = file;
+        mBuffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, mFileSize);
+        mBuffer.putInt(MAGIC);
+        mBuffer.putShort(FORMAT_VERSION);
+        mBuffer.putLong(mSequence);
+        mBuffer.putLong(System.currentTimeMillis());
+        mTagsDefinedInFile.clear();
+    }
+
+    private void closeCurrentFile() {
+        if (mBuffer != null) {
+            mBuffer.force();
+            mBuffer = null;
+        }
+
+        if (mFile != null) {
+            try {
+                mFile.close();
+            } catch (final IOException ignored) {
+                // Nothing else to release.
+            }
+            mFile = null;
+        }
+    }
+
+    private void write(@NonNull final LogRecord record) throws IOException {
+        final int tagId = tagId(record.getTag());
+
+        byte flags = record.containsPII() ? FLAG_PII : 0;
+        byte[] correlationId = null;
+        final UUID correlationUuid = parseUuid(record.getCorrelationId());
+        if (correlationUuid != null) {
+            flags |= FLAG_UUID_CORRELATION_ID;
+        } else if (record.getCorrelationId() != null) {
+            flags |= FLAG_STRING_CORRELATION_ID;
+            correlationId = truncate(record.getCorrelationId().getBytes(UTF_8), MAX_TAG_BYTES);
+        }
+
+        final byte[] fullMessage = record.getMessage() == null ? new byte[0] : record.getMessage().getBytes(UTF_8);
+        final byte[] message = truncate(fullMessage, MAX_MESSAGE_BYTES);
+        if (message.length < fullMessage.length) {
+            flags |= FLAG_TRUNCATED;
+        }
+
+        final int length = 1 + 8 + 2 + 1 + 1
+                + (correlationUuid != null ? 16 : 0)
+                + (correlationId != null ? 2 + correlationId.length : 0)
+                + message.length;
+
+        // Rotate before the tag definition so both records land in the same file.
+        final byte[] tagDefinition = tagId == UNKNOWN_TAG_ID || mTagsDefinedInFile.get(tagId)
+                ? null
+                : truncate(record.getTag() == null ? new byte[0] : record.getTag().getBytes(UTF_8), MAX_TAG_BYTES);
+        final int tagLength = tagDefinition == null ? 0 : 4 + 1 + 2 + tagDefinition.length;
+        if (mBuffer.remaining() < tagLength + 4 + length) {
+            openNextFile();
+            write(record);
+            return;
+        }
+
+        if (tagDefinition != null) {
+            mBuffer.putInt(1 + 2 + tagDefinition.length);
+            mBuffer.put(RECORD_TAG);
+            mBuffer.putShort((short) tagId);
+            mBuffer.put(tagDefinition);
+            mTagsDefinedInFile.set(tagId);
+        }
+
+        mBuffer.putInt(length);
+        mBuffer.put(RECORD_LOG);
+        mBuffer.putLong(record.getTimestampMillis());
+        mBuffer.putShort((short) tagId);
+        mBuffer.put((byte) record.getLogLevel().ordinal());
+        mBuffer.put(flags);
+        if (correlationUuid != null) {
+            mBuffer.putLong(correlationUuid.getMostSignificantBits());
+            mBuffer.putLong(correlationUuid.getLeastSignificantBits());
+        } else if (correlationId != null) {
+            mBuffer.putShort((short) correlationId.length);
+            mBuffer.put(correlationId);
+        }
+        mBuffer.put(message);
+    }
+
+    private int tagId(@Nullable final String tag) {
+        final String key = tag == null ? "" : tag;
+        final Integer existing = mTagIds.get(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        if (mTagIds.size() >= UNKNOWN_TAG_ID) {
+            return UNKNOWN_TAG_ID;
+        }
+
+        final int id = mTagIds.size();
+        mTagIds.put(key, id);
+        return id;
+    }
+
+    @Nullable
+    private static UUID parseUuid(@Nullable final String value) {
+        // Cheap shape check first, UUID.fromString accepts and throws on a lot of other input.
+        if (value == null || value.length() != 36 || value.charAt(8) != '-') {
+            return null;
+        }
+
+        try {
+            final UUID uuid = UUID.fromString(value);
+            // Only use the binary form if it decodes back to the same text.
+            return uuid.toString().equals(value) ? uuid : null;
+        } catch (final IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Truncates UTF-8 bytes to at most maxBytes without splitting a character.
+     */
+    @NonNull
+    static byte[] truncate(@NonNull final byte[] utf8, final int maxBytes) {
+        if (utf8.length <= maxBytes) {
+            return utf8;
+        }
+
+        int end = maxBytes;
+        while (end > 0 && (utf8[end] & 0xC0) == 0x80) {
+            end--;
+        }
+        return Arrays.copyOf(utf8, end);
+    }
+}
@@ -0,0 +1,166 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+
+import com.microsoft.identity.client.internal.HttpRequestBudget;
+import com.microsoft.identity.common.java.commands.CommandCallback;
+import com.microsoft.identity.common.java.controllers.ExceptionAdapter;
+import com.microsoft.identity.common.java.exception.BaseException;
+import com.microsoft.identity.common.java.exception.ServiceException;
+import com.microsoft.identity.common.java.result.ILocalAuthenticationResult;
+import com.microsoft.identity.common.logging.Logger;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Wraps the command callback of a request made under a {@link HttpRequestBudget}: fails the request
+ * with {@link ServiceException#REQUEST_TIMEOUT} once its deadline has passed, without waiting for
+ * the stalled command. Whatever the command reports after that is dropped.
+ * <p>
+ * Failed commands are not resubmitted from here: the command dispatcher caches the result of a
+ * command, errors included, and joins identical commands that are still running, so a resubmitted
+ * command would only get the outcome of the failed one back.
+ */
+class BudgetedCommandCallback implements CommandCallback<ILocalAuthenticationResult, BaseException> {
+
+    private static final String TAG = BudgetedCommandCallback.class.getSimpleName();
+
+    /**
+     * Only runs deadlines, which return immediately.
+     */
+    private static final ScheduledExecutorService sScheduler = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactory() {
+                @Override
+                public Thread newThread(@NonNull final Runnable runnable) {
+                    final Thread thread = new Thread(runnable, "msal-request-budget");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            }
+    );
+
+    private final CommandCallback<ILocalAuthenticationResult, BaseException> mDelegate;
+    private final HttpRequestBudget mBudget;
+    private final AtomicBoolean mCompleted = new AtomicBoolean();
+
+    private volatile ScheduledFuture<?> mDeadline;
+
+    BudgetedCommandCallback(@NonNull final CommandCallback<ILocalAuthenticationResult, BaseException> delegate,
+                            @NonNull final HttpRequestBudget budget) {
+        mDelegate = delegate;
+        mBudget = budget;
+    }
+
+    /**
+     * Starts the deadline and submits the command.
+     *
+     * @param submit Submits the command reporting to this callback.
+     */
+    void start(@NonNull final Runnable submit) {
+        if (mBudget.hasDeadline()) {
+            mDeadline = sScheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    onDeadline();
+                }
+            }, mBudget.getRemainingMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        try {
+            submit.run();
+        } catch (final RuntimeException e) {
+            postError(ExceptionAdapter.baseExceptionFromException(e));
+        }
+    }
+
+    @Override
+    public void onTaskCompleted(final ILocalAuthenticationResult result) {
+        if (complete()) {
+            mDelegate.onTaskCompleted(result);
+        }
+    }
+
+    @Override
+    public void onError(final BaseException exception) {
+        if (complete()) {
+            mDelegate.onError(exception);
+        }
+    }
+
+    @Override
+    public void onCancel() {
+        if (complete()) {
+            mDelegate.onCancel();
+        }
+    }
+
+    private void onDeadline() {
+        Logger.warn(TAG + ":onDeadline", "Request did not complete within its deadline.");
+        postError(new ServiceException(
+                ServiceException.REQUEST_TIMEOUT,
+                "The request did not complete within its deadline.",
+                null
+        ));
+    }
+
+    /**
+     * Completes the request with the given error on the main thread, where commands deliver their results.
+     */
+    private void postError(@NonNull final BaseException exception) {
+        if (!complete()) {
+            return;
+        }
+
+        new Handler(Looper.getMainLooper()).post(new Runnable() {
+            @Override
+            public void run() {
+                mDelegate.onError(exception);
+            }
+        });
+    }
+
+    /**
+     * @return true for the first outcome of the request, which is the only one delivered.
+     */
+    private boolean complete() {
+        if (!mCompleted.compareAndSet(false, true)) {
+            return false;
+        }
+
+        final ScheduledFuture<?> deadline = mDeadline;
+        if (deadline != null) {
+            deadline.cancel(false);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,217 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import com.microsoft.identity.client.claims.ClaimsRequest;
+import com.microsoft.identity.client.exception.MsalException;
+import com.microsoft.identity.common.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Supplies the Authorization header for a fixed account and set of scopes, reusing the last
+ * {@link IAuthenticationResult} until it is about to expire. Intended to be called from HTTP
+ * interceptors that attach a token to every outgoing request: while the cached result is valid,
+ * obtaining the header performs no allocation and no call into MSAL.
+ * <p>
+ * Instances are thread safe. Concurrent callers that observe an expired result are serialized so
+ * that only one of them calls {@link IPublicClientApplication#acquireTokenSilent(AcquireTokenSilentParameters)}.
+ */
+public class CachedAuthorizationHeaderProvider {
+
+    private static final String TAG = CachedAuthorizationHeaderProvider.class.getSimpleName();
+
+    /**
+     * Default window before expiry at which the cached result is refreshed.
+     */
+    public static final long DEFAULT_REFRESH_SKEW_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private final IPublicClientApplication mApplication;
+    private final IAccount mAccount;
+    private final List<String> mScopes;
+    private final String mAuthority;
+    private final long mRefreshSkewMillis;
+    private final Object mRefreshLock = new Object();
+
+    private volatile IAuthenticationResult mCurrentResult;
+
+    /**
+     * Creates a provider using {@link #DEFAULT_REFRESH_SKEW_MILLIS}.
+     *
+     * @param application The application used to acquire tokens.
+     * @param account     The account for which tokens are acquired.
+     * @param scopes      The scopes to request.
+     * @param authority   The authority to acquire tokens from.
+     */
+    public CachedAuthorizationHeaderProvider(@NonNull final IPublicClientApplication application,
+                                             @NonNull final IAccount account,
+                                             @NonNull final List<String> scopes,
+                                             @NonNull final String authority) {
+        this(application, account, scopes, authority, DEFAULT_REFRESH_SKEW_MILLIS);
+    }
+
+    /**
+     * @param application       The application used to acquire tokens.
+     * @param account           The account for which tokens are acquired.
+     * @param scopes            The scopes to request.
+     * @param authority         The authority to acquire tokens from.
+     * @param refreshSkewMillis How long before expiry the cached result should be refreshed.
+     */
+    public CachedAuthorizationHeaderProvider(@NonNull final IPublicClientApplication application,
+                                             @NonNull final IAccount account,
+                                             @NonNull final List<String> scopes,
+                                             @NonNull final String authority,
+                                             final long refreshSkewMillis) {
+        mApplication = application;
+        mAccount = account;
+        mScopes = new ArrayList<>(scopes);
+        mAuthority = authority;
+        mRefreshSkewMillis = refreshSkewMillis;
+    }
+
+    /**
+     * Gets the Authorization header value, acquiring a new token silently if the cached one is
+     * missing or about to expire.
+     *
+     * @return The Authorization header value.
+     */
+    @WorkerThread
+    @NonNull
+    public String getAuthorizationHeader() throws InterruptedException, MsalException {
+        return getAuthenticationResult().getAuthorizationHeader();
+    }
+
+    /**
+     * Appends the Authorization header value to the supplied builder, acquiring a new token
+     * silently if the cached one is missing or about to expire.
+     *
+     * @param destination The builder to append to.
+     * @return The supplied builder, for chaining.
+     */
+    @WorkerThread
+    @NonNull
+    public StringBuilder appendAuthorizationHeader(@NonNull final StringBuilder destination)
+            throws InterruptedException, MsalException {
+        return getAuthenticationResult().appendAuthorizationHeader(destination);
+    }
+
+    /**
+     * Gets the cached result, acquiring a new one silently if it is missing or about to expire.
+     *
+     * @return A result whose access token is valid for at least the configured refresh skew.
+     */
+    @WorkerThread
+    @NonNull
+    public IAuthenticationResult getAuthenticationResult() throws InterruptedException, MsalException {
+        final IAuthenticationResult current = mCurrentResult;
+
+        if (current != null && !current.isExpired(mRefreshSkewMillis)) {
+            return current;
+        }
+
+        synchronized (mRefreshLock) {
+            // Another caller may have refreshed while we waited on the lock.
+            final IAuthenticationResult latest = mCurrentResult;
+            if (latest != null && !latest.isExpired(mRefreshSkewMillis)) {
+                return latest;
+            }
+
+            final String methodTag = TAG + ":getAuthenticationResult";
+            Logger.verbose(methodTag, "Cached result is missing or expiring, acquiring a new token.");
+
+            return acquireLocked(false, null);
+        }
+    }
+
+    /**
+     * Forces a token refresh in response to a resource rejecting a token, e.g. a 401 carrying a
+     * claims challenge. Concurrent callers rejected with the same header share a single refresh:
+     * if the cached result has already moved past the rejected header, it is returned as is.
+     *
+     * @param rejectedAuthorizationHeader The Authorization header value the resource rejected.
+     * @param claimsRequest               The claims requested by the challenge, if any.
+     * @return The refreshed result.
+     */
+    @WorkerThread
+    @NonNull
+    public IAuthenticationResult refreshForChallenge(@Nullable final String rejectedAuthorizationHeader,
+                                                     @Nullable final ClaimsRequest claimsRequest)
+            throws InterruptedException, MsalException {
+        final String methodTag = TAG + ":refreshForChallenge";
+
+        synchronized (mRefreshLock) {
+            final IAuthenticationResult latest = mCurrentResult;
+            if (latest != null
+                    && rejectedAuthorizationHeader != null
+                    && !rejectedAuthorizationHeader.equals(latest.getAuthorizationHeader())
+                    && !latest.isExpired(mRefreshSkewMillis)) {
+                Logger.verbose(methodTag, "Token was already refreshed for this challenge.");
+                return latest;
+            }
+
+            Logger.info(methodTag, "Forcing token refresh in response to a challenge.");
+            return acquireLocked(true, claimsRequest);
+        }
+    }
+
+    @NonNull
+    private IAuthenticationResult acquireLocked(final boolean forceRefresh,
+                                                @Nullable final ClaimsRequest claimsRequest)
+            throws InterruptedException, MsalException {
+        final IAuthenticationResult refreshed = mApplication.acquireTokenSilent(
+                new AcquireTokenSilentParameters.Builder()
+                        .withScopes(mScopes)
+                        .forAccount(mAccount)
+                        .fromAuthority(mAuthority)
+                        .forceRefresh(forceRefresh)
+                        .withClaims(claimsRequest)
+                        .build()
+        );
+        mCurrentResult = refreshed;
+        return refreshed;
+    }
+
+    /**
+     * Gets the cached result without acquiring a new one.
+     *
+     * @return The last acquired result, or null if none has been acquired or it was invalidated.
+     */
+    @Nullable
+    public IAuthenticationResult peekAuthenticationResult() {
+        return mCurrentResult;
+    }
+
+    /**
+     * Drops the cached result, e.g. after the resource rejected the token. The next call will
+     * acquire a new token silently.
+     */
+    public void invalidate() {
+        mCurrentResult = null;
+    }
+}
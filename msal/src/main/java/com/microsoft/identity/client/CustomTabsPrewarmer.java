@@ -0,0 +1,206 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import android.content.ComponentName;
+import android.content.Context;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.TextUtils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+import androidx.browser.customtabs.CustomTabsClient;
+import androidx.browser.customtabs.CustomTabsServiceConnection;
+import androidx.browser.customtabs.CustomTabsSession;
+
+import com.microsoft.identity.client.internal.BrowserSelectionCache;
+import com.microsoft.identity.common.logging.Logger;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a Custom Tabs connection to the browser warm ahead of an interactive request.
+ * <p>
+ * The authorize URL handed to {@link CustomTabsSession#mayLaunchUrl(Uri, android.os.Bundle, List)}
+ * cannot match the real request, whose state and PKCE challenge are generated when it starts.
+ * It still lets the browser resolve the authority and open a connection to it, which is where
+ * most of the time to first paint of the login page goes.
+ */
+class CustomTabsPrewarmer {
+
+    private static final String TAG = CustomTabsPrewarmer.class.getSimpleName();
+
+    /**
+     * How long the browser stays bound after the last call to {@link #prepare(Uri)}.
+     */
+    static final long CONNECTION_TTL_MILLIS = TimeUnit.MINUTES.toMillis(2);
+
+    private static final String AUTHORIZE_PATH = "oauth2/v2.0/authorize";
+    private static final String[] DEFAULT_SCOPES = {"openid", "profile", "offline_access"};
+
+    private final Context mContext;
+    private final BrowserSelectionCache mBrowserSelectionCache;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final Runnable mReleaseRunnable = new Runnable() {
+        @Override
+        public void run() {
+            release();
+        }
+    };
+
+    private Connection mConnection;
+    private CustomTabsSession mSession;
+    private Uri mLikelyUrl;
+
+    CustomTabsPrewarmer(@NonNull final Context context,
+                        @NonNull final BrowserSelectionCache browserSelectionCache) {
+        mContext = context.getApplicationContext();
+        mBrowserSelectionCache = browserSelectionCache;
+    }
+
+    /**
+     * Binds the browser if needed and hints the URL. May query the package manager, so it should
+     * not run on the main thread.
+     *
+     * @param likelyUrl The URL the browser will probably be asked to load.
+     */
+    @WorkerThread
+    synchronized void prepare(@NonNull final Uri likelyUrl) {
+        final String methodTag = TAG + ":prepare";
+
+        mLikelyUrl = likelyUrl;
+        mHandler.removeCallbacks(mReleaseRunnable);
+        mHandler.postDelayed(mReleaseRunnable, CONNECTION_TTL_MILLIS);
+
+        if (mSession != null) {
+            mSession.mayLaunchUrl(likelyUrl, null, null);
+            return;
+        }
+
+        if (mConnection != null) {
+            // Still connecting, the URL is hinted once connected.
+            return;
+        }
+
+        final String browserPackage = mBrowserSelectionCache.getChromePackageWithCustomTabSupport();
+        if (browserPackage == null) {
+            Logger.info(methodTag, "No browser with Custom Tabs support, skipping warm up.");
+            return;
+        }
+
+        final Connection connection = new Connection();
+        if (CustomTabsClient.bindCustomTabsService(mContext, browserPackage, connection)) {
+            mConnection = connection;
+        } else {
+            Logger.warn(methodTag, "Failed to bind the Custom Tabs service.");
+        }
+    }
+
+    /**
+     * Unbinds the browser, if bound.
+     */
+    synchronized void release() {
+        mHandler.removeCallbacks(mReleaseRunnable);
+
+        if (mConnection != null) {
+            try {
+                mContext.unbindService(mConnection);
+            } catch (final IllegalArgumentException e) {
+                // The service was already unbound by the system.
+                Logger.warn(TAG + ":release", "Custom Tabs service was not bound.");
+            }
+        }
+
+        mConnection = null;
+        mSession = null;
+        mLikelyUrl = null;
+    }
+
+    private synchronized void onConnected(@NonNull final Connection connection,
+                                          @NonNull final CustomTabsClient client) {
+        if (connection != mConnection) {
+            // Released while connecting.
+            return;
+        }
+
+        client.warmup(0L);
+        mSession = client.newSession(null);
+        if (mSession != null && mLikelyUrl != null) {
+            mSession.mayLaunchUrl(mLikelyUrl, null, null);
+        }
+    }
+
+    private synchronized void onDisconnected(@NonNull final Connection connection) {
+        if (connection == mConnection) {
+            mSession = null;
+        }
+    }
+
+    /**
+     * Builds the authorize URL an interactive request for the given account and scopes would
+     * most likely start with.
+     */
+    @NonNull
+    static Uri buildLikelyAuthorizeUrl(@NonNull final PublicClientApplicationConfiguration configuration,
+                                       @Nullable final IAccount account,
+                                       @NonNull final List<String> scopes) {
+        final Set<String> requestScopes = new LinkedHashSet<>(scopes);
+        for (final String scope : DEFAULT_SCOPES) {
+            requestScopes.add(scope);
+        }
+
+        final Uri.Builder builder = Uri.parse(configuration.getDefaultAuthority().getAuthorityURL().toString())
+                .buildUpon()
+                .appendEncodedPath(AUTHORIZE_PATH)
+                .appendQueryParameter("client_id", configuration.getClientId())
+                .appendQueryParameter("response_type", "code")
+                .appendQueryParameter("redirect_uri", configuration.getRedirectUri())
+                .appendQueryParameter("scope", TextUtils.join(" ", requestScopes));
+
+        if (account != null && !TextUtils.isEmpty(account.getUsername())) {
+            builder.appendQueryParameter("login_hint", account.getUsername());
+        }
+
+        return builder.build();
+    }
+
+    private class Connection extends CustomTabsServiceConnection {
+
+        @Override
+        public void onCustomTabsServiceConnected(@NonNull final ComponentName name,
+                                                 @NonNull final CustomTabsClient client) {
+            onConnected(this, client);
+        }
+
+        @Override
+        public void onServiceDisconnected(final ComponentName name) {
+            onDisconnected(this);
+        }
+    }
+}
@@ -46,6 +46,25 @@ public interface IAuthenticationResult {
     @NonNull
     String getAuthorizationHeader();
 
+    /**
+     * Appends the fully-formed Authorization header value to the supplied builder. The header
+     * value is computed once per result, so callers that reuse their builder do not allocate.
+     * Nothing is appended if no header is available.
+     *
+     * @param destination The builder to append to.
+     * @return The supplied builder, for chaining.
+     */
+    @NonNull
+    default StringBuilder appendAuthorizationHeader(@NonNull final StringBuilder destination) {
+        final String authorizationHeader = getAuthorizationHeader();
+
+        if (authorizationHeader == null) {
+            return destination;
+        }
+
+        return destination.append(authorizationHeader);
+    }
+
     /**
      * Gets the authentication scheme (Bearer, PoP, etc)....
      *
@@ -63,6 +82,27 @@ public interface IAuthenticationResult {
     @NonNull
     Date getExpiresOn();
 
+    /**
+     * Gets the expiration time of the access token as milliseconds since the epoch. Equivalent to
+     * {@code getExpiresOn().getTime()} without allocating a {@link Date}.
+     *
+     * @return The expiration time of the access token, in epoch milliseconds.
+     */
+    default long getExpiresOnEpochMillis() {
+        return getExpiresOn().getTime();
+    }
+
+    /**
+     * Checks whether the access token is expired, or will expire within the supplied skew.
+     *
+     * @param skewMillis The number of milliseconds before the actual expiry at which the token
+     *                   should already be considered expired.
+     * @return True if the access token expires before now + skewMillis, false otherwise.
+     */
+    default boolean isExpired(final long skewMillis) {
+        return System.currentTimeMillis() + skewMillis >= getExpiresOnEpochMillis();
+    }
+
     /**
      * @return A unique tenant identifier that was used in token acquisition. Could be null if tenant information is not
      * returned by the service.
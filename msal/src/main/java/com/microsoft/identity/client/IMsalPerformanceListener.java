@@ -0,0 +1,62 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Receives per-request timing spans for public token APIs such as
+ * {@link IPublicClientApplication#acquireToken(AcquireTokenParameters)} and
+ * {@link IPublicClientApplication#acquireTokenSilent(AcquireTokenSilentParameters)}.
+ * <p>
+ * Register with {@link IPublicClientApplication#setPerformanceListener(IMsalPerformanceListener)}.
+ * While no listener is registered, or while {@link #shouldRecord(String)} returns false, MSAL
+ * neither allocates nor records anything for the request.
+ */
+public interface IMsalPerformanceListener {
+
+    /**
+     * Invoked on the calling thread when a request starts. Use it to sample requests.
+     *
+     * @param publicApiId The identifier of the public API being called.
+     * @return true to receive a span for this request.
+     */
+    boolean shouldRecord(@NonNull final String publicApiId);
+
+    /**
+     * Invoked on the calling thread once the span of a request accepted by
+     * {@link #shouldRecord(String)} has started. {@link #onRequestCompleted(RequestTimingSpan)}
+     * is invoked exactly once for every span passed here.
+     *
+     * @param span The timing span of the started request.
+     */
+    default void onRequestStarted(@NonNull final RequestTimingSpan span) {
+    }
+
+    /**
+     * Invoked on the main thread once the application's callback for the request has returned.
+     *
+     * @param span The timing span of the completed request.
+     */
+    void onRequestCompleted(@NonNull final RequestTimingSpan span);
+}
@@ -189,6 +189,29 @@ public interface IPublicClientApplication {
                                    @NonNull final SignedHttpRequestRequestCallback callback
     );
 
+    /**
+     * Registers a listener that receives a {@link RequestTimingSpan} for token requests made
+     * through this application. Pass null to stop recording. Does nothing by default, for
+     * implementations that do not record timings.
+     *
+     * @param listener The listener, or null.
+     */
+    default void setPerformanceListener(@Nullable final IMsalPerformanceListener listener) {
+    }
+
+    /**
+     * Prepares the browser for an upcoming interactive request, e.g. when the sign-in screen is
+     * shown. Binds the Custom Tabs service, warms up the browser and tells it which authorize URL
+     * is likely to be loaded so it can connect to the authority ahead of time. Calling this is
+     * optional and never fails: if no browser with Custom Tabs support is available, nothing happens.
+     * The browser connection is released after a couple of minutes. Does nothing by default.
+     *
+     * @param account The account expected to sign in, used as login hint, or null.
+     * @param scopes  The scopes the interactive request will ask for.
+     */
+    default void prepareInteractive(@Nullable final IAccount account, @NonNull final List<String> scopes) {
+    }
+
     /**
      * Callback used to receive the result of {@link #generateSignedHttpRequest(IAccount, PoPAuthenticationScheme)}.
      */
@@ -0,0 +1,97 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * A single log line delivered to an {@link IBatchLoggerCallback}.
+ */
+public final class LogRecord {
+
+    private final long mTimestampMillis;
+    private final String mTag;
+    private final Logger.LogLevel mLogLevel;
+    private final String mMessage;
+    private final boolean mContainsPII;
+    private final String mCorrelationId;
+
+    LogRecord(final long timestampMillis,
+              final String tag,
+              @NonNull final Logger.LogLevel logLevel,
+              final String message,
+              final boolean containsPII,
+              @Nullable final String correlationId) {
+        mTimestampMillis = timestampMillis;
+        mTag = tag;
+        mLogLevel = logLevel;
+        mMessage = message;
+        mContainsPII = containsPII;
+        mCorrelationId = correlationId;
+    }
+
+    /**
+     * @return The wall clock time at which the line was logged, in milliseconds since the epoch.
+     */
+    public long getTimestampMillis() {
+        return mTimestampMillis;
+    }
+
+    /**
+     * @return The TAG for the log message, i.e. the component that generated it.
+     */
+    public String getTag() {
+        return mTag;
+    }
+
+    /**
+     * @return The {@link Logger.LogLevel} of the message.
+     */
+    @NonNull
+    public Logger.LogLevel getLogLevel() {
+        return mLogLevel;
+    }
+
+    /**
+     * @return The detailed message.
+     */
+    public String getMessage() {
+        return mMessage;
+    }
+
+    /**
+     * @return True if the log message contains PII, false otherwise.
+     */
+    public boolean containsPII() {
+        return mContainsPII;
+    }
+
+    /**
+     * @return The correlation id of the request the line was logged for, if known.
+     */
+    @Nullable
+    public String getCorrelationId() {
+        return mCorrelationId;
+    }
+}
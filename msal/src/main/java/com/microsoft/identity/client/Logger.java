@@ -22,6 +22,15 @@
 //  THE SOFTWARE.
 package com.microsoft.identity.client;
 
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+
+import com.microsoft.identity.common.java.logging.DiagnosticContext;
+
+import java.io.File;
+import java.io.IOException;
+
 import static com.microsoft.identity.common.internal.logging.Logger.setAllowLogcat;
 import static com.microsoft.identity.common.internal.logging.Logger.setAllowPii;
 
@@ -44,6 +53,11 @@ import static com.microsoft.identity.common.internal.logging.Logger.setAllowPii;
  *     });
  * </code>
  * </pre>
+ * To keep a slow logger off the logging threads, set an {@link IBatchLoggerCallback} with
+ * {@link #setAsyncExternalLogger(IBatchLoggerCallback)} instead. Messages are then delivered in
+ * batches on a background thread, and dropped if the logger falls too far behind.
+ * For low overhead diagnostics that can be collected later, enable the binary log file with
+ * {@link #enableBinaryFileLog(android.content.Context)} and read it with {@link BinaryLogDecoder}.
  * Loglevel can be specified at {@link LogLevel#ERROR}, {@link LogLevel#WARNING}, {@link LogLevel#INFO}
  * and {@link LogLevel#VERBOSE}. The sdk enables the verbose level logging by default, to set different
  * level logging:
@@ -63,7 +77,56 @@ import static com.microsoft.identity.common.internal.logging.Logger.setAllowPii;
 public final class Logger {
     private static final Logger sINSTANCE = new Logger();
 
-    private ILoggerCallback mExternalLogger;
+    /**
+     * Default number of messages buffered by {@link #setAsyncExternalLogger(IBatchLoggerCallback)}.
+     */
+    public static final int DEFAULT_ASYNC_BUFFER_CAPACITY = 4096;
+
+    private volatile ILoggerCallback mExternalLogger;
+    private volatile AsyncLogDispatcher mAsyncDispatcher;
+    private volatile AsyncLogDispatcher mFileLogDispatcher;
+    private BinaryLogFileSink mFileLogSink;
+    private boolean mBridgeInstalled;
+    private volatile LogLevel mLogLevel = LogLevel.VERBOSE;
+
+    /**
+     * Forwards every common-core log line to whichever of the external logger, the batch logger
+     * and the binary file sink are set.
+     */
+    private final com.microsoft.identity.common.internal.logging.ILoggerCallback mBridge =
+            new com.microsoft.identity.common.internal.logging.ILoggerCallback() {
+                @Override
+                public void log(String tag, com.microsoft.identity.common.internal.logging.Logger.LogLevel logLevel, String message, boolean containsPII) {
+                    final LogLevel level = adaptLogLevel(logLevel);
+
+                    final ILoggerCallback externalLogger = mExternalLogger;
+                    if (externalLogger != null) {
+                        externalLogger.log(tag, level, message, containsPII);
+                    }
+
+                    final AsyncLogDispatcher asyncDispatcher = mAsyncDispatcher;
+                    final AsyncLogDispatcher fileLogDispatcher = mFileLogDispatcher;
+                    if (asyncDispatcher == null && fileLogDispatcher == null) {
+                        return;
+                    }
+
+                    // Captured here because the correlation id is bound to the logging thread.
+                    final LogRecord record = new LogRecord(
+                            System.currentTimeMillis(),
+                            tag,
+                            level,
+                            message,
+                            containsPII,
+                            DiagnosticContext.INSTANCE.getThreadCorrelationId()
+                    );
+                    if (asyncDispatcher != null) {
+                        asyncDispatcher.enqueue(record);
+                    }
+                    if (fileLogDispatcher != null) {
+                        fileLogDispatcher.enqueue(record);
+                    }
+                }
+            };
 
     /**
      * @return The single instance of {@link Logger}.
@@ -123,6 +186,19 @@ public final class Logger {
             default:
                 throw new IllegalArgumentException("Unknown logLevel");
         }
+
+        mLogLevel = logLevel;
+    }
+
+    /**
+     * Checks whether messages at the given level are currently emitted. Use it to skip building
+     * log messages that would be discarded.
+     *
+     * @param logLevel The {@link LogLevel} of the message.
+     * @return True if the level is enabled by {@link #setLogLevel(LogLevel)}, false otherwise.
+     */
+    public boolean isLoggable(final LogLevel logLevel) {
+        return logLevel.ordinal() <= mLogLevel.ordinal();
     }
 
     /**
@@ -138,45 +214,135 @@ public final class Logger {
             return;
         }
 
-        if (null != mExternalLogger) {
+        if (null != mExternalLogger || null != mAsyncDispatcher) {
             throw new IllegalStateException("External logger is already set, cannot be set again.");
         }
 
         // If mExternalLogger is not set. Then implement the ILoggerCallback interface in common-core.
-        final com.microsoft.identity.common.internal.logging.Logger logger =
-                com.microsoft.identity.common.internal.logging.Logger.getInstance();
-
-        logger.setExternalLogger(new com.microsoft.identity.common.internal.logging.ILoggerCallback() {
-            @Override
-            public void log(String tag, com.microsoft.identity.common.internal.logging.Logger.LogLevel logLevel, String message, boolean containsPII) {
-                switch (logLevel) {
-                    case ERROR:
-                        mExternalLogger.log(tag, LogLevel.ERROR, message, containsPII);
-                        break;
-
-                    case WARN:
-                        mExternalLogger.log(tag, LogLevel.WARNING, message, containsPII);
-                        break;
+        installBridge();
+        mExternalLogger = externalLogger;
+    }
 
-                    case VERBOSE:
-                        mExternalLogger.log(tag, LogLevel.VERBOSE, message, containsPII);
-                        break;
+    /**
+     * Set a custom logger that receives log messages in batches, buffering up to
+     * {@link #DEFAULT_ASYNC_BUFFER_CAPACITY} messages.
+     *
+     * @param batchLogger The reference to the {@link IBatchLoggerCallback} that can
+     *                    output the logs to the designated places.
+     * @throws IllegalStateException if an external logger is already set.
+     * @see #setAsyncExternalLogger(IBatchLoggerCallback, int)
+     */
+    public void setAsyncExternalLogger(@NonNull final IBatchLoggerCallback batchLogger) {
+        setAsyncExternalLogger(batchLogger, DEFAULT_ASYNC_BUFFER_CAPACITY);
+    }
 
-                    case INFO:
-                        mExternalLogger.log(tag, LogLevel.INFO, message, containsPII);
-                        break;
+    /**
+     * Set a custom logger that receives log messages in batches on a dedicated background thread.
+     * Logging threads only append to a bounded in-memory buffer, so a slow logger does not delay
+     * token requests. When the buffer is full, new messages are dropped and counted, see
+     * {@link #getDroppedLogCount()}. Like {@link #setExternalLogger(ILoggerCallback)}, the logger
+     * can only be set once.
+     *
+     * @param batchLogger    The reference to the {@link IBatchLoggerCallback} that can
+     *                       output the logs to the designated places.
+     * @param bufferCapacity The maximum number of messages waiting for delivery, rounded up to a
+     *                       power of two.
+     * @throws IllegalStateException if an external logger is already set.
+     */
+    public synchronized void setAsyncExternalLogger(@NonNull final IBatchLoggerCallback batchLogger,
+                                                    final int bufferCapacity) {
+        if (null != mExternalLogger || null != mAsyncDispatcher) {
+            throw new IllegalStateException("External logger is already set, cannot be set again.");
+        }
 
-                    default:
-                        throw new IllegalArgumentException("Unknown logLevel");
-                }
-            }
-        });
+        installBridge();
+        mAsyncDispatcher = new AsyncLogDispatcher(batchLogger, bufferCapacity, "msal-log-dispatcher");
+    }
 
-        mExternalLogger = externalLogger;
+    /**
+     * @return The number of log messages dropped because the buffer of the logger set with
+     * {@link #setAsyncExternalLogger(IBatchLoggerCallback, int)} was full.
+     */
+    public long getDroppedLogCount() {
+        final AsyncLogDispatcher dispatcher = mAsyncDispatcher;
+        return dispatcher == null ? 0 : dispatcher.getDroppedCount();
     }
 
     public synchronized void removeExternalLogger() {
         mExternalLogger = null;
+
+        if (mAsyncDispatcher != null) {
+            // Messages already buffered are still delivered.
+            mAsyncDispatcher.shutdown();
+            mAsyncDispatcher = null;
+        }
+    }
+
+    /**
+     * Enable the built-in binary log file in the app's cache directory, see
+     * {@link BinaryLogFileSink}. The file is written on a background thread and is independent of
+     * any external logger, so it can be left on to collect field diagnostics. Lines below the level
+     * set with {@link #setLogLevel(LogLevel)} are not written.
+     *
+     * @param context The application context.
+     * @return The sink, which gives access to the log files, or the existing sink if already enabled.
+     * @throws IOException if the log directory or files cannot be created.
+     */
+    @NonNull
+    public synchronized BinaryLogFileSink enableBinaryFileLog(@NonNull final Context context) throws IOException {
+        if (mFileLogSink != null) {
+            return mFileLogSink;
+        }
+
+        final BinaryLogFileSink sink = new BinaryLogFileSink(
+                new File(context.getCacheDir(), BinaryLogFileSink.DEFAULT_DIRECTORY_NAME),
+                BinaryLogFileSink.DEFAULT_FILE_SIZE_BYTES,
+                BinaryLogFileSink.DEFAULT_FILE_COUNT
+        );
+
+        installBridge();
+        mFileLogSink = sink;
+        mFileLogDispatcher = new AsyncLogDispatcher(sink, DEFAULT_ASYNC_BUFFER_CAPACITY, "msal-log-file");
+        return sink;
+    }
+
+    /**
+     * Stop writing to the binary log file. Lines already buffered are written before the file is
+     * closed. Existing files are kept so they can still be collected.
+     */
+    public synchronized void disableBinaryFileLog() {
+        if (mFileLogDispatcher != null) {
+            // The sink is closed by the dispatcher once its buffer is drained.
+            mFileLogDispatcher.shutdown();
+            mFileLogDispatcher = null;
+            mFileLogSink = null;
+        }
+    }
+
+    private void installBridge() {
+        if (!mBridgeInstalled) {
+            com.microsoft.identity.common.internal.logging.Logger.getInstance().setExternalLogger(mBridge);
+            mBridgeInstalled = true;
+        }
+    }
+
+    private static LogLevel adaptLogLevel(@NonNull final com.microsoft.identity.common.internal.logging.Logger.LogLevel logLevel) {
+        switch (logLevel) {
+            case ERROR:
+                return LogLevel.ERROR;
+
+            case WARN:
+                return LogLevel.WARNING;
+
+            case VERBOSE:
+                return LogLevel.VERBOSE;
+
+            case INFO:
+                return LogLevel.INFO;
+
+            default:
+                throw new IllegalArgumentException("Unknown logLevel");
+        }
     }
 
 
@@ -0,0 +1,255 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import com.microsoft.identity.client.claims.ClaimsRequest;
+import com.microsoft.identity.client.claims.WWWAuthenticateHeader;
+import com.microsoft.identity.client.exception.MsalException;
+import com.microsoft.identity.common.logging.Logger;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Attaches MSAL access tokens to outgoing HTTP requests and handles 401 responses from the
+ * resource, including claims challenges carried in the WWW-Authenticate header.
+ * <p>
+ * Tokens are cached per (account, scopes) pair in a {@link CachedAuthorizationHeaderProvider}, so
+ * steady-state requests do not call into MSAL at all. When a request is rejected, exactly one
+ * forced refresh is performed per challenge, shared by every request rejected with the same
+ * token, and the caller replays the request once with the new header.
+ * <p>
+ * Use {@link #execute(IAccount, List, ConnectionFactory)} for {@link HttpURLConnection}, or
+ * {@link MsalOkHttpAuthenticator} for OkHttp. Callers on a hot path should look up the provider
+ * once with {@link #getProvider(IAccount, List)} and use the provider-based overloads, which skip
+ * the per-call cache key lookup.
+ */
+public class MsalHttpAuthenticator {
+
+    private static final String TAG = MsalHttpAuthenticator.class.getSimpleName();
+
+    public static final String AUTHORIZATION_HEADER = "Authorization";
+    public static final String WWW_AUTHENTICATE_HEADER = "WWW-Authenticate";
+
+    private final IPublicClientApplication mApplication;
+    private final long mRefreshSkewMillis;
+    private final ConcurrentMap<String, CachedAuthorizationHeaderProvider> mProviders =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Opens a connection for a single attempt of a request. Implementations must set the supplied
+     * Authorization header and write any request body; the authenticator reads the response code.
+     * Called a second time, with a new header, if the first attempt is rejected.
+     */
+    public interface ConnectionFactory {
+        @NonNull
+        HttpURLConnection open(@NonNull String authorizationHeader) throws IOException;
+    }
+
+    public MsalHttpAuthenticator(@NonNull final IPublicClientApplication application) {
+        this(application, CachedAuthorizationHeaderProvider.DEFAULT_REFRESH_SKEW_MILLIS);
+    }
+
+    /**
+     * @param application       The application used to acquire tokens.
+     * @param refreshSkewMillis How long before expiry cached tokens should be refreshed.
+     */
+    public MsalHttpAuthenticator(@NonNull final IPublicClientApplication application,
+                                 final long refreshSkewMillis) {
+        mApplication = application;
+        mRefreshSkewMillis = refreshSkewMillis;
+    }
+
+    /**
+     * Gets the Authorization header value for the given account and scopes, acquiring a token
+     * silently only if the cached one is missing or about to expire.
+     */
+    @WorkerThread
+    @NonNull
+    public String getAuthorizationHeader(@NonNull final IAccount account,
+                                         @NonNull final List<String> scopes)
+            throws InterruptedException, MsalException {
+        return getProvider(account, scopes).getAuthorizationHeader();
+    }
+
+    /**
+     * Handles a 401 response from the resource.
+     *
+     * @see #getAuthorizationHeaderForChallenge(CachedAuthorizationHeaderProvider, String, String)
+     */
+    @WorkerThread
+    @Nullable
+    public String getAuthorizationHeaderForChallenge(@NonNull final IAccount account,
+                                                     @NonNull final List<String> scopes,
+                                                     @Nullable final String rejectedAuthorizationHeader,
+                                                     @Nullable final String wwwAuthenticateHeader)
+            throws InterruptedException, MsalException {
+        return getAuthorizationHeaderForChallenge(
+                getProvider(account, scopes),
+                rejectedAuthorizationHeader,
+                wwwAuthenticateHeader
+        );
+    }
+
+    /**
+     * Handles a 401 response from the resource.
+     *
+     * @param provider                    The provider the rejected request's header came from.
+     * @param rejectedAuthorizationHeader The Authorization header value that was rejected.
+     * @param wwwAuthenticateHeader       The WWW-Authenticate header of the response, if any.
+     * @return The Authorization header value to replay the request with, or null if replaying
+     * would not help because the refresh yielded the same token.
+     */
+    @WorkerThread
+    @Nullable
+    public String getAuthorizationHeaderForChallenge(@NonNull final CachedAuthorizationHeaderProvider provider,
+                                                     @Nullable final String rejectedAuthorizationHeader,
+                                                     @Nullable final String wwwAuthenticateHeader)
+            throws InterruptedException, MsalException {
+        final String methodTag = TAG + ":getAuthorizationHeaderForChallenge";
+
+        final ClaimsRequest claimsRequest =
+                WWWAuthenticateHeader.getClaimsRequestFromWWWAuthenticateHeaderValue(wwwAuthenticateHeader);
+        if (claimsRequest != null) {
+            Logger.info(methodTag, "Resource returned a claims challenge.");
+        }
+
+        final String refreshedHeader = provider
+                .refreshForChallenge(rejectedAuthorizationHeader, claimsRequest)
+                .getAuthorizationHeader();
+
+        if (refreshedHeader.equals(rejectedAuthorizationHeader)) {
+            Logger.warn(methodTag, "Refresh returned the rejected token, not replaying request.");
+            return null;
+        }
+
+        return refreshedHeader;
+    }
+
+    /**
+     * Executes a request over {@link HttpURLConnection}, replaying it once if the resource responds
+     * with 401. The returned connection has already been sent; its response code is available.
+     *
+     * @param account The account to authenticate the request as.
+     * @param scopes  The scopes the resource requires.
+     * @param factory Opens and prepares a connection for each attempt.
+     * @return The connection for the final attempt.
+     */
+    @WorkerThread
+    @NonNull
+    public HttpURLConnection execute(@NonNull final IAccount account,
+                                     @NonNull final List<String> scopes,
+                                     @NonNull final ConnectionFactory factory)
+            throws IOException, InterruptedException, MsalException {
+        final CachedAuthorizationHeaderProvider provider = getProvider(account, scopes);
+        final String authorizationHeader = provider.getAuthorizationHeader();
+        final HttpURLConnection connection = factory.open(authorizationHeader);
+
+        if (connection.getResponseCode() != HttpURLConnection.HTTP_UNAUTHORIZED) {
+            return connection;
+        }
+
+        final String wwwAuthenticate = connection.getHeaderField(WWW_AUTHENTICATE_HEADER);
+        final String retryHeader = getAuthorizationHeaderForChallenge(
+                provider,
+                authorizationHeader,
+                wwwAuthenticate
+        );
+
+        if (retryHeader == null) {
+            return connection;
+        }
+
+        connection.disconnect();
+        final HttpURLConnection retry = factory.open(retryHeader);
+        retry.getResponseCode();
+        return retry;
+    }
+
+    /**
+     * Drops every cached token, e.g. after the user signs out.
+     */
+    public void clear() {
+        mProviders.clear();
+    }
+
+    /**
+     * Gets the provider shared by every caller using the given account and scopes. The returned
+     * instance can be held on to by the caller until {@link #clear()} is called.
+     */
+    @NonNull
+    public CachedAuthorizationHeaderProvider getProvider(@NonNull final IAccount account,
+                                                         @NonNull final List<String> scopes) {
+        return getProvider(getCacheKey(account, scopes), account, scopes);
+    }
+
+    /**
+     * Looks up a provider by a key previously computed with {@link #getCacheKey(IAccount, List)},
+     * so long-lived callers do not rebuild the key on every request.
+     */
+    @NonNull
+    CachedAuthorizationHeaderProvider getProvider(@NonNull final String key,
+                                                  @NonNull final IAccount account,
+                                                  @NonNull final List<String> scopes) {
+        CachedAuthorizationHeaderProvider provider = mProviders.get(key);
+
+        if (provider == null) {
+            final CachedAuthorizationHeaderProvider created = new CachedAuthorizationHeaderProvider(
+                    mApplication,
+                    account,
+                    scopes,
+                    account.getAuthority(),
+                    mRefreshSkewMillis
+            );
+            provider = mProviders.putIfAbsent(key, created);
+            if (provider == null) {
+                provider = created;
+            }
+        }
+
+        return provider;
+    }
+
+    @NonNull
+    static String getCacheKey(@NonNull final IAccount account,
+                              @NonNull final List<String> scopes) {
+        final List<String> sortedScopes = new ArrayList<>(scopes);
+        Collections.sort(sortedScopes);
+
+        final StringBuilder key = new StringBuilder(account.getId());
+        for (final String scope : sortedScopes) {
+            key.append(' ').append(scope);
+        }
+
+        return key.toString();
+    }
+}
@@ -0,0 +1,140 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.client.exception.MsalException;
+import com.microsoft.identity.common.logging.Logger;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import okhttp3.Authenticator;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.Route;
+
+/**
+ * OkHttp binding of {@link MsalHttpAuthenticator} for a single account and set of scopes.
+ * Register the same instance as both an application interceptor and the client's authenticator:
+ * <pre>
+ * final MsalOkHttpAuthenticator auth = new MsalOkHttpAuthenticator(authenticator, account, scopes);
+ * final OkHttpClient client = new OkHttpClient.Builder()
+ *         .addInterceptor(auth)
+ *         .authenticator(auth)
+ *         .build();
+ * </pre>
+ * OkHttp is not a dependency of MSAL; this class may only be used if the app includes it.
+ */
+public class MsalOkHttpAuthenticator implements Interceptor, Authenticator {
+
+    private static final String TAG = MsalOkHttpAuthenticator.class.getSimpleName();
+
+    private final MsalHttpAuthenticator mAuthenticator;
+    private final IAccount mAccount;
+    private final List<String> mScopes;
+    private final String mProviderKey;
+
+    public MsalOkHttpAuthenticator(@NonNull final MsalHttpAuthenticator authenticator,
+                                   @NonNull final IAccount account,
+                                   @NonNull final List<String> scopes) {
+        mAuthenticator = authenticator;
+        mAccount = account;
+        mScopes = Collections.unmodifiableList(new ArrayList<>(scopes));
+        mProviderKey = MsalHttpAuthenticator.getCacheKey(account, mScopes);
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull final Chain chain) throws IOException {
+        final Request request = chain.request();
+
+        if (request.header(MsalHttpAuthenticator.AUTHORIZATION_HEADER) != null) {
+            return chain.proceed(request);
+        }
+
+        final String authorizationHeader;
+        try {
+            authorizationHeader = getProvider().getAuthorizationHeader();
+        } catch (final MsalException e) {
+            throw new IOException("Unable to acquire token for request.", e);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while acquiring token for request.");
+        }
+
+        return chain.proceed(
+                request.newBuilder()
+                        .header(MsalHttpAuthenticator.AUTHORIZATION_HEADER, authorizationHeader)
+                        .build()
+        );
+    }
+
+    @Nullable
+    @Override
+    public Request authenticate(@Nullable final Route route, @NonNull final Response response)
+            throws IOException {
+        final String methodTag = TAG + ":authenticate";
+
+        if (response.priorResponse() != null) {
+            // Already replayed once, give up rather than loop.
+            Logger.warn(methodTag, "Replayed request was rejected again, not retrying.");
+            return null;
+        }
+
+        final Request request = response.request();
+        final String retryHeader;
+        try {
+            retryHeader = mAuthenticator.getAuthorizationHeaderForChallenge(
+                    getProvider(),
+                    request.header(MsalHttpAuthenticator.AUTHORIZATION_HEADER),
+                    response.header(MsalHttpAuthenticator.WWW_AUTHENTICATE_HEADER)
+            );
+        } catch (final MsalException e) {
+            Logger.error(methodTag, "Unable to refresh token for challenge.", e);
+            return null;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while refreshing token for challenge.");
+        }
+
+        if (retryHeader == null) {
+            return null;
+        }
+
+        return request.newBuilder()
+                .header(MsalHttpAuthenticator.AUTHORIZATION_HEADER, retryHeader)
+                .build();
+    }
+
+    @NonNull
+    private CachedAuthorizationHeaderProvider getProvider() {
+        return mAuthenticator.getProvider(mProviderKey, mAccount, mScopes);
+    }
+}
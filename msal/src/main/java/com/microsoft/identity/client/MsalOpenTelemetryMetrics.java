@@ -0,0 +1,251 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.Consumer;
+
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.LongUpDownCounter;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.metrics.MeterProvider;
+import io.opentelemetry.api.metrics.ObservableLongMeasurement;
+
+/**
+ * An {@link IMsalPerformanceListener} that records MSAL token requests as OpenTelemetry metrics.
+ * <p>
+ * Register it with {@link IPublicClientApplication#setPerformanceListener(IMsalPerformanceListener)}.
+ * The following instruments are created on the supplied {@link Meter}:
+ * <ul>
+ * <li>{@value #METRIC_REQUEST_DURATION}: end to end latency of token requests, in milliseconds.</li>
+ * <li>{@value #METRIC_PHASE_DURATION}: latency of each {@link RequestTimingSpan.Phase}, in milliseconds.
+ * The {@link RequestTimingSpan.Phase#EXECUTOR_QUEUE} phase is the time spent waiting for a
+ * background thread.</li>
+ * <li>{@value #METRIC_REQUESTS}: completed token requests, by outcome.</li>
+ * <li>{@value #METRIC_CACHE_LOOKUPS}: successful requests, by whether they were served from the cache.</li>
+ * <li>{@value #METRIC_TOKEN_REFRESHES}: successful requests that went to the network for tokens.</li>
+ * <li>{@value #METRIC_CONTROLLER_SELECTIONS}: requests by preferred controller, i.e. broker or local.</li>
+ * <li>{@value #METRIC_ERRORS}: failed and cancelled requests, by error code.</li>
+ * <li>{@value #METRIC_IN_FLIGHT}: requests started and not yet completed.</li>
+ * <li>{@value #METRIC_EXECUTOR_ACTIVE}: background threads currently running requests.</li>
+ * </ul>
+ * Every instrument carries the {@value #ATTRIBUTE_API_ID} attribute except the executor gauge,
+ * which is registered once per meter however many instances record to it.
+ */
+public class MsalOpenTelemetryMetrics implements IMsalPerformanceListener {
+
+    /**
+     * The instrumentation scope name used when the meter is obtained from a {@link MeterProvider}.
+     */
+    public static final String INSTRUMENTATION_NAME = "com.microsoft.identity.client";
+
+    public static final String METRIC_REQUEST_DURATION = "msal.request.duration";
+    public static final String METRIC_PHASE_DURATION = "msal.request.phase.duration";
+    public static final String METRIC_REQUESTS = "msal.requests";
+    public static final String METRIC_CACHE_LOOKUPS = "msal.cache.lookups";
+    public static final String METRIC_TOKEN_REFRESHES = "msal.token.refreshes";
+    public static final String METRIC_CONTROLLER_SELECTIONS = "msal.controller.selections";
+    public static final String METRIC_ERRORS = "msal.errors";
+    public static final String METRIC_IN_FLIGHT = "msal.requests.in_flight";
+    public static final String METRIC_EXECUTOR_ACTIVE = "msal.executor.active_threads";
+
+    public static final String ATTRIBUTE_API_ID = "msal.api_id";
+    public static final String ATTRIBUTE_OUTCOME = "msal.outcome";
+    public static final String ATTRIBUTE_PHASE = "msal.phase";
+    public static final String ATTRIBUTE_CACHE = "msal.cache";
+    public static final String ATTRIBUTE_CONTROLLER = "msal.controller";
+    public static final String ATTRIBUTE_ERROR_CODE = "msal.error_code";
+
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_ERROR = "error";
+    public static final String CACHE_HIT = "hit";
+    public static final String CACHE_MISS = "miss";
+
+    private static final AttributeKey<String> API_ID = AttributeKey.stringKey(ATTRIBUTE_API_ID);
+    private static final AttributeKey<String> OUTCOME = AttributeKey.stringKey(ATTRIBUTE_OUTCOME);
+    private static final AttributeKey<String> PHASE = AttributeKey.stringKey(ATTRIBUTE_PHASE);
+    private static final AttributeKey<String> CACHE = AttributeKey.stringKey(ATTRIBUTE_CACHE);
+    private static final AttributeKey<String> CONTROLLER = AttributeKey.stringKey(ATTRIBUTE_CONTROLLER);
+    private static final AttributeKey<String> ERROR_CODE = AttributeKey.stringKey(ATTRIBUTE_ERROR_CODE);
+
+    private static final double NANOS_PER_MILLI = 1_000_000d;
+
+    private static final Map<RequestTimingSpan.Phase, String> PHASE_NAMES =
+            new EnumMap<>(RequestTimingSpan.Phase.class);
+
+    static {
+        for (final RequestTimingSpan.Phase phase : RequestTimingSpan.Phase.values()) {
+            PHASE_NAMES.put(phase, phase.name().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * Meters the executor gauge is registered on. The gauge reports a process wide value, so a
+     * second callback on the same meter would only report it twice.
+     */
+    private static final Set<Meter> sExecutorGaugeMeters =
+            Collections.newSetFromMap(new WeakHashMap<Meter, Boolean>());
+
+    private final DoubleHistogram mRequestDuration;
+    private final DoubleHistogram mPhaseDuration;
+    private final LongCounter mRequests;
+    private final LongCounter mCacheLookups;
+    private final LongCounter mTokenRefreshes;
+    private final LongCounter mControllerSelections;
+    private final LongCounter mErrors;
+    private final LongUpDownCounter mInFlight;
+
+    /**
+     * Records to the meter of the globally registered OpenTelemetry instance. If the application
+     * has not registered an OpenTelemetry SDK, nothing is recorded.
+     */
+    public MsalOpenTelemetryMetrics() {
+        this(GlobalOpenTelemetry.getMeter(INSTRUMENTATION_NAME));
+    }
+
+    /**
+     * @param meterProvider The provider of the meter to record to.
+     */
+    public MsalOpenTelemetryMetrics(@NonNull final MeterProvider meterProvider) {
+        this(meterProvider.get(INSTRUMENTATION_NAME));
+    }
+
+    /**
+     * @param meter The meter to record to.
+     */
+    public MsalOpenTelemetryMetrics(@NonNull final Meter meter) {
+        mRequestDuration = meter.histogramBuilder(METRIC_REQUEST_DURATION)
+                .setDescription("Latency of MSAL token requests")
+                .setUnit("ms")
+                .build();
+        mPhaseDuration = meter.histogramBuilder(METRIC_PHASE_DURATION)
+                .setDescription("Latency of each phase of MSAL token requests")
+                .setUnit("ms")
+                .build();
+        mRequests = meter.counterBuilder(METRIC_REQUESTS)
+                .setDescription("Completed MSAL token requests")
+                .build();
+        mCacheLookups = meter.counterBuilder(METRIC_CACHE_LOOKUPS)
+                .setDescription("Successful MSAL token requests by cache hit or miss")
+                .build();
+        mTokenRefreshes = meter.counterBuilder(METRIC_TOKEN_REFRESHES)
+                .setDescription("Successful MSAL token requests that obtained tokens from the network")
+                .build();
+        mControllerSelections = meter.counterBuilder(METRIC_CONTROLLER_SELECTIONS)
+                .setDescription("MSAL token requests by preferred controller")
+                .build();
+        mErrors = meter.counterBuilder(METRIC_ERRORS)
+                .setDescription("Failed MSAL token requests by error code")
+                .build();
+        mInFlight = meter.upDownCounterBuilder(METRIC_IN_FLIGHT)
+                .setDescription("MSAL token requests started and not yet completed")
+                .build();
+        registerExecutorGauge(meter);
+    }
+
+    private static void registerExecutorGauge(@NonNull final Meter meter) {
+        synchronized (sExecutorGaugeMeters) {
+            if (!sExecutorGaugeMeters.add(meter)) {
+                return;
+            }
+        }
+
+        meter.gaugeBuilder(METRIC_EXECUTOR_ACTIVE)
+                .setDescription("Background threads running MSAL token requests")
+                .ofLongs()
+                .buildWithCallback(new Consumer<ObservableLongMeasurement>() {
+                    @Override
+                    public void accept(final ObservableLongMeasurement measurement) {
+                        measurement.record(PublicClientApplication.getBackgroundExecutorActiveCount());
+                    }
+                });
+    }
+
+    /**
+     * Creates an instance that records nothing.
+     */
+    @NonNull
+    public static MsalOpenTelemetryMetrics noop() {
+        return new MsalOpenTelemetryMetrics(MeterProvider.noop());
+    }
+
+    @Override
+    public boolean shouldRecord(@NonNull final String publicApiId) {
+        return true;
+    }
+
+    @Override
+    public void onRequestStarted(@NonNull final RequestTimingSpan span) {
+        mInFlight.add(1, Attributes.of(API_ID, span.getPublicApiId()));
+    }
+
+    @Override
+    public void onRequestCompleted(@NonNull final RequestTimingSpan span) {
+        final String publicApiId = span.getPublicApiId();
+        final Attributes apiAttributes = Attributes.of(API_ID, publicApiId);
+
+        mInFlight.add(-1, apiAttributes);
+
+        final String outcome = span.isSuccessful() ? OUTCOME_SUCCESS : OUTCOME_ERROR;
+        final Attributes outcomeAttributes = Attributes.of(API_ID, publicApiId, OUTCOME, outcome);
+        mRequests.add(1, outcomeAttributes);
+        mRequestDuration.record(span.getTotalDurationNanos() / NANOS_PER_MILLI, outcomeAttributes);
+
+        for (final RequestTimingSpan.Phase phase : RequestTimingSpan.Phase.values()) {
+            final long durationNanos = span.getPhaseDurationNanos(phase);
+            if (durationNanos > 0) {
+                mPhaseDuration.record(
+                        durationNanos / NANOS_PER_MILLI,
+                        Attributes.of(API_ID, publicApiId, PHASE, PHASE_NAMES.get(phase))
+                );
+            }
+        }
+
+        final String controllerName = span.getControllerName();
+        if (controllerName != null) {
+            mControllerSelections.add(1, Attributes.of(API_ID, publicApiId, CONTROLLER, controllerName));
+        }
+
+        if (span.isSuccessful()) {
+            final boolean fromCache = span.isServicedFromCache();
+            mCacheLookups.add(1, Attributes.of(API_ID, publicApiId, CACHE, fromCache ? CACHE_HIT : CACHE_MISS));
+            if (!fromCache) {
+                mTokenRefreshes.add(1, apiAttributes);
+            }
+        } else {
+            final String errorCode = span.getErrorCode();
+            mErrors.add(1, Attributes.of(API_ID, publicApiId, ERROR_CODE, errorCode == null ? OUTCOME_ERROR : errorCode));
+        }
+    }
+}
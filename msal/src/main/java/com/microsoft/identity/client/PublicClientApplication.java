@@ -55,6 +55,7 @@ import static com.microsoft.identity.common.java.util.StringUtil.isUuid;
 import android.app.Activity;
 import android.content.Context;
 import android.content.pm.PackageManager;
+import android.net.Uri;
 import android.os.Handler;
 import android.os.Looper;
 import android.text.TextUtils;
@@ -66,6 +67,9 @@ import androidx.fragment.app.Fragment;
 
 import com.microsoft.identity.client.claims.ClaimsRequest;
 import com.microsoft.identity.client.configuration.AccountMode;
+import com.microsoft.identity.client.configuration.HttpConfiguration;
+import com.microsoft.identity.client.configuration.HttpDeadlineConfiguration;
+import com.microsoft.identity.client.configuration.HttpEndpointConfiguration;
 import com.microsoft.identity.client.configuration.LoggerConfiguration;
 import com.microsoft.identity.client.exception.MsalArgumentException;
 import com.microsoft.identity.client.exception.MsalClientException;
@@ -74,7 +78,10 @@ import com.microsoft.identity.client.exception.MsalException;
 import com.microsoft.identity.client.exception.MsalUiRequiredException;
 import com.microsoft.identity.client.helper.BrokerHelperActivity;
 import com.microsoft.identity.client.internal.AsyncResult;
+import com.microsoft.identity.client.internal.AuthorityConnectionWarmer;
 import com.microsoft.identity.client.internal.CommandParametersAdapter;
+import com.microsoft.identity.client.internal.HttpRequestBudget;
+import com.microsoft.identity.client.internal.LazyLogger;
 import com.microsoft.identity.client.internal.controllers.MSALControllerFactory;
 import com.microsoft.identity.client.internal.controllers.MsalExceptionAdapter;
 import com.microsoft.identity.common.adal.internal.tokensharing.ITokenShareResultInternal;
@@ -117,12 +124,14 @@ import com.microsoft.identity.common.java.controllers.BaseController;
 import com.microsoft.identity.common.java.controllers.CommandDispatcher;
 import com.microsoft.identity.common.java.controllers.CommandResult;
 import com.microsoft.identity.common.java.controllers.ExceptionAdapter;
+import com.microsoft.identity.common.java.controllers.IControllerFactory;
 import com.microsoft.identity.common.java.dto.AccountRecord;
 import com.microsoft.identity.common.java.eststelemetry.PublicApiId;
 import com.microsoft.identity.common.java.exception.BaseException;
 import com.microsoft.identity.common.java.exception.ClientException;
 import com.microsoft.identity.common.java.exception.ErrorStrings;
 import com.microsoft.identity.common.java.exception.ServiceException;
+import com.microsoft.identity.common.java.net.UrlConnectionHttpClient;
 import com.microsoft.identity.common.java.opentelemetry.AttributeName;
 import com.microsoft.identity.common.java.opentelemetry.OTelUtility;
 import com.microsoft.identity.common.java.opentelemetry.OtelContextExtension;
@@ -155,6 +164,7 @@ import java.util.UUID;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -257,6 +267,8 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
 
     protected PublicClientApplicationConfiguration mPublicClientConfiguration;
     protected TokenShareUtility mTokenShareUtility;
+    private volatile IMsalPerformanceListener mPerformanceListener;
+    private CustomTabsPrewarmer mCustomTabsPrewarmer;
 
     //region PCA factory methods
 
@@ -1291,9 +1303,28 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
         // Init HTTP cache
         HttpCache.initialize(context.getCacheDir());
 
+        warmUpAuthorityConnections(mPublicClientConfiguration);
+
         Logger.info(methodTag, "Create new public client application.");
     }
 
+    /**
+     * Opens a connection to the host of each configured authority in the background, if enabled
+     * in the configuration.
+     */
+    protected static void warmUpAuthorityConnections(@NonNull final PublicClientApplicationConfiguration configuration) {
+        if (!Boolean.TRUE.equals(configuration.isWarmUpAuthorityConnectionsEnabled())) {
+            return;
+        }
+
+        final HttpConfiguration httpConfiguration = configuration.getHttpConfiguration();
+        new AuthorityConnectionWarmer(
+                UrlConnectionHttpClient.getDefaultInstance(),
+                sBackgroundExecutor,
+                httpConfiguration == null ? new HttpEndpointConfiguration() : httpConfiguration.getDiscovery()
+        ).warmUp(configuration.getAuthorities());
+    }
+
     protected static void initializeLoggerSettings(@Nullable final LoggerConfiguration loggerConfig) {
         if (null != loggerConfig) {
             final com.microsoft.identity.client.Logger.LogLevel configLogLevel = loggerConfig.getLogLevel();
@@ -1494,7 +1525,7 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
                     }
                     @Override
                     public void onTaskCompleted(PreferredAuthMethod preferredAuthMethod) {
-                        Logger.info(methodTag, "Preferred AuthMethod: " + preferredAuthMethod.name() );
+                        LazyLogger.info(methodTag, "Preferred AuthMethod: %s", preferredAuthMethod.name());
                     }
                     @Override
                     public void onCancel() {
@@ -1510,7 +1541,7 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
             final CommandResult commandResult = future.get(15, TimeUnit.SECONDS);
             switch (commandResult.getStatus()) {
                 case COMPLETED:
-                    Logger.info(methodTag, "Preferred AuthMethod: " + commandResult.getResult());
+                    LazyLogger.info(methodTag, "Preferred AuthMethod: %s", commandResult.getResult());
                     return (PreferredAuthMethod) commandResult.getResult();
                 case ERROR:
                     final BaseException exception = (BaseException) commandResult.getResult();
@@ -1520,7 +1551,7 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
                     Logger.warn(methodTag, "GetPreferredAuthMethodFromAuthenticator was cancelled");
                     return PreferredAuthMethod.NONE;
                 default:
-                    Logger.warn(methodTag, "Unexpected status on GetPreferredAuthMethodFromAuthenticator: " + commandResult.getStatus());
+                    LazyLogger.warn(methodTag, "Unexpected status on GetPreferredAuthMethodFromAuthenticator: %s", commandResult.getStatus());
                     return PreferredAuthMethod.NONE;
             }
         } catch (final InterruptedException | ExecutionException | TimeoutException e) {
@@ -1786,14 +1817,22 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
         // In order to support use of named tenants (such as contoso.onmicrosoft.com), we need
         // to be able to query OpenId Provider Configuration Metadata - for this reason, we will
         // build-up the acquireTokenOperationParams on a background thread.
+        final IMsalPerformanceListener performanceListener = mPerformanceListener;
+        final RequestTimingSpan span = startTimingSpan(performanceListener, publicApiId, acquireTokenParameters);
+
         sBackgroundExecutor.submit(OtelContextExtension.wrap(new Runnable() {
             @Override
             public void run() {
-                final CommandCallback localAuthenticationCallback =
+                endPhase(span, RequestTimingSpan.Phase.EXECUTOR_QUEUE);
+
+                final CommandCallback localAuthenticationCallback = timeCommandCallback(
                         getCommandCallback(
                                 acquireTokenParameters.getCallback(),
                                 acquireTokenParameters
-                        );
+                        ),
+                        span,
+                        performanceListener
+                );
                 try {
                     validateAcquireTokenParameters(acquireTokenParameters);
 
@@ -1803,6 +1842,7 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
                                     acquireTokenParameters
                             )
                     );
+                    endPhase(span, RequestTimingSpan.Phase.ACCOUNT_SELECTION);
 
                     final InteractiveTokenCommandParameters params = CommandParametersAdapter.
                             createInteractiveTokenCommandParameters(
@@ -1810,10 +1850,14 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
                                     mPublicClientConfiguration.getOAuth2TokenCache(),
                                     acquireTokenParameters
                             );
+                    endPhase(span, RequestTimingSpan.Phase.PARAMETER_ADAPTATION);
 
                     final InteractiveTokenCommand command = new InteractiveTokenCommand(
                             params,
-                            new MSALControllerFactory(mPublicClientConfiguration, params.getAuthority()),
+                            timeControllerFactory(
+                                    new MSALControllerFactory(mPublicClientConfiguration, params.getAuthority()),
+                                    span
+                            ),
                             localAuthenticationCallback,
                             publicApiId
                     );
@@ -1866,12 +1910,23 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
     void acquireTokenSilentAsyncInternal(
             @NonNull final AcquireTokenSilentParameters acquireTokenSilentParameters,
             @NonNull final String publicApiId) {
+        final IMsalPerformanceListener performanceListener = mPerformanceListener;
+        final RequestTimingSpan span = startTimingSpan(performanceListener, publicApiId, acquireTokenSilentParameters);
+        // Started here so that the deadline covers the time spent waiting for the executor.
+        final HttpRequestBudget budget = startTokenRequestBudget(mPublicClientConfiguration);
+
         sBackgroundExecutor.submit(OtelContextExtension.wrap(new Runnable() {
             @Override
             public void run() {
-                final CommandCallback callback = getCommandCallback(
-                        acquireTokenSilentParameters.getCallback(),
-                        acquireTokenSilentParameters
+                endPhase(span, RequestTimingSpan.Phase.EXECUTOR_QUEUE);
+
+                final CommandCallback callback = timeCommandCallback(
+                        getCommandCallback(
+                                acquireTokenSilentParameters.getCallback(),
+                                acquireTokenSilentParameters
+                        ),
+                        span,
+                        performanceListener
                 );
 
                 try {
@@ -1883,6 +1938,7 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
                                     acquireTokenSilentParameters
                             )
                     );
+                    endPhase(span, RequestTimingSpan.Phase.ACCOUNT_SELECTION);
 
                     final SilentTokenCommandParameters params =
                             CommandParametersAdapter.createSilentTokenCommandParameters(
@@ -1890,16 +1946,20 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
                                     mPublicClientConfiguration.getOAuth2TokenCache(),
                                     acquireTokenSilentParameters
                             );
+                    endPhase(span, RequestTimingSpan.Phase.PARAMETER_ADAPTATION);
 
+                    if (budget == null) {
+                        submitSilentTokenCommand(params, span, callback, publicApiId);
+                        return;
+                    }
 
-                    final SilentTokenCommand silentTokenCommand = new SilentTokenCommand(
-                            params,
-                            new MSALControllerFactory(mPublicClientConfiguration, params.getAuthority()),
-                            callback,
-                            publicApiId
-                    );
-
-                    CommandDispatcher.submitSilent(silentTokenCommand);
+                    final BudgetedCommandCallback budgetedCallback = new BudgetedCommandCallback(callback, budget);
+                    budgetedCallback.start(new Runnable() {
+                        @Override
+                        public void run() {
+                            submitSilentTokenCommand(params, span, budgetedCallback, publicApiId);
+                        }
+                    });
                 } catch (final Exception exception) {
                     // convert exception to BaseException
                     final BaseException baseException = ExceptionAdapter.baseExceptionFromException(exception);
@@ -1917,6 +1977,42 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
     }
 
 
+    private void submitSilentTokenCommand(@NonNull final SilentTokenCommandParameters params,
+                                          @Nullable final RequestTimingSpan span,
+                                          @NonNull final CommandCallback callback,
+                                          @NonNull final String publicApiId) {
+        final SilentTokenCommand silentTokenCommand = new SilentTokenCommand(
+                params,
+                timeControllerFactory(
+                        new MSALControllerFactory(mPublicClientConfiguration, params.getAuthority()),
+                        span
+                ),
+                callback,
+                publicApiId
+        );
+
+        CommandDispatcher.submitSilent(silentTokenCommand);
+    }
+
+    /**
+     * @return The budget of a silent token request, or null if the configuration sets no deadline
+     * for token requests.
+     */
+    @Nullable
+    private static HttpRequestBudget startTokenRequestBudget(@NonNull final PublicClientApplicationConfiguration configuration) {
+        final HttpConfiguration httpConfiguration = configuration.getHttpConfiguration();
+        if (httpConfiguration == null) {
+            return null;
+        }
+
+        final HttpDeadlineConfiguration token = httpConfiguration.getToken();
+        if (token.getDeadlineMs() <= 0) {
+            return null;
+        }
+
+        return new HttpRequestBudget(token);
+    }
+
     public static AccountRecord selectAccountRecordForTokenRequest(
             @NonNull final PublicClientApplicationConfiguration pcaConfig,
             @NonNull final TokenParameters tokenParameters)
@@ -2025,8 +2121,10 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
             }
             // We should never hit this flow as IAccount should always have a home profile or at least one tenant profile on it.
             if (accountForRequest == null) {
-                Logger.warnPII(methodTag,
-                        "No account record found for IAccount with request tenantId: " + tenantId
+                LazyLogger.warnPII(
+                        methodTag,
+                        "No account record found for IAccount with request tenantId: %s",
+                        tenantId
                 );
                 throw new ClientException(
                         ErrorStrings.NO_ACCOUNT_FOUND,
@@ -2248,6 +2346,108 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
     }
 
 
+    @Override
+    public void setPerformanceListener(@Nullable final IMsalPerformanceListener listener) {
+        mPerformanceListener = listener;
+    }
+
+    @Override
+    public void prepareInteractive(@Nullable final IAccount account, @NonNull final List<String> scopes) {
+        final String methodTag = TAG + ":prepareInteractive";
+        if (scopes == null || scopes.isEmpty()) {
+            Logger.warn(methodTag, "No scopes, skipping warm up.");
+            return;
+        }
+
+        final Uri likelyUrl;
+        try {
+            likelyUrl = CustomTabsPrewarmer.buildLikelyAuthorizeUrl(mPublicClientConfiguration, account, scopes);
+        } catch (final RuntimeException e) {
+            // Warming up is best effort, never fail the caller.
+            Logger.warn(methodTag, "Unable to build the authorize URL, skipping warm up: " + e.getClass().getSimpleName());
+            return;
+        }
+
+        final CustomTabsPrewarmer prewarmer = getCustomTabsPrewarmer();
+        sBackgroundExecutor.submit(new Runnable() {
+            @Override
+            public void run() {
+                prewarmer.prepare(likelyUrl);
+            }
+        });
+    }
+
+    private synchronized CustomTabsPrewarmer getCustomTabsPrewarmer() {
+        if (mCustomTabsPrewarmer == null) {
+            mCustomTabsPrewarmer = new CustomTabsPrewarmer(
+                    mPublicClientConfiguration.getAppContext(),
+                    mPublicClientConfiguration.getBrowserSelectionCache()
+            );
+        }
+
+        return mCustomTabsPrewarmer;
+    }
+
+    /**
+     * Starts a timing span for a request, or returns null without allocating if the request is
+     * not being recorded.
+     */
+    @Nullable
+    private static RequestTimingSpan startTimingSpan(@Nullable final IMsalPerformanceListener listener,
+                                                     @NonNull final String publicApiId,
+                                                     @NonNull final TokenParameters tokenParameters) {
+        if (listener == null || !listener.shouldRecord(publicApiId)) {
+            return null;
+        }
+
+        final RequestTimingSpan span = new RequestTimingSpan(publicApiId, tokenParameters.getCorrelationId());
+        try {
+            listener.onRequestStarted(span);
+        } catch (final RuntimeException e) {
+            // A misbehaving listener must not affect the request.
+            Logger.warn(TAG + ":startTimingSpan", "IMsalPerformanceListener threw: " + e.getClass().getSimpleName());
+        }
+        return span;
+    }
+
+    private static void endPhase(@Nullable final RequestTimingSpan span,
+                                 @NonNull final RequestTimingSpan.Phase phase) {
+        if (span != null) {
+            span.endPhase(phase);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CommandCallback timeCommandCallback(@NonNull final CommandCallback callback,
+                                                       @Nullable final RequestTimingSpan span,
+                                                       @Nullable final IMsalPerformanceListener listener) {
+        if (span == null || listener == null) {
+            return callback;
+        }
+
+        return new TimedCommandCallback(callback, span, listener);
+    }
+
+    private static IControllerFactory timeControllerFactory(@NonNull final IControllerFactory controllerFactory,
+                                                            @Nullable final RequestTimingSpan span) {
+        if (span == null) {
+            return controllerFactory;
+        }
+
+        return new TimedControllerFactory(controllerFactory, span);
+    }
+
+    /**
+     * @return The number of background threads currently running acquire token requests.
+     */
+    static int getBackgroundExecutorActiveCount() {
+        if (sBackgroundExecutor instanceof ThreadPoolExecutor) {
+            return ((ThreadPoolExecutor) sBackgroundExecutor).getActiveCount();
+        }
+
+        return 0;
+    }
+
     protected CommandCallback getCommandCallback(
             @NonNull final SilentAuthenticationCallback authenticationCallback,
             @NonNull final TokenParameters tokenParameters) {
@@ -40,6 +40,7 @@ import static com.microsoft.identity.client.PublicClientApplicationConfiguration
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.REQUIRED_BROKER_PROTOCOL_VERSION;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.TELEMETRY;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.USE_BROKER;
+import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.WARM_UP_AUTHORITY_CONNECTIONS;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.WEBAUTHN_CAPABLE;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.WEB_VIEW_ZOOM_CONTROLS_ENABLED;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.WEB_VIEW_ZOOM_ENABLED;
@@ -65,6 +66,7 @@ import com.microsoft.identity.client.configuration.AccountMode;
 import com.microsoft.identity.client.configuration.HttpConfiguration;
 import com.microsoft.identity.client.configuration.LoggerConfiguration;
 import com.microsoft.identity.client.exception.MsalClientException;
+import com.microsoft.identity.client.internal.BrowserSelectionCache;
 import com.microsoft.identity.common.adal.internal.AuthenticationConstants;
 import com.microsoft.identity.common.adal.internal.AuthenticationSettings;
 import com.microsoft.identity.common.internal.authorities.UnknownAudience;
@@ -114,6 +116,7 @@ public class PublicClientApplicationConfiguration {
         static final String HANDLE_TASKS_WITH_NULL_TASKAFFINITY = "handle_null_taskaffinity";
         static final String AUTHORIZATION_IN_CURRENT_TASK = "authorization_in_current_task";
         static final String WEBAUTHN_CAPABLE = "webauthn_capable";
+        static final String WARM_UP_AUTHORITY_CONNECTIONS = "warm_up_authority_connections";
     }
 
     @SerializedName(CLIENT_ID)
@@ -187,12 +190,23 @@ public class PublicClientApplicationConfiguration {
     @SerializedName(WEBAUTHN_CAPABLE)
     private Boolean webauthnCapable;
 
+    /**
+     * When set to true, a connection to the host of each authority is opened in the background
+     * when the application is created, so that the first token request does not pay for it.
+     * There is no setting to prefer HTTP/2: MSAL sends its requests with HttpURLConnection,
+     * which does not negotiate HTTP/2.
+     */
+    @SerializedName(WARM_UP_AUTHORITY_CONNECTIONS)
+    private Boolean warmUpAuthorityConnections;
+
     transient private OAuth2TokenCache mOAuth2TokenCache;
 
     transient private Context mAppContext;
 
     transient private boolean mIsSharedDevice = false;
 
+    transient private BrowserSelectionCache mBrowserSelectionCache;
+
     /**
      * Sets the secret key bytes to use when encrypting/decrypting cache entries.
      * {@link java.security.spec.KeySpec} algorithm is AES.
@@ -222,6 +236,19 @@ public class PublicClientApplicationConfiguration {
         return mBrowserSafeList;
     }
 
+    /**
+     * Gets the browser packages resolved for this application, cached until a browser package
+     * changes on the device.
+     *
+     * @return The cache, or null if no application context has been set.
+     */
+    public synchronized BrowserSelectionCache getBrowserSelectionCache() {
+        if (mBrowserSelectionCache == null && mAppContext != null) {
+            mBrowserSelectionCache = new BrowserSelectionCache(mAppContext);
+        }
+        return mBrowserSelectionCache;
+    }
+
     /**
      * Gets the currently configured client id for the PublicClientApplication.
      *
@@ -374,8 +401,12 @@ public class PublicClientApplicationConfiguration {
         return mAppContext;
     }
 
-    public void setAppContext(Context applicationContext) {
+    public synchronized void setAppContext(Context applicationContext) {
         mAppContext = applicationContext;
+        if (mBrowserSelectionCache != null) {
+            mBrowserSelectionCache.close();
+            mBrowserSelectionCache = null;
+        }
     }
 
     public OAuth2TokenCache getOAuth2TokenCache() {
@@ -418,6 +449,14 @@ public class PublicClientApplicationConfiguration {
         this.powerOptCheckEnabled = powerOptCheckEnabled;
     }
 
+    public Boolean isWarmUpAuthorityConnectionsEnabled() {
+        return warmUpAuthorityConnections;
+    }
+
+    public void setWarmUpAuthorityConnectionsEnabled(Boolean warmUpAuthorityConnections) {
+        this.warmUpAuthorityConnections = warmUpAuthorityConnections;
+    }
+
     public Boolean isHandleNullTaskAffinityEnabled() {
         return handleNullTaskAffinity;
     }
@@ -515,6 +554,7 @@ public class PublicClientApplicationConfiguration {
         this.handleNullTaskAffinity = config.handleNullTaskAffinity == null ? this.handleNullTaskAffinity : config.handleNullTaskAffinity;
         this.isAuthorizationInCurrentTask = config.isAuthorizationInCurrentTask == null ? this.isAuthorizationInCurrentTask : config.isAuthorizationInCurrentTask;
         this.webauthnCapable = config.webauthnCapable == null ? this.webauthnCapable : config.webauthnCapable;
+        this.warmUpAuthorityConnections = config.warmUpAuthorityConnections == null ? this.warmUpAuthorityConnections : config.warmUpAuthorityConnections;
     }
 
     public void validateConfiguration() {
@@ -31,6 +31,8 @@ import androidx.annotation.WorkerThread;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.microsoft.identity.client.configuration.HttpDeadlineConfiguration;
+import com.microsoft.identity.client.internal.configuration.HttpDeadlineConfigurationDeserializer;
 import com.microsoft.identity.client.internal.configuration.LogLevelDeserializer;
 import com.microsoft.identity.common.components.AndroidPlatformComponentsFactory;
 import com.microsoft.identity.common.java.authorities.Authority;
@@ -190,6 +192,10 @@ public class PublicClientApplicationConfigurationFactory {
                         com.microsoft.identity.client.Logger.LogLevel.class,
                         new LogLevelDeserializer()
                 )
+                .registerTypeAdapter(
+                        HttpDeadlineConfiguration.class,
+                        new HttpDeadlineConfigurationDeserializer()
+                )
                 .create();
     }
 }
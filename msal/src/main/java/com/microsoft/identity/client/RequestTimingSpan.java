@@ -0,0 +1,226 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Where the time went during a single public API call. Phases are recorded in order as the request
+ * moves from the calling thread to the background executor, the command dispatcher and back to the
+ * main thread; phases a request never reached (e.g. because validation failed) report zero.
+ */
+public final class RequestTimingSpan {
+
+    /**
+     * The phases of a token request.
+     */
+    public enum Phase {
+        /**
+         * Waiting in the background executor before the request starts running.
+         */
+        EXECUTOR_QUEUE,
+
+        /**
+         * Validating the parameters and selecting the account record for the requested tenant.
+         */
+        ACCOUNT_SELECTION,
+
+        /**
+         * Converting the public parameters into command parameters.
+         */
+        PARAMETER_ADAPTATION,
+
+        /**
+         * Choosing between the local and the broker controller.
+         */
+        CONTROLLER_SELECTION,
+
+        /**
+         * Dispatching and executing the command, which includes cache reads and network calls,
+         * up to the result reaching the main thread. Excludes {@link #CONTROLLER_SELECTION}.
+         */
+        COMMAND_EXECUTION,
+
+        /**
+         * Adapting the result and running the application's callback.
+         */
+        RESULT_DELIVERY
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private final String mPublicApiId;
+    private final long[] mPhaseNanos = new long[PHASES.length];
+    private final long mStartNanos;
+
+    private long mMarkNanos;
+    private long mTotalNanos;
+    private String mCorrelationId;
+    private String mControllerName;
+    private String mErrorCode;
+    private boolean mSuccessful;
+    private boolean mServicedFromCache;
+
+    RequestTimingSpan(@NonNull final String publicApiId,
+                      @Nullable final String correlationId) {
+        mPublicApiId = publicApiId;
+        mCorrelationId = correlationId;
+        mStartNanos = System.nanoTime();
+        mMarkNanos = mStartNanos;
+    }
+
+    /**
+     * Ends the current sequential phase, attributing the time since the previous phase ended.
+     */
+    void endPhase(@NonNull final Phase phase) {
+        final long now = System.nanoTime();
+        mPhaseNanos[phase.ordinal()] += now - mMarkNanos;
+        mMarkNanos = now;
+    }
+
+    /**
+     * Records a phase nested inside {@link Phase#COMMAND_EXECUTION}, which is later excluded
+     * from it.
+     */
+    void addNestedPhase(@NonNull final Phase phase, final long durationNanos) {
+        mPhaseNanos[phase.ordinal()] += durationNanos;
+    }
+
+    void setCorrelationId(@Nullable final String correlationId) {
+        if (correlationId != null) {
+            mCorrelationId = correlationId;
+        }
+    }
+
+    void setControllerName(@Nullable final String controllerName) {
+        mControllerName = controllerName;
+    }
+
+    void setServicedFromCache(final boolean servicedFromCache) {
+        mServicedFromCache = servicedFromCache;
+    }
+
+    void setErrorCode(@Nullable final String errorCode) {
+        mErrorCode = errorCode;
+    }
+
+    /**
+     * Ends {@link Phase#COMMAND_EXECUTION} when the result of the command arrives.
+     */
+    void endCommandExecution() {
+        endPhase(Phase.COMMAND_EXECUTION);
+        final int command = Phase.COMMAND_EXECUTION.ordinal();
+        mPhaseNanos[command] = Math.max(0, mPhaseNanos[command] - mPhaseNanos[Phase.CONTROLLER_SELECTION.ordinal()]);
+    }
+
+    void complete(final boolean successful) {
+        endPhase(Phase.RESULT_DELIVERY);
+        mTotalNanos = mMarkNanos - mStartNanos;
+        mSuccessful = successful;
+    }
+
+    /**
+     * @return The identifier of the public API that was called.
+     */
+    @NonNull
+    public String getPublicApiId() {
+        return mPublicApiId;
+    }
+
+    /**
+     * @return The correlation id of the request, or null if none was assigned before it failed.
+     */
+    @Nullable
+    public String getCorrelationId() {
+        return mCorrelationId;
+    }
+
+    /**
+     * @return true if the request produced a result, false if it failed or was cancelled.
+     */
+    public boolean isSuccessful() {
+        return mSuccessful;
+    }
+
+    /**
+     * @return The simple class name of the controller preferred for the request, e.g.
+     * LocalMSALController or BrokerMsalController, or null if none was selected.
+     */
+    @Nullable
+    public String getControllerName() {
+        return mControllerName;
+    }
+
+    /**
+     * @return true if the result was served from the token cache without a network call.
+     */
+    public boolean isServicedFromCache() {
+        return mServicedFromCache;
+    }
+
+    /**
+     * @return The error code if the request failed with an error, otherwise null.
+     */
+    @Nullable
+    public String getErrorCode() {
+        return mErrorCode;
+    }
+
+    /**
+     * @param phase The phase to query.
+     * @return The time spent in the phase, in nanoseconds.
+     */
+    public long getPhaseDurationNanos(@NonNull final Phase phase) {
+        return mPhaseNanos[phase.ordinal()];
+    }
+
+    /**
+     * @return The time from the public API call until the application's callback returned, in
+     * nanoseconds.
+     */
+    public long getTotalDurationNanos() {
+        return mTotalNanos;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder(256)
+                .append("RequestTimingSpan{api=").append(mPublicApiId)
+                .append(", correlationId=").append(mCorrelationId)
+                .append(", successful=").append(mSuccessful)
+                .append(", errorCode=").append(mErrorCode)
+                .append(", controller=").append(mControllerName)
+                .append(", fromCache=").append(mServicedFromCache)
+                .append(", totalMs=").append(TimeUnit.NANOSECONDS.toMillis(mTotalNanos));
+
+        for (final Phase phase : PHASES) {
+            builder.append(", ").append(phase.name()).append("Us=")
+                    .append(TimeUnit.NANOSECONDS.toMicros(mPhaseNanos[phase.ordinal()]));
+        }
+
+        return builder.append('}').toString();
+    }
+}
@@ -0,0 +1,254 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import com.microsoft.identity.client.exception.MsalClientException;
+import com.microsoft.identity.client.exception.MsalException;
+import com.microsoft.identity.client.internal.AsyncResult;
+import com.microsoft.identity.common.java.util.ResultFuture;
+import com.microsoft.identity.common.logging.Logger;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.microsoft.identity.client.exception.MsalClientException.UNKNOWN_ERROR;
+
+/**
+ * Optional cache in front of {@link IPublicClientApplication#generateSignedHttpRequest(IAccount, PoPAuthenticationScheme)}.
+ * <p>
+ * Signing a request is a keystore operation which, with hardware-backed keys, takes tens of
+ * milliseconds. This cache reuses a Signed HTTP Request (SHR) for identical requests, keyed by
+ * account, HTTP method, URL, nonce and client claims, for a short time-to-live. It also allows
+ * upcoming requests to be signed ahead of time via {@link #preSign(IAccount, PoPAuthenticationScheme)}.
+ * Concurrent callers for the same key share a single signing operation.
+ * <p>
+ * Resources validate the timestamp embedded in the SHR, so the time-to-live should stay well below
+ * the resource's accepted clock skew. Each cached SHR may be replayed to the resource, so only use
+ * this cache for resources that do not enforce single use of a signed request.
+ */
+public class SignedHttpRequestCache {
+
+    private static final String TAG = SignedHttpRequestCache.class.getSimpleName();
+
+    /**
+     * Default time-to-live of a cached SHR.
+     */
+    public static final long DEFAULT_TTL_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    /**
+     * Default maximum number of cached SHRs.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 64;
+
+    private final IPublicClientApplication mApplication;
+    private final long mTtlMillis;
+    private final int mMaxEntries;
+    private final ConcurrentHashMap<String, Entry> mEntries = new ConcurrentHashMap<>();
+
+    private static final class Entry {
+        final ResultFuture<AsyncResult<String>> mFuture = new ResultFuture<>();
+        final long mCreatedMillis = System.currentTimeMillis();
+    }
+
+    public SignedHttpRequestCache(@NonNull final IPublicClientApplication application) {
+        this(application, DEFAULT_TTL_MILLIS, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * @param application The application used to sign requests.
+     * @param ttlMillis   How long a signed request is reused, measured from the start of signing.
+     * @param maxEntries  The maximum number of signed requests held at once.
+     */
+    public SignedHttpRequestCache(@NonNull final IPublicClientApplication application,
+                                  final long ttlMillis,
+                                  final int maxEntries) {
+        mApplication = application;
+        mTtlMillis = ttlMillis;
+        mMaxEntries = maxEntries;
+    }
+
+    /**
+     * Returns an SHR for the supplied parameters, reusing a cached or in-flight one if available.
+     *
+     * @param account       The account for whom signing shall occur.
+     * @param popParameters The input parameters.
+     * @return The resulting SHR.
+     */
+    @WorkerThread
+    @NonNull
+    public String generateSignedHttpRequest(@NonNull final IAccount account,
+                                            @NonNull final PoPAuthenticationScheme popParameters)
+            throws MsalException {
+        final String key = getCacheKey(account, popParameters);
+        final Entry entry = getOrSign(key, account, popParameters);
+
+        try {
+            final AsyncResult<String> result = entry.mFuture.get();
+
+            if (result.getSuccess()) {
+                return result.getResult();
+            } else {
+                throw result.getException();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MsalClientException(
+                    UNKNOWN_ERROR,
+                    "Interrupted while generating SHR.",
+                    e
+            );
+        } catch (final ExecutionException e) {
+            throw new MsalClientException(
+                    UNKNOWN_ERROR,
+                    "Unexpected error while generating SHR.",
+                    e
+            );
+        }
+    }
+
+    /**
+     * Starts signing the supplied parameters in the background, so that a subsequent call to
+     * {@link #generateSignedHttpRequest(IAccount, PoPAuthenticationScheme)} with the same
+     * parameters returns without waiting on the keystore. Does nothing if a valid SHR is already
+     * cached or being signed.
+     *
+     * @param account       The account for whom signing shall occur.
+     * @param popParameters The input parameters.
+     */
+    public void preSign(@NonNull final IAccount account,
+                        @NonNull final PoPAuthenticationScheme popParameters) {
+        getOrSign(getCacheKey(account, popParameters), account, popParameters);
+    }
+
+    /**
+     * Drops every cached SHR, e.g. after the user signs out.
+     */
+    public void clear() {
+        mEntries.clear();
+    }
+
+    @NonNull
+    private Entry getOrSign(@NonNull final String key,
+                            @NonNull final IAccount account,
+                            @NonNull final PoPAuthenticationScheme popParameters) {
+        final String methodTag = TAG + ":getOrSign";
+
+        while (true) {
+            final Entry existing = mEntries.get(key);
+
+            if (existing != null && !isExpired(existing)) {
+                return existing;
+            }
+
+            final Entry created = new Entry();
+            final boolean won = existing == null
+                    ? mEntries.putIfAbsent(key, created) == null
+                    : mEntries.replace(key, existing, created);
+
+            if (!won) {
+                // Another caller started signing first, use theirs.
+                continue;
+            }
+
+            Logger.verbose(methodTag, "No cached SHR, signing request.");
+            evictIfFull();
+            sign(key, created, account, popParameters);
+            return created;
+        }
+    }
+
+    private void sign(@NonNull final String key,
+                      @NonNull final Entry entry,
+                      @NonNull final IAccount account,
+                      @NonNull final PoPAuthenticationScheme popParameters) {
+        mApplication.generateSignedHttpRequest(
+                account,
+                popParameters,
+                new IPublicClientApplication.SignedHttpRequestRequestCallback() {
+                    @Override
+                    public void onTaskCompleted(final String result) {
+                        entry.mFuture.setResult(new AsyncResult<>(result, null));
+                    }
+
+                    @Override
+                    public void onError(final MsalException exception) {
+                        // Don't cache failures, the next caller should retry.
+                        mEntries.remove(key, entry);
+                        entry.mFuture.setResult(new AsyncResult<String>(null, exception));
+                    }
+                }
+        );
+    }
+
+    private boolean isExpired(@NonNull final Entry entry) {
+        return System.currentTimeMillis() - entry.mCreatedMillis >= mTtlMillis;
+    }
+
+    private void evictIfFull() {
+        if (mEntries.size() <= mMaxEntries) {
+            return;
+        }
+
+        String oldestKey = null;
+        long oldestCreated = Long.MAX_VALUE;
+        final Iterator<Map.Entry<String, Entry>> iterator = mEntries.entrySet().iterator();
+
+        while (iterator.hasNext()) {
+            final Map.Entry<String, Entry> mapEntry = iterator.next();
+
+            if (isExpired(mapEntry.getValue())) {
+                iterator.remove();
+            } else if (mapEntry.getValue().mCreatedMillis < oldestCreated) {
+                oldestCreated = mapEntry.getValue().mCreatedMillis;
+                oldestKey = mapEntry.getKey();
+            }
+        }
+
+        if (mEntries.size() > mMaxEntries && oldestKey != null) {
+            mEntries.remove(oldestKey);
+        }
+    }
+
+    @NonNull
+    private static String getCacheKey(@NonNull final IAccount account,
+                                      @NonNull final PoPAuthenticationScheme popParameters) {
+        // Note: URL.equals/hashCode resolve the host, so key on the external form instead.
+        return account.getId()
+                + '\n' + popParameters.getHttpMethod()
+                + '\n' + popParameters.getUrl().toExternalForm()
+                + '\n' + nullToEmpty(popParameters.getNonce())
+                + '\n' + nullToEmpty(popParameters.getClientClaims());
+    }
+
+    @NonNull
+    private static String nullToEmpty(@Nullable final String value) {
+        return value == null ? "" : value;
+    }
+}
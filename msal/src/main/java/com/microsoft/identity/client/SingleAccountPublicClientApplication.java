@@ -53,6 +53,7 @@ import com.microsoft.identity.client.exception.MsalClientException;
 import com.microsoft.identity.client.exception.MsalException;
 import com.microsoft.identity.client.internal.AsyncResult;
 import com.microsoft.identity.client.internal.CommandParametersAdapter;
+import com.microsoft.identity.client.internal.LazyLogger;
 import com.microsoft.identity.client.internal.controllers.MSALControllerFactory;
 import com.microsoft.identity.client.internal.controllers.MsalExceptionAdapter;
 import com.microsoft.identity.common.adal.internal.util.JsonExtensions;
@@ -596,7 +597,7 @@ public class SingleAccountPublicClientApplication
                 sharedPreferencesFileManager.clear();
                 return;
             }
-            Logger.info(TAG, "persisting cache records with size " + cacheRecords.size());
+            LazyLogger.info(TAG, "persisting cache records with size %d", cacheRecords.size());
             final String currentAccountJsonString = JsonExtensions.getJsonStringFromICacheRecordList(cacheRecords);
             sharedPreferencesFileManager.putString(CURRENT_ACCOUNT_SHARED_PREFERENCE_KEY, currentAccountJsonString);
         }
@@ -610,8 +611,6 @@ public class SingleAccountPublicClientApplication
      */
     @Nullable
     private MultiTenantAccount getAccountFromICacheRecordList(@NonNull final List<ICacheRecord> cacheRecords) {
-        final String methodTag = TAG + ":getAccountFromICacheRecords";
-
         if (cacheRecords.size() == 0) {
             return null;
         }
@@ -620,7 +619,7 @@ public class SingleAccountPublicClientApplication
 
         if (account.size() != 1) {
             Logger.verbose(
-                    methodTag,
+                    TAG + ":getAccountFromICacheRecords",
                     "Returned cacheRecords were adapted into multiple IAccount. " +
                             "This is unexpected in Single account mode." +
                             "Returning the first adapted account.");
@@ -0,0 +1,104 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+
+import com.microsoft.identity.common.java.commands.CommandCallback;
+import com.microsoft.identity.common.java.exception.BaseException;
+import com.microsoft.identity.common.java.result.ILocalAuthenticationResult;
+import com.microsoft.identity.common.logging.Logger;
+
+/**
+ * Wraps the command callback of a recorded request, closing the phases of its
+ * {@link RequestTimingSpan} around the delegate and handing the span to the
+ * {@link IMsalPerformanceListener} once the application's callback has returned.
+ */
+class TimedCommandCallback implements CommandCallback<ILocalAuthenticationResult, BaseException> {
+
+    private static final String TAG = TimedCommandCallback.class.getSimpleName();
+
+    private final CommandCallback<ILocalAuthenticationResult, BaseException> mDelegate;
+    private final RequestTimingSpan mSpan;
+    private final IMsalPerformanceListener mListener;
+
+    TimedCommandCallback(@NonNull final CommandCallback<ILocalAuthenticationResult, BaseException> delegate,
+                         @NonNull final RequestTimingSpan span,
+                         @NonNull final IMsalPerformanceListener listener) {
+        mDelegate = delegate;
+        mSpan = span;
+        mListener = listener;
+    }
+
+    @Override
+    public void onTaskCompleted(final ILocalAuthenticationResult result) {
+        mSpan.endCommandExecution();
+        if (result != null) {
+            mSpan.setCorrelationId(result.getCorrelationId());
+            mSpan.setServicedFromCache(result.isServicedFromCache());
+        }
+
+        try {
+            mDelegate.onTaskCompleted(result);
+        } finally {
+            complete(true);
+        }
+    }
+
+    @Override
+    public void onError(final BaseException exception) {
+        mSpan.endCommandExecution();
+        if (exception != null) {
+            mSpan.setErrorCode(exception.getErrorCode());
+        }
+
+        try {
+            mDelegate.onError(exception);
+        } finally {
+            complete(false);
+        }
+    }
+
+    @Override
+    public void onCancel() {
+        mSpan.endCommandExecution();
+        mSpan.setErrorCode(Constants.MsalInternalError.USER_CANCEL);
+
+        try {
+            mDelegate.onCancel();
+        } finally {
+            complete(false);
+        }
+    }
+
+    private void complete(final boolean successful) {
+        mSpan.complete(successful);
+
+        try {
+            mListener.onRequestCompleted(mSpan);
+        } catch (final RuntimeException e) {
+            // A misbehaving listener must not affect token delivery.
+            Logger.warn(TAG + ":complete", "IMsalPerformanceListener threw: " + e.getClass().getSimpleName());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client
+
+import com.microsoft.identity.common.java.controllers.BaseController
+import com.microsoft.identity.common.java.controllers.IControllerFactory
+
+/**
+ * Records the time spent choosing a controller as [RequestTimingSpan.Phase.CONTROLLER_SELECTION].
+ * Only created for requests that are being recorded for an [IMsalPerformanceListener].
+ */
+internal class TimedControllerFactory(
+    private val delegate: IControllerFactory,
+    private val span: RequestTimingSpan
+) : IControllerFactory {
+
+    override fun getDefaultController(): BaseController {
+        val controller = timed { delegate.defaultController }
+        span.setControllerName(controller.javaClass.simpleName)
+        return controller
+    }
+
+    override fun getAllControllers(): List<BaseController> {
+        val controllers = timed { delegate.allControllers }
+        // Controllers are tried in order, the first one is the preferred one.
+        span.setControllerName(controllers.firstOrNull()?.javaClass?.simpleName)
+        return controllers
+    }
+
+    private inline fun <T> timed(block: () -> T): T {
+        val start = System.nanoTime()
+        try {
+            return block()
+        } finally {
+            span.addNestedPhase(RequestTimingSpan.Phase.CONTROLLER_SELECTION, System.nanoTime() - start)
+        }
+    }
+}
@@ -0,0 +1,178 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.claims;
+
+import android.util.Base64;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.gson.JsonParseException;
+
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A single challenge from a WWW-Authenticate header, as defined by RFC 7235: an auth scheme
+ * followed by either a token68 or a list of auth-params.
+ *
+ * @see WWWAuthenticateHeader#parseChallenges(CharSequence)
+ * @see <a href="https://tools.ietf.org/html/rfc7235#section-2.1">RFC 7235 section 2.1</a>
+ */
+public class AuthenticationChallenge {
+
+    static final String CLAIMS_PARAMETER = "claims";
+    static final String NONCE_PARAMETER = "nonce";
+    static final String REALM_PARAMETER = "realm";
+    static final String ERROR_PARAMETER = "error";
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final String mScheme;
+    private String mToken68;
+    private final Map<String, String> mParameters = new LinkedHashMap<>();
+
+    AuthenticationChallenge(@NonNull final String scheme) {
+        mScheme = scheme;
+    }
+
+    /**
+     * Returns the auth scheme of this challenge, e.g. "Bearer" or "PoP". Empty if the header
+     * carried parameters without a scheme.
+     *
+     * @return
+     */
+    @NonNull
+    public String getScheme() {
+        return mScheme;
+    }
+
+    /**
+     * Checks the auth scheme of this challenge, ignoring case.
+     *
+     * @param scheme
+     * @return
+     */
+    public boolean isScheme(@NonNull final String scheme) {
+        return mScheme.equalsIgnoreCase(scheme);
+    }
+
+    /**
+     * Returns the token68 credentials of this challenge, if it carried one instead of parameters.
+     *
+     * @return
+     */
+    @Nullable
+    public String getToken68() {
+        return mToken68;
+    }
+
+    /**
+     * Returns the value of an auth-param, with any quoting removed. Parameter names are matched
+     * ignoring case.
+     *
+     * @param name
+     * @return
+     */
+    @Nullable
+    public String getParameter(@NonNull final String name) {
+        return mParameters.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Returns all auth-params of this challenge in header order, keyed by lower-cased name.
+     *
+     * @return
+     */
+    @NonNull
+    public Map<String, String> getParameters() {
+        return Collections.unmodifiableMap(mParameters);
+    }
+
+    @Nullable
+    public String getRealm() {
+        return getParameter(REALM_PARAMETER);
+    }
+
+    @Nullable
+    public String getError() {
+        return getParameter(ERROR_PARAMETER);
+    }
+
+    /**
+     * Returns the nonce parameter, suitable for
+     * {@link com.microsoft.identity.client.PoPAuthenticationScheme.Builder#withNonce(String)}.
+     *
+     * @return
+     */
+    @Nullable
+    public String getNonce() {
+        return getParameter(NONCE_PARAMETER);
+    }
+
+    /**
+     * Returns the claims parameter as a claims request. The value may be either JSON or base64
+     * encoded JSON, as returned by resources supporting continuous access evaluation.
+     *
+     * @return The claims request, or null if the challenge has no usable claims parameter.
+     */
+    @Nullable
+    public ClaimsRequest getClaimsRequest() {
+        final String claims = getParameter(CLAIMS_PARAMETER);
+
+        if (claims == null || claims.isEmpty()) {
+            return null;
+        }
+
+        if (claims.charAt(0) == '{') {
+            return ClaimsRequest.getClaimsRequestFromJsonString(claims);
+        }
+
+        final int flags = claims.indexOf('-') >= 0 || claims.indexOf('_') >= 0
+                ? Base64.URL_SAFE
+                : Base64.DEFAULT;
+
+        try {
+            final byte[] decoded = Base64.decode(claims, flags);
+            return ClaimsRequest.getClaimsRequestFromJsonString(new String(decoded, UTF_8));
+        } catch (final IllegalArgumentException | JsonParseException e) {
+            return null;
+        }
+    }
+
+    void setToken68(@NonNull final String token68) {
+        mToken68 = token68;
+    }
+
+    void addParameter(@NonNull final String name, @NonNull final String value) {
+        final String key = name.toLowerCase(Locale.ROOT);
+
+        // First occurrence wins, repeated parameters are not allowed by RFC 7235.
+        if (!mParameters.containsKey(key)) {
+            mParameters.put(key, value);
+        }
+    }
+}
@@ -22,6 +22,12 @@
 //  THE SOFTWARE.
 package com.microsoft.identity.client.claims;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Helper class for pulling any available claims directive out of the WWW-Authenticate header returned
  * by resource servers
@@ -33,55 +39,315 @@ public class WWWAuthenticateHeader {
     static final char DOUBLE_QUOTE = '"';
     static final char SPACE = ' ';
     static final char COMMA = ',';
+    static final char TAB = '\t';
+    static final char EQUALS = '=';
+    static final char BACKSLASH = '\\';
+    static final char OPEN_BRACE = '{';
+    static final char CLOSE_BRACE = '}';
+    private static final String TOKEN_SYMBOLS = "!#$%&*+-.^_`|~/";
 
     /**
-     * Returns a claims request parameter that corresponds to the contents of the claims directive in a
-     * WWW-Authenticate Header.
+     * Returns a claims request parameter that corresponds to the contents of the first claims
+     * directive in a WWW-Authenticate Header.
      *
      * @param headerValue - String content of the www-authenticate header
      * @return
      */
     public static ClaimsRequest getClaimsRequestFromWWWAuthenticateHeaderValue(String headerValue) {
+        for (final AuthenticationChallenge challenge : parseChallenges(headerValue)) {
+            if (challenge.getParameter(AuthenticationChallenge.CLAIMS_PARAMETER) != null) {
+                return challenge.getClaimsRequest();
+            }
+        }
 
-        int claimsDirectiveIndex = headerValue.indexOf(CLAIMS_DIRECTIVE);
-        String claimsDirectiveJsonString = null;
+        //Not Found
+        return null;
+    }
 
-        if (claimsDirectiveIndex == -1) {
-            //Not Found
-            return null;
+    /**
+     * Parses every challenge in a WWW-Authenticate header value, as defined by RFC 7235, in a
+     * single pass. Each scheme, parameter name and parameter value is materialized exactly once.
+     * <p>
+     * In addition to the RFC grammar, the following forms are accepted for compatibility with
+     * resources in the wild: parameters that appear before any scheme (returned under an empty
+     * scheme), single-quoted values, unquoted JSON object values, and quoted JSON object values
+     * whose inner quotes were not escaped.
+     *
+     * @param headerValue - content of the www-authenticate header
+     * @return The challenges in header order. Empty if the header carries none.
+     * @see <a href="https://tools.ietf.org/html/rfc7235#section-4.1">RFC 7235 section 4.1</a>
+     */
+    @NonNull
+    public static List<AuthenticationChallenge> parseChallenges(@Nullable final CharSequence headerValue) {
+        final List<AuthenticationChallenge> challenges = new ArrayList<>();
+
+        if (headerValue == null) {
+            return challenges;
+        }
+
+        final int length = headerValue.length();
+        AuthenticationChallenge current = null;
+        boolean expectToken68 = false;
+        int pos = 0;
+
+        while (pos < length) {
+            // Skip list separators and optional whitespace between elements.
+            final char c = headerValue.charAt(pos);
+            if (c == COMMA || isWhitespace(c)) {
+                if (c == COMMA) {
+                    expectToken68 = false;
+                }
+                pos++;
+                continue;
+            }
+
+            final int tokenStart = pos;
+            while (pos < length && isToken68Char(headerValue.charAt(pos))) {
+                pos++;
+            }
+
+            if (pos == tokenStart) {
+                // Not a token, skip the offending character.
+                pos++;
+                continue;
+            }
+
+            final int tokenEnd = pos;
+            final int afterToken = skipWhitespace(headerValue, pos);
+
+            if (afterToken < length && headerValue.charAt(afterToken) == EQUALS) {
+                if (expectToken68 && current != null && isToken68End(headerValue, afterToken)) {
+                    // token68 with '=' padding, e.g. "Negotiate abc==".
+                    pos = afterToken;
+                    while (pos < length && headerValue.charAt(pos) == EQUALS) {
+                        pos++;
+                    }
+                    current.setToken68(headerValue.subSequence(tokenStart, pos).toString());
+                    expectToken68 = false;
+                    continue;
+                }
+
+                if (current == null) {
+                    // Parameters without a scheme.
+                    current = new AuthenticationChallenge("");
+                    challenges.add(current);
+                }
+
+                pos = parseParameterValue(
+                        headerValue,
+                        skipWhitespace(headerValue, afterToken + 1),
+                        headerValue.subSequence(tokenStart, tokenEnd).toString(),
+                        current
+                );
+                expectToken68 = false;
+                continue;
+            }
+
+            if (expectToken68 && current != null && isToken68End(headerValue, afterToken)) {
+                current.setToken68(headerValue.subSequence(tokenStart, tokenEnd).toString());
+                expectToken68 = false;
+                pos = afterToken;
+                continue;
+            }
+
+            // A token not followed by '=' starts a new challenge.
+            current = new AuthenticationChallenge(headerValue.subSequence(tokenStart, tokenEnd).toString());
+            challenges.add(current);
+            expectToken68 = true;
+            pos = afterToken;
+        }
+
+        return challenges;
+    }
+
+    /**
+     * Reads an auth-param value starting at {@code pos} and adds it to the challenge.
+     *
+     * @return The position just after the value.
+     */
+    private static int parseParameterValue(@NonNull final CharSequence headerValue,
+                                           final int pos,
+                                           @NonNull final String name,
+                                           @NonNull final AuthenticationChallenge challenge) {
+        final int length = headerValue.length();
+
+        if (pos >= length) {
+            challenge.addParameter(name, "");
+            return pos;
+        }
+
+        final char first = headerValue.charAt(pos);
+
+        if (first == DOUBLE_QUOTE || first == SINGLE_QUOTE) {
+            final int closeQuote = findClosingQuote(headerValue, pos, first);
+
+            if (!isValueEnd(headerValue, closeQuote + 1)
+                    && pos + 1 < length
+                    && headerValue.charAt(pos + 1) == OPEN_BRACE) {
+                // Not a well-formed quoted-string: a JSON object whose quotes were not escaped.
+                final int jsonEnd = findJsonObjectEnd(headerValue, pos + 1);
+                challenge.addParameter(name, headerValue.subSequence(pos + 1, jsonEnd).toString());
+                // Step over the closing quote, if present.
+                return jsonEnd < length && headerValue.charAt(jsonEnd) == first ? jsonEnd + 1 : jsonEnd;
+            }
+
+            challenge.addParameter(name, parseQuotedString(headerValue, pos + 1, closeQuote));
+            return closeQuote < length ? closeQuote + 1 : closeQuote;
+        }
+
+        if (first == OPEN_BRACE) {
+            final int jsonEnd = findJsonObjectEnd(headerValue, pos);
+            challenge.addParameter(name, headerValue.subSequence(pos, jsonEnd).toString());
+            return jsonEnd;
+        }
+
+        int end = pos;
+        while (end < length && headerValue.charAt(end) != COMMA && !isWhitespace(headerValue.charAt(end))) {
+            end++;
+        }
+        challenge.addParameter(name, headerValue.subSequence(pos, end).toString());
+        return end;
+    }
+
+    /**
+     * Finds the quote closing the quoted-string opened at {@code openQuote}, skipping quoted-pairs.
+     *
+     * @return The position of the closing quote, or the end of input if unterminated.
+     */
+    private static int findClosingQuote(@NonNull final CharSequence headerValue,
+                                        final int openQuote,
+                                        final char quote) {
+        final int length = headerValue.length();
+        int pos = openQuote + 1;
+
+        while (pos < length) {
+            final char c = headerValue.charAt(pos);
+
+            if (c == quote) {
+                return pos;
+            }
+
+            pos += c == BACKSLASH ? 2 : 1;
         }
 
-        //Check if directive surrounded by quotes (single or double)
-        int valueStartPosition = claimsDirectiveIndex + CLAIMS_DIRECTIVE.length();
-        int valueEndPosition = 0;
-        int valueEndComma = 0;
-        char openQuote = headerValue.substring(valueStartPosition, valueStartPosition + 1).charAt(0);
-
-
-        if (openQuote == SINGLE_QUOTE) {
-            //Let's get the claims string
-            valueEndPosition = headerValue.indexOf(SINGLE_QUOTE, valueStartPosition + 1);
-            claimsDirectiveJsonString = headerValue.substring(valueStartPosition + 1, valueEndPosition);
-        } else if (openQuote == DOUBLE_QUOTE) {
-            valueEndPosition = headerValue.indexOf("}" + DOUBLE_QUOTE, valueStartPosition + 1);
-            claimsDirectiveJsonString = headerValue.substring(valueStartPosition + 1, valueEndPosition + 1);
-        } else {
-            valueEndComma = headerValue.indexOf(COMMA, valueStartPosition);
-            valueEndPosition = headerValue.indexOf(SPACE, valueStartPosition);
-            if (valueEndComma != -1 || valueEndPosition != -1) {
-                if (valueEndComma != -1) {
-                    claimsDirectiveJsonString = headerValue.substring(valueStartPosition, valueEndComma);
-                } else {
-                    claimsDirectiveJsonString = headerValue.substring(valueStartPosition, valueEndPosition);
+        return length;
+    }
+
+    /**
+     * Reads the content of a quoted-string between {@code start} and {@code end}, unescaping
+     * quoted-pairs. Only allocates a builder when the value actually contains an escape.
+     */
+    @NonNull
+    private static String parseQuotedString(@NonNull final CharSequence headerValue,
+                                            final int start,
+                                            final int end) {
+        StringBuilder unescaped = null;
+        int runStart = start;
+        int pos = start;
+
+        while (pos < end) {
+            if (headerValue.charAt(pos) == BACKSLASH && pos + 1 < end) {
+                if (unescaped == null) {
+                    unescaped = new StringBuilder(end - start);
                 }
-            } else {
-                claimsDirectiveJsonString = headerValue.substring(valueStartPosition);
+                unescaped.append(headerValue, runStart, pos).append(headerValue.charAt(pos + 1));
+                pos += 2;
+                runStart = pos;
+                continue;
             }
+
+            pos++;
+        }
+
+        if (unescaped == null) {
+            return headerValue.subSequence(start, end).toString();
         }
 
-        return ClaimsRequest.getClaimsRequestFromJsonString(claimsDirectiveJsonString);
+        return unescaped.append(headerValue, runStart, end).toString();
+    }
+
+    /**
+     * A parameter value ends at the end of the header or at the next list separator.
+     */
+    private static boolean isValueEnd(@NonNull final CharSequence headerValue, final int pos) {
+        final int i = skipWhitespace(headerValue, pos);
+
+        return i >= headerValue.length() || headerValue.charAt(i) == COMMA;
     }
 
+    /**
+     * Finds the end of the JSON object starting at {@code pos}, honoring nested objects and
+     * JSON strings.
+     *
+     * @return The position just after the closing brace, or the end of input if unbalanced.
+     */
+    private static int findJsonObjectEnd(@NonNull final CharSequence headerValue, final int pos) {
+        final int length = headerValue.length();
+        int depth = 0;
+        boolean inString = false;
+
+        for (int i = pos; i < length; i++) {
+            final char c = headerValue.charAt(i);
+
+            if (inString) {
+                if (c == BACKSLASH) {
+                    i++;
+                } else if (c == DOUBLE_QUOTE) {
+                    inString = false;
+                }
+            } else if (c == DOUBLE_QUOTE) {
+                inString = true;
+            } else if (c == OPEN_BRACE) {
+                depth++;
+            } else if (c == CLOSE_BRACE) {
+                depth--;
+                if (depth == 0) {
+                    return i + 1;
+                }
+            }
+        }
+
+        return length;
+    }
+
+    /**
+     * A token68 must be the only credential of its challenge, i.e. be followed by the end of the
+     * header or by a comma after its '=' padding.
+     */
+    private static boolean isToken68End(@NonNull final CharSequence headerValue, final int pos) {
+        final int length = headerValue.length();
+        int i = pos;
+
+        while (i < length && headerValue.charAt(i) == EQUALS) {
+            i++;
+        }
+        i = skipWhitespace(headerValue, i);
+
+        return i >= length || headerValue.charAt(i) == COMMA;
+    }
+
+    private static int skipWhitespace(@NonNull final CharSequence headerValue, final int pos) {
+        int i = pos;
+        while (i < headerValue.length() && isWhitespace(headerValue.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isWhitespace(final char c) {
+        return c == SPACE || c == TAB;
+    }
+
+    /**
+     * Matches tchar (RFC 7230) plus '/', which token68 additionally allows. The single quote is
+     * excluded as it is accepted as a value delimiter.
+     */
+    private static boolean isToken68Char(final char c) {
+        return (c >= 'a' && c <= 'z')
+                || (c >= 'A' && c <= 'Z')
+                || (c >= '0' && c <= '9')
+                || TOKEN_SYMBOLS.indexOf(c) >= 0;
+    }
 
     /**
      * Checks if the WWW-Authenticate header value contains the claims directive
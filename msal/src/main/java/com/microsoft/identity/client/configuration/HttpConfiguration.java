@@ -10,6 +10,15 @@ public class HttpConfiguration {
     @SerializedName("connect_timeout")
     private int mConnectTimeout;
 
+    @SerializedName("token")
+    private HttpDeadlineConfiguration mToken;
+
+    @SerializedName("discovery")
+    private HttpEndpointConfiguration mDiscovery;
+
+    @SerializedName("native_auth")
+    private HttpDeadlineConfiguration mNativeAuth;
+
     /**
      * Get the currently configured read timeout for the public client application
      *
@@ -46,4 +55,60 @@ public class HttpConfiguration {
         this.mConnectTimeout = timeout;
     }
 
+    /**
+     * Gets the deadline of token requests made by acquireTokenSilent and by native auth
+     * AccountState.getAccessToken. These requests are not retried by MSAL: the command
+     * dispatcher caches the result of a failed command, so a retry would only get it back.
+     *
+     * @return The token endpoint configuration.
+     */
+    public HttpDeadlineConfiguration getToken() {
+        // Not configured: no deadline.
+        if (mToken == null) {
+            mToken = new HttpDeadlineConfiguration();
+        }
+        return mToken;
+    }
+
+    public void setToken(HttpDeadlineConfiguration token) {
+        this.mToken = token;
+    }
+
+    /**
+     * Gets the limits applied to the requests made to the OpenID configuration of the
+     * authorities, i.e. the connection warm up requests.
+     *
+     * @return The discovery endpoint configuration.
+     */
+    public HttpEndpointConfiguration getDiscovery() {
+        // Not configured: no deadline and no retries.
+        if (mDiscovery == null) {
+            mDiscovery = new HttpEndpointConfiguration();
+        }
+        return mDiscovery;
+    }
+
+    public void setDiscovery(HttpEndpointConfiguration discovery) {
+        this.mDiscovery = discovery;
+    }
+
+    /**
+     * Gets the deadline of native auth sign in, sign up and reset password requests. These
+     * requests are not retried by MSAL: retrying them could, for instance, send the user
+     * another code.
+     *
+     * @return The native auth endpoint configuration.
+     */
+    public HttpDeadlineConfiguration getNativeAuth() {
+        // Not configured: no deadline.
+        if (mNativeAuth == null) {
+            mNativeAuth = new HttpDeadlineConfiguration();
+        }
+        return mNativeAuth;
+    }
+
+    public void setNativeAuth(HttpDeadlineConfiguration nativeAuth) {
+        this.mNativeAuth = nativeAuth;
+    }
+
 }
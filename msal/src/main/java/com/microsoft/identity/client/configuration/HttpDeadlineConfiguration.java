@@ -0,0 +1,65 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.configuration;
+
+import static com.microsoft.identity.client.configuration.HttpDeadlineConfiguration.SerializedNames.DEADLINE_MS;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * Deadline of the requests MSAL makes to one class of endpoints, see {@link HttpConfiguration}.
+ * <p>
+ * Requests of these classes are not retried by MSAL; retry settings are only accepted for the
+ * classes configured with a {@link HttpEndpointConfiguration}.
+ */
+public class HttpDeadlineConfiguration {
+
+    /**
+     * Field names used for serialization by Gson.
+     */
+    public static class SerializedNames {
+        public static final String DEADLINE_MS = "deadline_ms";
+    }
+
+    @SerializedName(DEADLINE_MS)
+    private int mDeadlineMs;
+
+    /**
+     * Gets the total time a request, including its retries, may take before it fails with
+     * {@link com.microsoft.identity.client.exception.MsalServiceException#REQUEST_TIMEOUT}.
+     *
+     * @return The deadline in milliseconds, 0 if requests have no deadline.
+     */
+    public int getDeadlineMs() {
+        return mDeadlineMs;
+    }
+
+    /**
+     * Sets the total time a request, including its retries, may take.
+     *
+     * @param deadlineMs The deadline in milliseconds, 0 for no deadline.
+     */
+    public void setDeadlineMs(final int deadlineMs) {
+        mDeadlineMs = deadlineMs;
+    }
+}
@@ -0,0 +1,103 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.configuration;
+
+import static com.microsoft.identity.client.configuration.HttpEndpointConfiguration.SerializedNames.INITIAL_BACKOFF_MS;
+import static com.microsoft.identity.client.configuration.HttpEndpointConfiguration.SerializedNames.MAX_BACKOFF_MS;
+import static com.microsoft.identity.client.configuration.HttpEndpointConfiguration.SerializedNames.MAX_RETRIES;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * Deadline and retries of the requests MSAL makes itself to one class of endpoints, see
+ * {@link HttpConfiguration}.
+ */
+public class HttpEndpointConfiguration extends HttpDeadlineConfiguration {
+
+    /**
+     * Field names used for serialization by Gson.
+     */
+    public static final class SerializedNames extends HttpDeadlineConfiguration.SerializedNames {
+        public static final String MAX_RETRIES = "max_retries";
+        public static final String INITIAL_BACKOFF_MS = "initial_backoff_ms";
+        public static final String MAX_BACKOFF_MS = "max_backoff_ms";
+    }
+
+    public static final int DEFAULT_INITIAL_BACKOFF_MS = 500;
+    public static final int DEFAULT_MAX_BACKOFF_MS = 8000;
+
+    @SerializedName(MAX_RETRIES)
+    private int mMaxRetries;
+
+    @SerializedName(INITIAL_BACKOFF_MS)
+    private int mInitialBackoffMs = DEFAULT_INITIAL_BACKOFF_MS;
+
+    @SerializedName(MAX_BACKOFF_MS)
+    private int mMaxBackoffMs = DEFAULT_MAX_BACKOFF_MS;
+
+    /**
+     * Gets the number of times a request failing with a 429 or 5xx status is retried.
+     *
+     * @return The maximum number of retries, 0 if requests are not retried.
+     */
+    public int getMaxRetries() {
+        return mMaxRetries;
+    }
+
+    /**
+     * Sets the number of times a request failing with a 429 or 5xx status is retried.
+     *
+     * @param maxRetries The maximum number of retries.
+     */
+    public void setMaxRetries(final int maxRetries) {
+        mMaxRetries = maxRetries;
+    }
+
+    /**
+     * Gets the upper bound of the delay before the first retry. The bound doubles for each
+     * following retry, up to {@link #getMaxBackoffMs()}, and the delay is picked at random below
+     * it. A Retry-After header sent by the server takes precedence.
+     *
+     * @return The initial backoff in milliseconds.
+     */
+    public int getInitialBackoffMs() {
+        return mInitialBackoffMs;
+    }
+
+    public void setInitialBackoffMs(final int initialBackoffMs) {
+        mInitialBackoffMs = initialBackoffMs;
+    }
+
+    /**
+     * Gets the upper bound of the delay before any retry.
+     *
+     * @return The maximum backoff in milliseconds.
+     */
+    public int getMaxBackoffMs() {
+        return mMaxBackoffMs;
+    }
+
+    public void setMaxBackoffMs(final int maxBackoffMs) {
+        mMaxBackoffMs = maxBackoffMs;
+    }
+}
@@ -280,6 +280,12 @@ public final class MsalClientException extends MsalException {
     public static final String NATIVE_AUTH_INVALID_CHALLENGE_TYPE_ERROR_CODE = "native_auth_invalid_challenge_type";
     public static final String NATIVE_AUTH_INVALID_CHALLENGE_TYPE_ERROR_MESSAGE = "NativeAuthPublicClientApplication detected invalid challenge type.";
 
+    /**
+     * Native auth state restored from a parcel it cannot continue from. Start the flow again.
+     */
+    public static final String NATIVE_AUTH_STATE_RESTART_REQUIRED_ERROR_CODE = "native_auth_state_restart_required";
+    public static final String NATIVE_AUTH_STATE_RESTART_REQUIRED_ERROR_MESSAGE = "The native auth state was restored from a parcel written by another library version or before the application was created; start the flow again.";
+
     public MsalClientException(final String errorCode) {
         super(errorCode);
     }
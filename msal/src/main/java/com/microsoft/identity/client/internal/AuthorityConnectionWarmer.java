@@ -0,0 +1,191 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.microsoft.identity.client.configuration.HttpEndpointConfiguration;
+import com.microsoft.identity.common.java.authorities.Authority;
+import com.microsoft.identity.common.java.net.HttpClient;
+import com.microsoft.identity.common.java.net.HttpResponse;
+import com.microsoft.identity.common.logging.Logger;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opens a connection to the hosts of the configured authorities ahead of the first request, so
+ * that DNS resolution and the TCP and TLS handshakes are not paid by the first token request.
+ * <p>
+ * Each host gets a HEAD request for the OpenID configuration of its authority, made with the
+ * {@link HttpClient} used for token requests. The response has no body, so the connection goes
+ * straight back to the connection pool, where the first token request to that host picks it up.
+ * Responses with a status worth retrying are retried as allowed by the discovery
+ * {@link HttpEndpointConfiguration}; the retry is scheduled rather than waited for, so that no
+ * background thread is held during the backoff. Failures are only logged; the request they would have sped
+ * up opens its own connection.
+ */
+public final class AuthorityConnectionWarmer {
+
+    private static final String TAG = AuthorityConnectionWarmer.class.getSimpleName();
+
+    private static final String OPENID_CONFIGURATION_PATH = "/v2.0/.well-known/openid-configuration";
+
+    /**
+     * Only hands retries back to the executor once their backoff has passed, which returns immediately.
+     */
+    private static final ScheduledExecutorService sScheduler = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactory() {
+                @Override
+                public Thread newThread(@NonNull final Runnable runnable) {
+                    final Thread thread = new Thread(runnable, "msal-connection-warm-up");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            }
+    );
+
+    private final HttpClient mHttpClient;
+    private final Executor mExecutor;
+    private final ScheduledExecutorService mScheduler;
+    private final HttpEndpointConfiguration mConfiguration;
+
+    /**
+     * @param httpClient    The client whose connections should be warmed up.
+     * @param executor      The executor the requests are made on.
+     * @param configuration The deadline and retries of the requests.
+     */
+    public AuthorityConnectionWarmer(@NonNull final HttpClient httpClient,
+                                     @NonNull final Executor executor,
+                                     @NonNull final HttpEndpointConfiguration configuration) {
+        this(httpClient, executor, sScheduler, configuration);
+    }
+
+    @VisibleForTesting
+    AuthorityConnectionWarmer(@NonNull final HttpClient httpClient,
+                              @NonNull final Executor executor,
+                              @NonNull final ScheduledExecutorService scheduler,
+                              @NonNull final HttpEndpointConfiguration configuration) {
+        mHttpClient = httpClient;
+        mExecutor = executor;
+        mScheduler = scheduler;
+        mConfiguration = configuration;
+    }
+
+    /**
+     * Warms up a connection to the host of each authority, in the background. Authorities sharing
+     * a host get a single request.
+     *
+     * @param authorities The configured authorities.
+     * @return The number of hosts a request was made to.
+     */
+    public int warmUp(@Nullable final List<Authority> authorities) {
+        if (authorities == null) {
+            return 0;
+        }
+
+        final Set<String> hosts = new LinkedHashSet<>();
+        for (final Authority authority : authorities) {
+            final URL warmUpUrl = getWarmUpUrl(authority);
+            if (warmUpUrl != null && hosts.add(warmUpUrl.getAuthority())) {
+                submit(warmUpUrl, new HttpRequestBudget(mConfiguration));
+            }
+        }
+
+        return hosts.size();
+    }
+
+    private void submit(@NonNull final URL warmUpUrl, @NonNull final HttpRequestBudget budget) {
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                warmUp(warmUpUrl, budget);
+            }
+        });
+    }
+
+    private void warmUp(@NonNull final URL warmUpUrl, @NonNull final HttpRequestBudget budget) {
+        final String methodTag = TAG + ":warmUp";
+
+        final HttpResponse response;
+        try {
+            response = mHttpClient.head(warmUpUrl, Collections.<String, String>emptyMap());
+        } catch (final IOException e) {
+            Logger.warn(methodTag, "Failed to warm up the connection to the authority host: " + e.getMessage());
+            return;
+        }
+
+        final long delayMillis = response == null
+                ? HttpRequestBudget.NO_RETRY
+                : budget.nextRetryDelayMillis(
+                        response.getStatusCode(),
+                        HttpRequestBudget.getRetryAfter(response.getHeaders())
+                );
+        if (delayMillis == HttpRequestBudget.NO_RETRY) {
+            Logger.verbose(methodTag, "Connection to the authority host is warmed up.");
+            return;
+        }
+
+        mScheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+                submit(warmUpUrl, budget);
+            }
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Nullable
+    private static URL getWarmUpUrl(@NonNull final Authority authority) {
+        final String methodTag = TAG + ":getWarmUpUrl";
+
+        try {
+            final URL authorityUrl = authority.getAuthorityURL();
+            if (authorityUrl == null || !"https".equalsIgnoreCase(authorityUrl.getProtocol())) {
+                return null;
+            }
+
+            String path = authorityUrl.getPath();
+            if (path.endsWith("/")) {
+                path = path.substring(0, path.length() - 1);
+            }
+            return new URL(authorityUrl.getProtocol(), authorityUrl.getHost(), authorityUrl.getPort(),
+                    path + OPENID_CONFIGURATION_PATH);
+        } catch (final MalformedURLException | RuntimeException e) {
+            // Authorities are validated when the request is made, skip the ones that can't be warmed up.
+            Logger.warn(methodTag, "Unable to build the warm up URL of an authority.");
+            return null;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.net.Uri;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.annotation.WorkerThread;
+
+import com.microsoft.identity.common.logging.Logger;
+
+/**
+ * Caches the browser packages resolved by {@link MsalUtils#getChromePackageWithCustomTabSupport(Context)}
+ * and {@link MsalUtils#getChromePackage(Context)}, so that the package manager is queried once per
+ * application rather than once per request.
+ * <p>
+ * Both lookups only depend on {@link MsalUtils#CHROME_PACKAGE}, so the cached values are dropped
+ * whenever that package is installed, removed, updated or enabled/disabled.
+ */
+public final class BrowserSelectionCache {
+
+    private static final String TAG = BrowserSelectionCache.class.getSimpleName();
+
+    /**
+     * Generation handed out when the result must not be cached. Never matches {@link #mGeneration}.
+     */
+    private static final int UNCACHED = -1;
+
+    private final Context mContext;
+    private final BroadcastReceiver mPackageChangedReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(final Context context, final Intent intent) {
+            final Uri data = intent.getData();
+            if (data != null && MsalUtils.CHROME_PACKAGE.equals(data.getSchemeSpecificPart())) {
+                Logger.info(TAG + ":onReceive", "Browser package changed: " + intent.getAction());
+                invalidate();
+            }
+        }
+    };
+
+    private boolean mReceiverRegistered;
+    private int mGeneration;
+
+    // A null entry means the value has not been resolved since the last invalidation. The entry
+    // itself may hold a null package, meaning no suitable browser is installed.
+    private volatile Entry mCustomTabsPackage;
+    private volatile Entry mChromePackage;
+
+    public BrowserSelectionCache(@NonNull final Context context) {
+        mContext = context.getApplicationContext() != null ? context.getApplicationContext() : context;
+    }
+
+    /**
+     * @return The cached result of {@link MsalUtils#getChromePackageWithCustomTabSupport(Context)}.
+     */
+    @WorkerThread
+    @Nullable
+    public String getChromePackageWithCustomTabSupport() {
+        final Entry cached = mCustomTabsPackage;
+        if (cached != null) {
+            return cached.mPackageName;
+        }
+
+        final int generation = startResolving();
+        final Entry resolved = new Entry(MsalUtils.getChromePackageWithCustomTabSupport(mContext));
+        synchronized (this) {
+            if (generation == mGeneration) {
+                mCustomTabsPackage = resolved;
+            }
+        }
+        return resolved.mPackageName;
+    }
+
+    /**
+     * @return The cached result of {@link MsalUtils#getChromePackage(Context)}.
+     */
+    @WorkerThread
+    @Nullable
+    public String getChromePackage() {
+        final Entry cached = mChromePackage;
+        if (cached != null) {
+            return cached.mPackageName;
+        }
+
+        final int generation = startResolving();
+        final Entry resolved = new Entry(MsalUtils.getChromePackage(mContext));
+        synchronized (this) {
+            if (generation == mGeneration) {
+                mChromePackage = resolved;
+            }
+        }
+        return resolved.mPackageName;
+    }
+
+    /**
+     * Drops the cached values. The next lookup queries the package manager again.
+     */
+    public synchronized void invalidate() {
+        mGeneration++;
+        mCustomTabsPackage = null;
+        mChromePackage = null;
+    }
+
+    /**
+     * Unregisters the package receiver and drops the cached values. A lookup made afterwards
+     * registers the receiver again.
+     */
+    public synchronized void close() {
+        if (mReceiverRegistered) {
+            try {
+                mContext.unregisterReceiver(mPackageChangedReceiver);
+            } catch (final RuntimeException e) {
+                Logger.warn(TAG + ":close", "Failed to unregister the package receiver: " + e.getMessage());
+            }
+            mReceiverRegistered = false;
+        }
+        invalidate();
+    }
+
+    /**
+     * Registers the package receiver on first use and returns the generation the lookup belongs
+     * to. A lookup that races with an invalidation does not store its now stale result.
+     */
+    private synchronized int startResolving() {
+        if (!mReceiverRegistered) {
+            final IntentFilter filter = new IntentFilter();
+            filter.addAction(Intent.ACTION_PACKAGE_ADDED);
+            filter.addAction(Intent.ACTION_PACKAGE_REMOVED);
+            filter.addAction(Intent.ACTION_PACKAGE_CHANGED);
+            filter.addAction(Intent.ACTION_PACKAGE_REPLACED);
+            filter.addDataScheme("package");
+            try {
+                mContext.registerReceiver(mPackageChangedReceiver, filter);
+                mReceiverRegistered = true;
+            } catch (final RuntimeException e) {
+                // Without the receiver a cached value could go stale, so keep querying instead.
+                Logger.warn(TAG + ":startResolving", "Failed to register the package receiver: " + e.getMessage());
+                return UNCACHED;
+            }
+        }
+        return mGeneration;
+    }
+
+    @VisibleForTesting
+    synchronized boolean isReceiverRegistered() {
+        return mReceiverRegistered;
+    }
+
+    private static final class Entry {
+        @Nullable
+        private final String mPackageName;
+
+        private Entry(@Nullable final String packageName) {
+            mPackageName = packageName;
+        }
+    }
+}
@@ -65,8 +65,6 @@ import com.microsoft.identity.common.java.providers.oauth2.OAuth2TokenCache;
 import com.microsoft.identity.common.java.providers.oauth2.OpenIdConnectPromptParameter;
 import com.microsoft.identity.common.java.request.SdkType;
 import com.microsoft.identity.common.java.ui.AuthorizationAgent;
-import com.microsoft.identity.common.logging.Logger;
-import com.microsoft.identity.common.java.nativeauth.authorities.NativeAuthCIAMAuthority;
 import com.microsoft.identity.common.java.nativeauth.commands.parameters.SignInWithContinuationTokenCommandParameters;
 import com.microsoft.identity.common.java.nativeauth.commands.parameters.ResetPasswordResendCodeCommandParameters;
 import com.microsoft.identity.common.java.nativeauth.commands.parameters.ResetPasswordStartCommandParameters;
@@ -340,12 +338,12 @@ public class CommandParametersAdapter {
             @Nullable final char[] password,
             final Map<String, String> userAttributes) {
 
-        final NativeAuthCIAMAuthority authority = ((NativeAuthCIAMAuthority) configuration.getDefaultAuthority());
+        final NativeAuthCommandParametersContext context = configuration.getCommandParametersContext();
 
         return SignUpStartCommandParameters.builder()
-                .platformComponents(AndroidPlatformComponentsFactory.createFromContext(configuration.getAppContext()))
-                .applicationName(configuration.getAppContext().getPackageName())
-                .applicationVersion(getPackageVersion(configuration.getAppContext()))
+                .platformComponents(context.getPlatformComponents())
+                .applicationName(context.getApplicationName())
+                .applicationVersion(context.getApplicationVersion())
                 .clientId(configuration.getClientId())
                 .isSharedDevice(configuration.getIsSharedDevice())
                 .redirectUri(configuration.getRedirectUri())
@@ -354,10 +352,10 @@ public class CommandParametersAdapter {
                 .sdkType(SdkType.MSAL)
                 .sdkVersion(PublicClientApplication.getSdkVersion())
                 .powerOptCheckEnabled(configuration.isPowerOptCheckForEnabled())
-                .authority(authority)
+                .authority(context.getAuthority())
                 .username(username)
                 .password(password)
-                .challengeType(configuration.getChallengeTypes())
+                .challengeType(context.getChallengeTypes())
                 .userAttributes(userAttributes)
                 // Start of the flow, so there is no correlation ID to use from a previous API response.
                 // Set it to a default value.
@@ -383,12 +381,12 @@ public class CommandParametersAdapter {
             @NonNull final String correlationId
     ) {
 
-        final NativeAuthCIAMAuthority authority = ((NativeAuthCIAMAuthority) configuration.getDefaultAuthority());
+        final NativeAuthCommandParametersContext context = configuration.getCommandParametersContext();
 
         return SignUpSubmitCodeCommandParameters.builder()
-                .platformComponents(AndroidPlatformComponentsFactory.createFromContext(configuration.getAppContext()))
-                .applicationName(configuration.getAppContext().getPackageName())
-                .applicationVersion(getPackageVersion(configuration.getAppContext()))
+                .platformComponents(context.getPlatformComponents())
+                .applicationName(context.getApplicationName())
+                .applicationVersion(context.getApplicationVersion())
                 .clientId(configuration.getClientId())
                 .isSharedDevice(configuration.getIsSharedDevice())
                 .redirectUri(configuration.getRedirectUri())
@@ -397,8 +395,8 @@ public class CommandParametersAdapter {
                 .sdkType(SdkType.MSAL)
                 .sdkVersion(PublicClientApplication.getSdkVersion())
                 .powerOptCheckEnabled(configuration.isPowerOptCheckForEnabled())
-                .authority(authority)
-                .challengeType(configuration.getChallengeTypes())
+                .authority(context.getAuthority())
+                .challengeType(context.getChallengeTypes())
                 .continuationToken(continuationToken)
                 .code(code)
                 .correlationId(correlationId)
@@ -421,12 +419,12 @@ public class CommandParametersAdapter {
             @NonNull final String correlationId
     ) {
 
-        final NativeAuthCIAMAuthority authority = ((NativeAuthCIAMAuthority) configuration.getDefaultAuthority());
+        final NativeAuthCommandParametersContext context = configuration.getCommandParametersContext();
 
         return SignUpResendCodeCommandParameters.builder()
-                .platformComponents(AndroidPlatformComponentsFactory.createFromContext(configuration.getAppContext()))
-                .applicationName(configuration.getAppContext().getPackageName())
-                .applicationVersion(getPackageVersion(configuration.getAppContext()))
+                .platformComponents(context.getPlatformComponents())
+                .applicationName(context.getApplicationName())
+                .applicationVersion(context.getApplicationVersion())
                 .clientId(configuration.getClientId())
                 .isSharedDevice(configuration.getIsSharedDevice())
                 .redirectUri(configuration.getRedirectUri())
@@ -435,8 +433,8 @@ public class CommandParametersAdapter {
                 .sdkType(SdkType.MSAL)
                 .sdkVersion(PublicClientApplication.getSdkVersion())
                 .powerOptCheckEnabled(configuration.isPowerOptCheckForEnabled())
-                .challengeType(configuration.getChallengeTypes())
-                .authority(authority)
+                .challengeType(context.getChallengeTypes())
+                .authority(context.getAuthority())
                 .continuationToken(continuationToken)
                 .correlationId(correlationId)
                 .build();
@@ -458,12 +456,12 @@ public class CommandParametersAdapter {
             @NonNull final String correlationId,
             final Map<String, String> userAttributes) {
 
-        final NativeAuthCIAMAuthority authority = ((NativeAuthCIAMAuthority) configuration.getDefaultAuthority());
+        final NativeAuthCommandParametersContext context = configuration.getCommandParametersContext();
 
         return SignUpSubmitUserAttributesCommandParameters.builder()
-                .platformComponents(AndroidPlatformComponentsFactory.createFromContext(configuration.getAppContext()))
-                .applicationName(configuration.getAppContext().getPackageName())
-                .applicationVersion(getPackageVersion(configuration.getAppContext()))
+                .platformComponents(context.getPlatformComponents())
+                .applicationName(context.getApplicationName())
+                .applicationVersion(context.getApplicationVersion())
                 .clientId(configuration.getClientId())
                 .isSharedDevice(configuration.getIsSharedDevice())
                 .redirectUri(configuration.getRedirectUri())
@@ -472,9 +470,9 @@ public class CommandParametersAdapter {
                 .sdkType(SdkType.MSAL)
                 .sdkVersion(PublicClientApplication.getSdkVersion())
                 .powerOptCheckEnabled(configuration.isPowerOptCheckForEnabled())
-                .authority(authority)
+                .authority(context.getAuthority())
                 .clientId(configuration.getClientId())
-                .challengeType(configuration.getChallengeTypes())
+                .challengeType(context.getChallengeTypes())
                 .continuationToken(continuationToken)
                 .userAttributes(userAttributes)
                 .correlationId(correlationId)
@@ -498,12 +496,12 @@ public class CommandParametersAdapter {
             @NonNull final String correlationId,
             @NonNull final char[] password) {
 
-        final NativeAuthCIAMAuthority authority = ((NativeAuthCIAMAuthority) configuration.getDefaultAuthority());
+        final NativeAuthCommandParametersContext context = configuration.getCommandParametersContext();
 
         return SignUpSubmitPasswordCommandParameters.builder()
-                .platformComponents(AndroidPlatformComponentsFactory.createFromContext(configuration.getAppContext()))
-                .applicationName(configuration.getAppContext().getPackageName())
-                .applicationVersion(getPackageVersion(configuration.getAppContext()))
+                .platformComponents(context.getPlatformComponents())
+                .applicationName(context.getApplicationName())
+                .applicationVersion(context.getApplicationVersion())
                 .clientId(configuration.getClientId())
                 .isSharedDevice(configuration.getIsSharedDevice())
                 .redirectUri(configuration.getRedirectUri())
@@ -512,8 +510,8 @@ public class CommandParametersAdapter {
                 .sdkType(SdkType.MSAL)
                 .sdkVersion(PublicClientApplication.getSdkVersion())
                 .powerOptCheckEnabled(configuration.isPowerOptCheckForEnabled())
-                .authority(authority)
-                .challengeType(configuration.getChallengeTypes())
+                .authority(context.getAuthority())
+                .challengeType(context.getChallengeTypes())
                 .continuationToken(continuationToken)
                 .password(password)
                 .correlationId(correlationId)
@@ -536,17 +534,14 @@ public class CommandParametersAdapter {
             @NonNull final String username,
             @Nullable final char[] password,
             final List<String> scopes) throws ClientException {
-        final AbstractAuthenticationScheme authenticationScheme = AuthenticationSchemeFactory.createScheme(
-                AndroidPlatformComponentsFactory.createFromContext(configuration.getAppContext()),
-                null
-        );
+        final NativeAuthCommandParametersContext context = configuration.getCommandParametersContext();
 
-        final NativeAuthCIAMAuthority authority = ((NativeAuthCIAMAuthority) configuration.getDefaultAuthority());
+        final AbstractAuthenticationScheme authenticationScheme = context.getAuthenticationScheme();
 
         final SignInStartCommandParameters commandParameters = SignInStartCommandParameters.builder()
-                .platformComponents(AndroidPlatformComponentsFactory.createFromContext(configuration.getAppContext()))
-                .applicationName(configuration.getAppContext().getPackageName())
-                .applicationVersion(getPackageVersion(configuration.getAppContext()))
+                .platformComponents(context.getPlatformComponents())
+                .applicationName(context.getApplicationName())
+                .applicationVersion(context.getApplicationVersion())
                 .clientId(configuration.getClientId())
                 .isSharedDevice(configuration.getIsSharedDevice())
                 .redirectUri(configuration.getRedirectUri())
@@ -555,12 +550,12 @@ public class CommandParametersAdapter {
                 .sdkType(SdkType.MSAL)
                 .sdkVersion(PublicClientApplication.getSdkVersion())
                 .powerOptCheckEnabled(configuration.isPowerOptCheckForEnabled())
-                .authority(authority)
+                .authority(context.getAuthority())
                 .username(username)
                 .password(password)
                 .authenticationScheme(authenticationScheme)
                 .clientId(configuration.getClientId())
-                .challengeType(configuration.getChallengeTypes())
+                .challengeType(context.getChallengeTypes())
                 .scopes(scopes)
                 // Start of the flow, so there is no correlation ID to use from a previous API response.
                 // Set it to a default value.
@@ -588,17 +583,14 @@ public class CommandParametersAdapter {
             @Nullable final String username,
             @NonNull final String correlationId,
             final List<String> scopes) throws ClientException {
-        final AbstractAuthenticationScheme authenticationScheme = AuthenticationSchemeFactory.createScheme(
-                AndroidPlatformComponentsFactory.createFromContext(configuration.getAppContext()),
-                null
-        );
+        final NativeAuthCommandParametersContext context = configuration.getCommandParametersContext();
 
-        final NativeAuthCIAMAuthority authority = ((NativeAuthCIAMAuthority) configuration.getDefaultAuthority());
+        final AbstractAuthenticationScheme authenticationScheme = context.getAuthenticationScheme();
 
         final SignInWithContinuationTokenCommandParameters commandParameters = SignInWithContinuationTokenCommandParameters.builder()
-                .platformComponents(AndroidPlatformComponentsFactory.createFromContext(configuration.getAppContext()))
-                .applicationName(configuration.getAppContext().getPackageName())
-                .applicationVersion(getPackageVersion(configuration.getAppContext()))
+                .platformComponents(context.getPlatformComponents())
+                .applicationName(context.getApplicationName())
+                .applicationVersion(context.getApplicationVersion())
                 .clientId(configuration.getClientId())
                 .isSharedDevice(configuration.getIsSharedDevice())
                 .redirectUri(configuration.getRedirectUri())
@@ -607,10 +599,10 @@ public class CommandParametersAdapter {
                 .sdkType(SdkType.MSAL)
                 .sdkVersion(PublicClientApplication.getSdkVersion())
                 .powerOptCheckEnabled(configuration.isPowerOptCheckForEnabled())
-                .authority(authority)
+                .authority(context.getAuthority())
                 .continuationToken(continuationToken)
                 .username(username)
-                .challengeType(configuration.getChallengeTypes())
+                .challengeType(context.getChallengeTypes())
                 .authenticationScheme(authenticationScheme)
                 .scopes(scopes)
                 .correlationId(correlationId)
@@ -638,17 +630,14 @@ public class CommandParametersAdapter {
             @NonNull final String correlationId,
             final List<String> scopes) throws ClientException {
 
-        final NativeAuthCIAMAuthority authority = ((NativeAuthCIAMAuthority) configuration.getDefaultAuthority());
+        final NativeAuthCommandParametersContext context = configuration.getCommandParametersContext();
 
-        final AbstractAuthenticationScheme authenticationScheme = AuthenticationSchemeFactory.createScheme(
-                AndroidPlatformComponentsFactory.createFromContext(configuration.getAppContext()),
-                null
-        );
+        final AbstractAuthenticationScheme authenticationScheme = context.getAuthenticationScheme();
 
         final SignInSubmitCodeCommandParameters commandParameters = SignInSubmitCodeCommandParameters.builder()
-                .platformComponents(AndroidPlatformComponentsFactory.createFromContext(configuration.getAppContext()))
-                .applicationName(configuration.getAppContext().getPackageName())
-                .applicationVersion(getPackageVersion(configuration.getAppContext()))
+                .platformComponents(context.getPlatformComponents())
+                .applicationName(context.getApplicationName())
+                .applicationVersion(context.getApplicationVersion())
                 .clientId(configuration.getClientId())
                 .isSharedDevice(configuration.getIsSharedDevice())
                 .redirectUri(configuration.getRedirectUri())
@@ -657,10 +646,10 @@ public class CommandParametersAdapter {
                 .sdkType(SdkType.MSAL)
                 .sdkVersion(PublicClientApplication.getSdkVersion())
                 .powerOptCheckEnabled(configuration.isPowerOptCheckForEnabled())
-                .authority(authority)
+                .authority(context.getAuthority())
                 .continuationToken(continuationToken)
                 .authenticationScheme(authenticationScheme)
-                .challengeType(configuration.getChallengeTypes())
+                .challengeType(context.getChallengeTypes())
                 .code(code)
                 .scopes(scopes)
                 .correlationId(correlationId)
@@ -684,12 +673,12 @@ public class CommandParametersAdapter {
             @NonNull final String correlationId,
             @NonNull final String continuationToken) {
 
-        final NativeAuthCIAMAuthority authority = ((NativeAuthCIAMAuthority) configuration.getDefaultAuthority());
+        final NativeAuthCommandParametersContext context = configuration.getCommandParametersContext();
 
         final SignInResendCodeCommandParameters commandParameters = SignInResendCodeCommandParameters.builder()
-                .platformComponents(AndroidPlatformComponentsFactory.createFromContext(configuration.getAppContext()))
-                .applicationName(configuration.getAppContext().getPackageName())
-                .applicationVersion(getPackageVersion(configuration.getAppContext()))
+                .platformComponents(context.getPlatformComponents())
+                .applicationName(context.getApplicationName())
+                .applicationVersion(context.getApplicationVersion())
                 .clientId(configuration.getClientId())
                 .isSharedDevice(configuration.getIsSharedDevice())
                 .redirectUri(configuration.getRedirectUri())
@@ -698,10 +687,10 @@ public class CommandParametersAdapter {
                 .sdkType(SdkType.MSAL)
                 .sdkVersion(PublicClientApplication.getSdkVersion())
                 .powerOptCheckEnabled(configuration.isPowerOptCheckForEnabled())
-                .authority(authority)
-                .challengeType(configuration.getChallengeTypes())
+                .authority(context.getAuthority())
+                .challengeType(context.getChallengeTypes())
                 .continuationToken(continuationToken)
-                .challengeType(configuration.getChallengeTypes())
+                .challengeType(context.getChallengeTypes())
                 .correlationId(correlationId)
                 .build();
 
@@ -727,18 +716,15 @@ public class CommandParametersAdapter {
             @NonNull final String correlationId,
             final List<String> scopes) throws ClientException {
 
-        final NativeAuthCIAMAuthority authority = ((NativeAuthCIAMAuthority) configuration.getDefaultAuthority());
+        final NativeAuthCommandParametersContext context = configuration.getCommandParametersContext();
 
-        final AbstractAuthenticationScheme authenticationScheme = AuthenticationSchemeFactory.createScheme(
-                AndroidPlatformComponentsFactory.createFromContext(configuration.getAppContext()),
-                null
-        );
+        final AbstractAuthenticationScheme authenticationScheme = context.getAuthenticationScheme();
 
         final SignInSubmitPasswordCommandParameters commandParameters =
                 SignInSubmitPasswordCommandParameters.builder()
-                        .platformComponents(AndroidPlatformComponentsFactory.createFromContext(configuration.getAppContext()))
-                        .applicationName(configuration.getAppContext().getPackageName())
-                        .applicationVersion(getPackageVersion(configuration.getAppContext()))
+                        .platformComponents(context.getPlatformComponents())
+                        .applicationName(context.getApplicationName())
+                        .applicationVersion(context.getApplicationVersion())
                         .clientId(configuration.getClientId())
                         .isSharedDevice(configuration.getIsSharedDevice())
                         .redirectUri(configuration.getRedirectUri())
@@ -747,12 +733,12 @@ public class CommandParametersAdapter {
                         .sdkType(SdkType.MSAL)
                         .sdkVersion(PublicClientApplication.getSdkVersion())
                         .powerOptCheckEnabled(configuration.isPowerOptCheckForEnabled())
-                        .authority(authority)
+                        .authority(context.getAuthority())
                         .authenticationScheme(authenticationScheme)
                         .continuationToken(continuationToken)
                         .password(password)
                         .scopes(scopes)
-                        .challengeType(configuration.getChallengeTypes())
+                        .challengeType(context.getChallengeTypes())
                         .correlationId(correlationId)
                         .build();
 
@@ -772,13 +758,13 @@ public class CommandParametersAdapter {
             @NonNull final OAuth2TokenCache tokenCache,
             @NonNull final String username) {
 
-        final NativeAuthCIAMAuthority authority = ((NativeAuthCIAMAuthority) configuration.getDefaultAuthority());
+        final NativeAuthCommandParametersContext context = configuration.getCommandParametersContext();
 
         final ResetPasswordStartCommandParameters commandParameters =
                 ResetPasswordStartCommandParameters.builder()
-                        .platformComponents(AndroidPlatformComponentsFactory.createFromContext(configuration.getAppContext()))
-                        .applicationName(configuration.getAppContext().getPackageName())
-                        .applicationVersion(getPackageVersion(configuration.getAppContext()))
+                        .platformComponents(context.getPlatformComponents())
+                        .applicationName(context.getApplicationName())
+                        .applicationVersion(context.getApplicationVersion())
                         .clientId(configuration.getClientId())
                         .isSharedDevice(configuration.getIsSharedDevice())
                         .redirectUri(configuration.getRedirectUri())
@@ -787,9 +773,9 @@ public class CommandParametersAdapter {
                         .sdkType(SdkType.MSAL)
                         .sdkVersion(PublicClientApplication.getSdkVersion())
                         .powerOptCheckEnabled(configuration.isPowerOptCheckForEnabled())
-                        .authority(authority)
+                        .authority(context.getAuthority())
                         .username(username)
-                        .challengeType(configuration.getChallengeTypes())
+                        .challengeType(context.getChallengeTypes())
                         .clientId(configuration.getClientId())
                         // Start of the flow, so there is no correlation ID to use from a previous API response.
                         // Set it to a default value.
@@ -815,13 +801,13 @@ public class CommandParametersAdapter {
             @NonNull final String correlationId,
             @NonNull final String continuationToken) {
 
-        final NativeAuthCIAMAuthority authority = ((NativeAuthCIAMAuthority) configuration.getDefaultAuthority());
+        final NativeAuthCommandParametersContext context = configuration.getCommandParametersContext();
 
         final ResetPasswordSubmitCodeCommandParameters commandParameters =
                 ResetPasswordSubmitCodeCommandParameters.builder()
-                        .platformComponents(AndroidPlatformComponentsFactory.createFromContext(configuration.getAppContext()))
-                        .applicationName(configuration.getAppContext().getPackageName())
-                        .applicationVersion(getPackageVersion(configuration.getAppContext()))
+                        .platformComponents(context.getPlatformComponents())
+                        .applicationName(context.getApplicationName())
+                        .applicationVersion(context.getApplicationVersion())
                         .clientId(configuration.getClientId())
                         .isSharedDevice(configuration.getIsSharedDevice())
                         .redirectUri(configuration.getRedirectUri())
@@ -830,9 +816,9 @@ public class CommandParametersAdapter {
                         .sdkType(SdkType.MSAL)
                         .sdkVersion(PublicClientApplication.getSdkVersion())
                         .powerOptCheckEnabled(configuration.isPowerOptCheckForEnabled())
-                        .authority(authority)
+                        .authority(context.getAuthority())
                         .code(code)
-                        .challengeType(configuration.getChallengeTypes())
+                        .challengeType(context.getChallengeTypes())
                         .continuationToken(continuationToken)
                         .clientId(configuration.getClientId())
                         .correlationId(correlationId)
@@ -855,13 +841,13 @@ public class CommandParametersAdapter {
             @NonNull final String correlationId,
             @NonNull final String continuationToken) {
 
-        final NativeAuthCIAMAuthority authority = ((NativeAuthCIAMAuthority) configuration.getDefaultAuthority());
+        final NativeAuthCommandParametersContext context = configuration.getCommandParametersContext();
 
         final ResetPasswordResendCodeCommandParameters commandParameters =
                 ResetPasswordResendCodeCommandParameters.builder()
-                        .platformComponents(AndroidPlatformComponentsFactory.createFromContext(configuration.getAppContext()))
-                        .applicationName(configuration.getAppContext().getPackageName())
-                        .applicationVersion(getPackageVersion(configuration.getAppContext()))
+                        .platformComponents(context.getPlatformComponents())
+                        .applicationName(context.getApplicationName())
+                        .applicationVersion(context.getApplicationVersion())
                         .clientId(configuration.getClientId())
                         .isSharedDevice(configuration.getIsSharedDevice())
                         .redirectUri(configuration.getRedirectUri())
@@ -870,8 +856,8 @@ public class CommandParametersAdapter {
                         .sdkType(SdkType.MSAL)
                         .sdkVersion(PublicClientApplication.getSdkVersion())
                         .powerOptCheckEnabled(configuration.isPowerOptCheckForEnabled())
-                        .authority(authority)
-                        .challengeType(configuration.getChallengeTypes())
+                        .authority(context.getAuthority())
+                        .challengeType(context.getChallengeTypes())
                         .continuationToken(continuationToken)
                         .clientId(configuration.getClientId())
                         .correlationId(correlationId)
@@ -895,13 +881,13 @@ public class CommandParametersAdapter {
             @NonNull final String correlationId,
             @NonNull final char[] password) {
 
-        final NativeAuthCIAMAuthority authority = ((NativeAuthCIAMAuthority) configuration.getDefaultAuthority());
+        final NativeAuthCommandParametersContext context = configuration.getCommandParametersContext();
 
         final ResetPasswordSubmitNewPasswordCommandParameters commandParameters =
                 ResetPasswordSubmitNewPasswordCommandParameters.builder()
-                        .platformComponents(AndroidPlatformComponentsFactory.createFromContext(configuration.getAppContext()))
-                        .applicationName(configuration.getAppContext().getPackageName())
-                        .applicationVersion(getPackageVersion(configuration.getAppContext()))
+                        .platformComponents(context.getPlatformComponents())
+                        .applicationName(context.getApplicationName())
+                        .applicationVersion(context.getApplicationVersion())
                         .clientId(configuration.getClientId())
                         .isSharedDevice(configuration.getIsSharedDevice())
                         .redirectUri(configuration.getRedirectUri())
@@ -910,9 +896,9 @@ public class CommandParametersAdapter {
                         .sdkType(SdkType.MSAL)
                         .sdkVersion(PublicClientApplication.getSdkVersion())
                         .powerOptCheckEnabled(configuration.isPowerOptCheckForEnabled())
-                        .authority(authority)
+                        .authority(context.getAuthority())
                         .continuationToken(continuationToken)
-                        .challengeType(configuration.getChallengeTypes())
+                        .challengeType(context.getChallengeTypes())
                         .newPassword(password)
                         .clientId(configuration.getClientId())
                         .correlationId(correlationId)
@@ -921,7 +907,7 @@ public class CommandParametersAdapter {
         return commandParameters;
     }
 
-    private static String getPackageVersion(@NonNull final Context context) {
+    static String getPackageVersion(@NonNull final Context context) {
         final String packageName = context.getPackageName();
         try {
             final PackageInfo packageInfo = context.getPackageManager().getPackageInfo(packageName, 0);
@@ -1083,9 +1069,10 @@ public class CommandParametersAdapter {
         if (parameters instanceof IntuneAcquireTokenParameters) {
             boolean brokerBrowserEnabled = ((IntuneAcquireTokenParameters) parameters)
                     .isBrokerBrowserSupportEnabled();
-            Logger.info(methodTag,
-                    " IntuneAcquireTokenParameters instance, broker browser enabled : "
-                            + brokerBrowserEnabled
+            LazyLogger.info(
+                    methodTag,
+                    " IntuneAcquireTokenParameters instance, broker browser enabled : %s",
+                    brokerBrowserEnabled
             );
             return brokerBrowserEnabled;
         }
@@ -0,0 +1,205 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.microsoft.identity.client.configuration.HttpDeadlineConfiguration;
+import com.microsoft.identity.client.configuration.HttpEndpointConfiguration;
+
+import java.net.HttpURLConnection;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks the deadline and the retries of one request made under a {@link HttpDeadlineConfiguration}.
+ * <p>
+ * Only the endpoint classes configured with a {@link HttpEndpointConfiguration} are retried:
+ * their requests failing with a 429 or 5xx status are retried up to the configured number of
+ * times. The delay before a retry is the one asked for by the Retry-After header if present, otherwise
+ * it is picked at random below an exponentially growing bound ("full jitter"), so that clients
+ * failing together do not retry together. A retry that would start after the deadline is not made.
+ */
+public final class HttpRequestBudget {
+
+    /**
+     * Returned by {@link #nextRetryDelayMillis(int, String)} when the request must not be retried.
+     */
+    public static final long NO_RETRY = -1;
+
+    private static final String RETRY_AFTER = "Retry-After";
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    /**
+     * Retries beyond this many doublings all use the maximum backoff.
+     */
+    private static final int MAX_BACKOFF_DOUBLINGS = 20;
+
+    /**
+     * The retry settings, null if requests of the endpoint class are not retried.
+     */
+    @Nullable
+    private final HttpEndpointConfiguration mRetryConfiguration;
+    private final long mDeadlineNanos;
+    private final Random mRandom;
+
+    private int mRetries;
+
+    /**
+     * Starts the budget of a request now.
+     *
+     * @param configuration The limits of the endpoint class the request belongs to.
+     */
+    public HttpRequestBudget(@NonNull final HttpDeadlineConfiguration configuration) {
+        this(configuration, System.nanoTime(), new Random());
+    }
+
+    @VisibleForTesting
+    HttpRequestBudget(@NonNull final HttpDeadlineConfiguration configuration,
+                      final long startNanos,
+                      @NonNull final Random random) {
+        mRetryConfiguration = configuration instanceof HttpEndpointConfiguration
+                ? (HttpEndpointConfiguration) configuration
+                : null;
+        mDeadlineNanos = configuration.getDeadlineMs() > 0
+                ? startNanos + TimeUnit.MILLISECONDS.toNanos(configuration.getDeadlineMs())
+                : 0;
+        mRandom = random;
+    }
+
+    public boolean hasDeadline() {
+        return mDeadlineNanos != 0;
+    }
+
+    /**
+     * @return The time left before the deadline in milliseconds, 0 once it has passed, or
+     * {@link Long#MAX_VALUE} if the request has no deadline.
+     */
+    public long getRemainingMillis() {
+        if (!hasDeadline()) {
+            return Long.MAX_VALUE;
+        }
+
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(mDeadlineNanos - System.nanoTime()));
+    }
+
+    /**
+     * @return The number of retries granted so far.
+     */
+    public synchronized int getRetries() {
+        return mRetries;
+    }
+
+    /**
+     * Decides whether a failed request is retried, counting the retry if it is.
+     *
+     * @param statusCode The HTTP status code of the failed request, 0 if there was no response.
+     * @param retryAfter The value of the Retry-After header of the response, if any.
+     * @return The delay before retrying in milliseconds, or {@link #NO_RETRY}.
+     */
+    public synchronized long nextRetryDelayMillis(final int statusCode, @Nullable final String retryAfter) {
+        final HttpEndpointConfiguration configuration = mRetryConfiguration;
+        if (configuration == null || !isRetryable(statusCode) || mRetries >= configuration.getMaxRetries()) {
+            return NO_RETRY;
+        }
+
+        long delayMillis = parseRetryAfterMillis(retryAfter, System.currentTimeMillis());
+        if (delayMillis < 0) {
+            final long bound = Math.min(
+                    configuration.getMaxBackoffMs(),
+                    (long) configuration.getInitialBackoffMs() << Math.min(mRetries, MAX_BACKOFF_DOUBLINGS)
+            );
+            delayMillis = bound > 0 ? (long) (mRandom.nextDouble() * bound) : 0;
+        }
+
+        if (delayMillis >= getRemainingMillis()) {
+            return NO_RETRY;
+        }
+
+        mRetries++;
+        return delayMillis;
+    }
+
+    /**
+     * @return true for the statuses worth retrying: 429 and 5xx.
+     */
+    public static boolean isRetryable(final int statusCode) {
+        return statusCode == TOO_MANY_REQUESTS
+                || (statusCode >= HttpURLConnection.HTTP_INTERNAL_ERROR && statusCode < 600);
+    }
+
+    /**
+     * @param headers Response headers, keyed by case-insensitive name.
+     * @return The value of the Retry-After header, or null if absent.
+     */
+    @Nullable
+    public static String getRetryAfter(@Nullable final Map<String, List<String>> headers) {
+        if (headers == null) {
+            return null;
+        }
+
+        for (final Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if (RETRY_AFTER.equalsIgnoreCase(header.getKey())
+                    && header.getValue() != null
+                    && !header.getValue().isEmpty()) {
+                return header.getValue().get(0);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parses a Retry-After value, either a number of seconds or an HTTP date.
+     *
+     * @return The delay in milliseconds, or -1 if the value is absent or malformed.
+     */
+    @VisibleForTesting
+    static long parseRetryAfterMillis(@Nullable final String retryAfter, final long nowMillis) {
+        if (retryAfter == null) {
+            return -1;
+        }
+
+        final String value = retryAfter.trim();
+        try {
+            return TimeUnit.SECONDS.toMillis(Math.max(0, Long.parseLong(value)));
+        } catch (final NumberFormatException e) {
+            // Not a number of seconds, try an HTTP date.
+        }
+
+        try {
+            final SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+            final Date date = format.parse(value);
+            return date == null ? -1 : Math.max(0, date.getTime() - nowMillis);
+        } catch (final ParseException e) {
+            return -1;
+        }
+    }
+}
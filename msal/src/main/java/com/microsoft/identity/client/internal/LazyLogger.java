@@ -0,0 +1,117 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.client.Logger.LogLevel;
+import com.microsoft.identity.common.logging.Logger;
+
+import java.util.Locale;
+
+/**
+ * Level-gated front end to {@link Logger} for call sites on hot paths. The message is only built
+ * once the level is known to be enabled, so a disabled level costs a single volatile read and no
+ * allocation.
+ * <p>
+ * The format overloads take a fixed number of arguments so no varargs array is created. For a
+ * message that needs more work, guard the call with {@link #isLoggable(LogLevel)}.
+ */
+public final class LazyLogger {
+
+    private LazyLogger() {
+    }
+
+    /**
+     * @param logLevel The level of the message.
+     * @return True if messages at the level are emitted.
+     * @see com.microsoft.identity.client.Logger#isLoggable(LogLevel)
+     */
+    public static boolean isLoggable(@NonNull final LogLevel logLevel) {
+        return com.microsoft.identity.client.Logger.getInstance().isLoggable(logLevel);
+    }
+
+    public static void verbose(@NonNull final String tag,
+                               @NonNull final String format,
+                               @Nullable final Object arg) {
+        if (isLoggable(LogLevel.VERBOSE)) {
+            Logger.verbose(tag, format(format, arg));
+        }
+    }
+
+    public static void verbose(@NonNull final String tag,
+                               @NonNull final String format,
+                               @Nullable final Object arg1,
+                               @Nullable final Object arg2) {
+        if (isLoggable(LogLevel.VERBOSE)) {
+            Logger.verbose(tag, format(format, arg1, arg2));
+        }
+    }
+
+    public static void info(@NonNull final String tag,
+                            @NonNull final String format,
+                            @Nullable final Object arg) {
+        if (isLoggable(LogLevel.INFO)) {
+            Logger.info(tag, format(format, arg));
+        }
+    }
+
+    public static void info(@NonNull final String tag,
+                            @NonNull final String format,
+                            @Nullable final Object arg1,
+                            @Nullable final Object arg2) {
+        if (isLoggable(LogLevel.INFO)) {
+            Logger.info(tag, format(format, arg1, arg2));
+        }
+    }
+
+    public static void warn(@NonNull final String tag,
+                            @NonNull final String format,
+                            @Nullable final Object arg) {
+        if (isLoggable(LogLevel.WARNING)) {
+            Logger.warn(tag, format(format, arg));
+        }
+    }
+
+    public static void warn(@NonNull final String tag,
+                            @NonNull final String format,
+                            @Nullable final Object arg1,
+                            @Nullable final Object arg2) {
+        if (isLoggable(LogLevel.WARNING)) {
+            Logger.warn(tag, format(format, arg1, arg2));
+        }
+    }
+
+    public static void warnPII(@NonNull final String tag,
+                               @NonNull final String format,
+                               @Nullable final Object arg) {
+        if (isLoggable(LogLevel.WARNING)) {
+            Logger.warnPII(tag, format(format, arg));
+        }
+    }
+
+    private static String format(@NonNull final String format, final Object... args) {
+        return String.format(Locale.ROOT, format, args);
+    }
+}
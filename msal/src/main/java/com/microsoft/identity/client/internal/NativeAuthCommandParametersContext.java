@@ -0,0 +1,119 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.common.components.AndroidPlatformComponentsFactory;
+import com.microsoft.identity.common.java.authscheme.AbstractAuthenticationScheme;
+import com.microsoft.identity.common.java.authscheme.AuthenticationSchemeFactory;
+import com.microsoft.identity.common.java.exception.ClientException;
+import com.microsoft.identity.common.java.interfaces.IPlatformComponents;
+import com.microsoft.identity.common.java.nativeauth.authorities.NativeAuthCIAMAuthority;
+import com.microsoft.identity.nativeauth.NativeAuthPublicClientApplicationConfiguration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Values shared by the command parameters of every native auth request of a configuration.
+ * Sign in, sign up and reset password flows send several requests in sequence; building these
+ * values once per application instead of once per request avoids repeated platform component
+ * creation and package manager lookups on the request path.
+ */
+public class NativeAuthCommandParametersContext {
+
+    private final Context mAppContext;
+    private final IPlatformComponents mPlatformComponents;
+    private final String mApplicationName;
+    private final String mApplicationVersion;
+    private final NativeAuthCIAMAuthority mAuthority;
+    private final List<String> mChallengeTypes;
+
+    private volatile AbstractAuthenticationScheme mAuthenticationScheme;
+
+    /**
+     * @param configuration A validated native auth configuration.
+     */
+    public NativeAuthCommandParametersContext(@NonNull final NativeAuthPublicClientApplicationConfiguration configuration) {
+        mAppContext = configuration.getAppContext();
+        mPlatformComponents = AndroidPlatformComponentsFactory.createFromContext(mAppContext);
+        mApplicationName = mAppContext.getPackageName();
+        mApplicationVersion = CommandParametersAdapter.getPackageVersion(mAppContext);
+        mAuthority = (NativeAuthCIAMAuthority) configuration.getDefaultAuthority();
+
+        final List<String> challengeTypes = configuration.getChallengeTypes();
+        mChallengeTypes = challengeTypes == null
+                ? null
+                : Collections.unmodifiableList(new ArrayList<>(challengeTypes));
+    }
+
+    /**
+     * @return true if this context was built for the given application context.
+     */
+    public boolean isFor(@Nullable final Context appContext) {
+        return mAppContext == appContext;
+    }
+
+    @NonNull
+    public IPlatformComponents getPlatformComponents() {
+        return mPlatformComponents;
+    }
+
+    @NonNull
+    public String getApplicationName() {
+        return mApplicationName;
+    }
+
+    @Nullable
+    public String getApplicationVersion() {
+        return mApplicationVersion;
+    }
+
+    @NonNull
+    public NativeAuthCIAMAuthority getAuthority() {
+        return mAuthority;
+    }
+
+    @Nullable
+    public List<String> getChallengeTypes() {
+        return mChallengeTypes;
+    }
+
+    /**
+     * @return The bearer authentication scheme used by native auth token requests.
+     */
+    @NonNull
+    public AbstractAuthenticationScheme getAuthenticationScheme() throws ClientException {
+        AbstractAuthenticationScheme scheme = mAuthenticationScheme;
+        if (scheme == null) {
+            scheme = AuthenticationSchemeFactory.createScheme(mPlatformComponents, null);
+            mAuthenticationScheme = scheme;
+        }
+        return scheme;
+    }
+}
@@ -0,0 +1,69 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal.configuration;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonDeserializationContext;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.microsoft.identity.client.configuration.HttpDeadlineConfiguration;
+import com.microsoft.identity.client.configuration.HttpEndpointConfiguration;
+
+import net.jcip.annotations.Immutable;
+
+import java.lang.reflect.Type;
+
+/**
+ * Reads the endpoint classes of the http configuration whose requests MSAL does not retry,
+ * rejecting the retry settings rather than silently ignoring them.
+ */
+@Immutable
+public class HttpDeadlineConfigurationDeserializer implements JsonDeserializer<HttpDeadlineConfiguration> {
+
+    private static final String[] RETRY_SETTINGS = {
+            HttpEndpointConfiguration.SerializedNames.MAX_RETRIES,
+            HttpEndpointConfiguration.SerializedNames.INITIAL_BACKOFF_MS,
+            HttpEndpointConfiguration.SerializedNames.MAX_BACKOFF_MS
+    };
+
+    private static final Gson GSON = new Gson();
+
+    @Override
+    public HttpDeadlineConfiguration deserialize(final JsonElement json,
+                                                 final Type typeOfT,
+                                                 final JsonDeserializationContext context) throws JsonParseException {
+        if (json.isJsonObject()) {
+            final JsonObject object = json.getAsJsonObject();
+            for (final String setting : RETRY_SETTINGS) {
+                if (object.has(setting)) {
+                    throw new JsonParseException(setting + " is only supported for discovery requests; "
+                            + "token and native_auth only accept deadline_ms.");
+                }
+            }
+        }
+
+        return GSON.fromJson(json, HttpDeadlineConfiguration.class);
+    }
+}
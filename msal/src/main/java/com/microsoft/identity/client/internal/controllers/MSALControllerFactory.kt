@@ -27,7 +27,9 @@ import android.os.Build
 import android.os.PowerManager
 import androidx.annotation.VisibleForTesting
 import androidx.annotation.WorkerThread
+import com.microsoft.identity.client.Logger.LogLevel
 import com.microsoft.identity.client.PublicClientApplicationConfiguration
+import com.microsoft.identity.client.internal.LazyLogger
 import com.microsoft.identity.common.components.AndroidPlatformComponentsFactory
 import com.microsoft.identity.common.internal.activebrokerdiscovery.BrokerDiscoveryClientFactory
 import com.microsoft.identity.common.internal.controllers.BrokerMsalController
@@ -141,20 +143,22 @@ class MSALControllerFactory(
      * Note: This method does NOT check if broker is installed.
      */
     private fun brokerEligible(): Boolean {
-        val methodTag = "$TAG:brokerEligible"
-        val logBrokerEligibleFalse = "Eligible to call broker? [false]. "
+        val verbose = LazyLogger.isLoggable(LogLevel.VERBOSE)
 
         //If app has not asked for Broker or if the authority is not AAD return false
         if (!applicationConfiguration.useBroker || authority !is AzureActiveDirectoryAuthority) {
-            Logger.verbose(
-                methodTag, logBrokerEligibleFalse +
-                        "App does not ask for Broker or the authority is not AAD authority."
-            )
+            if (verbose) {
+                Logger.verbose(
+                    "$TAG:brokerEligible", "Eligible to call broker? [false]. " +
+                            "App does not ask for Broker or the authority is not AAD authority."
+                )
+            }
             return false
         }
 
-        if (powerOptimizationEnabled()) {
-            Logger.verbose(methodTag, "Is the power optimization enabled? [true]")
+        // The power optimization state is only logged, skip the system service call when it would be discarded.
+        if (verbose && powerOptimizationEnabled()) {
+            Logger.verbose("$TAG:brokerEligible", "Is the power optimization enabled? [true]")
         }
         return true
     }
@@ -171,7 +175,7 @@ class MSALControllerFactory(
             )
             isPowerOptimizationOn
         } else {
-            Logger.verbose(methodTag, "Is power optimization on? [" + false + "]")
+            Logger.verbose(methodTag, "Is power optimization on? [false]")
             false
         }
     }
@@ -0,0 +1,121 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.nativeauth
+
+import com.microsoft.identity.client.IAccount
+import com.microsoft.identity.nativeauth.statemachine.states.AccountState
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.asStateFlow
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * In-memory copy of the account signed in for a client id, kept up to date by sign in, sign out
+ * and token refresh results so that the cache does not have to be read for every lookup.
+ *
+ * Each change of the signed-in account increments a generation. An [AccountState] remembers the
+ * generation its account was read at and can keep using that account while it is current.
+ */
+internal class CurrentAccountStore private constructor() {
+
+    private val lock = Any()
+    private val mutableCurrentAccount = MutableStateFlow<AccountState?>(null)
+
+    private var generation = 0L
+    private var loaded = false
+
+    /**
+     * The signed-in account, or null if there is none or it has not been read from the cache yet.
+     */
+    val currentAccount: StateFlow<AccountState?> = mutableCurrentAccount.asStateFlow()
+
+    /**
+     * @return the current generation.
+     */
+    fun generation(): Long = synchronized(lock) { generation }
+
+    /**
+     * @return true if [currentAccount] reflects the cache, i.e. it was read from the cache or
+     * updated by a sign in or sign out since the store was last invalidated.
+     */
+    fun isLoaded(): Boolean = synchronized(lock) { loaded }
+
+    /**
+     * Records that [accountState] was signed in, or that the account was signed out if null.
+     *
+     * @return the new generation.
+     */
+    fun onAccountChanged(accountState: AccountState?): Long = synchronized(lock) {
+        generation++
+        loaded = true
+        mutableCurrentAccount.value = accountState
+        generation
+    }
+
+    /**
+     * Records an account read from the cache or returned by a token refresh at [readGeneration].
+     * Ignored if the account changed since, as the value is then stale. The flow only emits when
+     * the account or its ID token differs from the current value.
+     *
+     * @return true if the value was recorded.
+     */
+    fun onAccountRead(
+        account: IAccount?,
+        readGeneration: Long,
+        createAccountState: (IAccount) -> AccountState
+    ): Boolean = synchronized(lock) {
+        if (readGeneration != generation) {
+            return false
+        }
+
+        loaded = true
+        val current = mutableCurrentAccount.value?.getAccount()
+        if (account == null) {
+            mutableCurrentAccount.value = null
+        } else if (current == null || current.id != account.id || current.idToken != account.idToken) {
+            mutableCurrentAccount.value = createAccountState(account)
+        }
+        true
+    }
+
+    /**
+     * Forgets the in-memory account. The next lookup reads the cache again.
+     */
+    fun invalidate() {
+        synchronized(lock) {
+            generation++
+            loaded = false
+        }
+    }
+
+    companion object {
+        private val stores = ConcurrentHashMap<String, CurrentAccountStore>()
+
+        /**
+         * @return the store shared by all applications and states using [clientId].
+         */
+        fun forClient(clientId: String): CurrentAccountStore {
+            return stores.getOrPut(clientId) { CurrentAccountStore() }
+        }
+    }
+}
@@ -29,6 +29,8 @@ import com.microsoft.identity.nativeauth.statemachine.results.GetAccountResult
 import com.microsoft.identity.nativeauth.statemachine.results.ResetPasswordStartResult
 import com.microsoft.identity.nativeauth.statemachine.results.SignInResult
 import com.microsoft.identity.nativeauth.statemachine.results.SignUpResult
+import com.microsoft.identity.nativeauth.statemachine.states.AccountState
+import kotlinx.coroutines.flow.StateFlow
 
 
 /**
@@ -65,6 +67,15 @@ interface INativeAuthPublicClientApplication : IPublicClientApplication {
      */
     fun getCurrentAccount(callback: NativeAuthPublicClientApplication.GetCurrentAccountCallback)
 
+    /**
+     * Observe the current signed in account. The value is updated when an account is signed in or
+     * signed out, or when a token refresh changes the account's ID token, without reading the cache.
+     * It is null until the cache has been read for the first time, which this call starts if needed.
+     *
+     * @return [kotlinx.coroutines.flow.StateFlow] holding the [com.microsoft.identity.nativeauth.statemachine.states.AccountState] of the signed in account, or null if there is none.
+     */
+    fun observeCurrentAccount(): StateFlow<AccountState?>
+
     /**
      * Sign in a user with a given username; Kotlin coroutines variant.
      *
@@ -0,0 +1,67 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.nativeauth
+
+import com.microsoft.identity.common.java.logging.Logger
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Configurations of the native auth applications created in this process, so that states written
+ * to a parcel can refer to their configuration by key instead of serializing it.
+ */
+internal object NativeAuthConfigurationRegistry {
+
+    private val TAG = NativeAuthConfigurationRegistry::class.java.simpleName
+
+    private val configurations = ConcurrentHashMap<String, NativeAuthPublicClientApplicationConfiguration>()
+
+    /**
+     * @return the key of [config], stable across process restarts for the same client id and authority.
+     */
+    fun keyOf(config: NativeAuthPublicClientApplicationConfiguration): String {
+        return "${config.clientId}|${config.defaultAuthority?.authorityURL}"
+    }
+
+    /**
+     * Makes [config] the configuration resolved for its key.
+     */
+    fun register(config: NativeAuthPublicClientApplicationConfiguration) {
+        configurations[keyOf(config)] = config
+    }
+
+    /**
+     * @return the configuration registered for [key], or null if no application with that key was
+     * created in this process yet, e.g. when a state is restored after process death before the
+     * application is created again.
+     */
+    fun resolve(key: String): NativeAuthPublicClientApplicationConfiguration? {
+        return configurations[key] ?: run {
+            Logger.warn(
+                TAG,
+                "No native auth application was created for the configuration of a restored state. " +
+                    "The state cannot be used until the application is created again."
+            )
+            null
+        }
+    }
+}
@@ -29,7 +29,6 @@ import com.microsoft.identity.client.AuthenticationResultAdapter
 import com.microsoft.identity.client.IAccount
 import com.microsoft.identity.client.PublicClientApplication
 import com.microsoft.identity.client.exception.MsalClientException
-import com.microsoft.identity.client.exception.MsalException
 import com.microsoft.identity.client.internal.CommandParametersAdapter
 import com.microsoft.identity.common.crypto.AndroidAuthSdkStorageEncryptionManager
 import com.microsoft.identity.common.internal.cache.SharedPreferencesFileManager
@@ -54,7 +53,6 @@ import com.microsoft.identity.common.java.nativeauth.controllers.results.SignUpC
 import com.microsoft.identity.common.java.nativeauth.controllers.results.SignUpStartCommandResult
 import com.microsoft.identity.common.java.nativeauth.util.checkAndWrapCommandResultType
 import com.microsoft.identity.common.java.providers.microsoft.azureactivedirectory.AzureActiveDirectory
-import com.microsoft.identity.common.java.util.ResultFuture
 import com.microsoft.identity.common.java.util.StringUtil
 import com.microsoft.identity.common.nativeauth.internal.commands.ResetPasswordStartCommand
 import com.microsoft.identity.common.nativeauth.internal.commands.SignInStartCommand
@@ -80,9 +78,13 @@ import com.microsoft.identity.nativeauth.statemachine.states.SignInPasswordRequi
 import com.microsoft.identity.nativeauth.statemachine.states.SignUpAttributesRequiredState
 import com.microsoft.identity.nativeauth.statemachine.states.SignUpCodeRequiredState
 import com.microsoft.identity.nativeauth.statemachine.states.SignUpPasswordRequiredState
+import com.microsoft.identity.nativeauth.utils.NativeAuthRequestGroup
+import com.microsoft.identity.nativeauth.utils.submitSilentAndAwait
+import kotlinx.coroutines.CancellationException
 import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.flow.StateFlow
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.withContext
 
@@ -96,9 +98,17 @@ class NativeAuthPublicClientApplication(
 
     private lateinit var sharedPreferencesFileManager: SharedPreferencesFileManager
 
+    private val requests = NativeAuthRequestGroup()
+
     init {
         initializeApplication()
         initializeSharedPreferenceFileManager(nativeAuthConfig.appContext)
+        // The cache may have been changed outside of native auth since the account was last read.
+        nativeAuthConfig.currentAccountStore().invalidate()
+        // Built here rather than on the first sign in, sign up or reset password request.
+        nativeAuthConfig.getCommandParametersContext()
+        // States restored from a parcel refer to this configuration by key.
+        NativeAuthConfigurationRegistry.register(nativeAuthConfig)
     }
 
     companion object {
@@ -122,12 +132,38 @@ class NativeAuthPublicClientApplication(
                 methodName = "${TAG}.getCurrentAccountInternal(config: NativeAuthPublicClientApplicationConfiguration)"
             )
 
+            val result = CommandDispatcher.submitSilentReturningFuture(createGetCurrentAccountCommand(config))
+                .get().result as List<ICacheRecord?>?
+
+            // To simplify the logic, if more than one account is returned, the first account will be picked.
+            // We do not support switching from MULTIPLE to SINGLE.
+            return getAccountFromICacheRecordsList(result)
+        }
+
+        /**
+         * Suspending variant of [getCurrentAccountInternal], does not block the calling thread
+         * while the cache is read.
+         */
+        internal suspend fun awaitCurrentAccountInternal(config: NativeAuthPublicClientApplicationConfiguration): IAccount? {
+            LogSession.logMethodCall(
+                tag = TAG,
+                correlationId = null,
+                methodName = "${TAG}.awaitCurrentAccountInternal(config: NativeAuthPublicClientApplicationConfiguration)"
+            )
+
+            val result = submitSilentAndAwait(createGetCurrentAccountCommand(config))
+                .result as List<ICacheRecord?>?
+
+            return getAccountFromICacheRecordsList(result)
+        }
+
+        private fun createGetCurrentAccountCommand(config: NativeAuthPublicClientApplicationConfiguration): GetCurrentAccountCommand {
             val params = CommandParametersAdapter.createCommandParameters(
                 config,
                 config.oAuth2TokenCache
             )
 
-            val command = GetCurrentAccountCommand(
+            return GetCurrentAccountCommand(
                 params,
                 LocalMSALController().asControllerFactory(),
                 object : CommandCallback<List<ICacheRecord?>?, BaseException?> {
@@ -145,12 +181,6 @@ class NativeAuthPublicClientApplication(
                 },
                 PublicApiId.NATIVE_AUTH_GET_ACCOUNT
             )
-            val result = CommandDispatcher.submitSilentReturningFuture(command)
-                .get().result as List<ICacheRecord?>?
-
-            // To simplify the logic, if more than one account is returned, the first account will be picked.
-            // We do not support switching from MULTIPLE to SINGLE.
-            return getAccountFromICacheRecordsList(result)
         }
 
         /**
@@ -205,6 +235,8 @@ class NativeAuthPublicClientApplication(
 
         // Init HTTP cache
         HttpCache.initialize(context.cacheDir)
+
+        warmUpAuthorityConnections(nativeAuthConfig)
         LogSession.logMethodCall(
             tag = TAG,
             correlationId = null,
@@ -229,18 +261,21 @@ class NativeAuthPublicClientApplication(
      * @return [com.microsoft.identity.nativeauth.statemachine.states.AccountState] if there is a signed in account, null otherwise.
      */
     override fun getCurrentAccount(callback: GetCurrentAccountCallback) {
+        getCurrentAccountCancellable(callback)
+    }
+
+    /**
+     * Same as [getCurrentAccount], returning a [com.microsoft.identity.nativeauth.NativeAuthRequest] that can be
+     * used to cancel the request. A cancelled request never invokes its callback.
+     */
+    fun getCurrentAccountCancellable(callback: GetCurrentAccountCallback): NativeAuthRequest {
         LogSession.logMethodCall(
             tag = TAG,
             correlationId = null,
             methodName = "${TAG}.getCurrentAccount(callback: GetCurrentAccountCallback)"
         )
-        pcaScope.launch {
-            try {
-                val result = getCurrentAccount()
-                callback.onResult(result)
-            } catch (e: MsalException) {
-                callback.onError(e)
-            }
+        return requests.launch(TAG, "getCurrentAccount", callback) {
+            getCurrentAccount()
         }
     }
 
@@ -257,11 +292,19 @@ class NativeAuthPublicClientApplication(
         )
         return withContext(Dispatchers.IO) {
             try {
-                val account = getCurrentAccountInternal(nativeAuthConfig)
+                val store = nativeAuthConfig.currentAccountStore()
+                // Read before the cache, so a concurrent account change invalidates the returned state.
+                val accountGeneration = store.generation()
+                val account = if (store.isLoaded()) {
+                    store.currentAccount.value?.getAccount()
+                } else {
+                    loadCurrentAccount(store, accountGeneration)
+                }
                 return@withContext if (account != null) {
                     GetAccountResult.AccountFound(
                         resultValue = AccountState.createFromAccountResult(
                             account = account,
+                            accountGeneration = accountGeneration,
                             correlationId = DiagnosticContext.INSTANCE.threadCorrelationId,
                             config = nativeAuthConfig
                         )
@@ -269,6 +312,8 @@ class NativeAuthPublicClientApplication(
                 } else {
                     GetAccountResult.NoAccountFound
                 }
+            } catch (e: CancellationException) {
+                throw e
             } catch (e: Exception) {
                 GetAccountError(
                     errorType = ErrorTypes.CLIENT_EXCEPTION,
@@ -280,6 +325,50 @@ class NativeAuthPublicClientApplication(
         }
     }
 
+    /**
+     * Observe the current signed in account.
+     *
+     * @return [kotlinx.coroutines.flow.StateFlow] holding the [com.microsoft.identity.nativeauth.statemachine.states.AccountState] of the signed in account, or null if there is none.
+     */
+    override fun observeCurrentAccount(): StateFlow<AccountState?> {
+        LogSession.logMethodCall(
+            tag = TAG,
+            correlationId = null,
+            methodName = "${TAG}.observeCurrentAccount"
+        )
+        val store = nativeAuthConfig.currentAccountStore()
+        if (!store.isLoaded()) {
+            val accountGeneration = store.generation()
+            pcaScope.launch {
+                try {
+                    loadCurrentAccount(store, accountGeneration)
+                } catch (e: CancellationException) {
+                    throw e
+                } catch (e: Exception) {
+                    Logger.error(TAG, "Exception thrown in observeCurrentAccount", e)
+                }
+            }
+        }
+        return store.currentAccount
+    }
+
+    /**
+     * Reads the current account from the cache and records it in [store] unless the account
+     * changed since [accountGeneration].
+     */
+    private suspend fun loadCurrentAccount(store: CurrentAccountStore, accountGeneration: Long): IAccount? {
+        val account = awaitCurrentAccountInternal(nativeAuthConfig)
+        store.onAccountRead(account, accountGeneration) {
+            AccountState.createFromAccountResult(
+                account = it,
+                accountGeneration = accountGeneration,
+                correlationId = DiagnosticContext.INSTANCE.threadCorrelationId,
+                config = nativeAuthConfig
+            )
+        }
+        return account
+    }
+
     interface SignInCallback : Callback<SignInResult>
 
     /**
@@ -297,19 +386,26 @@ class NativeAuthPublicClientApplication(
         scopes: List<String>?,
         callback: SignInCallback
     ) {
+        signInCancellable(username, password, scopes, callback)
+    }
+
+    /**
+     * Same as [signIn], returning a [com.microsoft.identity.nativeauth.NativeAuthRequest] that can be
+     * used to cancel the request. A cancelled request never invokes its callback.
+     */
+    fun signInCancellable(
+        username: String,
+        password: CharArray? = null,
+        scopes: List<String>? = null,
+        callback: SignInCallback
+    ): NativeAuthRequest {
         LogSession.logMethodCall(
             tag = TAG,
             correlationId = null,
             methodName = "${TAG}.signIn(username: String, password: CharArray?, scopes: List<String>?, callback: SignInCallback)"
         )
-        pcaScope.launch {
-            try {
-                val result = signIn(username, password, scopes)
-                callback.onResult(result)
-            } catch (e: MsalException) {
-                Logger.error(TAG, "Exception thrown in signIn", e)
-                callback.onError(e)
-            }
+        return requests.launch(TAG, "signIn", callback) {
+            signIn(username, password, scopes)
         }
     }
 
@@ -362,7 +458,7 @@ class NativeAuthPublicClientApplication(
                     PublicApiId.NATIVE_AUTH_SIGN_IN_WITH_EMAIL
                 )
 
-                val rawCommandResult = CommandDispatcher.submitSilentReturningFuture(command).get()
+                val rawCommandResult = submitSilentAndAwait(command, nativeAuthConfig.httpConfiguration?.nativeAuth)
 
                 try {
                     return@withContext when (val result =
@@ -503,6 +599,8 @@ class NativeAuthPublicClientApplication(
                 } finally {
                     StringUtil.overwriteWithNull(params.password)
                 }
+            } catch (e: CancellationException) {
+                throw e
             } catch (e: Exception) {
                 SignInError(
                     errorType = ErrorTypes.CLIENT_EXCEPTION,
@@ -532,19 +630,26 @@ class NativeAuthPublicClientApplication(
         attributes: UserAttributes?,
         callback: SignUpCallback
     ) {
+        signUpCancellable(username, password, attributes, callback)
+    }
+
+    /**
+     * Same as [signUp], returning a [com.microsoft.identity.nativeauth.NativeAuthRequest] that can be
+     * used to cancel the request. A cancelled request never invokes its callback.
+     */
+    fun signUpCancellable(
+        username: String,
+        password: CharArray? = null,
+        attributes: UserAttributes? = null,
+        callback: SignUpCallback
+    ): NativeAuthRequest {
         LogSession.logMethodCall(
             tag = TAG,
             correlationId = null,
             methodName = "${TAG}.signUp(username: String, password: CharArray?, attributes: UserAttributes?, callback: SignUpCallback)"
         )
-        pcaScope.launch {
-            try {
-                val result = signUp(username, password, attributes)
-                callback.onResult(result)
-            } catch (e: MsalException) {
-                Logger.error(TAG, "Exception thrown in signUp", e)
-                callback.onError(e)
-            }
+        return requests.launch(TAG, "signUp", callback) {
+            signUp(username, password, attributes)
         }
     }
 
@@ -570,7 +675,7 @@ class NativeAuthPublicClientApplication(
 
         return withContext(Dispatchers.IO) {
             try {
-                val doesAccountExist = checkForPersistedAccount().get()
+                val doesAccountExist = checkForPersistedAccount()
                 if (doesAccountExist) {
                     throw MsalClientException(
                         MsalClientException.INVALID_PARAMETER,
@@ -601,7 +706,7 @@ class NativeAuthPublicClientApplication(
                     PublicApiId.NATIVE_AUTH_SIGN_UP_START
                 )
 
-                val rawCommandResult = CommandDispatcher.submitSilentReturningFuture(command).get()
+                val rawCommandResult = submitSilentAndAwait(command, nativeAuthConfig.httpConfiguration?.nativeAuth)
 
                 try {
                     return@withContext when (val result =
@@ -618,14 +723,16 @@ class NativeAuthPublicClientApplication(
                         }
 
                         is SignUpCommandResult.AttributesRequired -> {
+                            val requiredAttributes = result.requiredAttributes.toListOfRequiredUserAttribute()
                             SignUpResult.AttributesRequired(
                                 nextState = SignUpAttributesRequiredState(
                                     continuationToken = result.continuationToken,
                                     correlationId = result.correlationId,
                                     username = username,
-                                    config = nativeAuthConfig
+                                    config = nativeAuthConfig,
+                                    attributesSchema = UserAttributesSchema(requiredAttributes)
                                 ),
-                                requiredAttributes = result.requiredAttributes.toListOfRequiredUserAttribute()
+                                requiredAttributes = requiredAttributes
                             )
                         }
 
@@ -747,6 +854,8 @@ class NativeAuthPublicClientApplication(
                 } finally {
                     StringUtil.overwriteWithNull(parameters.password)
                 }
+            } catch (e: CancellationException) {
+                throw e
             } catch (e: Exception) {
                 SignUpError(
                     errorType = ErrorTypes.CLIENT_EXCEPTION,
@@ -768,19 +877,21 @@ class NativeAuthPublicClientApplication(
      * @return [com.microsoft.identity.nativeauth.statemachine.results.ResetPasswordStartResult] see detailed possible return state under the object.
      */
     override fun resetPassword(username: String, callback: ResetPasswordCallback) {
+        resetPasswordCancellable(username, callback)
+    }
+
+    /**
+     * Same as [resetPassword], returning a [com.microsoft.identity.nativeauth.NativeAuthRequest] that can be
+     * used to cancel the request. A cancelled request never invokes its callback.
+     */
+    fun resetPasswordCancellable(username: String, callback: ResetPasswordCallback): NativeAuthRequest {
         LogSession.logMethodCall(
             tag = TAG,
             correlationId = null,
             methodName = "${TAG}.resetPassword(username: String, callback: ResetPasswordCallback)"
         )
-        pcaScope.launch {
-            try {
-                val result = resetPassword(username = username)
-                callback.onResult(result)
-            } catch (e: MsalException) {
-                Logger.error(TAG, "Exception thrown in resetPassword", e)
-                callback.onError(e)
-            }
+        return requests.launch(TAG, "resetPassword", callback) {
+            resetPassword(username = username)
         }
     }
 
@@ -798,7 +909,7 @@ class NativeAuthPublicClientApplication(
         )
        try {
            return withContext(Dispatchers.IO) {
-               val doesAccountExist = checkForPersistedAccount().get()
+               val doesAccountExist = checkForPersistedAccount()
                if (doesAccountExist) {
                    throw MsalClientException(
                        MsalClientException.INVALID_PARAMETER,
@@ -826,7 +937,7 @@ class NativeAuthPublicClientApplication(
                    PublicApiId.NATIVE_AUTH_RESET_PASSWORD_START
                )
 
-               val rawCommandResult = CommandDispatcher.submitSilentReturningFuture(command).get()
+               val rawCommandResult = submitSilentAndAwait(command, nativeAuthConfig.httpConfiguration?.nativeAuth)
 
                return@withContext when (val result =
                    rawCommandResult.checkAndWrapCommandResultType<ResetPasswordStartCommandResult>()) {
@@ -910,6 +1021,8 @@ class NativeAuthPublicClientApplication(
                    }
                }
            }
+       } catch (e: CancellationException) {
+           throw e
        } catch (e: Exception) {
            return ResetPasswordError(
                errorType = ErrorTypes.CLIENT_EXCEPTION,
@@ -920,8 +1033,8 @@ class NativeAuthPublicClientApplication(
        }
     }
     
-    private fun verifyNoUserIsSignedIn() {
-        val doesAccountExist = checkForPersistedAccount().get()
+    private suspend fun verifyNoUserIsSignedIn() {
+        val doesAccountExist = checkForPersistedAccount()
         if (doesAccountExist) {
             Logger.error(
                 TAG,
@@ -935,24 +1048,13 @@ class NativeAuthPublicClientApplication(
         }
     }
 
-    private fun checkForPersistedAccount(): ResultFuture<Boolean> {
+    private suspend fun checkForPersistedAccount(): Boolean {
         LogSession.logMethodCall(
             tag = TAG,
             correlationId = null,
             methodName = "${TAG}.checkForPersistedAccount"
         )
-        val future = ResultFuture<Boolean>()
-        getCurrentAccount(object : NativeAuthPublicClientApplication.GetCurrentAccountCallback {
-            override fun onResult(result: GetAccountResult) {
-                future.setResult(result is GetAccountResult.AccountFound)
-            }
-
-            override fun onError(exception: BaseException) {
-                Logger.error(TAG, "Exception thrown in checkForPersistedAccount", exception)
-                future.setException(exception)
-            }
-        })
-
-        return future
+        // Answered from the in-memory account once it has been read, see getCurrentAccount().
+        return getCurrentAccount() is GetAccountResult.AccountFound
     }
 }
@@ -27,6 +27,7 @@ import com.google.gson.annotations.SerializedName
 import com.microsoft.identity.client.PublicClientApplicationConfiguration
 import com.microsoft.identity.client.configuration.AccountMode
 import com.microsoft.identity.client.exception.MsalClientException
+import com.microsoft.identity.client.internal.NativeAuthCommandParametersContext
 import com.microsoft.identity.common.java.authorities.CIAMAuthority
 import com.microsoft.identity.common.java.logging.Logger
 import com.microsoft.identity.common.java.nativeauth.authorities.NativeAuthCIAMAuthority
@@ -71,12 +72,42 @@ public class NativeAuthPublicClientApplicationConfiguration :
     @SerializedName(NativeAuthSerializedNames.DC)
     var dc: String? = null
 
+    // Built on first use, not serialized. Reset whenever the fields it is derived from change.
+    @Transient
+    private var commandParametersContext: NativeAuthCommandParametersContext? = null
+
     fun getChallengeTypes(): List<String>? {
         return challengeTypes
     }
 
     fun setChallengeTypes(challengeTypes: List<String>?) {
         this.challengeTypes = challengeTypes
+        resetCommandParametersContext()
+    }
+
+    /**
+     * @return the values shared by the command parameters of all native auth requests made with
+     * this configuration, computed on first use.
+     */
+    @Synchronized
+    fun getCommandParametersContext(): NativeAuthCommandParametersContext {
+        val current = commandParametersContext
+        if (current != null && current.isFor(appContext)) {
+            return current
+        }
+        return NativeAuthCommandParametersContext(this).also { commandParametersContext = it }
+    }
+
+    @Synchronized
+    private fun resetCommandParametersContext() {
+        commandParametersContext = null
+    }
+
+    /**
+     * @return the in-memory copy of the account signed in for this configuration's client id.
+     */
+    internal fun currentAccountStore(): CurrentAccountStore {
+        return CurrentAccountStore.forClient(clientId)
     }
 
     fun mergeConfiguration(config: NativeAuthPublicClientApplicationConfiguration) {
@@ -94,6 +125,8 @@ public class NativeAuthPublicClientApplicationConfiguration :
         useMockAuthority = if (config.useMockAuthority == null) useMockAuthority else config.useMockAuthority
 
         dc = if (config.dc == null) dc else config.dc
+
+        resetCommandParametersContext()
     }
 
     /**
@@ -174,6 +207,9 @@ public class NativeAuthPublicClientApplicationConfiguration :
 
         // Check that challenge types are all valid
         validateChallengeTypes()
+
+        // The authority and challenge types may have been normalized above.
+        resetCommandParametersContext()
     }
 
     /**
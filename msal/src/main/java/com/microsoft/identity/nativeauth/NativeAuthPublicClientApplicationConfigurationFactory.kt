@@ -28,6 +28,8 @@ import com.google.gson.Gson
 import com.google.gson.GsonBuilder
 import com.microsoft.identity.client.PublicClientApplicationConfiguration
 import com.microsoft.identity.client.PublicClientApplicationConfigurationFactory
+import com.microsoft.identity.client.configuration.HttpDeadlineConfiguration
+import com.microsoft.identity.client.internal.configuration.HttpDeadlineConfigurationDeserializer
 import com.microsoft.identity.client.internal.configuration.LogLevelDeserializer
 import com.microsoft.identity.common.components.AndroidPlatformComponentsFactory
 import com.microsoft.identity.common.internal.authorities.AzureActiveDirectoryAudienceDeserializer
@@ -250,6 +252,10 @@ class NativeAuthPublicClientApplicationConfigurationFactory :
                     com.microsoft.identity.client.Logger.LogLevel::class.java,
                     LogLevelDeserializer()
                 )
+                .registerTypeAdapter(
+                    HttpDeadlineConfiguration::class.java,
+                    HttpDeadlineConfigurationDeserializer()
+                )
                 .create()
         }
     }
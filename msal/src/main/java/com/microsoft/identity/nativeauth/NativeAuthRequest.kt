@@ -0,0 +1,46 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.nativeauth
+
+/**
+ * Handle to a request started through one of the Cancellable callback variants of the Native Auth
+ * APIs, e.g. [NativeAuthPublicClientApplication.signInCancellable].
+ */
+interface NativeAuthRequest {
+
+    /**
+     * Cancels the request. The callback is not invoked once the request has been cancelled, and
+     * the command backing it stops being awaited.
+     */
+    fun cancel()
+
+    /**
+     * @return true if the request was cancelled before it completed.
+     */
+    fun isCancelled(): Boolean
+
+    /**
+     * @return true if the request completed, was cancelled or failed.
+     */
+    fun isCompleted(): Boolean
+}
@@ -145,8 +145,12 @@ class UserAttributes(internal val userAttributes: Map<String, String>) {
             return this
         }
 
+        /**
+         * Creates the attributes set so far. The builder can be changed and built again afterwards
+         * without affecting the attributes already built.
+         */
         fun build(): UserAttributes {
-            return UserAttributes(userAttributes)
+            return UserAttributes(userAttributes.toMap())
         }
     }
 }
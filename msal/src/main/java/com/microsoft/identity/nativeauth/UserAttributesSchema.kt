@@ -0,0 +1,76 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.nativeauth
+
+import com.microsoft.identity.common.java.logging.Logger
+import java.util.regex.Pattern
+import java.util.regex.PatternSyntaxException
+
+/**
+ * The attributes the server asked for in a sign up flow, with their constraints compiled once, so
+ * that attributes that would be rejected are found before they are submitted.
+ *
+ * The server remains the authority on the attributes: an attribute unknown to the schema is not
+ * checked, and a constraint that cannot be compiled is ignored.
+ */
+internal class UserAttributesSchema(requiredAttributes: List<RequiredUserAttribute>) {
+
+    companion object {
+        private val TAG = UserAttributesSchema::class.java.simpleName
+    }
+
+    private val mandatoryAttributes: List<RequiredUserAttribute> = requiredAttributes
+        .filter { it.required == true && it.attributeName != null }
+
+    private val patterns: Map<String, List<Pattern>> = requiredAttributes
+        .filter { it.attributeName != null && !it.options?.regex.isNullOrEmpty() }
+        .groupBy(keySelector = { it.attributeName!! }, valueTransform = { it.options!!.regex!! })
+        .mapValues { (name, regexes) -> regexes.mapNotNull { compile(name, it) } }
+
+    /**
+     * @return the required attributes missing from [attributes], empty if none is missing.
+     */
+    fun findMissingAttributes(attributes: UserAttributes): List<RequiredUserAttribute> {
+        val values = attributes.userAttributes
+        return mandatoryAttributes.filter { values[it.attributeName].isNullOrBlank() }
+    }
+
+    /**
+     * @return the names of the attributes of [attributes] whose value does not match their
+     * constraint, empty if none fails.
+     */
+    fun findInvalidAttributes(attributes: UserAttributes): List<String> {
+        return attributes.userAttributes
+            .filter { (name, value) -> patterns[name]?.any { !it.matcher(value).matches() } == true }
+            .map { it.key }
+    }
+
+    private fun compile(name: String, regex: String): Pattern? {
+        return try {
+            Pattern.compile(regex)
+        } catch (e: PatternSyntaxException) {
+            Logger.warn(TAG, "Ignoring the constraint of attribute $name, it is not a valid regular expression.")
+            null
+        }
+    }
+}
@@ -26,20 +26,19 @@ package com.microsoft.identity.nativeauth.statemachine.states
 import android.os.Parcel
 import android.os.Parcelable
 import com.microsoft.identity.client.Account
+import com.microsoft.identity.client.AccountSnapshot
 import com.microsoft.identity.client.AcquireTokenSilentParameters
 import com.microsoft.identity.client.AuthenticationResultAdapter
 import com.microsoft.identity.client.IAccount
 import com.microsoft.identity.client.IAuthenticationResult
 import com.microsoft.identity.client.PublicClientApplication
 import com.microsoft.identity.client.exception.MsalClientException
-import com.microsoft.identity.client.exception.MsalException
 import com.microsoft.identity.client.internal.CommandParametersAdapter
 import com.microsoft.identity.common.internal.commands.RemoveCurrentAccountCommand
 import com.microsoft.identity.common.internal.controllers.LocalMSALController
 import com.microsoft.identity.common.java.AuthenticationConstants
 import com.microsoft.identity.common.java.commands.CommandCallback
 import com.microsoft.identity.common.java.commands.SilentTokenCommand
-import com.microsoft.identity.common.java.controllers.CommandDispatcher
 import com.microsoft.identity.common.java.controllers.ExceptionAdapter
 import com.microsoft.identity.common.java.dto.AccountRecord
 import com.microsoft.identity.common.java.eststelemetry.PublicApiId
@@ -50,17 +49,28 @@ import com.microsoft.identity.common.java.logging.Logger
 import com.microsoft.identity.common.java.result.ILocalAuthenticationResult
 import com.microsoft.identity.common.java.result.LocalAuthenticationResult
 import com.microsoft.identity.common.nativeauth.internal.controllers.NativeAuthMsalController
+import com.microsoft.identity.nativeauth.CurrentAccountStore
 import com.microsoft.identity.nativeauth.NativeAuthPublicClientApplication
 import com.microsoft.identity.nativeauth.NativeAuthPublicClientApplicationConfiguration
+import com.microsoft.identity.nativeauth.NativeAuthRequest
 import com.microsoft.identity.nativeauth.statemachine.errors.ErrorTypes
 import com.microsoft.identity.nativeauth.statemachine.errors.GetAccessTokenError
 import com.microsoft.identity.nativeauth.statemachine.errors.GetAccessTokenErrorTypes
 import com.microsoft.identity.nativeauth.statemachine.errors.SignOutError
 import com.microsoft.identity.nativeauth.statemachine.results.GetAccessTokenResult
 import com.microsoft.identity.nativeauth.statemachine.results.SignOutResult
-import com.microsoft.identity.nativeauth.utils.serializable
+import com.microsoft.identity.nativeauth.utils.NativeAuthRequestGroup
+import com.microsoft.identity.nativeauth.utils.StatePayload
+import com.microsoft.identity.nativeauth.utils.readStatePayload
+import com.microsoft.identity.nativeauth.utils.readAccountSnapshot
+import com.microsoft.identity.nativeauth.utils.ConfigReference
+import com.microsoft.identity.nativeauth.utils.readConfigReference
+import com.microsoft.identity.nativeauth.utils.writeAccountSnapshot
+import com.microsoft.identity.nativeauth.utils.writeConfigReference
+import com.microsoft.identity.nativeauth.utils.writeStatePayload
+import com.microsoft.identity.nativeauth.utils.submitSilentAndAwait
+import kotlinx.coroutines.CancellationException
 import kotlinx.coroutines.Dispatchers
-import kotlinx.coroutines.launch
 import kotlinx.coroutines.withContext
 import java.util.UUID
 
@@ -68,18 +78,49 @@ import java.util.UUID
  *  AccountState returned as part of a successful completion of sign in flow [com.microsoft.identity.nativeauth.statemachine.results.SignInResult.Complete].
  */
 class AccountState private constructor(
-    private var account: IAccount,
-    private val config: NativeAuthPublicClientApplicationConfiguration,
+    @Volatile private var account: IAccount?,
+    private val configReference: ConfigReference,
     val correlationId: String
 ) : Parcelable {
 
     interface SignOutCallback : Callback<SignOutResult>
 
-    constructor (parcel: Parcel) : this (
-        account = parcel.serializable<IAccount>() as IAccount,
-        correlationId = parcel.readString() ?: "UNSET",
-        config = parcel.serializable<NativeAuthPublicClientApplicationConfiguration>() as NativeAuthPublicClientApplicationConfiguration
-    )
+    /**
+     * Account generation [account] was read at, see [CurrentAccountStore.generation].
+     * While it matches the current generation, [account] is used instead of reading the cache.
+     */
+    @Volatile
+    private var accountGeneration: Long = UNKNOWN_ACCOUNT_GENERATION
+
+    /**
+     * Account read from a parcel, turned into [account] on first use.
+     */
+    @Volatile
+    private var parceledAccount: AccountSnapshot? = null
+
+    private val requests = NativeAuthRequestGroup()
+
+    constructor (parcel: Parcel) : this (parcel.readStatePayload())
+
+    private constructor (payload: StatePayload) : this (
+        account = null,
+        correlationId = payload.parcel.readString() ?: "UNSET",
+        configReference = payload.parcel.readConfigReference()
+    ) {
+        parceledAccount = payload.parcel.readAccountSnapshot()
+    }
+
+    private val config: NativeAuthPublicClientApplicationConfiguration
+        get() = configReference.resolve()
+
+    /**
+     * Whether this state was restored from a parcel it cannot be used from, e.g. one written by
+     * another version of the library, or while no application with its configuration has been
+     * created again; it becomes usable once the application is. Its actions return an error with the [com.microsoft.identity.client.exception.MsalClientException.NATIVE_AUTH_STATE_RESTART_REQUIRED_ERROR_CODE]
+     * exception; get the current account from the application instead.
+     */
+    val isRestartRequired: Boolean
+        get() = configReference.resolveOrNull() == null
 
     /**
      * Remove the current account from the cache; callback variant.
@@ -87,19 +128,21 @@ class AccountState private constructor(
      * @param callback [com.microsoft.identity.nativeauth.statemachine.states.AccountState.SignOutCallback] to receive the result on.
      */
     fun signOut(callback: SignOutCallback) {
+        signOutCancellable(callback)
+    }
+
+    /**
+     * Same as [signOut], returning a [com.microsoft.identity.nativeauth.NativeAuthRequest] that can be
+     * used to cancel the request. A cancelled request never invokes its callback.
+     */
+    fun signOutCancellable(callback: SignOutCallback): NativeAuthRequest {
         LogSession.logMethodCall(
             tag = TAG,
             correlationId = null,
             methodName = "${TAG}.signOut(callback: SignOutCallback)"
         )
-        NativeAuthPublicClientApplication.pcaScope.launch {
-            try {
-                val result = signOut()
-                callback.onResult(result)
-            } catch (e: MsalException) {
-                Logger.error(TAG, "Exception thrown in signOut", e)
-                callback.onError(e)
-            }
+        return requests.launch(TAG, "signOut", callback) {
+            signOut()
         }
     }
 
@@ -116,7 +159,7 @@ class AccountState private constructor(
                 )
 
                 val account: IAccount =
-                    NativeAuthPublicClientApplication.getCurrentAccountInternal(config)
+                    getCurrentAccountSnapshot()
                         ?: throw MsalClientException(
                             MsalClientException.NO_CURRENT_ACCOUNT,
                             MsalClientException.NO_CURRENT_ACCOUNT_ERROR_MESSAGE
@@ -151,10 +194,12 @@ class AccountState private constructor(
                     PublicApiId.NATIVE_AUTH_ACCOUNT_SIGN_OUT
                 )
 
-                val result = CommandDispatcher.submitSilentReturningFuture(
+                val result = submitSilentAndAwait(
                     removeCurrentAccountCommandParameters
-                )
-                    .get().result as Boolean
+                ).result as Boolean
+
+                accountGeneration = UNKNOWN_ACCOUNT_GENERATION
+                config.currentAccountStore().onAccountChanged(null)
 
                 return@withContext if (result) {
                     SignOutResult.Complete
@@ -169,6 +214,8 @@ class AccountState private constructor(
                         "Unexpected error during signOut."
                     )
                 }
+            } catch (e: CancellationException) {
+                throw e
             } catch (e: Exception) {
                 SignOutError(
                     errorType = ErrorTypes.CLIENT_EXCEPTION,
@@ -180,13 +227,27 @@ class AccountState private constructor(
         }
     }
 
+    /**
+     * Cancels the requests started from this state through its callback variants that are still
+     * in flight. Their callbacks will not be invoked.
+     */
+    fun cancel() {
+        requests.cancelAll()
+    }
+
     /**
      * Gets the current account.
      *
      * @return account [com.microsoft.identity.client.IAccount].
      */
     fun getAccount(): IAccount {
-        return account
+        account?.let { return it }
+        return synchronized(this) {
+            account ?: parceledAccount!!.toAccount().also {
+                account = it
+                parceledAccount = null
+            }
+        }
     }
 
     /**
@@ -195,7 +256,7 @@ class AccountState private constructor(
      * @return idToken [String].
      */
     fun getIdToken(): String? {
-        return account.idToken
+        return getAccount().idToken
     }
 
     /**
@@ -204,7 +265,7 @@ class AccountState private constructor(
      * @return A Map of claims.
      */
     fun getClaims(): Map<String, *>? {
-        return account.claims
+        return getAccount().claims
     }
 
     interface GetAccessTokenCallback : Callback<GetAccessTokenResult>
@@ -217,19 +278,21 @@ class AccountState private constructor(
      * @return [com.microsoft.identity.client.IAuthenticationResult] If successful.
      */
     fun getAccessToken(forceRefresh: Boolean = false, callback: GetAccessTokenCallback) {
+        getAccessTokenCancellable(forceRefresh, callback)
+    }
+
+    /**
+     * Same as [getAccessToken], returning a [com.microsoft.identity.nativeauth.NativeAuthRequest] that can be
+     * used to cancel the request. A cancelled request never invokes its callback.
+     */
+    fun getAccessTokenCancellable(forceRefresh: Boolean = false, callback: GetAccessTokenCallback): NativeAuthRequest {
         LogSession.logMethodCall(
             tag = TAG,
             correlationId = null,
             methodName = "${TAG}.getAccessToken(forceRefresh: Boolean = ${forceRefresh}, callback: GetAccessTokenCallback)"
         )
-        NativeAuthPublicClientApplication.pcaScope.launch {
-            try {
-                val result = getAccessToken(forceRefresh)
-                callback.onResult(result)
-            } catch (e: MsalException) {
-                Logger.error(TAG, "Exception thrown in getAccessToken", e)
-                callback.onError(e)
-            }
+        return requests.launch(TAG, "getAccessToken", callback) {
+            getAccessToken(forceRefresh)
         }
     }
 
@@ -275,19 +338,21 @@ class AccountState private constructor(
      * @return [com.microsoft.identity.client.IAuthenticationResult] If successful.
      */
     fun getAccessToken(forceRefresh: Boolean = false, scopes: List<String>, callback: GetAccessTokenCallback) {
+        getAccessTokenCancellable(forceRefresh, scopes, callback)
+    }
+
+    /**
+     * Same as [getAccessToken], returning a [com.microsoft.identity.nativeauth.NativeAuthRequest] that can be
+     * used to cancel the request. A cancelled request never invokes its callback.
+     */
+    fun getAccessTokenCancellable(forceRefresh: Boolean = false, scopes: List<String>, callback: GetAccessTokenCallback): NativeAuthRequest {
         LogSession.logMethodCall(
             tag = TAG,
             correlationId = null,
             methodName = "${TAG}.getAccessToken(forceRefresh: Boolean = ${forceRefresh}, scopes: List<String>, callback: GetAccessTokenCallback)"
         )
-        NativeAuthPublicClientApplication.pcaScope.launch {
-            try {
-                val result = getAccessToken(forceRefresh, scopes)
-                callback.onResult(result)
-            } catch (e: MsalException) {
-                Logger.error(TAG, "Exception thrown in getAccessToken", e)
-                callback.onError(e)
-            }
+        return requests.launch(TAG, "getAccessToken", callback) {
+            getAccessToken(forceRefresh, scopes)
         }
     }
 
@@ -300,8 +365,9 @@ class AccountState private constructor(
 
         return withContext(Dispatchers.IO) {
             try {
+                val generation = config.currentAccountStore().generation()
                 val currentAccount =
-                    NativeAuthPublicClientApplication.getCurrentAccountInternal(config) as? Account
+                    getCurrentAccountSnapshot() as? Account
                         ?: return@withContext GetAccessTokenError(
                             errorType = GetAccessTokenErrorTypes.NO_ACCOUNT_FOUND,
                             error = MsalClientException.NO_CURRENT_ACCOUNT,
@@ -350,11 +416,12 @@ class AccountState private constructor(
                     PublicApiId.NATIVE_AUTH_ACCOUNT_GET_ACCESS_TOKEN
                 )
 
-                val commandResult = CommandDispatcher.submitSilentReturningFuture(command)
-                    .get().result
+                val commandResult = submitSilentAndAwait(command, config.httpConfiguration?.token).result
 
                 return@withContext when (commandResult) {
                     is ServiceException -> {
+                        // The account may have been removed from the cache, read it again next time.
+                        accountGeneration = UNKNOWN_ACCOUNT_GENERATION
                         GetAccessTokenError(
                             exception = ExceptionAdapter.convertToNativeAuthException(commandResult),
                             correlationId = commandResult.correlationId ?: correlationId
@@ -362,6 +429,7 @@ class AccountState private constructor(
                     }
 
                     is Exception -> {
+                        accountGeneration = UNKNOWN_ACCOUNT_GENERATION
                         GetAccessTokenError(
                             exception = commandResult,
                             correlationId = correlationId
@@ -369,14 +437,20 @@ class AccountState private constructor(
                     }
 
                     else -> {
+                        val authenticationResult =
+                            AuthenticationResultAdapter.adapt(commandResult as ILocalAuthenticationResult)
                         // Account and Id token data could change after access token refresh, update the account object in the state
-                        account =
-                            AuthenticationResultAdapter.adapt(commandResult as ILocalAuthenticationResult).account
+                        updateAccountSnapshot(authenticationResult.account, generation)
+                        config.currentAccountStore().onAccountRead(authenticationResult.account, generation) {
+                            createFromAccountResult(it, generation, correlationId, config)
+                        }
                         GetAccessTokenResult.Complete(
-                            resultValue = AuthenticationResultAdapter.adapt(commandResult)
+                            resultValue = authenticationResult
                         )
                     }
                 }
+            } catch (e: CancellationException) {
+                throw e
             } catch (e: Exception) {
                 GetAccessTokenError(
                     errorType = ErrorTypes.CLIENT_EXCEPTION,
@@ -388,10 +462,41 @@ class AccountState private constructor(
         }
     }
 
+    /**
+     * Returns the account held by this state if no account change happened since it was read,
+     * otherwise reads the current account from the cache.
+     */
+    private suspend fun getCurrentAccountSnapshot(): IAccount? {
+        val store = config.currentAccountStore()
+        val generation = store.generation()
+        if (accountGeneration == generation) {
+            return getAccount()
+        }
+
+        val currentAccount = NativeAuthPublicClientApplication.awaitCurrentAccountInternal(config)
+        store.onAccountRead(currentAccount, generation) {
+            createFromAccountResult(it, generation, correlationId, config)
+        }
+        if (currentAccount == null) {
+            return null
+        }
+        updateAccountSnapshot(currentAccount, generation)
+        return currentAccount
+    }
+
+    private fun updateAccountSnapshot(currentAccount: IAccount, generation: Long) {
+        account = currentAccount
+        parceledAccount = null
+        accountGeneration = generation
+    }
+
     override fun writeToParcel(parcel: Parcel, flags: Int) {
-        parcel.writeSerializable(account)
-        parcel.writeSerializable(correlationId)
-        parcel.writeSerializable(config)
+        parcel.writeStatePayload {
+            writeString(correlationId)
+            writeConfigReference(configReference)
+            // Only the identifiers and raw ID token are written, the claims are parsed again on first use.
+            writeAccountSnapshot(parceledAccount ?: AccountSnapshot.of(getAccount()))
+        }
     }
 
     override fun describeContents(): Int {
@@ -400,7 +505,9 @@ class AccountState private constructor(
 
     companion object CREATOR : Parcelable.Creator<AccountState> {
 
-        private val TAG = NativeAuthPublicClientApplication::class.java.simpleName
+        private const val TAG = "NativeAuthPublicClientApplication"
+
+        private const val UNKNOWN_ACCOUNT_GENERATION = -1L
         override fun createFromParcel(parcel: Parcel): AccountState {
             return AccountState(parcel)
         }
@@ -414,11 +521,15 @@ class AccountState private constructor(
             correlationId: String,
             config: NativeAuthPublicClientApplicationConfiguration
         ): AccountState {
-            return AccountState(
+            // A sign in has just written this account to the cache, replacing any previous one.
+            val store = config.currentAccountStore()
+            val accountState = AccountState(
                 account = authenticationResult.account,
                 correlationId = correlationId,
-                config = config
+                configReference = ConfigReference(config)
             )
+            accountState.accountGeneration = store.onAccountChanged(accountState)
+            return accountState
         }
 
         fun createFromAccountResult(
@@ -429,8 +540,23 @@ class AccountState private constructor(
             return AccountState(
                 account = account,
                 correlationId = correlationId,
-                config = config
+                configReference = ConfigReference(config)
             )
         }
+
+        internal fun createFromAccountResult(
+            account: IAccount,
+            accountGeneration: Long,
+            correlationId: String,
+            config: NativeAuthPublicClientApplicationConfiguration
+        ): AccountState {
+            return AccountState(
+                account = account,
+                correlationId = correlationId,
+                configReference = ConfigReference(config)
+            ).apply {
+                this.accountGeneration = accountGeneration
+            }
+        }
     }
 }
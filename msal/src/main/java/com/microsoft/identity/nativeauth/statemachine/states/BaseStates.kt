@@ -23,6 +23,8 @@
 
 package com.microsoft.identity.nativeauth.statemachine.states
 
+import com.microsoft.identity.nativeauth.utils.NativeAuthRequestGroup
+
 interface State
 
 /**
@@ -31,4 +33,24 @@ interface State
 abstract class BaseState(
     internal open val continuationToken: String?,
     internal open val correlationId: String
-)
+) {
+    internal val requests = NativeAuthRequestGroup()
+
+    /**
+     * Whether this state was restored from a parcel it cannot continue the flow from, e.g. one
+     * written by another version of the library, or while no application with its configuration
+     * has been created again; it can continue once the application is. Its actions return an error
+     * with the [com.microsoft.identity.client.exception.MsalClientException.NATIVE_AUTH_STATE_RESTART_REQUIRED_ERROR_CODE]
+     * exception; start the flow again instead.
+     */
+    open val isRestartRequired: Boolean
+        get() = false
+
+    /**
+     * Cancels the requests started from this state through its callback variants that are still
+     * in flight, e.g. when the user leaves the flow. Their callbacks will not be invoked.
+     */
+    fun cancel() {
+        requests.cancelAll()
+    }
+}
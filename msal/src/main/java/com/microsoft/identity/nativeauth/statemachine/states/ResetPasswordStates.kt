@@ -25,9 +25,7 @@ package com.microsoft.identity.nativeauth.statemachine.states
 
 import android.os.Parcel
 import android.os.Parcelable
-import com.microsoft.identity.client.exception.MsalException
 import com.microsoft.identity.client.internal.CommandParametersAdapter
-import com.microsoft.identity.common.java.controllers.CommandDispatcher
 import com.microsoft.identity.common.java.eststelemetry.PublicApiId
 import com.microsoft.identity.common.java.logging.LogSession
 import com.microsoft.identity.common.java.logging.Logger
@@ -42,8 +40,8 @@ import com.microsoft.identity.common.nativeauth.internal.commands.ResetPasswordR
 import com.microsoft.identity.common.nativeauth.internal.commands.ResetPasswordSubmitCodeCommand
 import com.microsoft.identity.common.nativeauth.internal.commands.ResetPasswordSubmitNewPasswordCommand
 import com.microsoft.identity.common.nativeauth.internal.controllers.NativeAuthMsalController
-import com.microsoft.identity.nativeauth.NativeAuthPublicClientApplication
 import com.microsoft.identity.nativeauth.NativeAuthPublicClientApplicationConfiguration
+import com.microsoft.identity.nativeauth.NativeAuthRequest
 import com.microsoft.identity.nativeauth.statemachine.errors.ErrorTypes
 import com.microsoft.identity.nativeauth.statemachine.errors.ResendCodeError
 import com.microsoft.identity.nativeauth.statemachine.errors.ResetPasswordErrorTypes
@@ -53,9 +51,15 @@ import com.microsoft.identity.nativeauth.statemachine.results.ResetPasswordResen
 import com.microsoft.identity.nativeauth.statemachine.results.ResetPasswordResult
 import com.microsoft.identity.nativeauth.statemachine.results.ResetPasswordSubmitCodeResult
 import com.microsoft.identity.nativeauth.statemachine.results.ResetPasswordSubmitPasswordResult
-import com.microsoft.identity.nativeauth.utils.serializable
+import com.microsoft.identity.nativeauth.utils.StatePayload
+import com.microsoft.identity.nativeauth.utils.readStatePayload
+import com.microsoft.identity.nativeauth.utils.ConfigReference
+import com.microsoft.identity.nativeauth.utils.readConfigReference
+import com.microsoft.identity.nativeauth.utils.writeConfigReference
+import com.microsoft.identity.nativeauth.utils.writeStatePayload
+import com.microsoft.identity.nativeauth.utils.submitSilentAndAwait
+import kotlinx.coroutines.CancellationException
 import kotlinx.coroutines.Dispatchers
-import kotlinx.coroutines.launch
 import kotlinx.coroutines.withContext
 import java.lang.Exception
 
@@ -67,21 +71,40 @@ import java.lang.Exception
  * @property correlationId: Correlation ID taken from the previous API response and passed to the next request
  * @property config Configuration used by Native Auth
  */
-class ResetPasswordCodeRequiredState internal constructor(
+class ResetPasswordCodeRequiredState private constructor(
     override val continuationToken: String,
     override val correlationId: String,
     private val username: String,
-    private val config: NativeAuthPublicClientApplicationConfiguration
+    private val configReference: ConfigReference
 ) : BaseState(continuationToken = continuationToken, correlationId = correlationId), State, Parcelable {
-    private val TAG: String = ResetPasswordCodeRequiredState::class.java.simpleName
 
-    constructor(parcel: Parcel) : this(
-        continuationToken= parcel.readString() ?: "",
-        correlationId = parcel.readString() ?: "UNSET",
-        username = parcel.readString() ?: "",
-        config = parcel.serializable<NativeAuthPublicClientApplicationConfiguration>() as NativeAuthPublicClientApplicationConfiguration
+    internal constructor(
+        continuationToken: String,
+        correlationId: String,
+        username: String,
+        config: NativeAuthPublicClientApplicationConfiguration
+    ) : this(
+        continuationToken = continuationToken,
+        correlationId = correlationId,
+        username = username,
+        configReference = ConfigReference(config)
     )
 
+    constructor(parcel: Parcel) : this(parcel.readStatePayload())
+
+    private constructor(payload: StatePayload) : this(
+        continuationToken = payload.parcel.readString() ?: "",
+        correlationId = payload.parcel.readString() ?: "UNSET",
+        username = payload.parcel.readString() ?: "",
+        configReference = payload.parcel.readConfigReference()
+    )
+
+    private val config: NativeAuthPublicClientApplicationConfiguration
+        get() = configReference.resolve()
+
+    override val isRestartRequired: Boolean
+        get() = configReference.resolveOrNull() == null
+
     interface SubmitCodeCallback : Callback<ResetPasswordSubmitCodeResult>
 
     /**
@@ -92,19 +115,21 @@ class ResetPasswordCodeRequiredState internal constructor(
      * @return The results of the submit code action.
      */
     fun submitCode(code: String, callback: SubmitCodeCallback) {
+        submitCodeCancellable(code, callback)
+    }
+
+    /**
+     * Same as [submitCode], returning a [com.microsoft.identity.nativeauth.NativeAuthRequest] that can be
+     * used to cancel the request. A cancelled request never invokes its callback.
+     */
+    fun submitCodeCancellable(code: String, callback: SubmitCodeCallback): NativeAuthRequest {
         LogSession.logMethodCall(
             tag = TAG,
             correlationId = correlationId,
             methodName = "${TAG}.submitCode(code: String, callback: SubmitCodeCallback)"
         )
-        NativeAuthPublicClientApplication.pcaScope.launch {
-            try {
-                val result = submitCode(code = code)
-                callback.onResult(result)
-            } catch (e: MsalException) {
-                Logger.error(TAG, "Exception thrown in submitCode", e)
-                callback.onError(e)
-            }
+        return requests.launch(TAG, "submitCode", callback) {
+            submitCode(code = code)
         }
     }
 
@@ -138,7 +163,7 @@ class ResetPasswordCodeRequiredState internal constructor(
                     PublicApiId.NATIVE_AUTH_RESET_PASSWORD_SUBMIT_CODE
                 )
 
-                val rawCommandResult = CommandDispatcher.submitSilentReturningFuture(command).get()
+                val rawCommandResult = submitSilentAndAwait(command, config.httpConfiguration?.nativeAuth)
 
                 return@withContext when (val result =
                     rawCommandResult.checkAndWrapCommandResultType<ResetPasswordSubmitCodeCommandResult>()) {
@@ -187,6 +212,8 @@ class ResetPasswordCodeRequiredState internal constructor(
                         )
                     }
                 }
+            } catch (e: CancellationException) {
+                throw e
             } catch (e: Exception) {
                 SubmitCodeError(
                     errorType = ErrorTypes.CLIENT_EXCEPTION,
@@ -210,19 +237,21 @@ class ResetPasswordCodeRequiredState internal constructor(
      * @return The results of the resend code action.
      */
     fun resendCode(callback: ResendCodeCallback) {
+        resendCodeCancellable(callback)
+    }
+
+    /**
+     * Same as [resendCode], returning a [com.microsoft.identity.nativeauth.NativeAuthRequest] that can be
+     * used to cancel the request. A cancelled request never invokes its callback.
+     */
+    fun resendCodeCancellable(callback: ResendCodeCallback): NativeAuthRequest {
         LogSession.logMethodCall(
             tag = TAG,
             correlationId = correlationId,
             methodName = "${TAG}.resendCode(callback: ResendCodeCallback)"
         )
-        NativeAuthPublicClientApplication.pcaScope.launch {
-            try {
-                val result = resendCode()
-                callback.onResult(result)
-            } catch (e: MsalException) {
-                Logger.error(TAG, "Exception thrown in resendCode", e)
-                callback.onError(e)
-            }
+        return requests.launch(TAG, "resendCode", callback) {
+            resendCode()
         }
     }
 
@@ -253,7 +282,7 @@ class ResetPasswordCodeRequiredState internal constructor(
                     PublicApiId.NATIVE_AUTH_RESET_PASSWORD_RESEND_CODE
                 )
 
-                val rawCommandResult = CommandDispatcher.submitSilentReturningFuture(command).get()
+                val rawCommandResult = submitSilentAndAwait(command, config.httpConfiguration?.nativeAuth)
 
                 return@withContext when (val result =
                     rawCommandResult.checkAndWrapCommandResultType<ResetPasswordResendCodeCommandResult>()) {
@@ -288,6 +317,8 @@ class ResetPasswordCodeRequiredState internal constructor(
                         )
                     }
                 }
+            } catch (e: CancellationException) {
+                throw e
             } catch (e: Exception) {
                 ResendCodeError(
                     errorType = ErrorTypes.CLIENT_EXCEPTION,
@@ -300,10 +331,12 @@ class ResetPasswordCodeRequiredState internal constructor(
     }
 
     override fun writeToParcel(parcel: Parcel, flags: Int) {
-        parcel.writeString(continuationToken)
-        parcel.writeString(correlationId)
-        parcel.writeString(username)
-        parcel.writeSerializable(config)
+        parcel.writeStatePayload {
+            writeString(continuationToken)
+            writeString(correlationId)
+            writeString(username)
+            writeConfigReference(configReference)
+        }
     }
 
     override fun describeContents(): Int {
@@ -311,6 +344,8 @@ class ResetPasswordCodeRequiredState internal constructor(
     }
 
     companion object CREATOR : Parcelable.Creator<ResetPasswordCodeRequiredState> {
+        private const val TAG = "ResetPasswordCodeRequiredState"
+
         override fun createFromParcel(parcel: Parcel): ResetPasswordCodeRequiredState {
             return ResetPasswordCodeRequiredState(parcel)
         }
@@ -329,21 +364,40 @@ class ResetPasswordCodeRequiredState internal constructor(
  * @property correlationId: Correlation ID taken from the previous API response and passed to the next request
  * @property config Configuration used by Native Auth
  */
-class ResetPasswordPasswordRequiredState internal constructor(
+class ResetPasswordPasswordRequiredState private constructor(
     override val continuationToken: String,
     override val correlationId: String,
     private val username: String,
-    private val config: NativeAuthPublicClientApplicationConfiguration
+    private val configReference: ConfigReference
 ) : BaseState(continuationToken = continuationToken, correlationId = correlationId), State, Parcelable {
-    private val TAG: String = ResetPasswordPasswordRequiredState::class.java.simpleName
 
-    constructor(parcel: Parcel) : this(
-        continuationToken= parcel.readString() ?: "",
-        correlationId = parcel.readString() ?: "UNSET",
-        username = parcel.readString() ?: "",
-        config = parcel.serializable<NativeAuthPublicClientApplicationConfiguration>() as NativeAuthPublicClientApplicationConfiguration
+    internal constructor(
+        continuationToken: String,
+        correlationId: String,
+        username: String,
+        config: NativeAuthPublicClientApplicationConfiguration
+    ) : this(
+        continuationToken = continuationToken,
+        correlationId = correlationId,
+        username = username,
+        configReference = ConfigReference(config)
     )
 
+    constructor(parcel: Parcel) : this(parcel.readStatePayload())
+
+    private constructor(payload: StatePayload) : this(
+        continuationToken = payload.parcel.readString() ?: "",
+        correlationId = payload.parcel.readString() ?: "UNSET",
+        username = payload.parcel.readString() ?: "",
+        configReference = payload.parcel.readConfigReference()
+    )
+
+    private val config: NativeAuthPublicClientApplicationConfiguration
+        get() = configReference.resolve()
+
+    override val isRestartRequired: Boolean
+        get() = configReference.resolveOrNull() == null
+
     interface SubmitPasswordCallback : Callback<ResetPasswordSubmitPasswordResult>
 
     /**
@@ -354,19 +408,21 @@ class ResetPasswordPasswordRequiredState internal constructor(
      * @return The results of the submit password action.
      */
     fun submitPassword(password: CharArray, callback: SubmitPasswordCallback) {
+        submitPasswordCancellable(password, callback)
+    }
+
+    /**
+     * Same as [submitPassword], returning a [com.microsoft.identity.nativeauth.NativeAuthRequest] that can be
+     * used to cancel the request. A cancelled request never invokes its callback.
+     */
+    fun submitPasswordCancellable(password: CharArray, callback: SubmitPasswordCallback): NativeAuthRequest {
         LogSession.logMethodCall(
             tag = TAG,
             correlationId = correlationId,
             methodName = "${TAG}.submitPassword(password: CharArray, callback: SubmitPasswordCallback)"
         )
-        NativeAuthPublicClientApplication.pcaScope.launch {
-            try {
-                val result = submitPassword(password = password)
-                callback.onResult(result)
-            } catch (e: MsalException) {
-                Logger.error(TAG, "Exception thrown in submitPassword", e)
-                callback.onError(e)
-            }
+        return requests.launch(TAG, "submitPassword", callback) {
+            submitPassword(password = password)
         }
     }
 
@@ -401,7 +457,7 @@ class ResetPasswordPasswordRequiredState internal constructor(
 
                 try {
                     val rawCommandResult =
-                        CommandDispatcher.submitSilentReturningFuture(command).get()
+                        submitSilentAndAwait(command, config.httpConfiguration?.nativeAuth)
 
                     return@withContext when (val result =
                         rawCommandResult.checkAndWrapCommandResultType<ResetPasswordSubmitNewPasswordCommandResult>()) {
@@ -467,6 +523,8 @@ class ResetPasswordPasswordRequiredState internal constructor(
                 } finally {
                     StringUtil.overwriteWithNull(parameters.newPassword)
                 }
+            } catch (e: CancellationException) {
+                throw e
             } catch (e: Exception) {
                 ResetPasswordSubmitPasswordError(
                     error = ErrorTypes.CLIENT_EXCEPTION,
@@ -479,10 +537,12 @@ class ResetPasswordPasswordRequiredState internal constructor(
     }
 
     override fun writeToParcel(parcel: Parcel, flags: Int) {
-        parcel.writeString(continuationToken)
-        parcel.writeString(correlationId)
-        parcel.writeString(username)
-        parcel.writeSerializable(config)
+        parcel.writeStatePayload {
+            writeString(continuationToken)
+            writeString(correlationId)
+            writeString(username)
+            writeConfigReference(configReference)
+        }
     }
 
     override fun describeContents(): Int {
@@ -490,6 +550,8 @@ class ResetPasswordPasswordRequiredState internal constructor(
     }
 
     companion object CREATOR : Parcelable.Creator<ResetPasswordPasswordRequiredState> {
+        private const val TAG = "ResetPasswordPasswordRequiredState"
+
         override fun createFromParcel(parcel: Parcel): ResetPasswordPasswordRequiredState {
             return ResetPasswordPasswordRequiredState(parcel)
         }
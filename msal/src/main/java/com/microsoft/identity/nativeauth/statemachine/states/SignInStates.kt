@@ -26,9 +26,8 @@ package com.microsoft.identity.nativeauth.statemachine.states
 import android.os.Parcel
 import android.os.Parcelable
 import com.microsoft.identity.client.AuthenticationResultAdapter
-import com.microsoft.identity.nativeauth.NativeAuthPublicClientApplication
 import com.microsoft.identity.nativeauth.NativeAuthPublicClientApplicationConfiguration
-import com.microsoft.identity.client.exception.MsalException
+import com.microsoft.identity.nativeauth.NativeAuthRequest
 import com.microsoft.identity.client.internal.CommandParametersAdapter
 import com.microsoft.identity.nativeauth.statemachine.results.SignInResendCodeResult
 import com.microsoft.identity.nativeauth.statemachine.results.SignInResult
@@ -39,7 +38,6 @@ import com.microsoft.identity.common.nativeauth.internal.commands.SignInSubmitCo
 import com.microsoft.identity.common.nativeauth.internal.commands.SignInSubmitPasswordCommand
 import com.microsoft.identity.common.nativeauth.internal.commands.SignInWithContinuationTokenCommand
 import com.microsoft.identity.common.nativeauth.internal.controllers.NativeAuthMsalController
-import com.microsoft.identity.common.java.controllers.CommandDispatcher
 import com.microsoft.identity.common.java.nativeauth.controllers.results.INativeAuthCommandResult
 import com.microsoft.identity.common.java.nativeauth.controllers.results.SignInCommandResult
 import com.microsoft.identity.common.java.nativeauth.controllers.results.SignInResendCodeCommandResult
@@ -57,9 +55,15 @@ import com.microsoft.identity.nativeauth.statemachine.errors.SignInContinuationE
 import com.microsoft.identity.nativeauth.statemachine.errors.SignInErrorTypes
 import com.microsoft.identity.nativeauth.statemachine.errors.SignInSubmitPasswordError
 import com.microsoft.identity.nativeauth.statemachine.errors.SubmitCodeError
-import com.microsoft.identity.nativeauth.utils.serializable
+import com.microsoft.identity.nativeauth.utils.StatePayload
+import com.microsoft.identity.nativeauth.utils.readStatePayload
+import com.microsoft.identity.nativeauth.utils.ConfigReference
+import com.microsoft.identity.nativeauth.utils.readConfigReference
+import com.microsoft.identity.nativeauth.utils.writeConfigReference
+import com.microsoft.identity.nativeauth.utils.writeStatePayload
+import com.microsoft.identity.nativeauth.utils.submitSilentAndAwait
+import kotlinx.coroutines.CancellationException
 import kotlinx.coroutines.Dispatchers
-import kotlinx.coroutines.launch
 import kotlinx.coroutines.withContext
 
 /**
@@ -71,21 +75,40 @@ import kotlinx.coroutines.withContext
  * @property scopes: List of scopes
  * @property config Configuration used by Native Auth
  */
-class SignInCodeRequiredState internal constructor(
+class SignInCodeRequiredState private constructor(
     override val continuationToken: String,
     override val correlationId: String,
     private val scopes: List<String>?,
-    private val config: NativeAuthPublicClientApplicationConfiguration
+    private val configReference: ConfigReference
 ) : BaseState(continuationToken = continuationToken, correlationId = correlationId), State, Parcelable {
-    private val TAG: String = SignInCodeRequiredState::class.java.simpleName
 
-    constructor(parcel: Parcel) : this(
-        continuationToken = parcel.readString()  ?: "",
-        correlationId = parcel.readString() ?: "UNSET",
-        scopes = parcel.createStringArrayList(),
-        config = parcel.serializable<NativeAuthPublicClientApplicationConfiguration>() as NativeAuthPublicClientApplicationConfiguration
+    internal constructor(
+        continuationToken: String,
+        correlationId: String,
+        scopes: List<String>?,
+        config: NativeAuthPublicClientApplicationConfiguration
+    ) : this(
+        continuationToken = continuationToken,
+        correlationId = correlationId,
+        scopes = scopes,
+        configReference = ConfigReference(config)
+    )
+
+    constructor(parcel: Parcel) : this(parcel.readStatePayload())
+
+    private constructor(payload: StatePayload) : this(
+        continuationToken = payload.parcel.readString() ?: "",
+        correlationId = payload.parcel.readString() ?: "UNSET",
+        scopes = payload.parcel.createStringArrayList(),
+        configReference = payload.parcel.readConfigReference()
     )
 
+    private val config: NativeAuthPublicClientApplicationConfiguration
+        get() = configReference.resolve()
+
+    override val isRestartRequired: Boolean
+        get() = configReference.resolveOrNull() == null
+
     /**
      * SubmitCodeCallback receives the result for submit code for SignIn for Native Auth
      */
@@ -99,19 +122,21 @@ class SignInCodeRequiredState internal constructor(
      * @return The results of the submit code action.
      */
     fun submitCode(code: String, callback: SubmitCodeCallback) {
+        submitCodeCancellable(code, callback)
+    }
+
+    /**
+     * Same as [submitCode], returning a [com.microsoft.identity.nativeauth.NativeAuthRequest] that can be
+     * used to cancel the request. A cancelled request never invokes its callback.
+     */
+    fun submitCodeCancellable(code: String, callback: SubmitCodeCallback): NativeAuthRequest {
         LogSession.logMethodCall(
             tag = TAG,
             correlationId = correlationId,
             methodName = "${TAG}.submitCode(code: String, callback: SubmitCodeCallback)"
         )
-        NativeAuthPublicClientApplication.pcaScope.launch {
-            try {
-                val result = submitCode(code)
-                callback.onResult(result)
-            } catch (e: MsalException) {
-                Logger.error(TAG, "Exception thrown in submitCode", e)
-                callback.onError(e)
-            }
+        return requests.launch(TAG, "submitCode", callback) {
+            submitCode(code)
         }
     }
 
@@ -144,7 +169,7 @@ class SignInCodeRequiredState internal constructor(
                     publicApiId = PublicApiId.NATIVE_AUTH_SIGN_IN_SUBMIT_CODE
                 )
 
-                val rawCommandResult = CommandDispatcher.submitSilentReturningFuture(signInSubmitCodeCommand).get()
+                val rawCommandResult = submitSilentAndAwait(signInSubmitCodeCommand, config.httpConfiguration?.nativeAuth)
 
                 return@withContext when (val result = rawCommandResult.checkAndWrapCommandResultType<SignInSubmitCodeCommandResult>()) {
                     is SignInCommandResult.IncorrectCode -> {
@@ -197,6 +222,8 @@ class SignInCodeRequiredState internal constructor(
                         )
                     }
                 }
+            } catch (e: CancellationException) {
+                throw e
             } catch (e: Exception) {
                 SubmitCodeError(
                     errorType = ErrorTypes.CLIENT_EXCEPTION,
@@ -220,19 +247,21 @@ class SignInCodeRequiredState internal constructor(
      * @return The results of the resend code action.
      */
     fun resendCode(callback: ResendCodeCallback) {
+        resendCodeCancellable(callback)
+    }
+
+    /**
+     * Same as [resendCode], returning a [com.microsoft.identity.nativeauth.NativeAuthRequest] that can be
+     * used to cancel the request. A cancelled request never invokes its callback.
+     */
+    fun resendCodeCancellable(callback: ResendCodeCallback): NativeAuthRequest {
         LogSession.logMethodCall(
             tag = TAG,
             correlationId = correlationId,
             methodName = "${TAG}.resendCode(callback: ResendCodeCallback)"
         )
-        NativeAuthPublicClientApplication.pcaScope.launch {
-            try {
-                val result = resendCode()
-                callback.onResult(result)
-            } catch (e: MsalException) {
-                Logger.error(TAG, "Exception thrown in resendCode", e)
-                callback.onError(e)
-            }
+        return requests.launch(TAG, "resendCode", callback) {
+            resendCode()
         }
     }
 
@@ -263,7 +292,7 @@ class SignInCodeRequiredState internal constructor(
                 )
 
                 val rawCommandResult =
-                    CommandDispatcher.submitSilentReturningFuture(signInResendCodeCommand).get()
+                    submitSilentAndAwait(signInResendCodeCommand, config.httpConfiguration?.nativeAuth)
 
                 return@withContext when (val result =
                     rawCommandResult.checkAndWrapCommandResultType<SignInResendCodeCommandResult>()) {
@@ -297,6 +326,8 @@ class SignInCodeRequiredState internal constructor(
                         )
                     }
                 }
+            } catch (e: CancellationException) {
+                throw e
             } catch (e: Exception) {
                 ResendCodeError(
                     errorType = ErrorTypes.CLIENT_EXCEPTION,
@@ -309,10 +340,12 @@ class SignInCodeRequiredState internal constructor(
     }
 
     override fun writeToParcel(parcel: Parcel, flags: Int) {
-        parcel.writeString(continuationToken)
-        parcel.writeString(correlationId)
-        parcel.writeStringList(scopes)
-        parcel.writeSerializable(config)
+        parcel.writeStatePayload {
+            writeString(continuationToken)
+            writeString(correlationId)
+            writeStringList(scopes)
+            writeConfigReference(configReference)
+        }
     }
 
     override fun describeContents(): Int {
@@ -320,6 +353,8 @@ class SignInCodeRequiredState internal constructor(
     }
 
     companion object CREATOR : Parcelable.Creator<SignInCodeRequiredState> {
+        private const val TAG = "SignInCodeRequiredState"
+
         override fun createFromParcel(parcel: Parcel): SignInCodeRequiredState {
             return SignInCodeRequiredState(parcel)
         }
@@ -339,19 +374,38 @@ class SignInCodeRequiredState internal constructor(
  * @property scopes: List of scopes
  * @property config Configuration used by Native Auth
  */
-class SignInPasswordRequiredState(
+class SignInPasswordRequiredState private constructor(
     override val continuationToken: String,
     override val correlationId: String,
     private val scopes: List<String>?,
-    private val config: NativeAuthPublicClientApplicationConfiguration
+    private val configReference: ConfigReference
 ) : BaseState(continuationToken = continuationToken, correlationId = correlationId), State, Parcelable {
-    private val TAG: String = SignInPasswordRequiredState::class.java.simpleName
-    constructor(parcel: Parcel) : this(
-        continuationToken = parcel.readString()  ?: "",
-        correlationId = parcel.readString() ?: "UNSET",
-        scopes = parcel.createStringArrayList(),
-        config = parcel.serializable<NativeAuthPublicClientApplicationConfiguration>() as NativeAuthPublicClientApplicationConfiguration
+
+    constructor(
+        continuationToken: String,
+        correlationId: String,
+        scopes: List<String>?,
+        config: NativeAuthPublicClientApplicationConfiguration
+    ) : this(
+        continuationToken = continuationToken,
+        correlationId = correlationId,
+        scopes = scopes,
+        configReference = ConfigReference(config)
     )
+    constructor(parcel: Parcel) : this(parcel.readStatePayload())
+
+    private constructor(payload: StatePayload) : this(
+        continuationToken = payload.parcel.readString() ?: "",
+        correlationId = payload.parcel.readString() ?: "UNSET",
+        scopes = payload.parcel.createStringArrayList(),
+        configReference = payload.parcel.readConfigReference()
+    )
+
+    private val config: NativeAuthPublicClientApplicationConfiguration
+        get() = configReference.resolve()
+
+    override val isRestartRequired: Boolean
+        get() = configReference.resolveOrNull() == null
 
     /**
      * SubmitPasswordCallback receives the result for submit password for SignIn for Native Auth
@@ -366,19 +420,21 @@ class SignInPasswordRequiredState(
      * @return The results of the submit password action.
      */
     fun submitPassword(password: CharArray, callback: SubmitPasswordCallback) {
+        submitPasswordCancellable(password, callback)
+    }
+
+    /**
+     * Same as [submitPassword], returning a [com.microsoft.identity.nativeauth.NativeAuthRequest] that can be
+     * used to cancel the request. A cancelled request never invokes its callback.
+     */
+    fun submitPasswordCancellable(password: CharArray, callback: SubmitPasswordCallback): NativeAuthRequest {
         LogSession.logMethodCall(
             tag = TAG,
             correlationId = correlationId,
             methodName = "${TAG}.submitPassword(password: CharArray, callback: SubmitPasswordCallback)"
         )
-        NativeAuthPublicClientApplication.pcaScope.launch {
-            try {
-                val result = submitPassword(password)
-                callback.onResult(result)
-            } catch (e: MsalException) {
-                Logger.error(TAG, "Exception thrown in submitPassword", e)
-                callback.onError(e)
-            }
+        return requests.launch(TAG, "submitPassword", callback) {
+            submitPassword(password)
         }
     }
 
@@ -413,8 +469,7 @@ class SignInPasswordRequiredState(
                     )
 
                     val rawCommandResult =
-                        CommandDispatcher.submitSilentReturningFuture(signInSubmitPasswordCommand)
-                            .get()
+                        submitSilentAndAwait(signInSubmitPasswordCommand, config.httpConfiguration?.nativeAuth)
 
                     return@withContext when (val result =
                         rawCommandResult.checkAndWrapCommandResultType<SignInSubmitPasswordCommandResult>()) {
@@ -458,6 +513,8 @@ class SignInPasswordRequiredState(
                 } finally {
                     StringUtil.overwriteWithNull(params.password)
                 }
+            } catch (e: CancellationException) {
+                throw e
             } catch (e: Exception) {
                 SignInSubmitPasswordError(
                     errorType = ErrorTypes.CLIENT_EXCEPTION,
@@ -470,10 +527,12 @@ class SignInPasswordRequiredState(
     }
 
     override fun writeToParcel(parcel: Parcel, flags: Int) {
-        parcel.writeString(continuationToken)
-        parcel.writeString(correlationId)
-        parcel.writeStringList(scopes)
-        parcel.writeSerializable(config)
+        parcel.writeStatePayload {
+            writeString(continuationToken)
+            writeString(correlationId)
+            writeStringList(scopes)
+            writeConfigReference(configReference)
+        }
     }
 
     override fun describeContents(): Int {
@@ -481,6 +540,8 @@ class SignInPasswordRequiredState(
     }
 
     companion object CREATOR : Parcelable.Creator<SignInPasswordRequiredState> {
+        private const val TAG = "SignInPasswordRequiredState"
+
         override fun createFromParcel(parcel: Parcel): SignInPasswordRequiredState {
             return SignInPasswordRequiredState(parcel)
         }
@@ -500,21 +561,40 @@ class SignInPasswordRequiredState(
  * @property username: Username of the user
  * @property config Configuration used by Native Auth
  */
-class SignInContinuationState(
+class SignInContinuationState private constructor(
     override val continuationToken: String?,
     override val correlationId: String,
     internal val username: String,
-    private val config: NativeAuthPublicClientApplicationConfiguration
+    private val configReference: ConfigReference
 ) : BaseState(continuationToken = continuationToken, correlationId = correlationId), State, Parcelable {
-    private val TAG: String = SignInContinuationState::class.java.simpleName
 
-    constructor(parcel: Parcel) : this(
-        continuationToken= parcel.readString(),
-        correlationId = parcel.readString() ?: "UNSET",
-        username = parcel.readString() ?: "",
-        config = parcel.serializable<NativeAuthPublicClientApplicationConfiguration>() as NativeAuthPublicClientApplicationConfiguration
+    constructor(
+        continuationToken: String?,
+        correlationId: String,
+        username: String,
+        config: NativeAuthPublicClientApplicationConfiguration
+    ) : this(
+        continuationToken = continuationToken,
+        correlationId = correlationId,
+        username = username,
+        configReference = ConfigReference(config)
     )
 
+    constructor(parcel: Parcel) : this(parcel.readStatePayload())
+
+    private constructor(payload: StatePayload) : this(
+        continuationToken = payload.parcel.readString(),
+        correlationId = payload.parcel.readString() ?: "UNSET",
+        username = payload.parcel.readString() ?: "",
+        configReference = payload.parcel.readConfigReference()
+    )
+
+    private val config: NativeAuthPublicClientApplicationConfiguration
+        get() = configReference.resolve()
+
+    override val isRestartRequired: Boolean
+        get() = configReference.resolveOrNull() == null
+
     /**
      * SignInContinuationCallback receives the result for sign in after flow completion for Native Auth
      */
@@ -528,20 +608,22 @@ class SignInContinuationState(
      * @return The results of the sign-in-continuation action.
      */
     fun signIn(scopes: List<String>? = null, callback: SignInContinuationCallback) {
+        signInCancellable(scopes, callback)
+    }
+
+    /**
+     * Same as [signIn], returning a [com.microsoft.identity.nativeauth.NativeAuthRequest] that can be
+     * used to cancel the request. A cancelled request never invokes its callback.
+     */
+    fun signInCancellable(scopes: List<String>? = null, callback: SignInContinuationCallback): NativeAuthRequest {
         LogSession.logMethodCall(
             tag = TAG,
             correlationId = correlationId,
             methodName = "${TAG}.signIn(scopes: List<String>, callback: SignInContinuationCallback)"
         )
 
-        NativeAuthPublicClientApplication.pcaScope.launch {
-            try {
-                val result = signIn(scopes)
-                callback.onResult(result)
-            } catch (e: MsalException) {
-                Logger.error(TAG, "Exception thrown in signIn", e)
-                callback.onError(e)
-            }
+        return requests.launch(TAG, "signIn", callback) {
+            signIn(scopes)
         }
     }
 
@@ -595,7 +677,7 @@ class SignInContinuationState(
                     PublicApiId.NATIVE_AUTH_SIGN_IN_WITH_SLT
                 )
 
-                val rawCommandResult = CommandDispatcher.submitSilentReturningFuture(command).get()
+                val rawCommandResult = submitSilentAndAwait(command, config.httpConfiguration?.nativeAuth)
 
                 return@withContext when (val result =
                     rawCommandResult.checkAndWrapCommandResultType<SignInWithContinuationTokenCommandResult>()) {
@@ -628,6 +710,8 @@ class SignInContinuationState(
                         )
                     }
                 }
+            } catch (e: CancellationException) {
+                throw e
             } catch (e: Exception) {
                 SignInContinuationError(
                     errorMessage = "MSAL client exception occurred in signIn.",
@@ -639,10 +723,12 @@ class SignInContinuationState(
     }
 
     override fun writeToParcel(parcel: Parcel, flags: Int) {
-        parcel.writeString(continuationToken)
-        parcel.writeString(correlationId)
-        parcel.writeString(username)
-        parcel.writeSerializable(config)
+        parcel.writeStatePayload {
+            writeString(continuationToken)
+            writeString(correlationId)
+            writeString(username)
+            writeConfigReference(configReference)
+        }
     }
 
     override fun describeContents(): Int {
@@ -650,6 +736,8 @@ class SignInContinuationState(
     }
 
     companion object CREATOR : Parcelable.Creator<SignInContinuationState> {
+        private const val TAG = "SignInContinuationState"
+
         override fun createFromParcel(parcel: Parcel): SignInContinuationState {
             return SignInContinuationState(parcel)
         }
@@ -24,16 +24,16 @@ package com.microsoft.identity.nativeauth.statemachine.states
 
 import android.os.Parcel
 import android.os.Parcelable
-import com.microsoft.identity.nativeauth.NativeAuthPublicClientApplication
 import com.microsoft.identity.nativeauth.NativeAuthPublicClientApplicationConfiguration
+import com.microsoft.identity.nativeauth.NativeAuthRequest
 import com.microsoft.identity.nativeauth.UserAttributes
-import com.microsoft.identity.client.exception.MsalException
 import com.microsoft.identity.client.internal.CommandParametersAdapter
 import com.microsoft.identity.nativeauth.statemachine.results.SignUpResendCodeResult
 import com.microsoft.identity.nativeauth.statemachine.results.SignUpResult
 import com.microsoft.identity.nativeauth.statemachine.results.SignUpSubmitAttributesResult
 import com.microsoft.identity.nativeauth.statemachine.results.SignUpSubmitCodeResult
 import com.microsoft.identity.nativeauth.statemachine.results.SignUpSubmitPasswordResult
+import com.microsoft.identity.nativeauth.UserAttributesSchema
 import com.microsoft.identity.nativeauth.toListOfRequiredUserAttribute
 import com.microsoft.identity.nativeauth.toMap
 import com.microsoft.identity.common.nativeauth.internal.commands.SignUpResendCodeCommand
@@ -41,7 +41,6 @@ import com.microsoft.identity.common.nativeauth.internal.commands.SignUpSubmitCo
 import com.microsoft.identity.common.nativeauth.internal.commands.SignUpSubmitPasswordCommand
 import com.microsoft.identity.common.nativeauth.internal.commands.SignUpSubmitUserAttributesCommand
 import com.microsoft.identity.common.nativeauth.internal.controllers.NativeAuthMsalController
-import com.microsoft.identity.common.java.controllers.CommandDispatcher
 import com.microsoft.identity.common.java.nativeauth.controllers.results.INativeAuthCommandResult
 import com.microsoft.identity.common.java.nativeauth.controllers.results.SignUpCommandResult
 import com.microsoft.identity.common.java.nativeauth.controllers.results.SignUpResendCodeCommandResult
@@ -59,9 +58,15 @@ import com.microsoft.identity.nativeauth.statemachine.errors.SignUpErrorTypes
 import com.microsoft.identity.nativeauth.statemachine.errors.SignUpSubmitAttributesError
 import com.microsoft.identity.nativeauth.statemachine.errors.SignUpSubmitPasswordError
 import com.microsoft.identity.nativeauth.statemachine.errors.SubmitCodeError
-import com.microsoft.identity.nativeauth.utils.serializable
+import com.microsoft.identity.nativeauth.utils.StatePayload
+import com.microsoft.identity.nativeauth.utils.readStatePayload
+import com.microsoft.identity.nativeauth.utils.ConfigReference
+import com.microsoft.identity.nativeauth.utils.readConfigReference
+import com.microsoft.identity.nativeauth.utils.writeConfigReference
+import com.microsoft.identity.nativeauth.utils.writeStatePayload
+import com.microsoft.identity.nativeauth.utils.submitSilentAndAwait
+import kotlinx.coroutines.CancellationException
 import kotlinx.coroutines.Dispatchers
-import kotlinx.coroutines.launch
 import kotlinx.coroutines.withContext
 
 /**
@@ -73,21 +78,40 @@ import kotlinx.coroutines.withContext
  * @property username: Email address of the user
  * @property config Configuration used by Native Auth
  */
-class SignUpCodeRequiredState internal constructor(
+class SignUpCodeRequiredState private constructor(
     override val continuationToken: String,
     override val correlationId: String,
     private val username: String,
-    private val config: NativeAuthPublicClientApplicationConfiguration
+    private val configReference: ConfigReference
 ) : BaseState(continuationToken = continuationToken, correlationId = correlationId), State, Parcelable {
-    private val TAG: String = SignUpCodeRequiredState::class.java.simpleName
 
-    constructor(parcel: Parcel) : this(
-        continuationToken = parcel.readString() ?: "",
-        correlationId = parcel.readString() ?: "UNSET",
-        username = parcel.readString() ?: "",
-        config = parcel.serializable<NativeAuthPublicClientApplicationConfiguration>() as NativeAuthPublicClientApplicationConfiguration
+    internal constructor(
+        continuationToken: String,
+        correlationId: String,
+        username: String,
+        config: NativeAuthPublicClientApplicationConfiguration
+    ) : this(
+        continuationToken = continuationToken,
+        correlationId = correlationId,
+        username = username,
+        configReference = ConfigReference(config)
+    )
+
+    constructor(parcel: Parcel) : this(parcel.readStatePayload())
+
+    private constructor(payload: StatePayload) : this(
+        continuationToken = payload.parcel.readString() ?: "",
+        correlationId = payload.parcel.readString() ?: "UNSET",
+        username = payload.parcel.readString() ?: "",
+        configReference = payload.parcel.readConfigReference()
     )
 
+    private val config: NativeAuthPublicClientApplicationConfiguration
+        get() = configReference.resolve()
+
+    override val isRestartRequired: Boolean
+        get() = configReference.resolveOrNull() == null
+
     interface SubmitCodeCallback : Callback<SignUpSubmitCodeResult>
 
     /**
@@ -98,20 +122,22 @@ class SignUpCodeRequiredState internal constructor(
      * @return The results of the submit code action.
      */
     fun submitCode(code: String, callback: SubmitCodeCallback) {
+        submitCodeCancellable(code, callback)
+    }
+
+    /**
+     * Same as [submitCode], returning a [com.microsoft.identity.nativeauth.NativeAuthRequest] that can be
+     * used to cancel the request. A cancelled request never invokes its callback.
+     */
+    fun submitCodeCancellable(code: String, callback: SubmitCodeCallback): NativeAuthRequest {
         LogSession.logMethodCall(
             tag = TAG,
             correlationId = correlationId,
             methodName = "${TAG}.submitCode(code: String, callback: SubmitCodeCallback)"
         )
 
-        NativeAuthPublicClientApplication.pcaScope.launch {
-            try {
-                val result = submitCode(code)
-                callback.onResult(result)
-            } catch (e: MsalException) {
-                Logger.error(TAG, "Exception thrown in submitCode", e)
-                callback.onError(e)
-            }
+        return requests.launch(TAG, "submitCode", callback) {
+            submitCode(code)
         }
     }
 
@@ -145,7 +171,7 @@ class SignUpCodeRequiredState internal constructor(
                     NativeAuthMsalController(),
                     PublicApiId.NATIVE_AUTH_SIGN_UP_SUBMIT_CODE
                 )
-                val rawCommandResult = CommandDispatcher.submitSilentReturningFuture(command).get()
+                val rawCommandResult = submitSilentAndAwait(command, config.httpConfiguration?.nativeAuth)
 
                 return@withContext when (val result =
                     rawCommandResult.checkAndWrapCommandResultType<SignUpSubmitCodeCommandResult>()) {
@@ -161,14 +187,16 @@ class SignUpCodeRequiredState internal constructor(
                     }
 
                     is SignUpCommandResult.AttributesRequired -> {
+                        val requiredAttributes = result.requiredAttributes.toListOfRequiredUserAttribute()
                         SignUpResult.AttributesRequired(
                             nextState = SignUpAttributesRequiredState(
                                 continuationToken = result.continuationToken,
                                 correlationId = result.correlationId,
                                 username = username,
-                                config = config
+                                config = config,
+                                attributesSchema = UserAttributesSchema(requiredAttributes)
                             ),
-                            requiredAttributes = result.requiredAttributes.toListOfRequiredUserAttribute()
+                            requiredAttributes = requiredAttributes
                         )
                     }
 
@@ -233,6 +261,8 @@ class SignUpCodeRequiredState internal constructor(
                         )
                     }
                 }
+            } catch (e: CancellationException) {
+                throw e
             } catch (e: Exception) {
                 SubmitCodeError(
                     errorType = ErrorTypes.CLIENT_EXCEPTION,
@@ -255,19 +285,23 @@ class SignUpCodeRequiredState internal constructor(
     fun resendCode(
         callback: SignUpWithResendCodeCallback
     ) {
+        resendCodeCancellable(callback)
+    }
+
+    /**
+     * Same as [resendCode], returning a [com.microsoft.identity.nativeauth.NativeAuthRequest] that can be
+     * used to cancel the request. A cancelled request never invokes its callback.
+     */
+    fun resendCodeCancellable(
+        callback: SignUpWithResendCodeCallback
+    ): NativeAuthRequest {
         LogSession.logMethodCall(
             tag = TAG,
             correlationId = correlationId,
             methodName = "${TAG}.resendCode(callback: SignUpWithResendCodeCallback)"
         )
-        NativeAuthPublicClientApplication.pcaScope.launch {
-            try {
-                val result = resendCode()
-                callback.onResult(result)
-            } catch (e: MsalException) {
-                Logger.error(TAG, "Exception thrown in resendCode", e)
-                callback.onError(e)
-            }
+        return requests.launch(TAG, "resendCode", callback) {
+            resendCode()
         }
     }
 
@@ -296,7 +330,7 @@ class SignUpCodeRequiredState internal constructor(
                     NativeAuthMsalController(),
                     PublicApiId.NATIVE_AUTH_SIGN_UP_RESEND_CODE
                 )
-                val rawCommandResult = CommandDispatcher.submitSilentReturningFuture(command).get()
+                val rawCommandResult = submitSilentAndAwait(command, config.httpConfiguration?.nativeAuth)
 
                 return@withContext when (val result =
                     rawCommandResult.checkAndWrapCommandResultType<SignUpResendCodeCommandResult>()) {
@@ -330,6 +364,8 @@ class SignUpCodeRequiredState internal constructor(
                         )
                     }
                 }
+            } catch (e: CancellationException) {
+                throw e
             } catch (e: Exception) {
                 ResendCodeError(
                     errorType = ErrorTypes.CLIENT_EXCEPTION,
@@ -342,10 +378,12 @@ class SignUpCodeRequiredState internal constructor(
     }
 
     override fun writeToParcel(parcel: Parcel, flags: Int) {
-        parcel.writeString(continuationToken)
-        parcel.writeString(correlationId)
-        parcel.writeString(username)
-        parcel.writeSerializable(config)
+        parcel.writeStatePayload {
+            writeString(continuationToken)
+            writeString(correlationId)
+            writeString(username)
+            writeConfigReference(configReference)
+        }
     }
 
     override fun describeContents(): Int {
@@ -353,6 +391,8 @@ class SignUpCodeRequiredState internal constructor(
     }
 
     companion object CREATOR : Parcelable.Creator<SignUpCodeRequiredState> {
+        private const val TAG = "SignUpCodeRequiredState"
+
         override fun createFromParcel(parcel: Parcel): SignUpCodeRequiredState {
             return SignUpCodeRequiredState(parcel)
         }
@@ -372,21 +412,40 @@ class SignUpCodeRequiredState internal constructor(
  * @property username: Email address of the user
  * @property config Configuration used by Native Auth
  */
-class SignUpPasswordRequiredState internal constructor(
+class SignUpPasswordRequiredState private constructor(
     override val continuationToken: String,
     override val correlationId: String,
     private val username: String,
-    private val config: NativeAuthPublicClientApplicationConfiguration
+    private val configReference: ConfigReference
 ) : BaseState(continuationToken = continuationToken, correlationId = correlationId), State, Parcelable {
-    private val TAG: String = SignUpPasswordRequiredState::class.java.simpleName
 
-    constructor(parcel: Parcel) : this(
-        continuationToken = parcel.readString() ?: "",
-        correlationId = parcel.readString() ?: "UNSET",
-        username = parcel.readString() ?: "",
-        config = parcel.serializable<NativeAuthPublicClientApplicationConfiguration>() as NativeAuthPublicClientApplicationConfiguration
+    internal constructor(
+        continuationToken: String,
+        correlationId: String,
+        username: String,
+        config: NativeAuthPublicClientApplicationConfiguration
+    ) : this(
+        continuationToken = continuationToken,
+        correlationId = correlationId,
+        username = username,
+        configReference = ConfigReference(config)
     )
 
+    constructor(parcel: Parcel) : this(parcel.readStatePayload())
+
+    private constructor(payload: StatePayload) : this(
+        continuationToken = payload.parcel.readString() ?: "",
+        correlationId = payload.parcel.readString() ?: "UNSET",
+        username = payload.parcel.readString() ?: "",
+        configReference = payload.parcel.readConfigReference()
+    )
+
+    private val config: NativeAuthPublicClientApplicationConfiguration
+        get() = configReference.resolve()
+
+    override val isRestartRequired: Boolean
+        get() = configReference.resolveOrNull() == null
+
     interface SignUpSubmitPasswordCallback : Callback<SignUpSubmitPasswordResult>
 
     /**
@@ -400,19 +459,24 @@ class SignUpPasswordRequiredState internal constructor(
         password: CharArray,
         callback: SignUpSubmitPasswordCallback
     ) {
+        submitPasswordCancellable(password, callback)
+    }
+
+    /**
+     * Same as [submitPassword], returning a [com.microsoft.identity.nativeauth.NativeAuthRequest] that can be
+     * used to cancel the request. A cancelled request never invokes its callback.
+     */
+    fun submitPasswordCancellable(
+        password: CharArray,
+        callback: SignUpSubmitPasswordCallback
+    ): NativeAuthRequest {
         LogSession.logMethodCall(
             tag = TAG,
             correlationId = correlationId,
             methodName = "${TAG}.submitPassword(password: CharArray, callback: SignUpSubmitPasswordCallback)"
         )
-        NativeAuthPublicClientApplication.pcaScope.launch {
-            try {
-                val result = submitPassword(password)
-                callback.onResult(result)
-            } catch (e: MsalException) {
-                Logger.error(TAG, "Exception thrown in submitPassword", e)
-                callback.onError(e)
-            }
+        return requests.launch(TAG, "submitPassword", callback) {
+            submitPassword(password)
         }
     }
 
@@ -446,7 +510,7 @@ class SignUpPasswordRequiredState internal constructor(
 
                 try {
                     val rawCommandResult =
-                        CommandDispatcher.submitSilentReturningFuture(command).get()
+                        submitSilentAndAwait(command, config.httpConfiguration?.nativeAuth)
 
                     return@withContext when (val result =
                         rawCommandResult.checkAndWrapCommandResultType<SignUpSubmitPasswordCommandResult>()) {
@@ -462,14 +526,16 @@ class SignUpPasswordRequiredState internal constructor(
                         }
 
                         is SignUpCommandResult.AttributesRequired -> {
+                            val requiredAttributes = result.requiredAttributes.toListOfRequiredUserAttribute()
                             SignUpResult.AttributesRequired(
                                 nextState = SignUpAttributesRequiredState(
                                     continuationToken = result.continuationToken,
                                     correlationId = result.correlationId,
                                     username = username,
-                                    config = config
+                                    config = config,
+                                    attributesSchema = UserAttributesSchema(requiredAttributes)
                                 ),
-                                requiredAttributes = result.requiredAttributes.toListOfRequiredUserAttribute()
+                                requiredAttributes = requiredAttributes
                             )
                         }
 
@@ -540,6 +606,8 @@ class SignUpPasswordRequiredState internal constructor(
                 } finally {
                     StringUtil.overwriteWithNull(commandParameters.password)
                 }
+            } catch (e: CancellationException) {
+                throw e
             } catch (e: Exception) {
                 SignUpSubmitPasswordError(
                     errorType = ErrorTypes.CLIENT_EXCEPTION,
@@ -552,10 +620,12 @@ class SignUpPasswordRequiredState internal constructor(
     }
 
     override fun writeToParcel(parcel: Parcel, flags: Int) {
-        parcel.writeString(continuationToken)
-        parcel.writeString(correlationId)
-        parcel.writeString(username)
-        parcel.writeSerializable(config)
+        parcel.writeStatePayload {
+            writeString(continuationToken)
+            writeString(correlationId)
+            writeString(username)
+            writeConfigReference(configReference)
+        }
     }
 
     override fun describeContents(): Int {
@@ -563,6 +633,8 @@ class SignUpPasswordRequiredState internal constructor(
     }
 
     companion object CREATOR : Parcelable.Creator<SignUpPasswordRequiredState> {
+        private const val TAG = "SignUpPasswordRequiredState"
+
         override fun createFromParcel(parcel: Parcel): SignUpPasswordRequiredState {
             return SignUpPasswordRequiredState(parcel)
         }
@@ -581,22 +653,46 @@ class SignUpPasswordRequiredState internal constructor(
  * @property correlationId: Correlation ID taken from the previous API response and passed to the next request
  * @property username: Email address of the user
  * @property config Configuration used by Native Auth
+ * @property attributesSchema: Attributes requested by the server, used to check attributes before they are submitted.
+ * Not kept when the state is written to a parcel.
  */
-class SignUpAttributesRequiredState internal constructor(
+class SignUpAttributesRequiredState private constructor(
     override val continuationToken: String,
     override val correlationId: String,
     private val username: String,
-    private val config: NativeAuthPublicClientApplicationConfiguration
+    private val configReference: ConfigReference,
+    private val attributesSchema: UserAttributesSchema? = null
 ) : BaseState(continuationToken = continuationToken, correlationId = correlationId), State, Parcelable {
-    private val TAG: String = SignUpAttributesRequiredState::class.java.simpleName
 
-    constructor(parcel: Parcel) : this(
-        continuationToken = parcel.readString() ?: "",
-        correlationId = parcel.readString() ?: "UNSET",
-        username = parcel.readString() ?: "",
-        config = parcel.serializable<NativeAuthPublicClientApplicationConfiguration>() as NativeAuthPublicClientApplicationConfiguration
+    internal constructor(
+        continuationToken: String,
+        correlationId: String,
+        username: String,
+        config: NativeAuthPublicClientApplicationConfiguration,
+        attributesSchema: UserAttributesSchema? = null
+    ) : this(
+        continuationToken = continuationToken,
+        correlationId = correlationId,
+        username = username,
+        configReference = ConfigReference(config),
+        attributesSchema = attributesSchema
     )
 
+    constructor(parcel: Parcel) : this(parcel.readStatePayload())
+
+    private constructor(payload: StatePayload) : this(
+        continuationToken = payload.parcel.readString() ?: "",
+        correlationId = payload.parcel.readString() ?: "UNSET",
+        username = payload.parcel.readString() ?: "",
+        configReference = payload.parcel.readConfigReference()
+    )
+
+    private val config: NativeAuthPublicClientApplicationConfiguration
+        get() = configReference.resolve()
+
+    override val isRestartRequired: Boolean
+        get() = configReference.resolveOrNull() == null
+
     interface SignUpSubmitUserAttributesCallback : Callback<SignUpSubmitAttributesResult>
 
     /**
@@ -610,19 +706,24 @@ class SignUpAttributesRequiredState internal constructor(
         attributes: UserAttributes,
         callback: SignUpSubmitUserAttributesCallback
     ) {
+        submitAttributesCancellable(attributes, callback)
+    }
+
+    /**
+     * Same as [submitAttributes], returning a [com.microsoft.identity.nativeauth.NativeAuthRequest] that can be
+     * used to cancel the request. A cancelled request never invokes its callback.
+     */
+    fun submitAttributesCancellable(
+        attributes: UserAttributes,
+        callback: SignUpSubmitUserAttributesCallback
+    ): NativeAuthRequest {
         LogSession.logMethodCall(
             tag = TAG,
             correlationId = correlationId,
             methodName = "${TAG}.submitAttributes(attributes: UserAttributes, callback: SignUpSubmitUserAttributesCallback)"
         )
-        NativeAuthPublicClientApplication.pcaScope.launch {
-            try {
-                val result = submitAttributes(attributes)
-                callback.onResult(result)
-            } catch (e: MsalException) {
-                Logger.error(TAG, "Exception thrown in submitAttributes", e)
-                callback.onError(e)
-            }
+        return requests.launch(TAG, "submitAttributes", callback) {
+            submitAttributes(attributes)
         }
     }
 
@@ -638,6 +739,22 @@ class SignUpAttributesRequiredState internal constructor(
             correlationId = correlationId,
             methodName = "${TAG}.submitAttributes(attributes: UserAttributes)"
         )
+        // The server would reject these attributes, don't spend a round trip on them.
+        val missingAttributes = attributesSchema?.findMissingAttributes(attributes)
+        if (!missingAttributes.isNullOrEmpty()) {
+            return SignUpResult.AttributesRequired(
+                nextState = this,
+                requiredAttributes = missingAttributes
+            )
+        }
+        val invalidAttributes = attributesSchema?.findInvalidAttributes(attributes)
+        if (!invalidAttributes.isNullOrEmpty()) {
+            return SignUpSubmitAttributesError(
+                errorType = SignUpErrorTypes.INVALID_ATTRIBUTES,
+                errorMessage = "Invalid attributes: ${invalidAttributes.joinToString()}",
+                correlationId = correlationId
+            )
+        }
         return withContext(Dispatchers.IO) {
             try {
                 val commandParameters =
@@ -655,19 +772,21 @@ class SignUpAttributesRequiredState internal constructor(
                     PublicApiId.NATIVE_AUTH_SIGN_UP_SUBMIT_ATTRIBUTES
                 )
 
-                val rawCommandResult = CommandDispatcher.submitSilentReturningFuture(command).get()
+                val rawCommandResult = submitSilentAndAwait(command, config.httpConfiguration?.nativeAuth)
 
                 return@withContext when (val result =
                     rawCommandResult.checkAndWrapCommandResultType<SignUpSubmitUserAttributesCommandResult>()) {
                     is SignUpCommandResult.AttributesRequired -> {
+                        val requiredAttributes = result.requiredAttributes.toListOfRequiredUserAttribute()
                         SignUpResult.AttributesRequired(
                             nextState = SignUpAttributesRequiredState(
                                 continuationToken = result.continuationToken,
                                 correlationId = result.correlationId,
                                 username = username,
-                                config = config
+                                config = config,
+                                attributesSchema = UserAttributesSchema(requiredAttributes)
                             ),
-                            requiredAttributes = result.requiredAttributes.toListOfRequiredUserAttribute()
+                            requiredAttributes = requiredAttributes
                         )
                     }
 
@@ -729,6 +848,8 @@ class SignUpAttributesRequiredState internal constructor(
                         )
                     }
                 }
+            } catch (e: CancellationException) {
+                throw e
             } catch (e: Exception) {
                 SignUpSubmitAttributesError(
                     errorType = ErrorTypes.CLIENT_EXCEPTION,
@@ -741,10 +862,12 @@ class SignUpAttributesRequiredState internal constructor(
     }
 
     override fun writeToParcel(parcel: Parcel, flags: Int) {
-        parcel.writeString(continuationToken)
-        parcel.writeString(correlationId)
-        parcel.writeString(username)
-        parcel.writeSerializable(config)
+        parcel.writeStatePayload {
+            writeString(continuationToken)
+            writeString(correlationId)
+            writeString(username)
+            writeConfigReference(configReference)
+        }
     }
 
     override fun describeContents(): Int {
@@ -752,6 +875,8 @@ class SignUpAttributesRequiredState internal constructor(
     }
 
     companion object CREATOR : Parcelable.Creator<SignUpAttributesRequiredState> {
+        private const val TAG = "SignUpAttributesRequiredState"
+
         override fun createFromParcel(parcel: Parcel): SignUpAttributesRequiredState {
             return SignUpAttributesRequiredState(parcel)
         }
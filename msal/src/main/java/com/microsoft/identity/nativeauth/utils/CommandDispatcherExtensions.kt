@@ -0,0 +1,82 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.nativeauth.utils
+
+import com.microsoft.identity.client.configuration.HttpDeadlineConfiguration
+import com.microsoft.identity.common.java.commands.BaseCommand
+import com.microsoft.identity.common.java.controllers.CommandDispatcher
+import com.microsoft.identity.common.java.controllers.CommandResult
+import com.microsoft.identity.common.java.exception.ServiceException
+import com.microsoft.identity.common.java.util.ResultFuture
+import kotlinx.coroutines.suspendCancellableCoroutine
+import kotlinx.coroutines.withTimeoutOrNull
+import kotlin.coroutines.resume
+import kotlin.coroutines.resumeWithException
+
+/**
+ * Submits the command through [CommandDispatcher.submitSilentReturningFuture] and suspends until
+ * its result is available. Unlike calling get() on the returned future, no thread is held while
+ * the command runs.
+ *
+ * If [endpoint] sets a deadline, waiting stops once it has passed: the command is asked to cancel
+ * and a [ServiceException] with [ServiceException.REQUEST_TIMEOUT] is thrown.
+ */
+internal suspend fun submitSilentAndAwait(
+    command: BaseCommand<*>,
+    endpoint: HttpDeadlineConfiguration? = null
+): CommandResult<*> {
+    val future = CommandDispatcher.submitSilentReturningFuture(command)
+    val deadlineMs = endpoint?.deadlineMs ?: 0
+    if (deadlineMs <= 0) {
+        return future.await()
+    }
+
+    return withTimeoutOrNull(deadlineMs.toLong()) { future.await() }
+        ?: throw ServiceException(
+            ServiceException.REQUEST_TIMEOUT,
+            "The request did not complete within its deadline.",
+            null
+        )
+}
+
+/**
+ * Suspends until the future completes, then returns its result or throws its exception.
+ * Cancelling the calling coroutine stops waiting and drops the result: the command is not
+ * interrupted and still runs to completion.
+ */
+internal suspend fun <T> ResultFuture<T>.await(): T = suspendCancellableCoroutine { continuation ->
+    continuation.invokeOnCancellation {
+        try {
+            cancel(true)
+        } catch (e: UnsupportedOperationException) {
+            // The future cannot stop the command, its result is simply discarded.
+        }
+    }
+    whenComplete { result, throwable ->
+        if (throwable != null) {
+            continuation.resumeWithException(throwable)
+        } else {
+            continuation.resume(result)
+        }
+    }
+}
@@ -0,0 +1,97 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.nativeauth.utils
+
+import com.microsoft.identity.client.exception.MsalException
+import com.microsoft.identity.common.java.logging.Logger
+import com.microsoft.identity.nativeauth.NativeAuthPublicClientApplication
+import com.microsoft.identity.nativeauth.NativeAuthRequest
+import com.microsoft.identity.nativeauth.statemachine.states.Callback
+import kotlinx.coroutines.CoroutineStart
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.ensureActive
+import kotlinx.coroutines.launch
+
+/**
+ * Requests launched from the callback variants of one state object or application. The requests
+ * run in [NativeAuthPublicClientApplication.pcaScope] and can be cancelled together, e.g. when the
+ * user leaves the flow the state belongs to. Completed requests are dropped from the group, so it
+ * does not hold on to anything once the flow is idle.
+ */
+internal class NativeAuthRequestGroup {
+
+    private val jobs = HashSet<Job>()
+
+    /**
+     * Runs [block] and delivers its result or [MsalException] to [callback], unless the request is
+     * cancelled first.
+     */
+    fun <T> launch(
+        tag: String,
+        methodName: String,
+        callback: Callback<T>,
+        block: suspend () -> T
+    ): NativeAuthRequest {
+        val job = NativeAuthPublicClientApplication.pcaScope.launch(start = CoroutineStart.LAZY) {
+            try {
+                val result = block()
+                coroutineContext.ensureActive()
+                callback.onResult(result)
+            } catch (e: MsalException) {
+                coroutineContext.ensureActive()
+                Logger.error(tag, "Exception thrown in $methodName", e)
+                callback.onError(e)
+            }
+        }
+
+        synchronized(jobs) {
+            jobs.add(job)
+        }
+        job.invokeOnCompletion {
+            synchronized(jobs) {
+                jobs.remove(job)
+            }
+        }
+        job.start()
+
+        return JobRequest(job)
+    }
+
+    /**
+     * Cancels every request of this group that has not completed yet.
+     */
+    fun cancelAll() {
+        val active = synchronized(jobs) {
+            jobs.toList()
+        }
+        active.forEach { it.cancel() }
+    }
+
+    private class JobRequest(private val job: Job) : NativeAuthRequest {
+        override fun cancel() = job.cancel()
+
+        override fun isCancelled(): Boolean = job.isCancelled
+
+        override fun isCompleted(): Boolean = job.isCompleted
+    }
+}
@@ -24,6 +24,11 @@ package com.microsoft.identity.nativeauth.utils
 
 import android.os.Build
 import android.os.Parcel
+import com.microsoft.identity.client.AccountSnapshot
+import com.microsoft.identity.client.exception.MsalClientException
+import com.microsoft.identity.common.java.logging.Logger
+import com.microsoft.identity.nativeauth.NativeAuthConfigurationRegistry
+import com.microsoft.identity.nativeauth.NativeAuthPublicClientApplicationConfiguration
 import java.io.Serializable
 
 /**
@@ -33,3 +38,130 @@ inline fun <reified T : Serializable> Parcel.serializable(): T? = when {
     Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU -> readSerializable(T::class.java.classLoader, T::class.java)
     else -> @Suppress("DEPRECATION") readSerializable() as? T
 }
+
+/**
+ * Layout version of native auth states in a parcel, written first by every state.
+ */
+internal const val STATE_PARCEL_VERSION = 1
+
+private const val TAG = "ParcelExtensions"
+
+/**
+ * Fields of a native auth state read from a parcel, see [readStatePayload].
+ */
+internal class StatePayload(val parcel: Parcel)
+
+/**
+ * Payload of a layout that cannot be read, see [readStatePayload]. Reading from an empty parcel
+ * returns the default of each field without moving its position, so it is shared rather than
+ * obtained and recycled for every state.
+ */
+private val EMPTY_STATE_PAYLOAD by lazy { StatePayload(Parcel.obtain()) }
+
+/**
+ * Writes the layout version and size of a native auth state, followed by the fields written by [writeFields].
+ */
+internal inline fun Parcel.writeStatePayload(writeFields: Parcel.() -> Unit) {
+    writeInt(STATE_PARCEL_VERSION)
+    val sizePosition = dataPosition()
+    writeInt(0)
+    writeFields()
+    val endPosition = dataPosition()
+    setDataPosition(sizePosition)
+    writeInt(endPosition - sizePosition - Int.SIZE_BYTES)
+    setDataPosition(endPosition)
+}
+
+/**
+ * Reads the header written by [writeStatePayload].
+ *
+ * A layout this version of the library cannot read, e.g. one written by another version before the
+ * app was updated, is skipped rather than failing the restore of everything around it. Its fields
+ * are then read from an empty parcel, so the restored state has no configuration key and reports
+ * that the flow has to be started again.
+ *
+ * @return the payload, positioned at the first field of the state.
+ */
+internal fun Parcel.readStatePayload(): StatePayload {
+    val version = readInt()
+    val size = readInt()
+    if (version == STATE_PARCEL_VERSION) {
+        return StatePayload(this)
+    }
+
+    Logger.warn(
+        TAG,
+        "Unsupported native auth state parcel version $version, the flow has to be started again."
+    )
+    setDataPosition(if (size in 0..dataAvail()) dataPosition() + size else dataSize())
+    return EMPTY_STATE_PAYLOAD
+}
+
+/**
+ * Configuration of a native auth state, written to a parcel by key, see [NativeAuthConfigurationRegistry].
+ *
+ * A state restored from a parcel only holds the key, which is resolved on first use: the state can
+ * be restored before the application is created again, and used once it is.
+ */
+internal class ConfigReference private constructor(
+    private val restoredKey: String?,
+    @Volatile private var config: NativeAuthPublicClientApplicationConfiguration?
+) {
+    constructor(config: NativeAuthPublicClientApplicationConfiguration) : this(null, config)
+
+    /**
+     * Key written to a parcel, null for a state restored without one.
+     */
+    val key: String?
+        get() = restoredKey ?: config?.let { NativeAuthConfigurationRegistry.keyOf(it) }
+
+    /**
+     * @return the configuration, or null if there is no key or no application was created for it
+     * yet. A failed resolution is attempted again on the next call.
+     */
+    fun resolveOrNull(): NativeAuthPublicClientApplicationConfiguration? {
+        config?.let { return it }
+        return restoredKey?.let { NativeAuthConfigurationRegistry.resolve(it) }?.also { config = it }
+    }
+
+    /**
+     * @return the configuration, failing if it cannot be resolved, see [resolveOrNull].
+     */
+    fun resolve(): NativeAuthPublicClientApplicationConfiguration {
+        return resolveOrNull() ?: throw MsalClientException(
+            MsalClientException.NATIVE_AUTH_STATE_RESTART_REQUIRED_ERROR_CODE,
+            MsalClientException.NATIVE_AUTH_STATE_RESTART_REQUIRED_ERROR_MESSAGE
+        )
+    }
+
+    companion object {
+        /**
+         * @return a reference to the configuration with [key], resolved on first use.
+         */
+        fun ofKey(key: String?): ConfigReference = ConfigReference(key, null)
+    }
+}
+
+internal fun Parcel.writeConfigReference(reference: ConfigReference) {
+    writeString(reference.key)
+}
+
+internal fun Parcel.readConfigReference(): ConfigReference {
+    return ConfigReference.ofKey(readString())
+}
+
+internal fun Parcel.writeAccountSnapshot(snapshot: AccountSnapshot) {
+    writeString(snapshot.id)
+    writeString(snapshot.tenantId)
+    writeString(snapshot.environment)
+    writeString(snapshot.rawIdToken)
+}
+
+internal fun Parcel.readAccountSnapshot(): AccountSnapshot {
+    return AccountSnapshot(
+        readString() ?: "",
+        readString(),
+        readString(),
+        readString()
+    )
+}
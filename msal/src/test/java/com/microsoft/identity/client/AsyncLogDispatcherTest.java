@@ -0,0 +1,229 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(RobolectricTestRunner.class)
+public class AsyncLogDispatcherTest {
+
+    private static final long TIMEOUT_SECONDS = 5;
+
+    private AsyncLogDispatcher mDispatcher;
+
+    @After
+    public void tearDown() {
+        if (mDispatcher != null) {
+            mDispatcher.shutdown();
+        }
+    }
+
+    @Test
+    public void testCapacityIsRoundedUpToPowerOfTwo() {
+        mDispatcher = new AsyncLogDispatcher(new RecordingCallback(0), 100, "test-log-dispatcher");
+
+        Assert.assertEquals(128, mDispatcher.getCapacity());
+    }
+
+    @Test
+    public void testRecordsAreDeliveredInOrder() throws InterruptedException {
+        final int count = 1000;
+        final RecordingCallback callback = new RecordingCallback(count);
+        mDispatcher = new AsyncLogDispatcher(callback, 2048, "test-log-dispatcher");
+
+        for (int i = 0; i < count; i++) {
+            Assert.assertTrue(mDispatcher.enqueue(record(Logger.LogLevel.INFO, String.valueOf(i))));
+        }
+
+        Assert.assertTrue(callback.mDelivered.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        final List<LogRecord> records = callback.getRecords();
+        Assert.assertEquals(count, records.size());
+        for (int i = 0; i < count; i++) {
+            Assert.assertEquals(String.valueOf(i), records.get(i).getMessage());
+        }
+        Assert.assertTrue(callback.mMaxBatchSize <= AsyncLogDispatcher.MAX_BATCH_SIZE);
+        Assert.assertEquals(0, mDispatcher.getDroppedCount());
+    }
+
+    @Test
+    public void testConcurrentProducersLoseNothingWhenBufferIsLargeEnough() throws InterruptedException {
+        final int producers = 4;
+        final int perProducer = 500;
+        final RecordingCallback callback = new RecordingCallback(producers * perProducer);
+        mDispatcher = new AsyncLogDispatcher(callback, producers * perProducer, "test-log-dispatcher");
+
+        final List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            final Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < perProducer; i++) {
+                        mDispatcher.enqueue(record(Logger.LogLevel.VERBOSE, "message"));
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertTrue(callback.mDelivered.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        Assert.assertEquals(producers * perProducer, callback.getRecords().size());
+        Assert.assertEquals(0, mDispatcher.getDroppedCount());
+    }
+
+    @Test
+    public void testOverflowIsDroppedAndCounted() throws InterruptedException {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch firstBatch = new CountDownLatch(1);
+        final RecordingCallback callback = new RecordingCallback(0) {
+            @Override
+            public void log(@NonNull final List<LogRecord> records) {
+                super.log(records);
+                firstBatch.countDown();
+                try {
+                    release.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        mDispatcher = new AsyncLogDispatcher(callback, 4, "test-log-dispatcher");
+
+        // Stall the consumer inside the callback so the buffer cannot drain.
+        mDispatcher.enqueue(record(Logger.LogLevel.INFO, "stall"));
+        Assert.assertTrue(firstBatch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        int accepted = 0;
+        for (int i = 0; i < 10; i++) {
+            if (mDispatcher.enqueue(record(Logger.LogLevel.INFO, "overflow"))) {
+                accepted++;
+            }
+        }
+
+        Assert.assertEquals(4, accepted);
+        Assert.assertEquals(6, mDispatcher.getDroppedCount());
+        release.countDown();
+    }
+
+    @Test
+    public void testShutdownWhileProducersAreLoggingLosesNothing() throws InterruptedException {
+        final int producers = 4;
+        final int perProducer = 2000;
+        final CountDownLatch closed = new CountDownLatch(1);
+        final ClosableRecordingCallback callback = new ClosableRecordingCallback(closed);
+        mDispatcher = new AsyncLogDispatcher(callback, 64, "test-log-dispatcher");
+
+        final CountDownLatch started = new CountDownLatch(producers);
+        final AtomicInteger accepted = new AtomicInteger();
+        final List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            final Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    started.countDown();
+                    for (int i = 0; i < perProducer; i++) {
+                        if (mDispatcher.enqueue(record(Logger.LogLevel.VERBOSE, "message"))) {
+                            accepted.incrementAndGet();
+                        }
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        Assert.assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        mDispatcher.shutdown();
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertTrue(closed.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        Assert.assertEquals(accepted.get(), callback.getRecords().size());
+        Assert.assertEquals(producers * perProducer, accepted.get() + mDispatcher.getDroppedCount());
+        Assert.assertFalse(mDispatcher.enqueue(record(Logger.LogLevel.INFO, "late")));
+    }
+
+    private static LogRecord record(final Logger.LogLevel logLevel, final String message) {
+        return new LogRecord(System.currentTimeMillis(), "tag", logLevel, message, false, null);
+    }
+
+    private static class RecordingCallback implements IBatchLoggerCallback {
+
+        private final List<LogRecord> mRecords = new ArrayList<>();
+        final CountDownLatch mDelivered;
+        volatile int mMaxBatchSize;
+
+        RecordingCallback(final int expectedRecords) {
+            mDelivered = new CountDownLatch(expectedRecords);
+        }
+
+        @Override
+        public void log(@NonNull final List<LogRecord> records) {
+            synchronized (mRecords) {
+                mRecords.addAll(records);
+            }
+            mMaxBatchSize = Math.max(mMaxBatchSize, records.size());
+            for (int i = 0; i < records.size(); i++) {
+                mDelivered.countDown();
+            }
+        }
+
+        List<LogRecord> getRecords() {
+            synchronized (mRecords) {
+                return new ArrayList<>(mRecords);
+            }
+        }
+    }
+
+    private static class ClosableRecordingCallback extends RecordingCallback implements Closeable {
+
+        private final CountDownLatch mClosed;
+
+        ClosableRecordingCallback(final CountDownLatch closed) {
+            super(0);
+            mClosed = closed;
+        }
+
+        @Override
+        public void close() {
+            mClosed.countDown();
+        }
+    }
+}
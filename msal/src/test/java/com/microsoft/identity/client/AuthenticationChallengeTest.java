@@ -0,0 +1,78 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import com.microsoft.identity.client.claims.AuthenticationChallenge;
+import com.microsoft.identity.client.claims.ClaimsRequest;
+import com.microsoft.identity.client.claims.WWWAuthenticateHeader;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.List;
+
+/**
+ * Challenges carrying base64 encoded claims, which are decoded with android.util.Base64.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class AuthenticationChallengeTest {
+
+    // {"access_token":{"nbf":{"essential":true,"value":"1604106651"}}}
+    public final static String BASE64_CLAIMS = "eyJhY2Nlc3NfdG9rZW4iOnsibmJmIjp7ImVzc2VudGlhbCI6dHJ1ZSwidmFsdWUiOiIxNjA0MTA2NjUxIn19fQ==";
+    public final static String HEADER_MULTIPLE_CHALLENGES = "PoP realm=\"\", nonce=\"some\\\"nonce\", "
+            + "Bearer realm=\"\", error=\"insufficient_claims\", claims=\"" + BASE64_CLAIMS + "\", "
+            + "Negotiate abc+/d==";
+
+    @Test
+    public void testParseChallengesHandlesMultipleSchemes() {
+        final List<AuthenticationChallenge> challenges = WWWAuthenticateHeader.parseChallenges(HEADER_MULTIPLE_CHALLENGES);
+
+        Assert.assertEquals(3, challenges.size());
+
+        final AuthenticationChallenge pop = challenges.get(0);
+        Assert.assertTrue(pop.isScheme("pop"));
+        Assert.assertEquals("", pop.getRealm());
+        Assert.assertEquals("some\"nonce", pop.getNonce());
+
+        final AuthenticationChallenge bearer = challenges.get(1);
+        Assert.assertEquals("Bearer", bearer.getScheme());
+        Assert.assertEquals("insufficient_claims", bearer.getError());
+        Assert.assertEquals(BASE64_CLAIMS, bearer.getParameter("CLAIMS"));
+        Assert.assertEquals("nbf", bearer.getClaimsRequest().getAccessTokenClaimsRequested().get(0).getName());
+
+        final AuthenticationChallenge negotiate = challenges.get(2);
+        Assert.assertEquals("Negotiate", negotiate.getScheme());
+        Assert.assertEquals("abc+/d==", negotiate.getToken68());
+        Assert.assertTrue(negotiate.getParameters().isEmpty());
+    }
+
+    @Test
+    public void testGetClaimsRequestFromHeaderWithBase64Claims() {
+        ClaimsRequest claimsRequest = WWWAuthenticateHeader.getClaimsRequestFromWWWAuthenticateHeaderValue(HEADER_MULTIPLE_CHALLENGES);
+
+        Assert.assertEquals("nbf", claimsRequest.getAccessTokenClaimsRequested().get(0).getName());
+    }
+}
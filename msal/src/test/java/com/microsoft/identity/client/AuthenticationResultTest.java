@@ -24,6 +24,7 @@ package com.microsoft.identity.client;
 
 import com.microsoft.identity.common.java.cache.CacheRecord;
 import com.microsoft.identity.common.java.cache.ICacheRecord;
+import com.microsoft.identity.common.java.dto.AccessTokenRecord;
 import com.microsoft.identity.common.java.dto.AccountRecord;
 import com.microsoft.identity.common.java.dto.IdTokenRecord;
 import com.microsoft.identity.internal.testutils.mocks.MockTokenCreator;
@@ -37,6 +38,7 @@ import org.robolectric.RobolectricTestRunner;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @RunWith(RobolectricTestRunner.class)
 public class AuthenticationResultTest {
@@ -112,4 +114,96 @@ public class AuthenticationResultTest {
         Assert.assertNull(authenticationResult.getCorrelationId());
     }
 
+    @Test
+    public void testAuthenticationResultExposesExpiryAndScopes() {
+        final long expiresOnSeconds = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis())
+                + TimeUnit.HOURS.toSeconds(1);
+        final List<ICacheRecord> cacheRecords = createCacheRecordsWithAccessToken(
+                String.valueOf(expiresOnSeconds),
+                "User.Read Mail.Read"
+        );
+
+        final AuthenticationResult authenticationResult = new AuthenticationResult(
+                cacheRecords,
+                null
+        );
+
+        Assert.assertEquals(TimeUnit.SECONDS.toMillis(expiresOnSeconds), authenticationResult.getExpiresOnEpochMillis());
+        Assert.assertEquals(authenticationResult.getExpiresOnEpochMillis(), authenticationResult.getExpiresOn().getTime());
+        Assert.assertFalse(authenticationResult.isExpired(TimeUnit.MINUTES.toMillis(5)));
+        Assert.assertTrue(authenticationResult.isExpired(TimeUnit.HOURS.toMillis(2)));
+        Assert.assertArrayEquals(new String[]{"User.Read", "Mail.Read"}, authenticationResult.getScope());
+    }
+
+    @Test
+    public void testAuthenticationResultAppendsAuthorizationHeader() {
+        final AuthenticationResult authenticationResult = new AuthenticationResult(
+                createCacheRecordsWithAccessToken("0", "User.Read"),
+                null
+        );
+        final StringBuilder builder = new StringBuilder("Authorization: ");
+
+        authenticationResult.appendAuthorizationHeader(builder);
+
+        Assert.assertEquals("Bearer secret", authenticationResult.getAuthorizationHeader());
+        Assert.assertSame(authenticationResult.getAuthorizationHeader(), authenticationResult.getAuthorizationHeader());
+        Assert.assertEquals("Authorization: Bearer secret", builder.toString());
+    }
+
+    @Test
+    public void testAuthenticationResultWithoutAccessTokenAppendsNothing() {
+        final AuthenticationResult authenticationResult = new AuthenticationResult(
+                mCacheRecords,
+                null
+        );
+        final StringBuilder builder = new StringBuilder("Authorization: ");
+
+        authenticationResult.appendAuthorizationHeader(builder);
+
+        Assert.assertNotNull(authenticationResult.getAuthorizationHeader());
+        Assert.assertEquals("Authorization: ", builder.toString());
+    }
+
+    @Test
+    public void testAuthenticationResultGetScopeReturnsCopy() {
+        final AuthenticationResult authenticationResult = new AuthenticationResult(
+                createCacheRecordsWithAccessToken("0", "User.Read"),
+                null
+        );
+
+        authenticationResult.getScope()[0] = "garbage";
+
+        Assert.assertEquals("User.Read", authenticationResult.getScope()[0]);
+        Assert.assertTrue(authenticationResult.isExpired(0));
+    }
+
+    @Test
+    public void testAuthenticationResultAdaptsAccountOnce() {
+        AuthenticationResult authenticationResult = new AuthenticationResult(
+                mCacheRecords,
+                null
+        );
+
+        Assert.assertNotNull(authenticationResult.getAccount());
+        Assert.assertSame(authenticationResult.getAccount(), authenticationResult.getAccount());
+    }
+
+    private List<ICacheRecord> createCacheRecordsWithAccessToken(final String expiresOn,
+                                                                 final String target) {
+        final AccessTokenRecord accessTokenRecord = new AccessTokenRecord();
+        accessTokenRecord.setExpiresOn(expiresOn);
+        accessTokenRecord.setTarget(target);
+        accessTokenRecord.setAccessTokenType("Bearer");
+        accessTokenRecord.setSecret("secret");
+
+        final CacheRecord.CacheRecordBuilder cacheRecord = CacheRecord.builder();
+        cacheRecord.account(mCacheRecords.get(0).getAccount());
+        cacheRecord.idToken(mCacheRecords.get(0).getIdToken());
+        cacheRecord.accessToken(accessTokenRecord);
+
+        final List<ICacheRecord> cacheRecords = new ArrayList<>();
+        cacheRecords.add(cacheRecord.build());
+        return cacheRecords;
+    }
+
 }
@@ -0,0 +1,151 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class BinaryLogFileSinkTest {
+
+    private static final String CORRELATION_ID = "8f0e3f3c-0a4f-4d55-9bd0-7d0c2a1ad0c5";
+    private static final int FILE_SIZE = BinaryLogFileSink.MIN_FILE_SIZE_BYTES;
+
+    @Rule
+    public TemporaryFolder mTemporaryFolder = new TemporaryFolder();
+
+    private File mDirectory;
+    private BinaryLogFileSink mSink;
+
+    @Before
+    public void setup() throws IOException {
+        mDirectory = mTemporaryFolder.newFolder("msal_logs");
+        mSink = new BinaryLogFileSink(mDirectory, FILE_SIZE, 3);
+    }
+
+    @After
+    public void tearDown() {
+        mSink.close();
+    }
+
+    @Test
+    public void testRecordsRoundTrip() throws IOException {
+        mSink.log(Collections.singletonList(
+                new LogRecord(1234L, "PublicClientApplication", Logger.LogLevel.WARNING, "first", true, CORRELATION_ID)
+        ));
+        mSink.log(Collections.singletonList(
+                new LogRecord(1235L, "PublicClientApplication", Logger.LogLevel.VERBOSE, "second", false, "UNSET")
+        ));
+        mSink.log(Collections.singletonList(
+                new LogRecord(1236L, "AccountAdapter", Logger.LogLevel.ERROR, "third", false, null)
+        ));
+
+        final List<LogRecord> records = BinaryLogDecoder.decodeDirectory(mDirectory);
+
+        Assert.assertEquals(3, records.size());
+        final LogRecord first = records.get(0);
+        Assert.assertEquals(1234L, first.getTimestampMillis());
+        Assert.assertEquals("PublicClientApplication", first.getTag());
+        Assert.assertEquals(Logger.LogLevel.WARNING, first.getLogLevel());
+        Assert.assertEquals("first", first.getMessage());
+        Assert.assertTrue(first.containsPII());
+        Assert.assertEquals(CORRELATION_ID, first.getCorrelationId());
+
+        Assert.assertEquals("PublicClientApplication", records.get(1).getTag());
+        Assert.assertEquals("UNSET", records.get(1).getCorrelationId());
+        Assert.assertEquals("AccountAdapter", records.get(2).getTag());
+        Assert.assertNull(records.get(2).getCorrelationId());
+    }
+
+    @Test
+    public void testRotationOverwritesOldestFile() throws IOException {
+        final int count = 5000;
+        final List<LogRecord> batch = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            batch.add(new LogRecord(i, "Tag" + (i % 4), Logger.LogLevel.INFO, "message " + i, false, CORRELATION_ID));
+        }
+
+        mSink.log(batch);
+
+        final List<File> files = mSink.getLogFiles();
+        Assert.assertEquals(3, files.size());
+
+        final List<LogRecord> records = BinaryLogDecoder.decodeDirectory(mDirectory);
+        Assert.assertTrue(records.size() < count);
+        // The newest records are kept, in order, and every file defines the tags it uses.
+        final int firstKept = count - records.size();
+        for (int i = 0; i < records.size(); i++) {
+            Assert.assertEquals("message " + (firstKept + i), records.get(i).getMessage());
+            Assert.assertEquals("Tag" + ((firstKept + i) % 4), records.get(i).getTag());
+        }
+    }
+
+    @Test
+    public void testNewSinkStartsAfterPreviousFiles() throws IOException {
+        mSink.log(Collections.singletonList(
+                new LogRecord(1L, "Tag", Logger.LogLevel.INFO, "before restart", false, null)
+        ));
+        mSink.close();
+
+        mSink = new BinaryLogFileSink(mDirectory, FILE_SIZE, 3);
+        mSink.log(Collections.singletonList(
+                new LogRecord(2L, "Tag", Logger.LogLevel.INFO, "after restart", false, null)
+        ));
+
+        final List<LogRecord> records = BinaryLogDecoder.decodeDirectory(mDirectory);
+        Assert.assertEquals(2, records.size());
+        Assert.assertEquals("before restart", records.get(0).getMessage());
+        Assert.assertEquals("after restart", records.get(1).getMessage());
+    }
+
+    @Test
+    public void testLongMessageIsTruncated() throws IOException {
+        final StringBuilder message = new StringBuilder();
+        for (int i = 0; i < BinaryLogFileSink.MAX_MESSAGE_BYTES; i++) {
+            message.append('é');
+        }
+
+        mSink.log(Collections.singletonList(
+                new LogRecord(1L, "Tag", Logger.LogLevel.INFO, message.toString(), false, null)
+        ));
+
+        final String decoded = BinaryLogDecoder.decodeDirectory(mDirectory).get(0).getMessage();
+        Assert.assertTrue(decoded.endsWith(BinaryLogDecoder.TRUNCATED_SUFFIX));
+        Assert.assertEquals(
+                BinaryLogFileSink.MAX_MESSAGE_BYTES / 2,
+                decoded.length() - BinaryLogDecoder.TRUNCATED_SUFFIX.length()
+        );
+    }
+}
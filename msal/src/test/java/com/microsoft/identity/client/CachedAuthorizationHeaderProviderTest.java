@@ -0,0 +1,92 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Collections;
+
+import static org.mockito.ArgumentMatchers.any;
+
+@RunWith(RobolectricTestRunner.class)
+public class CachedAuthorizationHeaderProviderTest {
+
+    private static final String AUTHORITY = "https://login.microsoftonline.com/common";
+    private static final String HEADER = "Bearer secret";
+
+    private IPublicClientApplication mApplication;
+    private IAuthenticationResult mResult;
+    private CachedAuthorizationHeaderProvider mProvider;
+
+    @Before
+    public void setup() throws Exception {
+        mApplication = Mockito.mock(IPublicClientApplication.class);
+        mResult = Mockito.mock(IAuthenticationResult.class);
+        Mockito.when(mResult.getAuthorizationHeader()).thenReturn(HEADER);
+        Mockito.when(mApplication.acquireTokenSilent(any(AcquireTokenSilentParameters.class))).thenReturn(mResult);
+
+        mProvider = new CachedAuthorizationHeaderProvider(
+                mApplication,
+                Mockito.mock(IAccount.class),
+                Collections.singletonList("User.Read"),
+                AUTHORITY
+        );
+    }
+
+    @Test
+    public void testReusesResultUntilExpiring() throws Exception {
+        Mockito.when(mResult.isExpired(Mockito.anyLong())).thenReturn(false);
+
+        Assert.assertEquals(HEADER, mProvider.getAuthorizationHeader());
+        Assert.assertEquals(HEADER, mProvider.getAuthorizationHeader());
+
+        Mockito.verify(mApplication, Mockito.times(1)).acquireTokenSilent(any(AcquireTokenSilentParameters.class));
+    }
+
+    @Test
+    public void testRefreshesExpiringResult() throws Exception {
+        Mockito.when(mResult.isExpired(Mockito.anyLong())).thenReturn(true);
+
+        mProvider.getAuthorizationHeader();
+        mProvider.getAuthorizationHeader();
+
+        Mockito.verify(mApplication, Mockito.times(2)).acquireTokenSilent(any(AcquireTokenSilentParameters.class));
+    }
+
+    @Test
+    public void testInvalidateDropsCachedResult() throws Exception {
+        Mockito.when(mResult.isExpired(Mockito.anyLong())).thenReturn(false);
+
+        mProvider.getAuthorizationHeader();
+        mProvider.invalidate();
+
+        Assert.assertNull(mProvider.peekAuthenticationResult());
+        mProvider.getAuthorizationHeader();
+        Mockito.verify(mApplication, Mockito.times(2)).acquireTokenSilent(any(AcquireTokenSilentParameters.class));
+    }
+}
@@ -0,0 +1,112 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import android.app.Application;
+import android.content.Context;
+import android.net.Uri;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.microsoft.identity.client.internal.BrowserSelectionCache;
+import com.microsoft.identity.common.java.authorities.Authority;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.Shadows;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(RobolectricTestRunner.class)
+public class CustomTabsPrewarmerTest {
+
+    private static final String CLIENT_ID = "4b0db8c2-9f26-4417-8bde-3f0e3656f8e0";
+    private static final String REDIRECT_URI = "msauth://com.microsoft.identity.client.test/hash";
+
+    private PublicClientApplicationConfiguration mConfiguration;
+
+    @Before
+    public void setup() throws MalformedURLException {
+        final Authority authority = Mockito.mock(Authority.class);
+        Mockito.when(authority.getAuthorityURL()).thenReturn(new URL("https://login.microsoftonline.com/common"));
+
+        mConfiguration = Mockito.mock(PublicClientApplicationConfiguration.class);
+        Mockito.when(mConfiguration.getDefaultAuthority()).thenReturn(authority);
+        Mockito.when(mConfiguration.getClientId()).thenReturn(CLIENT_ID);
+        Mockito.when(mConfiguration.getRedirectUri()).thenReturn(REDIRECT_URI);
+    }
+
+    @Test
+    public void testLikelyAuthorizeUrl() {
+        final IAccount account = Mockito.mock(IAccount.class);
+        Mockito.when(account.getUsername()).thenReturn("user@contoso.com");
+
+        final Uri url = CustomTabsPrewarmer.buildLikelyAuthorizeUrl(
+                mConfiguration,
+                account,
+                Arrays.asList("User.Read", "openid")
+        );
+
+        Assert.assertEquals("login.microsoftonline.com", url.getHost());
+        Assert.assertEquals("/common/oauth2/v2.0/authorize", url.getPath());
+        Assert.assertEquals(CLIENT_ID, url.getQueryParameter("client_id"));
+        Assert.assertEquals("code", url.getQueryParameter("response_type"));
+        Assert.assertEquals(REDIRECT_URI, url.getQueryParameter("redirect_uri"));
+        Assert.assertEquals("User.Read openid profile offline_access", url.getQueryParameter("scope"));
+        Assert.assertEquals("user@contoso.com", url.getQueryParameter("login_hint"));
+    }
+
+    @Test
+    public void testLikelyAuthorizeUrlWithoutAccountHasNoLoginHint() {
+        final Uri url = CustomTabsPrewarmer.buildLikelyAuthorizeUrl(
+                mConfiguration,
+                null,
+                Collections.singletonList("User.Read")
+        );
+
+        Assert.assertNull(url.getQueryParameter("login_hint"));
+    }
+
+    @Test
+    public void testPrepareWithoutCustomTabsBrowserIsNoOp() {
+        final Context context = ApplicationProvider.getApplicationContext();
+        final CustomTabsPrewarmer prewarmer = new CustomTabsPrewarmer(context, new BrowserSelectionCache(context));
+
+        prewarmer.prepare(Uri.parse("https://login.microsoftonline.com/common/oauth2/v2.0/authorize"));
+
+        Assert.assertTrue(Shadows.shadowOf(ApplicationProvider.<Application>getApplicationContext())
+                .getBoundServiceConnections().isEmpty());
+
+        // The scheduled release must not fail when nothing was bound.
+        ShadowLooper.idleMainLooper(CustomTabsPrewarmer.CONNECTION_TTL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,89 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import com.microsoft.identity.client.internal.LazyLogger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(RobolectricTestRunner.class)
+public class LazyLoggerTest {
+
+    @After
+    public void tearDown() {
+        Logger.getInstance().setLogLevel(Logger.LogLevel.VERBOSE);
+    }
+
+    @Test
+    public void testIsLoggableFollowsLogLevel() {
+        Logger.getInstance().setLogLevel(Logger.LogLevel.WARNING);
+
+        Assert.assertTrue(LazyLogger.isLoggable(Logger.LogLevel.ERROR));
+        Assert.assertTrue(LazyLogger.isLoggable(Logger.LogLevel.WARNING));
+        Assert.assertFalse(LazyLogger.isLoggable(Logger.LogLevel.INFO));
+        Assert.assertFalse(LazyLogger.isLoggable(Logger.LogLevel.VERBOSE));
+    }
+
+    @Test
+    public void testFormatArgumentsAreOnlyStringifiedForEnabledLevel() {
+        Logger.getInstance().setLogLevel(Logger.LogLevel.INFO);
+        final AtomicInteger invocations = new AtomicInteger();
+        final Object argument = new Object() {
+            @Override
+            public String toString() {
+                invocations.incrementAndGet();
+                return "argument";
+            }
+        };
+
+        LazyLogger.verbose("tag", "value: %s", argument);
+        Assert.assertEquals(0, invocations.get());
+
+        LazyLogger.info("tag", "value: %s", argument);
+        Assert.assertEquals(1, invocations.get());
+    }
+
+    @Test
+    public void testFormatArgumentsAreNotStringifiedForDisabledLevel() {
+        Logger.getInstance().setLogLevel(Logger.LogLevel.ERROR);
+        final AtomicInteger invocations = new AtomicInteger();
+        final Object argument = new Object() {
+            @Override
+            public String toString() {
+                invocations.incrementAndGet();
+                return "argument";
+            }
+        };
+
+        LazyLogger.warn("tag", "value: %s", argument);
+        LazyLogger.info("tag", "values: %s %s", argument, argument);
+
+        Assert.assertEquals(0, invocations.get());
+    }
+}
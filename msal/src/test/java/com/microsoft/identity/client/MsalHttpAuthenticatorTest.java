@@ -0,0 +1,111 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+
+@RunWith(RobolectricTestRunner.class)
+public class MsalHttpAuthenticatorTest {
+
+    private static final List<String> SCOPES = Arrays.asList("User.Read", "Mail.Read");
+    private static final String CLAIMS_CHALLENGE =
+            "Bearer realm=\"\", error=\"insufficient_claims\", claims=\"{\"access_token\":{\"nbf\":{\"essential\":true}}}\"";
+
+    private IPublicClientApplication mApplication;
+    private IAccount mAccount;
+    private IAuthenticationResult mFirstResult;
+    private IAuthenticationResult mRefreshedResult;
+    private MsalHttpAuthenticator mAuthenticator;
+
+    @Before
+    public void setup() throws Exception {
+        mApplication = Mockito.mock(IPublicClientApplication.class);
+        mAccount = Mockito.mock(IAccount.class);
+        Mockito.when(mAccount.getId()).thenReturn("oid");
+        Mockito.when(mAccount.getAuthority()).thenReturn("https://login.microsoftonline.com/common");
+
+        mFirstResult = mockResult("Bearer first");
+        mRefreshedResult = mockResult("Bearer refreshed");
+        Mockito.when(mApplication.acquireTokenSilent(any(AcquireTokenSilentParameters.class)))
+                .thenReturn(mFirstResult, mRefreshedResult);
+
+        mAuthenticator = new MsalHttpAuthenticator(mApplication);
+    }
+
+    @Test
+    public void testTokenIsCachedPerAccountAndScopes() throws Exception {
+        Assert.assertEquals("Bearer first", mAuthenticator.getAuthorizationHeader(mAccount, SCOPES));
+        Assert.assertEquals("Bearer first", mAuthenticator.getAuthorizationHeader(
+                mAccount,
+                Arrays.asList("Mail.Read", "User.Read")
+        ));
+
+        Mockito.verify(mApplication, Mockito.times(1)).acquireTokenSilent(any(AcquireTokenSilentParameters.class));
+    }
+
+    @Test
+    public void testClaimsChallengeForcesSingleRefresh() throws Exception {
+        final String rejected = mAuthenticator.getAuthorizationHeader(mAccount, SCOPES);
+
+        final String first = mAuthenticator.getAuthorizationHeaderForChallenge(mAccount, SCOPES, rejected, CLAIMS_CHALLENGE);
+        final String second = mAuthenticator.getAuthorizationHeaderForChallenge(mAccount, SCOPES, rejected, CLAIMS_CHALLENGE);
+
+        Assert.assertEquals("Bearer refreshed", first);
+        Assert.assertEquals("Bearer refreshed", second);
+
+        final ArgumentCaptor<AcquireTokenSilentParameters> captor =
+                ArgumentCaptor.forClass(AcquireTokenSilentParameters.class);
+        Mockito.verify(mApplication, Mockito.times(2)).acquireTokenSilent(captor.capture());
+
+        final AcquireTokenSilentParameters refreshParameters = captor.getAllValues().get(1);
+        Assert.assertTrue(refreshParameters.getForceRefresh());
+        Assert.assertEquals("nbf", refreshParameters.getClaimsRequest().getAccessTokenClaimsRequested().get(0).getName());
+    }
+
+    @Test
+    public void testChallengeDoesNotReplayWithSameToken() throws Exception {
+        Mockito.when(mApplication.acquireTokenSilent(any(AcquireTokenSilentParameters.class)))
+                .thenReturn(mFirstResult);
+        final String rejected = mAuthenticator.getAuthorizationHeader(mAccount, SCOPES);
+
+        Assert.assertNull(mAuthenticator.getAuthorizationHeaderForChallenge(mAccount, SCOPES, rejected, null));
+    }
+
+    private static IAuthenticationResult mockResult(final String header) {
+        final IAuthenticationResult result = Mockito.mock(IAuthenticationResult.class);
+        Mockito.when(result.getAuthorizationHeader()).thenReturn(header);
+        Mockito.when(result.isExpired(Mockito.anyLong())).thenReturn(false);
+        return result;
+    }
+}
@@ -0,0 +1,177 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Arrays;
+import java.util.List;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.mockito.ArgumentMatchers.any;
+
+@RunWith(RobolectricTestRunner.class)
+public class MsalOkHttpAuthenticatorTest {
+
+    private static final List<String> SCOPES = Arrays.asList("User.Read", "Mail.Read");
+    private static final String CLAIMS_CHALLENGE =
+            "Bearer realm=\"\", claims=\"{\\\"access_token\\\":{\\\"nbf\\\":{\\\"essential\\\":true}}}\", error=\"insufficient_claims\"";
+
+    private MockWebServer mServer;
+    private IPublicClientApplication mApplication;
+    private IAuthenticationResult mFirstResult;
+    private IAuthenticationResult mRefreshedResult;
+    private OkHttpClient mClient;
+
+    @Before
+    public void setup() throws Exception {
+        mServer = new MockWebServer();
+        mServer.start();
+
+        mApplication = Mockito.mock(IPublicClientApplication.class);
+        final IAccount account = Mockito.mock(IAccount.class);
+        Mockito.when(account.getId()).thenReturn("oid");
+        Mockito.when(account.getAuthority()).thenReturn("https://login.microsoftonline.com/common");
+
+        mFirstResult = mockResult("Bearer first");
+        mRefreshedResult = mockResult("Bearer refreshed");
+        Mockito.when(mApplication.acquireTokenSilent(any(AcquireTokenSilentParameters.class)))
+                .thenReturn(mFirstResult, mRefreshedResult);
+
+        final MsalOkHttpAuthenticator authenticator = new MsalOkHttpAuthenticator(
+                new MsalHttpAuthenticator(mApplication),
+                account,
+                SCOPES
+        );
+        mClient = new OkHttpClient.Builder()
+                .addInterceptor(authenticator)
+                .authenticator(authenticator)
+                .build();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mServer.shutdown();
+    }
+
+    @Test
+    public void testInterceptorAttachesCachedToken() throws Exception {
+        mServer.enqueue(new MockResponse().setResponseCode(200));
+        mServer.enqueue(new MockResponse().setResponseCode(200));
+
+        execute().close();
+        execute().close();
+
+        Assert.assertEquals("Bearer first", mServer.takeRequest().getHeader(MsalHttpAuthenticator.AUTHORIZATION_HEADER));
+        Assert.assertEquals("Bearer first", mServer.takeRequest().getHeader(MsalHttpAuthenticator.AUTHORIZATION_HEADER));
+        Mockito.verify(mApplication, Mockito.times(1)).acquireTokenSilent(any(AcquireTokenSilentParameters.class));
+    }
+
+    @Test
+    public void testInterceptorKeepsExplicitAuthorizationHeader() throws Exception {
+        mServer.enqueue(new MockResponse().setResponseCode(200));
+
+        mClient.newCall(new Request.Builder()
+                .url(mServer.url("/resource"))
+                .header(MsalHttpAuthenticator.AUTHORIZATION_HEADER, "Bearer explicit")
+                .build()
+        ).execute().close();
+
+        Assert.assertEquals("Bearer explicit", mServer.takeRequest().getHeader(MsalHttpAuthenticator.AUTHORIZATION_HEADER));
+        Mockito.verify(mApplication, Mockito.never()).acquireTokenSilent(any(AcquireTokenSilentParameters.class));
+    }
+
+    @Test
+    public void testClaimsChallengeIsReplayedWithRefreshedToken() throws Exception {
+        mServer.enqueue(new MockResponse()
+                .setResponseCode(401)
+                .setHeader(MsalHttpAuthenticator.WWW_AUTHENTICATE_HEADER, CLAIMS_CHALLENGE));
+        mServer.enqueue(new MockResponse().setResponseCode(200));
+
+        try (final Response response = execute()) {
+            Assert.assertEquals(200, response.code());
+        }
+
+        Assert.assertEquals(2, mServer.getRequestCount());
+        Assert.assertEquals("Bearer first", mServer.takeRequest().getHeader(MsalHttpAuthenticator.AUTHORIZATION_HEADER));
+        final RecordedRequest replayed = mServer.takeRequest();
+        Assert.assertEquals("Bearer refreshed", replayed.getHeader(MsalHttpAuthenticator.AUTHORIZATION_HEADER));
+    }
+
+    @Test
+    public void testRejectedReplayIsNotRetriedAgain() throws Exception {
+        mServer.enqueue(new MockResponse()
+                .setResponseCode(401)
+                .setHeader(MsalHttpAuthenticator.WWW_AUTHENTICATE_HEADER, CLAIMS_CHALLENGE));
+        mServer.enqueue(new MockResponse()
+                .setResponseCode(401)
+                .setHeader(MsalHttpAuthenticator.WWW_AUTHENTICATE_HEADER, CLAIMS_CHALLENGE));
+        mServer.enqueue(new MockResponse().setResponseCode(200));
+
+        try (final Response response = execute()) {
+            Assert.assertEquals(401, response.code());
+            Assert.assertNotNull(response.priorResponse());
+        }
+
+        Assert.assertEquals(2, mServer.getRequestCount());
+        Mockito.verify(mApplication, Mockito.times(2)).acquireTokenSilent(any(AcquireTokenSilentParameters.class));
+    }
+
+    @Test
+    public void testChallengeIsNotReplayedWithSameToken() throws Exception {
+        Mockito.when(mApplication.acquireTokenSilent(any(AcquireTokenSilentParameters.class)))
+                .thenReturn(mFirstResult);
+        mServer.enqueue(new MockResponse().setResponseCode(401));
+        mServer.enqueue(new MockResponse().setResponseCode(200));
+
+        try (final Response response = execute()) {
+            Assert.assertEquals(401, response.code());
+            Assert.assertNull(response.priorResponse());
+        }
+
+        Assert.assertEquals(1, mServer.getRequestCount());
+    }
+
+    private Response execute() throws Exception {
+        return mClient.newCall(new Request.Builder().url(mServer.url("/resource")).build()).execute();
+    }
+
+    private static IAuthenticationResult mockResult(final String header) {
+        final IAuthenticationResult result = Mockito.mock(IAuthenticationResult.class);
+        Mockito.when(result.getAuthorizationHeader()).thenReturn(header);
+        Mockito.when(result.isExpired(Mockito.anyLong())).thenReturn(false);
+        return result;
+    }
+}
@@ -0,0 +1,180 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Collection;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.metrics.data.HistogramPointData;
+import io.opentelemetry.sdk.metrics.data.LongPointData;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.testing.exporter.InMemoryMetricReader;
+
+@RunWith(RobolectricTestRunner.class)
+public class MsalOpenTelemetryMetricsTest {
+
+    private static final String API_ID = "test_api";
+
+    private InMemoryMetricReader mReader;
+    private MsalOpenTelemetryMetrics mMetrics;
+
+    @Before
+    public void setup() {
+        mReader = InMemoryMetricReader.create();
+        mMetrics = new MsalOpenTelemetryMetrics(
+                SdkMeterProvider.builder().registerMetricReader(mReader).build()
+        );
+    }
+
+    @Test
+    public void testCacheHitIsRecorded() {
+        Assert.assertTrue(mMetrics.shouldRecord(API_ID));
+        final RequestTimingSpan span = startedSpan();
+        span.complete(true);
+        span.setServicedFromCache(true);
+        span.setControllerName("LocalMSALController");
+        mMetrics.onRequestCompleted(span);
+
+        final Collection<MetricData> metrics = mReader.collectAllMetrics();
+
+        Assert.assertEquals(1, sum(metrics, MsalOpenTelemetryMetrics.METRIC_REQUESTS,
+                MsalOpenTelemetryMetrics.ATTRIBUTE_OUTCOME, MsalOpenTelemetryMetrics.OUTCOME_SUCCESS));
+        Assert.assertEquals(1, sum(metrics, MsalOpenTelemetryMetrics.METRIC_CACHE_LOOKUPS,
+                MsalOpenTelemetryMetrics.ATTRIBUTE_CACHE, MsalOpenTelemetryMetrics.CACHE_HIT));
+        Assert.assertEquals(1, sum(metrics, MsalOpenTelemetryMetrics.METRIC_CONTROLLER_SELECTIONS,
+                MsalOpenTelemetryMetrics.ATTRIBUTE_CONTROLLER, "LocalMSALController"));
+        Assert.assertEquals(0, sum(metrics, MsalOpenTelemetryMetrics.METRIC_TOKEN_REFRESHES,
+                MsalOpenTelemetryMetrics.ATTRIBUTE_API_ID, API_ID));
+        Assert.assertEquals(0, sum(metrics, MsalOpenTelemetryMetrics.METRIC_IN_FLIGHT,
+                MsalOpenTelemetryMetrics.ATTRIBUTE_API_ID, API_ID));
+        Assert.assertEquals(1, histogramCount(metrics, MsalOpenTelemetryMetrics.METRIC_REQUEST_DURATION));
+    }
+
+    @Test
+    public void testRefreshAndErrorsAreRecorded() {
+        final RequestTimingSpan succeeded = startedSpan();
+        final RequestTimingSpan failed = startedSpan();
+        startedSpan();
+
+        succeeded.complete(true);
+        mMetrics.onRequestCompleted(succeeded);
+
+        failed.complete(false);
+        failed.setErrorCode("no_account_found");
+        mMetrics.onRequestCompleted(failed);
+
+        final Collection<MetricData> metrics = mReader.collectAllMetrics();
+
+        Assert.assertEquals(1, sum(metrics, MsalOpenTelemetryMetrics.METRIC_TOKEN_REFRESHES,
+                MsalOpenTelemetryMetrics.ATTRIBUTE_API_ID, API_ID));
+        Assert.assertEquals(1, sum(metrics, MsalOpenTelemetryMetrics.METRIC_CACHE_LOOKUPS,
+                MsalOpenTelemetryMetrics.ATTRIBUTE_CACHE, MsalOpenTelemetryMetrics.CACHE_MISS));
+        Assert.assertEquals(1, sum(metrics, MsalOpenTelemetryMetrics.METRIC_ERRORS,
+                MsalOpenTelemetryMetrics.ATTRIBUTE_ERROR_CODE, "no_account_found"));
+        Assert.assertEquals(1, sum(metrics, MsalOpenTelemetryMetrics.METRIC_IN_FLIGHT,
+                MsalOpenTelemetryMetrics.ATTRIBUTE_API_ID, API_ID));
+        Assert.assertEquals(2, histogramCount(metrics, MsalOpenTelemetryMetrics.METRIC_REQUEST_DURATION));
+    }
+
+    @Test
+    public void testSamplingDecisionIsNotCountedInFlight() {
+        mMetrics.shouldRecord(API_ID);
+
+        Assert.assertEquals(0, sum(mReader.collectAllMetrics(), MsalOpenTelemetryMetrics.METRIC_IN_FLIGHT,
+                MsalOpenTelemetryMetrics.ATTRIBUTE_API_ID, API_ID));
+    }
+
+    @Test
+    public void testExecutorGaugeIsRegisteredOncePerMeter() {
+        final Meter meter = Mockito.mock(Meter.class, Mockito.RETURNS_DEEP_STUBS);
+
+        new MsalOpenTelemetryMetrics(meter);
+        new MsalOpenTelemetryMetrics(meter);
+
+        Mockito.verify(meter, Mockito.times(1)).gaugeBuilder(MsalOpenTelemetryMetrics.METRIC_EXECUTOR_ACTIVE);
+    }
+
+    @Test
+    public void testNoopRecordsWithoutFailing() {
+        final MsalOpenTelemetryMetrics noop = MsalOpenTelemetryMetrics.noop();
+
+        Assert.assertTrue(noop.shouldRecord(API_ID));
+        final RequestTimingSpan span = new RequestTimingSpan(API_ID, null);
+        noop.onRequestStarted(span);
+        span.complete(false);
+        noop.onRequestCompleted(span);
+    }
+
+    /**
+     * @return a span started with {@link #mMetrics}, its command execution ended.
+     */
+    private RequestTimingSpan startedSpan() {
+        final RequestTimingSpan span = new RequestTimingSpan(API_ID, null);
+        mMetrics.onRequestStarted(span);
+        span.endPhase(RequestTimingSpan.Phase.EXECUTOR_QUEUE);
+        span.endCommandExecution();
+        return span;
+    }
+
+    private static long sum(final Collection<MetricData> metrics,
+                            final String metricName,
+                            final String attributeName,
+                            final String attributeValue) {
+        long total = 0;
+        for (final MetricData metric : metrics) {
+            if (!metric.getName().equals(metricName)) {
+                continue;
+            }
+
+            for (final LongPointData point : metric.getLongSumData().getPoints()) {
+                if (attributeValue.equals(point.getAttributes().get(AttributeKey.stringKey(attributeName)))) {
+                    total += point.getValue();
+                }
+            }
+        }
+
+        return total;
+    }
+
+    private static long histogramCount(final Collection<MetricData> metrics, final String metricName) {
+        long count = 0;
+        for (final MetricData metric : metrics) {
+            if (metric.getName().equals(metricName)) {
+                for (final HistogramPointData point : metric.getHistogramData().getPoints()) {
+                    count += point.getCount();
+                }
+            }
+        }
+
+        return count;
+    }
+}
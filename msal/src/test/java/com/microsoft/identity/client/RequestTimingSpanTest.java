@@ -0,0 +1,125 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import com.microsoft.identity.common.java.commands.CommandCallback;
+import com.microsoft.identity.common.java.exception.BaseException;
+import com.microsoft.identity.common.java.exception.ClientException;
+import com.microsoft.identity.common.java.result.ILocalAuthenticationResult;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.mockito.ArgumentMatchers.any;
+
+@RunWith(RobolectricTestRunner.class)
+public class RequestTimingSpanTest {
+
+    private static final String API_ID = "test_api";
+
+    private CommandCallback<ILocalAuthenticationResult, BaseException> mDelegate;
+    private IMsalPerformanceListener mListener;
+    private RequestTimingSpan mSpan;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        mDelegate = Mockito.mock(CommandCallback.class);
+        mListener = Mockito.mock(IMsalPerformanceListener.class);
+        mSpan = new RequestTimingSpan(API_ID, null);
+    }
+
+    @Test
+    public void testPhasesAddUpToTotal() throws InterruptedException {
+        mSpan.endPhase(RequestTimingSpan.Phase.EXECUTOR_QUEUE);
+        Thread.sleep(2);
+        mSpan.endPhase(RequestTimingSpan.Phase.ACCOUNT_SELECTION);
+        mSpan.endPhase(RequestTimingSpan.Phase.PARAMETER_ADAPTATION);
+        mSpan.endCommandExecution();
+        mSpan.complete(true);
+
+        long sum = 0;
+        for (final RequestTimingSpan.Phase phase : RequestTimingSpan.Phase.values()) {
+            sum += mSpan.getPhaseDurationNanos(phase);
+        }
+
+        Assert.assertTrue(mSpan.isSuccessful());
+        Assert.assertEquals(API_ID, mSpan.getPublicApiId());
+        Assert.assertTrue(mSpan.getPhaseDurationNanos(RequestTimingSpan.Phase.ACCOUNT_SELECTION) >= 2_000_000L);
+        Assert.assertEquals(mSpan.getTotalDurationNanos(), sum);
+    }
+
+    @Test
+    public void testControllerSelectionIsExcludedFromCommandExecution() throws InterruptedException {
+        Thread.sleep(2);
+        mSpan.addNestedPhase(RequestTimingSpan.Phase.CONTROLLER_SELECTION, 1_000_000L);
+        mSpan.endCommandExecution();
+
+        Assert.assertEquals(1_000_000L, mSpan.getPhaseDurationNanos(RequestTimingSpan.Phase.CONTROLLER_SELECTION));
+        Assert.assertTrue(mSpan.getPhaseDurationNanos(RequestTimingSpan.Phase.COMMAND_EXECUTION) >= 1_000_000L);
+    }
+
+    @Test
+    public void testCorrelationIdIsOnlyReplacedByNonNullValue() {
+        mSpan.setCorrelationId("first");
+        mSpan.setCorrelationId(null);
+
+        Assert.assertEquals("first", mSpan.getCorrelationId());
+    }
+
+    @Test
+    public void testTimedCallbackNotifiesListenerAfterDelegate() {
+        final ILocalAuthenticationResult result = Mockito.mock(ILocalAuthenticationResult.class);
+        Mockito.when(result.getCorrelationId()).thenReturn("correlation");
+        Mockito.when(result.isServicedFromCache()).thenReturn(true);
+
+        new TimedCommandCallback(mDelegate, mSpan, mListener).onTaskCompleted(result);
+
+        final InOrder inOrder = Mockito.inOrder(mDelegate, mListener);
+        inOrder.verify(mDelegate).onTaskCompleted(result);
+        inOrder.verify(mListener).onRequestCompleted(mSpan);
+        Assert.assertTrue(mSpan.isSuccessful());
+        Assert.assertEquals("correlation", mSpan.getCorrelationId());
+        Assert.assertTrue(mSpan.isServicedFromCache());
+        Assert.assertNull(mSpan.getErrorCode());
+    }
+
+    @Test
+    public void testTimedCallbackReportsFailureAndIgnoresListenerErrors() {
+        Mockito.doThrow(new IllegalStateException("listener failure"))
+                .when(mListener).onRequestCompleted(any(RequestTimingSpan.class));
+        final BaseException exception = new ClientException("unknown_error", "error");
+
+        new TimedCommandCallback(mDelegate, mSpan, mListener).onError(exception);
+
+        Mockito.verify(mDelegate).onError(exception);
+        Mockito.verify(mListener).onRequestCompleted(mSpan);
+        Assert.assertFalse(mSpan.isSuccessful());
+        Assert.assertEquals("unknown_error", mSpan.getErrorCode());
+    }
+}
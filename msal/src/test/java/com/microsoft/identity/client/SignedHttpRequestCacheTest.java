@@ -0,0 +1,127 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import com.microsoft.identity.client.exception.MsalClientException;
+import com.microsoft.identity.client.exception.MsalException;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.robolectric.RobolectricTestRunner;
+
+import java.net.URL;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+
+@RunWith(RobolectricTestRunner.class)
+public class SignedHttpRequestCacheTest {
+
+    private IPublicClientApplication mApplication;
+    private IAccount mAccount;
+    private AtomicInteger mSignCount;
+    private boolean mFailSigning;
+
+    @Before
+    public void setup() {
+        mApplication = Mockito.mock(IPublicClientApplication.class);
+        mAccount = Mockito.mock(IAccount.class);
+        Mockito.when(mAccount.getId()).thenReturn("oid");
+        mSignCount = new AtomicInteger();
+        mFailSigning = false;
+
+        Mockito.doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(final InvocationOnMock invocation) {
+                final IPublicClientApplication.SignedHttpRequestRequestCallback callback = invocation.getArgument(2);
+                if (mFailSigning) {
+                    callback.onError(new MsalClientException(MsalClientException.UNKNOWN_ERROR));
+                } else {
+                    callback.onTaskCompleted("shr-" + mSignCount.incrementAndGet());
+                }
+                return null;
+            }
+        }).when(mApplication).generateSignedHttpRequest(
+                any(IAccount.class),
+                any(PoPAuthenticationScheme.class),
+                any(IPublicClientApplication.SignedHttpRequestRequestCallback.class)
+        );
+    }
+
+    @Test
+    public void testIdenticalRequestsShareSignature() throws Exception {
+        final SignedHttpRequestCache cache = new SignedHttpRequestCache(mApplication);
+
+        Assert.assertEquals("shr-1", cache.generateSignedHttpRequest(mAccount, popParameters("nonce")));
+        Assert.assertEquals("shr-1", cache.generateSignedHttpRequest(mAccount, popParameters("nonce")));
+        Assert.assertEquals("shr-2", cache.generateSignedHttpRequest(mAccount, popParameters("other-nonce")));
+    }
+
+    @Test
+    public void testPreSignedRequestIsReused() throws Exception {
+        final SignedHttpRequestCache cache = new SignedHttpRequestCache(mApplication);
+
+        cache.preSign(mAccount, popParameters(null));
+
+        Assert.assertEquals(1, mSignCount.get());
+        Assert.assertEquals("shr-1", cache.generateSignedHttpRequest(mAccount, popParameters(null)));
+        Assert.assertEquals(1, mSignCount.get());
+    }
+
+    @Test
+    public void testExpiredSignatureIsNotReused() throws Exception {
+        final SignedHttpRequestCache cache = new SignedHttpRequestCache(mApplication, 0, SignedHttpRequestCache.DEFAULT_MAX_ENTRIES);
+
+        Assert.assertEquals("shr-1", cache.generateSignedHttpRequest(mAccount, popParameters("nonce")));
+        Assert.assertEquals("shr-2", cache.generateSignedHttpRequest(mAccount, popParameters("nonce")));
+    }
+
+    @Test
+    public void testFailureIsNotCached() throws Exception {
+        final SignedHttpRequestCache cache = new SignedHttpRequestCache(mApplication);
+        mFailSigning = true;
+
+        try {
+            cache.generateSignedHttpRequest(mAccount, popParameters("nonce"));
+            Assert.fail("Expected signing to fail");
+        } catch (final MsalException e) {
+            Assert.assertEquals(MsalClientException.UNKNOWN_ERROR, e.getErrorCode());
+        }
+
+        mFailSigning = false;
+        Assert.assertEquals("shr-1", cache.generateSignedHttpRequest(mAccount, popParameters("nonce")));
+    }
+
+    private static PoPAuthenticationScheme popParameters(final String nonce) throws Exception {
+        return PoPAuthenticationScheme.builder()
+                .withHttpMethod(HttpMethod.GET)
+                .withUrl(new URL("https://signing.example.com/api"))
+                .withNonce(nonce)
+                .build();
+    }
+}
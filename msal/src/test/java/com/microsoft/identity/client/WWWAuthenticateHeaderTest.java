@@ -22,6 +22,7 @@
 //  THE SOFTWARE.
 package com.microsoft.identity.client;
 
+import com.microsoft.identity.client.claims.AuthenticationChallenge;
 import com.microsoft.identity.client.claims.ClaimsRequest;
 import com.microsoft.identity.client.claims.WWWAuthenticateHeader;
 
@@ -29,6 +30,8 @@ import junit.framework.Assert;
 
 import org.junit.Test;
 
+import java.util.List;
+
 public class WWWAuthenticateHeaderTest {
 
     public final static String HEADER_SINGLE_QUOTE = "realm='', claims='{\"access_token\":{\"device_id\":null}}', realm=''";
@@ -37,6 +40,10 @@ public class WWWAuthenticateHeaderTest {
     public final static String NO_CLAIMS_DIRECTIVE = "realm=\"\" ";
     public final static String DEVICE_ID_CLAIM_NAME = "device_id";
     public final static String NULL_ADDITIONAL_INFO = null;
+    public final static String ESCAPED_JSON_CLAIMS = "{\"access_token\":{\"nbf\":{\"essential\":true}}}";
+    public final static String HEADER_ESCAPED_JSON = "Bearer realm=\"\", "
+            + "claims=\"{\\\"access_token\\\":{\\\"nbf\\\":{\\\"essential\\\":true}}}\", "
+            + "error=\"insufficient_claims\"";
 
     @Test
     public void testHasClaimsDirective() {
@@ -80,5 +87,45 @@ public class WWWAuthenticateHeaderTest {
         Assert.assertEquals(NULL_ADDITIONAL_INFO, claimsRequest.getAccessTokenClaimsRequested().get(0).getAdditionalInformation());
     }
 
+    @Test
+    public void testParseChallengesUnescapesQuotedJsonFollowedByParameters() {
+        final List<AuthenticationChallenge> challenges = WWWAuthenticateHeader.parseChallenges(HEADER_ESCAPED_JSON);
+
+        Assert.assertEquals(1, challenges.size());
+        final AuthenticationChallenge bearer = challenges.get(0);
+        Assert.assertEquals("Bearer", bearer.getScheme());
+        Assert.assertEquals("", bearer.getRealm());
+        Assert.assertEquals(ESCAPED_JSON_CLAIMS, bearer.getParameter("claims"));
+        Assert.assertEquals("insufficient_claims", bearer.getError());
+        Assert.assertEquals("nbf", bearer.getClaimsRequest().getAccessTokenClaimsRequested().get(0).getName());
+    }
+
+    @Test
+    public void testParseChallengesUnescapesQuotedJsonFollowedByChallenge() {
+        final List<AuthenticationChallenge> challenges = WWWAuthenticateHeader.parseChallenges(
+                HEADER_ESCAPED_JSON + ", PoP realm=\"\", nonce=\"abc\""
+        );
+
+        Assert.assertEquals(2, challenges.size());
+        Assert.assertEquals(ESCAPED_JSON_CLAIMS, challenges.get(0).getParameter("claims"));
+        Assert.assertEquals("insufficient_claims", challenges.get(0).getError());
+        Assert.assertEquals("PoP", challenges.get(1).getScheme());
+        Assert.assertEquals("abc", challenges.get(1).getNonce());
+    }
+
+    @Test
+    public void testParseChallengesWithoutScheme() {
+        final List<AuthenticationChallenge> challenges = WWWAuthenticateHeader.parseChallenges(HEADER_DOUBLE_QUOTE);
+
+        Assert.assertEquals(1, challenges.size());
+        Assert.assertEquals("", challenges.get(0).getScheme());
+        Assert.assertEquals("{\"access_token\":{\"device_id\":null}}", challenges.get(0).getParameter("claims"));
+    }
 
+    @Test
+    public void testParseChallengesEmptyHeader() {
+        Assert.assertTrue(WWWAuthenticateHeader.parseChallenges("").isEmpty());
+        Assert.assertTrue(WWWAuthenticateHeader.parseChallenges(null).isEmpty());
+        Assert.assertNull(WWWAuthenticateHeader.getClaimsRequestFromWWWAuthenticateHeaderValue(NO_CLAIMS_DIRECTIVE));
+    }
 }
@@ -29,11 +29,25 @@ import com.microsoft.identity.internal.testutils.strategies.MockTestStrategy;
 
 import org.robolectric.annotation.Implements;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 @Implements(MockTestStrategy.class)
 public class ShadowStrategyResultServerError {
 
+    private static final AtomicInteger sResponseCount = new AtomicInteger();
+
+    // number of error responses returned since the last reset
+    public static int getResponseCount() {
+        return sResponseCount.get();
+    }
+
+    public static void resetResponseCount() {
+        sResponseCount.set(0);
+    }
+
     // overriding this method from MockTestStrategy class to return a error response in this case
     public HttpResponse makeHttpResponseFromResponseObject(final Object obj) {
+        sResponseCount.incrementAndGet();
         // create a tokenErrorResponse object
         final TokenErrorResponse errorResponse = createMockTokenErrorResponse();
         final String httpResponseBody = ObjectMapper.serializeObjectToJsonString(errorResponse);
@@ -0,0 +1,235 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.client.e2e.tests.load
+
+import android.content.Context
+import androidx.test.core.app.ApplicationProvider
+import com.google.gson.GsonBuilder
+import com.microsoft.identity.client.Logger
+import com.microsoft.identity.client.PublicClientApplication
+import com.microsoft.identity.client.e2e.shadows.ShadowAndroidSdkStorageEncryptionManager
+import com.microsoft.identity.common.internal.controllers.CommandDispatcherHelper
+import com.microsoft.identity.common.java.nativeauth.BuildValues
+import com.microsoft.identity.http.MockHttpClient
+import com.microsoft.identity.internal.testutils.TestUtils
+import com.microsoft.identity.nativeauth.INativeAuthPublicClientApplication
+import com.microsoft.identity.nativeauth.NativeAuthPublicClientApplication
+import com.microsoft.identity.nativeauth.statemachine.results.GetAccessTokenResult
+import com.microsoft.identity.nativeauth.statemachine.results.SignInResult
+import com.microsoft.identity.nativeauth.statemachine.results.SignOutResult
+import com.microsoft.identity.nativeauth.utils.MockNativeAuthServer
+import com.microsoft.identity.shadow.ShadowHttpClient
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import java.io.File
+import java.io.IOException
+import java.util.concurrent.TimeUnit
+
+/**
+ * Load test for the native auth state machine. Runs password sign in, a forced token refresh and
+ * sign out in sequence against [MockNativeAuthServer] and reports the throughput and latency of
+ * each step, together with the time spent on the client per HTTP request, i.e. the end to end time
+ * minus the time the mock server spent producing responses (including its injected latency).
+ *
+ * This package is excluded from regular test runs; enable it with `-Ploadtest`, e.g.
+ * `./gradlew testLocalDebugUnitTest -Ploadtest -Ploadtest.latencyMillis=100 --tests '*NativeAuthLoadTest'`.
+ * The settings read in [LoadConfiguration] are passed as `-Ploadtest.<name>=<value>`. A JSON
+ * report is written to `build/reports/loadtest`.
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(shadows = [ShadowAndroidSdkStorageEncryptionManager::class, ShadowHttpClient::class])
+class NativeAuthLoadTest {
+
+    private val configFilePath = "src/test/res/raw/native_auth_native_only_test_config.json"
+    private val sharedPreferencesName = "com.microsoft.identity.client.account_credential_cache"
+
+    private val configuration = LoadConfiguration.fromSystemProperties()
+
+    private lateinit var mockHttpClient: MockHttpClient
+    private lateinit var server: MockNativeAuthServer
+    private lateinit var application: INativeAuthPublicClientApplication
+
+    @Before
+    fun setup() {
+        BuildValues.setUseMockApiForNativeAuth(false)
+        mockHttpClient = MockHttpClient.install()
+
+        // Verbose logging would dominate the measurements.
+        Logger.getInstance().setEnableLogcatLog(false)
+        Logger.getInstance().setLogLevel(Logger.LogLevel.WARNING)
+
+        val context: Context = ApplicationProvider.getApplicationContext()
+        application = PublicClientApplication.createNativeAuthPublicClientApplication(context, File(configFilePath))
+        server = MockNativeAuthServer((application as NativeAuthPublicClientApplication).configuration.clientId)
+            .install(mockHttpClient)
+        server.latencyMillis = configuration.latencyMillis
+        server.errorRate = configuration.errorRate
+        CommandDispatcherHelper.clear()
+    }
+
+    @After
+    fun cleanup() {
+        TestUtils.clearCache(sharedPreferencesName)
+        mockHttpClient.uninstall()
+    }
+
+    @Test
+    fun testSignInStateMachineThroughput() = runBlocking {
+        repeat(configuration.warmupIterations) { runFlow(null, it) }
+        server.resetCounters()
+
+        val latenciesNanos = Step.values().associateWith { LongArray(configuration.iterations) }
+        var failures = 0
+
+        val start = System.nanoTime()
+        repeat(configuration.iterations) { iteration ->
+            if (!runFlow(latenciesNanos, iteration)) {
+                failures++
+            }
+        }
+        val elapsedNanos = System.nanoTime() - start
+
+        writeReport(createReport(latenciesNanos, elapsedNanos, failures))
+
+        if (configuration.errorRate == 0.0) {
+            assertEquals("Native auth flows failed, see the load test report", 0, failures)
+        }
+    }
+
+    /**
+     * Signs in, refreshes the access token and signs out, recording the latency of each step.
+     *
+     * @return true if every step succeeded.
+     */
+    private suspend fun runFlow(latenciesNanos: Map<Step, LongArray>?, iteration: Int): Boolean {
+        var start = System.nanoTime()
+        val signInResult = application.signIn(server.username, server.password.toCharArray())
+        latenciesNanos?.getValue(Step.SIGN_IN)?.set(iteration, System.nanoTime() - start)
+        if (signInResult !is SignInResult.Complete) {
+            return false
+        }
+
+        val accountState = signInResult.resultValue
+
+        start = System.nanoTime()
+        val accessTokenResult = accountState.getAccessToken(forceRefresh = true)
+        latenciesNanos?.getValue(Step.GET_ACCESS_TOKEN)?.set(iteration, System.nanoTime() - start)
+
+        start = System.nanoTime()
+        val signOutResult = accountState.signOut()
+        latenciesNanos?.getValue(Step.SIGN_OUT)?.set(iteration, System.nanoTime() - start)
+
+        return accessTokenResult is GetAccessTokenResult.Complete && signOutResult is SignOutResult.Complete
+    }
+
+    private fun createReport(
+        latenciesNanos: Map<Step, LongArray>,
+        elapsedNanos: Long,
+        failures: Int
+    ): Map<String, Any> {
+        val steps = LinkedHashMap<String, Any>()
+        latenciesNanos.forEach { (step, latencies) ->
+            val sorted = latencies.sortedArray()
+            steps[step.reportName] = linkedMapOf(
+                "p50" to toMillis(percentile(sorted, 50)),
+                "p90" to toMillis(percentile(sorted, 90)),
+                "p99" to toMillis(percentile(sorted, 99)),
+                "max" to toMillis(sorted.lastOrNull() ?: 0)
+            )
+        }
+
+        val httpRequests = server.totalRequestCount()
+        val clientNanos = elapsedNanos - server.serverTimeNanos()
+
+        return linkedMapOf(
+            "configuration" to configuration,
+            "flows" to configuration.iterations,
+            "failures" to failures,
+            "elapsedMillis" to toMillis(elapsedNanos),
+            "flowsPerSecond" to configuration.iterations / (elapsedNanos / TimeUnit.SECONDS.toNanos(1).toDouble()),
+            "latencyMillis" to steps,
+            "httpRequests" to httpRequests,
+            "serverMillis" to toMillis(server.serverTimeNanos()),
+            "clientMillisPerHttpRequest" to if (httpRequests == 0) 0.0 else toMillis(clientNanos) / httpRequests
+        )
+    }
+
+    /**
+     * Nearest-rank percentile of an already sorted array.
+     */
+    private fun percentile(sorted: LongArray, percentile: Int): Long {
+        if (sorted.isEmpty()) {
+            return 0
+        }
+
+        val rank = Math.ceil(percentile / 100.0 * sorted.size).toInt()
+        return sorted[maxOf(0, rank - 1)]
+    }
+
+    private fun toMillis(nanos: Long): Double = nanos / TimeUnit.MILLISECONDS.toNanos(1).toDouble()
+
+    private fun writeReport(report: Map<String, Any>) {
+        val json = GsonBuilder().setPrettyPrinting().create().toJson(report)
+        println(json)
+
+        val reportDir = File(System.getProperty("msalLoadTestReportDir", "build/reports/loadtest"))
+        if (!reportDir.isDirectory && !reportDir.mkdirs()) {
+            throw IOException("Unable to create $reportDir")
+        }
+
+        File(reportDir, "native-auth-load.json").writeText(json)
+    }
+
+    private enum class Step(val reportName: String) {
+        SIGN_IN("signIn"),
+        GET_ACCESS_TOKEN("getAccessToken"),
+        SIGN_OUT("signOut")
+    }
+
+    /**
+     * Shape of the generated load, read from `msalLoadTest.<field>` system properties.
+     */
+    internal class LoadConfiguration {
+        var iterations = 200
+        var warmupIterations = 20
+        var latencyMillis = 0L
+        var errorRate = 0.0
+
+        companion object {
+            fun fromSystemProperties(): LoadConfiguration {
+                val configuration = LoadConfiguration()
+                configuration.iterations = Integer.getInteger("msalLoadTest.iterations", configuration.iterations)
+                configuration.warmupIterations = Integer.getInteger("msalLoadTest.warmupIterations", configuration.warmupIterations)
+                configuration.latencyMillis = java.lang.Long.getLong("msalLoadTest.latencyMillis", configuration.latencyMillis)
+                configuration.errorRate = System.getProperty("msalLoadTest.errorRate", configuration.errorRate.toString()).toDouble()
+                return configuration
+            }
+        }
+    }
+}
@@ -0,0 +1,221 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.client.e2e.tests.load
+
+import android.content.Context
+import android.os.Parcel
+import androidx.test.core.app.ApplicationProvider
+import com.google.gson.GsonBuilder
+import com.microsoft.identity.client.Logger
+import com.microsoft.identity.client.PublicClientApplication
+import com.microsoft.identity.client.e2e.shadows.ShadowAndroidSdkStorageEncryptionManager
+import com.microsoft.identity.common.internal.controllers.CommandDispatcherHelper
+import com.microsoft.identity.common.java.nativeauth.BuildValues
+import com.microsoft.identity.http.MockHttpClient
+import com.microsoft.identity.internal.testutils.TestUtils
+import com.microsoft.identity.nativeauth.NativeAuthPublicClientApplication
+import com.microsoft.identity.nativeauth.statemachine.results.SignInResult
+import com.microsoft.identity.nativeauth.statemachine.states.AccountState
+import com.microsoft.identity.nativeauth.statemachine.states.SignInCodeRequiredState
+import com.microsoft.identity.nativeauth.utils.MockNativeAuthServer
+import com.microsoft.identity.shadow.ShadowHttpClient
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import java.io.File
+import java.io.IOException
+import java.util.concurrent.TimeUnit
+
+/**
+ * Measures the size of native auth states in a parcel and the time to write and read them, for
+ * the current encoding and for the previous one, which serialized the account and the application
+ * configuration with Java serialization. Parcels are Robolectric's, so sizes and times show the
+ * relative cost of the two encodings rather than what a device would measure.
+ *
+ * This package is excluded from regular test runs; enable it with `-Ploadtest`, e.g.
+ * `./gradlew testLocalDebugUnitTest -Ploadtest --tests '*NativeAuthStateParcelLoadTest'`.
+ * `msalLoadTest.iterations` and `msalLoadTest.warmupIterations` set the number of round trips.
+ * A JSON report is written to `build/reports/loadtest`.
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(shadows = [ShadowAndroidSdkStorageEncryptionManager::class, ShadowHttpClient::class])
+class NativeAuthStateParcelLoadTest {
+
+    private val configFilePath = "src/test/res/raw/native_auth_native_only_test_config.json"
+    private val sharedPreferencesName = "com.microsoft.identity.client.account_credential_cache"
+
+    private val iterations = Integer.getInteger("msalLoadTest.iterations", 2000)
+    private val warmupIterations = Integer.getInteger("msalLoadTest.warmupIterations", 200)
+
+    private lateinit var mockHttpClient: MockHttpClient
+    private lateinit var server: MockNativeAuthServer
+    private lateinit var application: NativeAuthPublicClientApplication
+
+    @Before
+    fun setup() {
+        BuildValues.setUseMockApiForNativeAuth(false)
+        mockHttpClient = MockHttpClient.install()
+
+        Logger.getInstance().setEnableLogcatLog(false)
+        Logger.getInstance().setLogLevel(Logger.LogLevel.WARNING)
+
+        val context: Context = ApplicationProvider.getApplicationContext()
+        application = PublicClientApplication.createNativeAuthPublicClientApplication(
+            context,
+            File(configFilePath)
+        ) as NativeAuthPublicClientApplication
+        server = MockNativeAuthServer(application.configuration.clientId).install(mockHttpClient)
+        CommandDispatcherHelper.clear()
+    }
+
+    @After
+    fun cleanup() {
+        TestUtils.clearCache(sharedPreferencesName)
+        mockHttpClient.uninstall()
+    }
+
+    @Test
+    fun testStateParcelSizeAndTime() = runBlocking {
+        val config = application.configuration
+
+        server.signInChallengeType = MockNativeAuthServer.OOB_GRANT_TYPE
+        val codeRequiredState = (application.signIn(server.username) as SignInResult.CodeRequired).nextState
+        server.signInChallengeType = MockNativeAuthServer.PASSWORD_CHALLENGE_TYPE
+        val accountState = (application.signIn(server.username, server.password.toCharArray()) as SignInResult.Complete).resultValue
+
+        val accountStateResults = linkedMapOf(
+            "compact" to measure(
+                write = { accountState.writeToParcel(it, 0) },
+                // Reading the account back is part of the cost the encoding defers.
+                read = { AccountState.CREATOR.createFromParcel(it).getAccount() }
+            ),
+            "legacy" to measure(
+                write = {
+                    it.writeSerializable(accountState.getAccount())
+                    it.writeSerializable(accountState.correlationId)
+                    it.writeSerializable(config)
+                },
+                read = {
+                    @Suppress("DEPRECATION")
+                    repeat(3) { _ -> it.readSerializable() }
+                }
+            )
+        )
+
+        val codeRequiredStateResults = linkedMapOf(
+            "compact" to measure(
+                write = { codeRequiredState.writeToParcel(it, 0) },
+                read = { SignInCodeRequiredState.CREATOR.createFromParcel(it) }
+            ),
+            "legacy" to measure(
+                write = {
+                    it.writeString(codeRequiredState.continuationToken)
+                    it.writeString(codeRequiredState.correlationId)
+                    // No scopes were requested.
+                    it.writeStringList(null)
+                    it.writeSerializable(config)
+                },
+                read = {
+                    it.readString()
+                    it.readString()
+                    it.createStringArrayList()
+                    @Suppress("DEPRECATION")
+                    it.readSerializable()
+                }
+            )
+        )
+
+        writeReport(
+            linkedMapOf(
+                "iterations" to iterations,
+                "accountState" to accountStateResults,
+                "signInCodeRequiredState" to codeRequiredStateResults
+            )
+        )
+
+        assertTrue(accountStateResults.getValue("compact").bytes < accountStateResults.getValue("legacy").bytes)
+        assertTrue(codeRequiredStateResults.getValue("compact").bytes < codeRequiredStateResults.getValue("legacy").bytes)
+    }
+
+    private fun measure(write: (Parcel) -> Unit, read: (Parcel) -> Any?): ParcelResult {
+        var bytes = 0
+        repeat(warmupIterations) { roundTrip(write, read) }
+
+        var writeNanos = 0L
+        var readNanos = 0L
+        repeat(iterations) {
+            val parcel = Parcel.obtain()
+            try {
+                var start = System.nanoTime()
+                write(parcel)
+                writeNanos += System.nanoTime() - start
+                bytes = parcel.dataSize()
+
+                parcel.setDataPosition(0)
+                start = System.nanoTime()
+                read(parcel)
+                readNanos += System.nanoTime() - start
+            } finally {
+                parcel.recycle()
+            }
+        }
+
+        return ParcelResult(
+            bytes = bytes,
+            writeMicros = toMicros(writeNanos / iterations),
+            readMicros = toMicros(readNanos / iterations)
+        )
+    }
+
+    private fun roundTrip(write: (Parcel) -> Unit, read: (Parcel) -> Any?) {
+        val parcel = Parcel.obtain()
+        try {
+            write(parcel)
+            parcel.setDataPosition(0)
+            read(parcel)
+        } finally {
+            parcel.recycle()
+        }
+    }
+
+    private fun toMicros(nanos: Long): Double = nanos / TimeUnit.MICROSECONDS.toNanos(1).toDouble()
+
+    private fun writeReport(report: Map<String, Any>) {
+        val json = GsonBuilder().setPrettyPrinting().create().toJson(report)
+        println(json)
+
+        val reportDir = File(System.getProperty("msalLoadTestReportDir", "build/reports/loadtest"))
+        if (!reportDir.isDirectory && !reportDir.mkdirs()) {
+            throw IOException("Unable to create $reportDir")
+        }
+
+        File(reportDir, "native-auth-state-parcel.json").writeText(json)
+    }
+
+    private class ParcelResult(val bytes: Int, val writeMicros: Double, val readMicros: Double)
+}
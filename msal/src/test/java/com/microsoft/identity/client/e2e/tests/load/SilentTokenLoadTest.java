@@ -0,0 +1,487 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.e2e.tests.load;
+
+import static com.microsoft.identity.client.e2e.utils.RoboTestUtils.flushScheduler;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import android.util.Base64;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.microsoft.identity.client.AcquireTokenParameters;
+import com.microsoft.identity.client.AcquireTokenSilentParameters;
+import com.microsoft.identity.client.IAccount;
+import com.microsoft.identity.client.IAuthenticationResult;
+import com.microsoft.identity.client.IMultipleAccountPublicClientApplication;
+import com.microsoft.identity.client.IPublicClientApplication;
+import com.microsoft.identity.client.Logger;
+import com.microsoft.identity.client.e2e.shadows.ShadowAndroidSdkStorageEncryptionManager;
+import com.microsoft.identity.client.e2e.shadows.ShadowAuthorityForMockHttpResponse;
+import com.microsoft.identity.client.e2e.shadows.ShadowPublicClientApplicationConfiguration;
+import com.microsoft.identity.client.e2e.tests.AcquireTokenAbstractTest;
+import com.microsoft.identity.client.e2e.utils.AcquireTokenTestHelper;
+import com.microsoft.identity.client.exception.MsalException;
+import com.microsoft.identity.common.java.net.HttpClient;
+import com.microsoft.identity.common.java.net.HttpResponse;
+import com.microsoft.identity.http.HttpRequestInterceptor;
+import com.microsoft.identity.http.HttpRequestMatcher;
+import com.microsoft.identity.internal.testutils.TestConstants;
+import com.microsoft.identity.shadow.ShadowHttpClient;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load test for silent token acquisition. Fires concurrent synchronous
+ * {@link IPublicClientApplication#acquireTokenSilent(AcquireTokenSilentParameters)} calls across
+ * several accounts and scopes against a mocked token endpoint, with a configurable share of forced
+ * refreshes, and reports throughput, latency percentiles and thread usage.
+ * <p>
+ * This package is excluded from regular test runs; enable it with {@code -Ploadtest}. The shape of
+ * the load is configured with {@code -Ploadtest.<name>=<value>} for each of the settings read in
+ * {@link LoadConfiguration}. A JSON report is written to {@code build/reports/loadtest}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(shadows = {
+        ShadowAndroidSdkStorageEncryptionManager.class,
+        ShadowAuthorityForMockHttpResponse.class,
+        ShadowPublicClientApplicationConfiguration.class,
+        ShadowHttpClient.class,
+})
+public class SilentTokenLoadTest extends AcquireTokenAbstractTest {
+
+    private static final String CLOUD = "https://login.microsoftonline.com";
+    private static final List<String> RESERVED_SCOPES = Arrays.asList("openid", "profile", "offline_access");
+
+    private final LoadConfiguration mConfiguration = LoadConfiguration.fromSystemProperties();
+    private final Map<String, LoadAccount> mAccountsByTenant = new ConcurrentHashMap<>();
+    private final List<String> mLoadScopes = new ArrayList<>();
+    private final AtomicInteger mTokenRequests = new AtomicInteger();
+
+    private IMultipleAccountPublicClientApplication mMultipleAccountPCA;
+    private List<IAccount> mAccounts;
+
+    @Override
+    public String[] getScopes() {
+        return TestConstants.Scopes.USER_READ_SCOPE;
+    }
+
+    @Override
+    public String getAuthority() {
+        return mApplication.getConfiguration().getDefaultAuthority().getAuthorityURL().toString();
+    }
+
+    @Override
+    public String getConfigFilePath() {
+        return TestConstants.Configurations.MULTIPLE_ACCOUNT_MODE_AAD_CONFIG_FILE_PATH;
+    }
+
+    @Before
+    public void setup() {
+        super.setup();
+        mMultipleAccountPCA = (IMultipleAccountPublicClientApplication) mApplication;
+
+        // Verbose logging would dominate the measurements.
+        Logger.getInstance().setEnableLogcatLog(false);
+        Logger.getInstance().setLogLevel(Logger.LogLevel.WARNING);
+
+        for (int scope = 0; scope < mConfiguration.scopes; scope++) {
+            mLoadScopes.add("LoadTest.Scope" + scope);
+        }
+
+        mockHttpClient.intercept(HttpRequestMatcher.builder().isPOST().build(), new HttpRequestInterceptor() {
+            @Override
+            public HttpResponse performIntercept(@NonNull final HttpClient.HttpMethod httpMethod,
+                                                 @NonNull final URL requestUrl,
+                                                 @NonNull final Map<String, String> requestHeaders,
+                                                 @Nullable final byte[] requestContent) throws IOException {
+                return createTokenResponse(requestUrl, requestContent);
+            }
+        });
+
+        signInAccounts();
+        mAccounts = loadAccounts();
+        assertEquals(mConfiguration.accounts, mAccounts.size());
+    }
+
+    @Test
+    public void testConcurrentSilentTokenThroughput() throws Exception {
+        runPhase(mConfiguration.warmupRequests, null);
+
+        final long[] latenciesNanos = new long[mConfiguration.requests];
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        final int tokenRequestsBefore = mTokenRequests.get();
+
+        final long start = System.nanoTime();
+        final int failures = runPhase(mConfiguration.requests, latenciesNanos);
+        final long elapsedNanos = System.nanoTime() - start;
+
+        final Map<String, Object> report = createReport(
+                latenciesNanos,
+                elapsedNanos,
+                failures,
+                mTokenRequests.get() - tokenRequestsBefore,
+                threads.getPeakThreadCount()
+        );
+        writeReport(report);
+
+        assertEquals("Silent requests failed, see the load test report", 0, failures);
+    }
+
+    /**
+     * Runs the given number of silent requests on {@link LoadConfiguration#concurrency} worker
+     * threads while this thread delivers the results posted to the main looper.
+     *
+     * @param requestCount   The number of requests to run.
+     * @param latenciesNanos Receives the latency of each request, or null to discard them.
+     * @return The number of failed requests.
+     */
+    private int runPhase(final int requestCount, @Nullable final long[] latenciesNanos)
+            throws InterruptedException {
+        final AtomicInteger nextRequest = new AtomicInteger();
+        final AtomicInteger failures = new AtomicInteger();
+        final CountDownLatch workersDone = new CountDownLatch(mConfiguration.concurrency);
+
+        for (int worker = 0; worker < mConfiguration.concurrency; worker++) {
+            final Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        int request;
+                        while ((request = nextRequest.getAndIncrement()) < requestCount) {
+                            final long start = System.nanoTime();
+                            if (!acquireTokenSilent(request)) {
+                                failures.incrementAndGet();
+                            }
+                            if (latenciesNanos != null) {
+                                latenciesNanos[request] = System.nanoTime() - start;
+                            }
+                        }
+                    } finally {
+                        workersDone.countDown();
+                    }
+                }
+            }, "msal-load-" + worker);
+            thread.start();
+        }
+
+        // Callbacks are posted to the main looper, which only advances when this thread runs it.
+        while (!workersDone.await(1, TimeUnit.MILLISECONDS)) {
+            RuntimeEnvironment.getMasterScheduler().advanceToLastPostedRunnable();
+        }
+
+        return failures.get();
+    }
+
+    private boolean acquireTokenSilent(final int request) {
+        final IAccount account = mAccounts.get(request % mAccounts.size());
+        final String scope = mLoadScopes.get((request / mAccounts.size()) % mLoadScopes.size());
+
+        try {
+            final IAuthenticationResult result = mMultipleAccountPCA.acquireTokenSilent(
+                    new AcquireTokenSilentParameters.Builder()
+                            .forAccount(account)
+                            .fromAuthority(CLOUD + "/" + account.getTenantId())
+                            .withScopes(Collections.singletonList(scope))
+                            .forceRefresh(isRefresh(request))
+                            .build()
+            );
+
+            final LoadAccount expected = mAccountsByTenant.get(account.getTenantId());
+            return result.getAccessToken().startsWith(expected.accessTokenPrefix(scope));
+        } catch (final MsalException | InterruptedException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Spreads the forced refreshes evenly over the request sequence.
+     */
+    private boolean isRefresh(final int request) {
+        return Math.floor((request + 1) * mConfiguration.refreshRatio)
+                > Math.floor(request * mConfiguration.refreshRatio);
+    }
+
+    private void signInAccounts() {
+        for (int index = 0; index < mConfiguration.accounts; index++) {
+            final LoadAccount account = new LoadAccount(index);
+            mAccountsByTenant.put(account.tenantId, account);
+
+            // One interactive request per scope so that every scope has its own access token.
+            for (final String scope : mLoadScopes) {
+                mApplication.acquireToken(new AcquireTokenParameters.Builder()
+                        .startAuthorizationFromActivity(mActivity)
+                        .withLoginHint(account.username)
+                        .withScopes(Collections.singletonList(scope))
+                        .fromAuthority(CLOUD + "/" + account.tenantId)
+                        .withCallback(AcquireTokenTestHelper.successfulInteractiveCallback())
+                        .build());
+                flushScheduler();
+            }
+        }
+    }
+
+    private List<IAccount> loadAccounts() {
+        final List<IAccount> accounts = new ArrayList<>();
+
+        mMultipleAccountPCA.getAccounts(new IPublicClientApplication.LoadAccountsCallback() {
+            @Override
+            public void onTaskCompleted(final List<IAccount> result) {
+                accounts.addAll(result);
+            }
+
+            @Override
+            public void onError(final MsalException exception) {
+                fail("Failure in getAccounts : " + exception.getMessage());
+            }
+        });
+        flushScheduler();
+
+        return accounts;
+    }
+
+    private HttpResponse createTokenResponse(@NonNull final URL requestUrl,
+                                             @Nullable final byte[] requestContent)
+            throws UnsupportedEncodingException {
+        final String tenantId = requestUrl.getPath().split("/")[1];
+        final LoadAccount account = mAccountsByTenant.get(tenantId);
+        if (account == null) {
+            return new HttpResponse(400, "{\"error\":\"invalid_request\"}", jsonHeaders());
+        }
+
+        final List<String> scopes = new ArrayList<>();
+        for (final String scope : readFormParameter(requestContent, "scope").split(" ")) {
+            if (!scope.isEmpty() && !RESERVED_SCOPES.contains(scope)) {
+                scopes.add(scope);
+            }
+        }
+        final String scope = join(scopes);
+
+        final Map<String, Object> body = new LinkedHashMap<>();
+        body.put("token_type", "Bearer");
+        body.put("scope", scope);
+        body.put("expires_in", 3600);
+        body.put("ext_expires_in", 3600);
+        body.put("access_token", account.accessTokenPrefix(scope) + mTokenRequests.incrementAndGet());
+        body.put("refresh_token", "refresh_token:" + account.tenantId + ":" + account.objectId);
+        body.put("id_token", account.idToken(mApplication.getConfiguration().getClientId()));
+        body.put("client_info", account.clientInfo());
+
+        return new HttpResponse(200, new Gson().toJson(body), jsonHeaders());
+    }
+
+    private static Map<String, List<String>> jsonHeaders() {
+        final Map<String, List<String>> headers = new HashMap<>();
+        headers.put("Content-Type", Collections.singletonList("application/json"));
+        return headers;
+    }
+
+    private static String readFormParameter(@Nullable final byte[] content, @NonNull final String name)
+            throws UnsupportedEncodingException {
+        if (content == null) {
+            return "";
+        }
+
+        for (final String pair : new String(content, StandardCharsets.UTF_8).split("&")) {
+            final int separator = pair.indexOf('=');
+            if (separator > 0 && name.equals(pair.substring(0, separator))) {
+                return URLDecoder.decode(pair.substring(separator + 1), "UTF-8");
+            }
+        }
+
+        return "";
+    }
+
+    private Map<String, Object> createReport(final long[] latenciesNanos,
+                                             final long elapsedNanos,
+                                             final int failures,
+                                             final int tokenRequests,
+                                             final int peakThreads) {
+        final long[] sorted = latenciesNanos.clone();
+        Arrays.sort(sorted);
+
+        final Map<String, Object> latencyMillis = new LinkedHashMap<>();
+        latencyMillis.put("p50", toMillis(percentile(sorted, 50)));
+        latencyMillis.put("p90", toMillis(percentile(sorted, 90)));
+        latencyMillis.put("p99", toMillis(percentile(sorted, 99)));
+        latencyMillis.put("max", toMillis(sorted.length == 0 ? 0 : sorted[sorted.length - 1]));
+
+        final Map<String, Object> report = new LinkedHashMap<>();
+        report.put("configuration", mConfiguration);
+        report.put("requests", latenciesNanos.length);
+        report.put("failures", failures);
+        report.put("tokenEndpointRequests", tokenRequests);
+        report.put("elapsedMillis", toMillis(elapsedNanos));
+        report.put("opsPerSecond", latenciesNanos.length / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1)));
+        report.put("latencyMillis", latencyMillis);
+        report.put("workerThreads", mConfiguration.concurrency);
+        report.put("peakThreads", peakThreads);
+        return report;
+    }
+
+    /**
+     * Nearest-rank percentile of an already sorted array.
+     */
+    private static long percentile(final long[] sorted, final int percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+
+        final int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static double toMillis(final long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private void writeReport(@NonNull final Map<String, Object> report) throws IOException {
+        final String json = new GsonBuilder().setPrettyPrinting().create().toJson(report);
+        System.out.println(json);
+
+        final File reportDir = new File(System.getProperty("msalLoadTestReportDir", "build/reports/loadtest"));
+        if (!reportDir.isDirectory() && !reportDir.mkdirs()) {
+            throw new IOException("Unable to create " + reportDir);
+        }
+
+        try (final Writer writer = new FileWriter(new File(reportDir, "silent-token-load.json"))) {
+            writer.write(json);
+        }
+    }
+
+    private static String join(@NonNull final List<String> values) {
+        final StringBuilder builder = new StringBuilder();
+        for (final String value : values) {
+            if (builder.length() > 0) {
+                builder.append(' ');
+            }
+            builder.append(value);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Shape of the generated load, read from {@code msalLoadTest.<field>} system properties.
+     */
+    static final class LoadConfiguration {
+        int concurrency = 8;
+        int accounts = 4;
+        int scopes = 3;
+        int requests = 2000;
+        int warmupRequests = 200;
+        double refreshRatio = 0.1;
+
+        static LoadConfiguration fromSystemProperties() {
+            final LoadConfiguration configuration = new LoadConfiguration();
+            configuration.concurrency = Integer.getInteger("msalLoadTest.concurrency", configuration.concurrency);
+            configuration.accounts = Integer.getInteger("msalLoadTest.accounts", configuration.accounts);
+            configuration.scopes = Integer.getInteger("msalLoadTest.scopes", configuration.scopes);
+            configuration.requests = Integer.getInteger("msalLoadTest.requests", configuration.requests);
+            configuration.warmupRequests = Integer.getInteger("msalLoadTest.warmupRequests", configuration.warmupRequests);
+            configuration.refreshRatio = Double.parseDouble(
+                    System.getProperty("msalLoadTest.refreshRatio", String.valueOf(configuration.refreshRatio))
+            );
+            return configuration;
+        }
+    }
+
+    /**
+     * A synthetic user signed into its own home tenant.
+     */
+    private static final class LoadAccount {
+        final String objectId;
+        final String tenantId;
+        final String username;
+
+        LoadAccount(final int index) {
+            objectId = UUID.randomUUID().toString();
+            tenantId = UUID.randomUUID().toString();
+            username = String.format(Locale.US, "load%d@msalloadtest.onmicrosoft.com", index);
+        }
+
+        String accessTokenPrefix(@NonNull final String scope) {
+            return "access_token:" + tenantId + ":" + objectId + ":" + scope + ":";
+        }
+
+        String clientInfo() {
+            return base64Url("{\"uid\":\"" + objectId + "\",\"utid\":\"" + tenantId + "\"}");
+        }
+
+        String idToken(@NonNull final String clientId) {
+            final long now = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+            final String claims = "{"
+                    + "\"aud\":\"" + clientId + "\","
+                    + "\"iss\":\"" + CLOUD + "/" + tenantId + "/v2.0\","
+                    + "\"iat\":" + now + ",\"nbf\":" + now + ",\"exp\":" + (now + 3600) + ","
+                    + "\"name\":\"Load Test\","
+                    + "\"oid\":\"" + objectId + "\","
+                    + "\"preferred_username\":\"" + username + "\","
+                    + "\"sub\":\"" + objectId + "\","
+                    + "\"tid\":\"" + tenantId + "\","
+                    + "\"ver\":\"2.0\""
+                    + "}";
+
+            // Unsigned JWT, MSAL does not validate the id token signature.
+            return base64Url("{\"alg\":\"none\",\"typ\":\"JWT\"}") + "." + base64Url(claims) + ".";
+        }
+
+        private static String base64Url(@NonNull final String value) {
+            return new String(Base64.encode(value.getBytes(StandardCharsets.UTF_8),
+                    Base64.NO_PADDING | Base64.NO_WRAP | Base64.URL_SAFE), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -43,6 +43,7 @@ import com.microsoft.identity.client.IPublicClientApplication;
 import com.microsoft.identity.client.ISingleAccountPublicClientApplication;
 import com.microsoft.identity.client.RoboTestCacheHelper;
 import com.microsoft.identity.client.SilentAuthenticationCallback;
+import com.microsoft.identity.client.configuration.HttpDeadlineConfiguration;
 import com.microsoft.identity.client.e2e.shadows.ShadowAndroidSdkStorageEncryptionManager;
 import com.microsoft.identity.client.e2e.shadows.ShadowMockAuthority;
 import com.microsoft.identity.client.e2e.shadows.ShadowOpenIdProviderConfigurationClient;
@@ -87,6 +88,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @RunWith(RobolectricTestRunner.class)
 @Config(shadows = {
@@ -224,6 +226,43 @@ public abstract class AcquireTokenMockTest extends AcquireTokenAbstractTest {
         flushScheduler();
     }
 
+    @Test
+    @Config(shadows = {ShadowStrategyResultServerError.class})
+    public void testAcquireTokenSilentServerErrorWithTokenBudgetIsDeliveredOnce() {
+        final IAccount account = loadAccountForTest(mApplication);
+
+        // Token requests are not retried by MSAL: the dispatcher would replay the cached error.
+        final HttpDeadlineConfiguration token = mApplication.getConfiguration().getHttpConfiguration().getToken();
+        token.setDeadlineMs(30000);
+        ShadowStrategyResultServerError.resetResponseCount();
+
+        final AtomicInteger errorCount = new AtomicInteger();
+        final AcquireTokenSilentParameters silentParameters = new AcquireTokenSilentParameters.Builder()
+                .withScopes(Arrays.asList(mScopes))
+                .forceRefresh(true)
+                .forAccount(account)
+                .fromAuthority(getAuthority())
+                .withCallback(new SilentAuthenticationCallback() {
+                    @Override
+                    public void onSuccess(IAuthenticationResult authenticationResult) {
+                        fail("Unexpected success");
+                    }
+
+                    @Override
+                    public void onError(MsalException exception) {
+                        Assert.assertEquals(ErrorCodes.INTERNAL_SERVER_ERROR_CODE, exception.getErrorCode());
+                        errorCount.incrementAndGet();
+                    }
+                })
+                .build();
+
+        mApplication.acquireTokenSilentAsync(silentParameters);
+        flushSchedulerWithDelay(1000);
+
+        Assert.assertEquals(1, errorCount.get());
+        Assert.assertEquals(1, ShadowStrategyResultServerError.getResponseCount());
+    }
+
     @Test
     public void testAcquireTokenSuccessFollowedBySilentSuccess() {
         final String username = "fake@test.com";
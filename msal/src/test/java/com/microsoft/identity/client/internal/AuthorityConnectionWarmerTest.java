@@ -0,0 +1,155 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal;
+
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import com.microsoft.identity.client.configuration.HttpEndpointConfiguration;
+import com.microsoft.identity.common.java.authorities.Authority;
+import com.microsoft.identity.common.java.net.HttpClient;
+import com.microsoft.identity.common.java.net.HttpResponse;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+@RunWith(RobolectricTestRunner.class)
+public class AuthorityConnectionWarmerTest {
+
+    private static final Executor DIRECT_EXECUTOR = new Executor() {
+        @Override
+        public void execute(final Runnable command) {
+            command.run();
+        }
+    };
+
+    private HttpClient mHttpClient;
+    private ScheduledThreadPoolExecutor mScheduler;
+    private AuthorityConnectionWarmer mWarmer;
+
+    @Before
+    public void setup() {
+        mHttpClient = mock(HttpClient.class);
+        mScheduler = new ScheduledThreadPoolExecutor(1);
+        mWarmer = new AuthorityConnectionWarmer(mHttpClient, DIRECT_EXECUTOR, mScheduler, new HttpEndpointConfiguration());
+    }
+
+    @After
+    public void cleanup() {
+        mScheduler.shutdownNow();
+    }
+
+    @Test
+    public void testOneRequestPerHost() throws Exception {
+        final int hosts = mWarmer.warmUp(Arrays.asList(
+                authority("https://login.microsoftonline.com/common"),
+                authority("https://login.microsoftonline.com/organizations/"),
+                authority("https://contoso.ciamlogin.com/contoso.onmicrosoft.com")
+        ));
+
+        Assert.assertEquals(2, hosts);
+        verify(mHttpClient).head(
+                eq(new URL("https://login.microsoftonline.com/common/v2.0/.well-known/openid-configuration")),
+                anyMap()
+        );
+        verify(mHttpClient).head(
+                eq(new URL("https://contoso.ciamlogin.com/contoso.onmicrosoft.com/v2.0/.well-known/openid-configuration")),
+                anyMap()
+        );
+        verifyNoMoreInteractions(mHttpClient);
+    }
+
+    @Test
+    public void testNonHttpsAuthorityIsSkipped() throws Exception {
+        Assert.assertEquals(0, mWarmer.warmUp(Arrays.asList(authority("http://localhost/common"))));
+        Assert.assertEquals(0, mWarmer.warmUp(null));
+        verifyNoMoreInteractions(mHttpClient);
+    }
+
+    @Test
+    public void testFailedRequestIsIgnored() throws Exception {
+        final URL warmUpUrl = new URL("https://login.microsoftonline.com/common/v2.0/.well-known/openid-configuration");
+        when(mHttpClient.head(eq(warmUpUrl), anyMap())).thenThrow(new IOException("offline"));
+
+        Assert.assertEquals(1, mWarmer.warmUp(Arrays.asList(authority("https://login.microsoftonline.com/common"))));
+    }
+
+    @Test
+    public void testUnavailableHostIsRetried() throws Exception {
+        final HttpEndpointConfiguration configuration = new HttpEndpointConfiguration();
+        configuration.setMaxRetries(2);
+        configuration.setInitialBackoffMs(0);
+        final AuthorityConnectionWarmer warmer = new AuthorityConnectionWarmer(mHttpClient, DIRECT_EXECUTOR, mScheduler, configuration);
+
+        final URL warmUpUrl = new URL("https://login.microsoftonline.com/common/v2.0/.well-known/openid-configuration");
+        when(mHttpClient.head(eq(warmUpUrl), anyMap())).thenReturn(
+                new HttpResponse(503, "", null),
+                new HttpResponse(200, "", null)
+        );
+
+        warmer.warmUp(Arrays.asList(authority("https://login.microsoftonline.com/common")));
+
+        verify(mHttpClient, timeout(1000).times(2)).head(eq(warmUpUrl), anyMap());
+    }
+
+    @Test
+    public void testRetryIsScheduledInsteadOfWaitedFor() throws Exception {
+        final HttpEndpointConfiguration configuration = new HttpEndpointConfiguration();
+        configuration.setMaxRetries(1);
+        final AuthorityConnectionWarmer warmer = new AuthorityConnectionWarmer(mHttpClient, DIRECT_EXECUTOR, mScheduler, configuration);
+
+        final URL warmUpUrl = new URL("https://login.microsoftonline.com/common/v2.0/.well-known/openid-configuration");
+        when(mHttpClient.head(eq(warmUpUrl), anyMap())).thenReturn(
+                new HttpResponse(503, "", Collections.singletonMap("Retry-After", Arrays.asList("60")))
+        );
+
+        // The executor runs the first request inline: returning here means no thread waits for the retry.
+        warmer.warmUp(Arrays.asList(authority("https://login.microsoftonline.com/common")));
+
+        verify(mHttpClient, times(1)).head(eq(warmUpUrl), anyMap());
+        Assert.assertEquals(1, mScheduler.getQueue().size());
+    }
+
+    private static Authority authority(final String url) throws Exception {
+        final Authority authority = mock(Authority.class);
+        when(authority.getAuthorityURL()).thenReturn(new URL(url));
+        return authority;
+    }
+}
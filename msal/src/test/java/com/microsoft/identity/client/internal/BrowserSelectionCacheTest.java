@@ -0,0 +1,127 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal;
+
+import android.app.Application;
+import android.content.Context;
+import android.content.Intent;
+import android.content.pm.ApplicationInfo;
+import android.content.pm.PackageInfo;
+import android.net.Uri;
+import android.os.Looper;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.Shadows;
+import org.robolectric.shadows.ShadowPackageManager;
+
+@RunWith(RobolectricTestRunner.class)
+public class BrowserSelectionCacheTest {
+
+    private Context mContext;
+    private ShadowPackageManager mPackageManager;
+    private BrowserSelectionCache mCache;
+
+    @Before
+    public void setup() {
+        mContext = ApplicationProvider.getApplicationContext();
+        mPackageManager = Shadows.shadowOf(mContext.getPackageManager());
+        mCache = new BrowserSelectionCache(mContext);
+    }
+
+    @Test
+    public void testResultIsCachedUntilBrowserPackageChanges() {
+        Assert.assertNull(mCache.getChromePackage());
+        Assert.assertTrue(mCache.isReceiverRegistered());
+
+        installChrome();
+
+        // Still served from the cache.
+        Assert.assertNull(mCache.getChromePackage());
+
+        sendPackageBroadcast(Intent.ACTION_PACKAGE_ADDED, MsalUtils.CHROME_PACKAGE);
+
+        Assert.assertEquals(MsalUtils.CHROME_PACKAGE, mCache.getChromePackage());
+    }
+
+    @Test
+    public void testUnrelatedPackageChangeKeepsCache() {
+        installChrome();
+        Assert.assertEquals(MsalUtils.CHROME_PACKAGE, mCache.getChromePackage());
+
+        mPackageManager.removePackage(MsalUtils.CHROME_PACKAGE);
+        sendPackageBroadcast(Intent.ACTION_PACKAGE_REMOVED, "com.contoso.unrelated");
+
+        Assert.assertEquals(MsalUtils.CHROME_PACKAGE, mCache.getChromePackage());
+
+        sendPackageBroadcast(Intent.ACTION_PACKAGE_REMOVED, MsalUtils.CHROME_PACKAGE);
+
+        Assert.assertNull(mCache.getChromePackage());
+    }
+
+    @Test
+    public void testInvalidate() {
+        Assert.assertNull(mCache.getChromePackageWithCustomTabSupport());
+        installChrome();
+
+        mCache.invalidate();
+
+        Assert.assertEquals(MsalUtils.CHROME_PACKAGE, mCache.getChromePackage());
+        // Chrome is installed without a Custom Tabs service.
+        Assert.assertNull(mCache.getChromePackageWithCustomTabSupport());
+    }
+
+    @Test
+    public void testCloseUnregistersReceiver() {
+        Assert.assertNull(mCache.getChromePackage());
+        final int receivers = Shadows.shadowOf((Application) mContext).getRegisteredReceivers().size();
+
+        mCache.close();
+
+        Assert.assertFalse(mCache.isReceiverRegistered());
+        Assert.assertEquals(receivers - 1, Shadows.shadowOf((Application) mContext).getRegisteredReceivers().size());
+
+        installChrome();
+        Assert.assertEquals(MsalUtils.CHROME_PACKAGE, mCache.getChromePackage());
+        Assert.assertTrue(mCache.isReceiverRegistered());
+    }
+
+    private void installChrome() {
+        final PackageInfo packageInfo = new PackageInfo();
+        packageInfo.packageName = MsalUtils.CHROME_PACKAGE;
+        packageInfo.applicationInfo = new ApplicationInfo();
+        packageInfo.applicationInfo.packageName = MsalUtils.CHROME_PACKAGE;
+        packageInfo.applicationInfo.enabled = true;
+        mPackageManager.installPackage(packageInfo);
+    }
+
+    private void sendPackageBroadcast(final String action, final String packageName) {
+        mContext.sendBroadcast(new Intent(action, Uri.fromParts("package", packageName, null)));
+        Shadows.shadowOf(Looper.getMainLooper()).idle();
+    }
+}
@@ -0,0 +1,126 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal;
+
+import com.microsoft.identity.client.configuration.HttpEndpointConfiguration;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+public class HttpRequestBudgetTest {
+
+    /**
+     * Always picks the upper bound of the backoff.
+     */
+    private static final Random MAX_JITTER = new Random() {
+        @Override
+        public double nextDouble() {
+            return 1.0;
+        }
+    };
+
+    @Test
+    public void testRetriesAreBounded() {
+        final HttpRequestBudget budget = budget(0, 2);
+
+        Assert.assertEquals(500, budget.nextRetryDelayMillis(503, null));
+        Assert.assertEquals(1000, budget.nextRetryDelayMillis(429, null));
+        Assert.assertEquals(HttpRequestBudget.NO_RETRY, budget.nextRetryDelayMillis(503, null));
+        Assert.assertEquals(2, budget.getRetries());
+    }
+
+    @Test
+    public void testBackoffIsCapped() {
+        final HttpRequestBudget budget = budget(0, 10);
+
+        long delay = 0;
+        for (int i = 0; i < 10; i++) {
+            delay = budget.nextRetryDelayMillis(500, null);
+        }
+        Assert.assertEquals(HttpEndpointConfiguration.DEFAULT_MAX_BACKOFF_MS, delay);
+    }
+
+    @Test
+    public void testClientErrorsAreNotRetried() {
+        final HttpRequestBudget budget = budget(0, 3);
+
+        Assert.assertEquals(HttpRequestBudget.NO_RETRY, budget.nextRetryDelayMillis(400, null));
+        Assert.assertEquals(HttpRequestBudget.NO_RETRY, budget.nextRetryDelayMillis(0, null));
+        Assert.assertEquals(0, budget.getRetries());
+    }
+
+    @Test
+    public void testRetryAfterTakesPrecedence() {
+        final HttpRequestBudget budget = budget(0, 1);
+
+        Assert.assertEquals(TimeUnit.SECONDS.toMillis(3), budget.nextRetryDelayMillis(429, "3"));
+    }
+
+    @Test
+    public void testRetryPastDeadlineIsNotMade() {
+        final HttpRequestBudget budget = budget(1000, 3);
+
+        Assert.assertEquals(HttpRequestBudget.NO_RETRY, budget.nextRetryDelayMillis(503, "5"));
+        Assert.assertTrue(budget.getRemainingMillis() <= 1000);
+    }
+
+    @Test
+    public void testNoDeadline() {
+        final HttpRequestBudget budget = budget(0, 0);
+
+        Assert.assertFalse(budget.hasDeadline());
+        Assert.assertEquals(Long.MAX_VALUE, budget.getRemainingMillis());
+    }
+
+    @Test
+    public void testParseRetryAfter() {
+        final long now = 784111777000L;
+
+        Assert.assertEquals(120_000, HttpRequestBudget.parseRetryAfterMillis("120", now));
+        Assert.assertEquals(10_000, HttpRequestBudget.parseRetryAfterMillis("Sun, 06 Nov 1994 08:49:47 GMT", now));
+        Assert.assertEquals(-1, HttpRequestBudget.parseRetryAfterMillis("soon", now));
+        Assert.assertEquals(-1, HttpRequestBudget.parseRetryAfterMillis(null, now));
+    }
+
+    @Test
+    public void testGetRetryAfterIgnoresCase() {
+        final Map<String, List<String>> headers = Collections.singletonMap("retry-after", Arrays.asList("7"));
+
+        Assert.assertEquals("7", HttpRequestBudget.getRetryAfter(headers));
+        Assert.assertNull(HttpRequestBudget.getRetryAfter(null));
+    }
+
+    private static HttpRequestBudget budget(final int deadlineMs, final int maxRetries) {
+        final HttpEndpointConfiguration configuration = new HttpEndpointConfiguration();
+        configuration.setDeadlineMs(deadlineMs);
+        configuration.setMaxRetries(maxRetries);
+        return new HttpRequestBudget(configuration, System.nanoTime(), MAX_JITTER);
+    }
+}
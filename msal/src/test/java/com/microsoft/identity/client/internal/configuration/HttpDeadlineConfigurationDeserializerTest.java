@@ -0,0 +1,64 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal.configuration;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.microsoft.identity.client.configuration.HttpConfiguration;
+import com.microsoft.identity.client.configuration.HttpDeadlineConfiguration;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HttpDeadlineConfigurationDeserializerTest {
+
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapter(HttpDeadlineConfiguration.class, new HttpDeadlineConfigurationDeserializer())
+            .create();
+
+    @Test
+    public void testDeadlinesAndDiscoveryRetriesAreRead() {
+        final HttpConfiguration configuration = GSON.fromJson(
+                "{\"token\": {\"deadline_ms\": 1000},"
+                        + " \"native_auth\": {\"deadline_ms\": 2000},"
+                        + " \"discovery\": {\"deadline_ms\": 3000, \"max_retries\": 2}}",
+                HttpConfiguration.class
+        );
+
+        Assert.assertEquals(1000, configuration.getToken().getDeadlineMs());
+        Assert.assertEquals(2000, configuration.getNativeAuth().getDeadlineMs());
+        Assert.assertEquals(3000, configuration.getDiscovery().getDeadlineMs());
+        Assert.assertEquals(2, configuration.getDiscovery().getMaxRetries());
+    }
+
+    @Test(expected = JsonParseException.class)
+    public void testTokenRetriesAreRejected() {
+        GSON.fromJson("{\"token\": {\"deadline_ms\": 1000, \"max_retries\": 2}}", HttpConfiguration.class);
+    }
+
+    @Test(expected = JsonParseException.class)
+    public void testNativeAuthBackoffIsRejected() {
+        GSON.fromJson("{\"native_auth\": {\"initial_backoff_ms\": 100}}", HttpConfiguration.class);
+    }
+}
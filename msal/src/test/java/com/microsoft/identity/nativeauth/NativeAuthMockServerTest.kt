@@ -0,0 +1,208 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.nativeauth
+
+import android.content.Context
+import androidx.test.core.app.ApplicationProvider
+import com.microsoft.identity.client.PublicClientApplication
+import com.microsoft.identity.client.e2e.shadows.ShadowAndroidSdkStorageEncryptionManager
+import com.microsoft.identity.common.internal.controllers.CommandDispatcherHelper
+import com.microsoft.identity.common.java.exception.BaseException
+import com.microsoft.identity.common.java.nativeauth.BuildValues
+import com.microsoft.identity.http.MockHttpClient
+import com.microsoft.identity.internal.testutils.TestUtils
+import com.microsoft.identity.nativeauth.statemachine.errors.SignInError
+import com.microsoft.identity.nativeauth.statemachine.errors.SubmitCodeError
+import com.microsoft.identity.nativeauth.statemachine.results.GetAccessTokenResult
+import com.microsoft.identity.nativeauth.statemachine.results.SignInResult
+import com.microsoft.identity.nativeauth.statemachine.results.SignInSubmitCodeResult
+import com.microsoft.identity.nativeauth.statemachine.results.SignOutResult
+import com.microsoft.identity.nativeauth.statemachine.states.SignInCodeRequiredState
+import com.microsoft.identity.nativeauth.utils.MockNativeAuthServer
+import com.microsoft.identity.nativeauth.utils.MockNativeAuthServer.Endpoint
+import com.microsoft.identity.shadow.ShadowHttpClient
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.runTest
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import java.io.File
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+/**
+ * Runs native auth flows end to end against [MockNativeAuthServer], without network access.
+ */
+@ExperimentalCoroutinesApi
+@RunWith(RobolectricTestRunner::class)
+@Config(shadows = [ShadowAndroidSdkStorageEncryptionManager::class, ShadowHttpClient::class])
+class NativeAuthMockServerTest {
+
+    private val configFilePath = "src/test/res/raw/native_auth_native_only_test_config.json"
+    private val sharedPreferencesName = "com.microsoft.identity.client.account_credential_cache"
+
+    private lateinit var mockHttpClient: MockHttpClient
+    private lateinit var server: MockNativeAuthServer
+    private lateinit var application: INativeAuthPublicClientApplication
+
+    @Before
+    fun setup() {
+        BuildValues.setUseMockApiForNativeAuth(false)
+        mockHttpClient = MockHttpClient.install()
+
+        val context: Context = ApplicationProvider.getApplicationContext()
+        application = PublicClientApplication.createNativeAuthPublicClientApplication(context, File(configFilePath))
+        server = MockNativeAuthServer((application as NativeAuthPublicClientApplication).configuration.clientId)
+            .install(mockHttpClient)
+        CommandDispatcherHelper.clear()
+    }
+
+    @After
+    fun cleanup() {
+        TestUtils.clearCache(sharedPreferencesName)
+        mockHttpClient.uninstall()
+    }
+
+    @Test
+    fun testSignInWithPassword() = runTest {
+        val result = application.signIn(server.username, server.password.toCharArray())
+        assertTrue(result is SignInResult.Complete)
+        assertEquals(1, server.requestCount(Endpoint.SIGN_IN_INITIATE))
+        assertEquals(1, server.requestCount(Endpoint.SIGN_IN_CHALLENGE))
+        assertEquals(1, server.requestCount(Endpoint.TOKEN))
+
+        val accountState = (result as SignInResult.Complete).resultValue
+        assertTrue(accountState.getAccessToken(forceRefresh = true) is GetAccessTokenResult.Complete)
+        assertEquals(2, server.requestCount(Endpoint.TOKEN))
+
+        assertTrue(accountState.signOut() is SignOutResult.Complete)
+    }
+
+    @Test
+    fun testSignInWithInvalidPassword() = runTest {
+        val result = application.signIn(server.username, "wrongPassword".toCharArray())
+        assertTrue(result is SignInError)
+        assertTrue((result as SignInError).isInvalidCredentials())
+    }
+
+    @Test
+    fun testSignInWithCode() = runTest {
+        server.signInChallengeType = MockNativeAuthServer.OOB_GRANT_TYPE
+
+        val result = application.signIn(server.username)
+        assertTrue(result is SignInResult.CodeRequired)
+        val codeRequiredState = (result as SignInResult.CodeRequired).nextState
+
+        val invalidCodeResult = codeRequiredState.submitCode("00000000")
+        assertTrue(invalidCodeResult is SubmitCodeError)
+        assertTrue((invalidCodeResult as SubmitCodeError).isInvalidCode())
+
+        assertTrue(codeRequiredState.submitCode(server.code) is SignInResult.Complete)
+    }
+
+    @Test
+    fun testInjectedErrorIsReturned() = runTest {
+        server.enqueueError(
+            Endpoint.SIGN_IN_INITIATE,
+            error = "user_not_found",
+            errorDescription = "AADSTS50034: The user account does not exist.",
+            errorCodes = listOf(50034)
+        )
+
+        val result = application.signIn(server.username, server.password.toCharArray())
+        assertTrue(result is SignInError)
+        assertTrue((result as SignInError).isUserNotFound())
+
+        // The injected error only applies to one request.
+        assertTrue(application.signIn(server.username, server.password.toCharArray()) is SignInResult.Complete)
+    }
+
+    @Test
+    fun testCancelledSignInDoesNotInvokeCallback() {
+        server.latencyMillis = 500
+        val callbackInvoked = CountDownLatch(1)
+        val callback = object : NativeAuthPublicClientApplication.SignInCallback {
+            override fun onResult(result: SignInResult) {
+                callbackInvoked.countDown()
+            }
+
+            override fun onError(exception: BaseException) {
+                callbackInvoked.countDown()
+            }
+        }
+
+        val request = (application as NativeAuthPublicClientApplication).signInCancellable(
+            server.username,
+            server.password.toCharArray(),
+            null,
+            callback
+        )
+        awaitRequest(Endpoint.SIGN_IN_INITIATE)
+        request.cancel()
+
+        // Wait past the point where the initiate response would have been delivered.
+        assertFalse(callbackInvoked.await(2 * server.latencyMillis, TimeUnit.MILLISECONDS))
+        assertTrue(request.isCancelled())
+        assertEquals(0, server.requestCount(Endpoint.SIGN_IN_CHALLENGE))
+    }
+
+    @Test
+    fun testCancelledStateDoesNotInvokeCallback() = runTest {
+        server.signInChallengeType = MockNativeAuthServer.OOB_GRANT_TYPE
+        val codeRequiredState = (application.signIn(server.username) as SignInResult.CodeRequired).nextState
+
+        server.latencyMillis = 500
+        val callbackInvoked = CountDownLatch(1)
+        val request = codeRequiredState.submitCodeCancellable(
+            server.code,
+            object : SignInCodeRequiredState.SubmitCodeCallback {
+                override fun onResult(result: SignInSubmitCodeResult) {
+                    callbackInvoked.countDown()
+                }
+
+                override fun onError(exception: BaseException) {
+                    callbackInvoked.countDown()
+                }
+            }
+        )
+        awaitRequest(Endpoint.TOKEN)
+        codeRequiredState.cancel()
+
+        assertFalse(callbackInvoked.await(2 * server.latencyMillis, TimeUnit.MILLISECONDS))
+        assertTrue(request.isCancelled())
+    }
+
+    private fun awaitRequest(endpoint: Endpoint) {
+        val deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5)
+        while (server.requestCount(endpoint) == 0) {
+            assertTrue("No request reached $endpoint", System.nanoTime() < deadline)
+            Thread.sleep(10)
+        }
+    }
+}
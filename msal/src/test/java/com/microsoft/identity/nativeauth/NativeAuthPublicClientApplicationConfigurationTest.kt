@@ -22,12 +22,15 @@
 //  THE SOFTWARE.
 package com.microsoft.identity.nativeauth
 
+import androidx.test.core.app.ApplicationProvider
 import com.microsoft.identity.client.PublicClientApplicationConfiguration.INVALID_REDIRECT_MSG
 import com.microsoft.identity.client.configuration.AccountMode
 import com.microsoft.identity.client.exception.MsalClientException
 import com.microsoft.identity.common.java.authorities.AzureActiveDirectoryB2CAuthority
 import com.microsoft.identity.common.java.nativeauth.authorities.NativeAuthCIAMAuthority
 import junit.framework.Assert.assertEquals
+import junit.framework.Assert.assertNotSame
+import junit.framework.Assert.assertSame
 import junit.framework.Assert.fail
 import org.junit.Test
 import org.junit.runner.RunWith
@@ -290,4 +293,23 @@ class NativeAuthPublicClientApplicationConfigurationTest {
         spyConfig.setChallengeTypes(listOf("oob", "oob", "password", "redirect", "redirect", "redirect"))
         spyConfig.validateConfiguration()
     }
+
+    @Test
+    fun testCommandParametersContextIsReusedUntilChallengeTypesChange() {
+        val config = NativeAuthPublicClientApplicationConfiguration()
+        config.clientId = clientId
+        config.appContext = ApplicationProvider.getApplicationContext()
+        val spyConfig = spy(config)
+        whenever(spyConfig.defaultAuthority).thenReturn(NativeAuthCIAMAuthority(ciamAuthority, clientId))
+        spyConfig.setChallengeTypes(listOf("oob", "password"))
+
+        val context = spyConfig.getCommandParametersContext()
+        assertSame(context, spyConfig.getCommandParametersContext())
+        assertEquals(listOf("oob", "password"), context.challengeTypes)
+
+        spyConfig.setChallengeTypes(listOf("oob"))
+        val updatedContext = spyConfig.getCommandParametersContext()
+        assertNotSame(context, updatedContext)
+        assertEquals(listOf("oob"), updatedContext.challengeTypes)
+    }
 }
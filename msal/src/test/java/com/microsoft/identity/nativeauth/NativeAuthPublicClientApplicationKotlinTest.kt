@@ -63,6 +63,7 @@ import com.microsoft.identity.nativeauth.statemachine.results.SignUpResult
 import com.microsoft.identity.common.java.AuthenticationConstants
 import com.microsoft.identity.nativeauth.statemachine.errors.GetAccessTokenErrorTypes
 import com.microsoft.identity.nativeauth.statemachine.states.SignInContinuationState
+import com.microsoft.identity.nativeauth.statemachine.states.SignUpAttributesRequiredState
 import com.microsoft.identity.nativeauth.utils.LoggerCheckHelper
 import com.microsoft.identity.nativeauth.utils.mockCorrelationId
 import kotlinx.coroutines.ExperimentalCoroutinesApi
@@ -72,6 +73,7 @@ import org.junit.After
 import org.junit.AfterClass
 import org.junit.Assert.assertEquals
 import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertNull
 import org.junit.Assert.assertTrue
 import org.junit.Assert.fail
 import org.junit.Before
@@ -442,6 +444,62 @@ class NativeAuthPublicClientApplicationKotlinTest(private val allowPII: Boolean)
 
     }
 
+    /**
+     * Test submitting attributes that miss a required attribute: the state asks for the missing
+     * attributes again without a request to the server.
+     */
+    @Test
+    fun testSignUpSubmitAttributesMissingRequiredAttribute() = runTest {
+        val cityAttribute = RequiredUserAttribute(
+            attributeName = "city",
+            type = "string",
+            required = true,
+            options = null
+        )
+        val state = SignUpAttributesRequiredState(
+            continuationToken = "continuationToken",
+            correlationId = UUID.randomUUID().toString(),
+            username = username,
+            config = mock<NativeAuthPublicClientApplicationConfiguration>(),
+            attributesSchema = UserAttributesSchema(listOf(cityAttribute))
+        )
+
+        val result = state.submitAttributes(UserAttributes.Builder().postalCode("12345").build())
+
+        assertTrue(result is SignUpResult.AttributesRequired)
+        assertEquals(state, (result as SignUpResult.AttributesRequired).nextState)
+        assertEquals(listOf(cityAttribute), result.requiredAttributes)
+    }
+
+    /**
+     * Test submitting an attribute that does not match its constraint: the state returns an
+     * invalid attributes error without a request to the server.
+     */
+    @Test
+    fun testSignUpSubmitAttributesNotMatchingConstraint() = runTest {
+        val state = SignUpAttributesRequiredState(
+            continuationToken = "continuationToken",
+            correlationId = UUID.randomUUID().toString(),
+            username = username,
+            config = mock<NativeAuthPublicClientApplicationConfiguration>(),
+            attributesSchema = UserAttributesSchema(
+                listOf(
+                    RequiredUserAttribute(
+                        attributeName = "postalCode",
+                        type = "string",
+                        required = true,
+                        options = RequiredUserAttributeOptions(regex = "[0-9]{5}")
+                    )
+                )
+            )
+        )
+
+        val result = state.submitAttributes(UserAttributes.Builder().postalCode("1234").build())
+
+        assertTrue(result is SignUpSubmitAttributesError)
+        assertTrue((result as SignUpSubmitAttributesError).isInvalidAttributes())
+    }
+
     /**
      * Test sign in with continuation token scenario 2:
      * 1a -> sign in with (expired) continuation token
@@ -706,6 +764,88 @@ class NativeAuthPublicClientApplicationKotlinTest(private val allowPII: Boolean)
         assertTrue((accessTokenState as GetAccessTokenError).isNoAccountFound())
     }
 
+    /**
+     * Test sign in, sign out through one account state, get access token through another one
+     */
+    @Test
+    fun testSignOutInvalidatesOtherAccountStates() = runTest {
+        val correlationId = UUID.randomUUID().toString()
+        configureMockApi(
+            MockApiEndpoint.SignInInitiate,
+            correlationId,
+            MockApiResponseType.INITIATE_SUCCESS
+        )
+
+        configureMockApi(
+            MockApiEndpoint.SignInChallenge,
+            correlationId,
+            MockApiResponseType.CHALLENGE_TYPE_PASSWORD
+        )
+
+        configureMockApi(
+            endpointType = MockApiEndpoint.SignInToken,
+            correlationId = correlationId,
+            responseType = MockApiResponseType.TOKEN_SUCCESS
+        )
+
+        val signInResult = application.signIn(username, password)
+        assertTrue(signInResult is SignInResult.Complete)
+
+        val getAccountResult = application.getCurrentAccount()
+        assertTrue(getAccountResult is GetAccountResult.AccountFound)
+        val accountState = (getAccountResult as GetAccountResult.AccountFound).resultValue
+
+        // Served from the account held by the state.
+        assertTrue(accountState.getAccessToken() is GetAccessTokenResult.Complete)
+
+        val signOutResult = (signInResult as SignInResult.Complete).resultValue.signOut()
+        assertTrue(signOutResult is SignOutResult.Complete)
+
+        val accessTokenState = accountState.getAccessToken()
+        assertTrue(accessTokenState is GetAccessTokenError)
+        assertTrue((accessTokenState as GetAccessTokenError).isNoAccountFound())
+    }
+
+    /**
+     * Test that the observed current account follows sign in and sign out
+     */
+    @Test
+    fun testObserveCurrentAccountFollowsSignInAndSignOut() = runTest {
+        val correlationId = UUID.randomUUID().toString()
+        configureMockApi(
+            MockApiEndpoint.SignInInitiate,
+            correlationId,
+            MockApiResponseType.INITIATE_SUCCESS
+        )
+
+        configureMockApi(
+            MockApiEndpoint.SignInChallenge,
+            correlationId,
+            MockApiResponseType.CHALLENGE_TYPE_PASSWORD
+        )
+
+        configureMockApi(
+            endpointType = MockApiEndpoint.SignInToken,
+            correlationId = correlationId,
+            responseType = MockApiResponseType.TOKEN_SUCCESS
+        )
+
+        val currentAccount = application.observeCurrentAccount()
+
+        val signInResult = application.signIn(username, password)
+        assertTrue(signInResult is SignInResult.Complete)
+        val accountState = (signInResult as SignInResult.Complete).resultValue
+        assertEquals(accountState.getAccount().id, currentAccount.value?.getAccount()?.id)
+
+        val getAccountResult = application.getCurrentAccount()
+        assertTrue(getAccountResult is GetAccountResult.AccountFound)
+
+        val signOutResult = accountState.signOut()
+        assertTrue(signOutResult is SignOutResult.Complete)
+        assertNull(currentAccount.value)
+        assertTrue(application.getCurrentAccount() is GetAccountResult.NoAccountFound)
+    }
+
     /**
      * Test sign in, sign out, get access token
      */
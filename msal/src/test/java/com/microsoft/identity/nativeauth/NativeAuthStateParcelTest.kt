@@ -0,0 +1,236 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.nativeauth
+
+import android.content.Context
+import android.os.Parcel
+import android.os.Parcelable
+import androidx.test.core.app.ApplicationProvider
+import com.microsoft.identity.client.PublicClientApplication
+import com.microsoft.identity.client.exception.MsalClientException
+import com.microsoft.identity.client.e2e.shadows.ShadowAndroidSdkStorageEncryptionManager
+import com.microsoft.identity.common.internal.controllers.CommandDispatcherHelper
+import com.microsoft.identity.common.java.nativeauth.BuildValues
+import com.microsoft.identity.http.MockHttpClient
+import com.microsoft.identity.internal.testutils.TestUtils
+import com.microsoft.identity.nativeauth.statemachine.errors.SubmitCodeError
+import com.microsoft.identity.nativeauth.statemachine.results.GetAccessTokenResult
+import com.microsoft.identity.nativeauth.statemachine.results.SignInResult
+import com.microsoft.identity.nativeauth.statemachine.states.AccountState
+import com.microsoft.identity.nativeauth.statemachine.states.SignInCodeRequiredState
+import com.microsoft.identity.nativeauth.utils.MockNativeAuthServer
+import com.microsoft.identity.nativeauth.utils.writeStatePayload
+import com.microsoft.identity.shadow.ShadowHttpClient
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.runTest
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import java.io.File
+import java.util.UUID
+
+/**
+ * Writes native auth states to a parcel and continues the flow with the restored states.
+ */
+@ExperimentalCoroutinesApi
+@RunWith(RobolectricTestRunner::class)
+@Config(shadows = [ShadowAndroidSdkStorageEncryptionManager::class, ShadowHttpClient::class])
+class NativeAuthStateParcelTest {
+
+    private val configFilePath = "src/test/res/raw/native_auth_native_only_test_config.json"
+    private val sharedPreferencesName = "com.microsoft.identity.client.account_credential_cache"
+
+    private lateinit var mockHttpClient: MockHttpClient
+    private lateinit var server: MockNativeAuthServer
+    private lateinit var application: NativeAuthPublicClientApplication
+
+    @Before
+    fun setup() {
+        BuildValues.setUseMockApiForNativeAuth(false)
+        mockHttpClient = MockHttpClient.install()
+
+        val context: Context = ApplicationProvider.getApplicationContext()
+        application = PublicClientApplication.createNativeAuthPublicClientApplication(
+            context,
+            File(configFilePath)
+        ) as NativeAuthPublicClientApplication
+        server = MockNativeAuthServer(application.configuration.clientId).install(mockHttpClient)
+        CommandDispatcherHelper.clear()
+    }
+
+    @After
+    fun cleanup() {
+        TestUtils.clearCache(sharedPreferencesName)
+        mockHttpClient.uninstall()
+    }
+
+    @Test
+    fun testRestoredCodeRequiredStateUsesApplicationConfiguration() = runTest {
+        server.signInChallengeType = MockNativeAuthServer.OOB_GRANT_TYPE
+        val codeRequiredState = (application.signIn(server.username) as SignInResult.CodeRequired).nextState
+
+        val restoredState = parcelAndRestore(codeRequiredState, SignInCodeRequiredState.CREATOR)
+
+        assertEquals(codeRequiredState.continuationToken, restoredState.continuationToken)
+        assertEquals(codeRequiredState.correlationId, restoredState.correlationId)
+        assertTrue(restoredState.submitCode(server.code) is SignInResult.Complete)
+    }
+
+    @Test
+    fun testRestoredAccountStateRebuildsAccount() = runTest {
+        val accountState = (application.signIn(server.username, server.password.toCharArray()) as SignInResult.Complete).resultValue
+
+        val restoredState = parcelAndRestore(accountState, AccountState.CREATOR)
+
+        assertEquals(accountState.correlationId, restoredState.correlationId)
+        assertEquals(accountState.getAccount().id, restoredState.getAccount().id)
+        assertEquals(accountState.getAccount().tenantId, restoredState.getAccount().tenantId)
+        assertEquals(accountState.getIdToken(), restoredState.getIdToken())
+        assertEquals(accountState.getClaims(), restoredState.getClaims())
+        assertTrue(restoredState.getAccessToken(forceRefresh = true) is GetAccessTokenResult.Complete)
+    }
+
+    @Test
+    fun testRestoredAccountStateCanBeParceledAgain() = runTest {
+        val accountState = (application.signIn(server.username, server.password.toCharArray()) as SignInResult.Complete).resultValue
+
+        // The account of the first restored state is not rebuilt before it is written again.
+        val restoredState = parcelAndRestore(
+            parcelAndRestore(accountState, AccountState.CREATOR),
+            AccountState.CREATOR
+        )
+
+        assertEquals(accountState.getAccount().id, restoredState.getAccount().id)
+        assertEquals(accountState.getIdToken(), restoredState.getIdToken())
+    }
+
+    @Test
+    fun testUnknownParcelVersionRequiresRestart() = runTest {
+        val parcel = Parcel.obtain()
+        val restoredState = try {
+            parcel.writeInt(Int.MAX_VALUE)
+            parcel.writeInt(Int.SIZE_BYTES)
+            parcel.writeInt(42)
+            parcel.writeString(NEXT_VALUE)
+            parcel.setDataPosition(0)
+
+            SignInCodeRequiredState.CREATOR.createFromParcel(parcel).also {
+                // The unknown payload is skipped, leaving what follows it readable.
+                assertEquals(NEXT_VALUE, parcel.readString())
+            }
+        } finally {
+            parcel.recycle()
+        }
+
+        assertTrue(restoredState.isRestartRequired)
+        assertRestartRequired(restoredState.submitCode(server.code) as SubmitCodeError)
+    }
+
+    @Test
+    fun testStateOfUnregisteredApplicationRequiresRestart() = runTest {
+        val parcel = Parcel.obtain()
+        val restoredState = try {
+            parcel.writeStatePayload {
+                writeString("continuationToken")
+                writeString(UUID.randomUUID().toString())
+                writeStringList(null)
+                writeString("unregistered|https://contoso.ciamlogin.com/contoso.onmicrosoft.com")
+            }
+            parcel.setDataPosition(0)
+            SignInCodeRequiredState.CREATOR.createFromParcel(parcel)
+        } finally {
+            parcel.recycle()
+        }
+
+        assertTrue(restoredState.isRestartRequired)
+        assertRestartRequired(restoredState.submitCode(server.code) as SubmitCodeError)
+    }
+
+    @Test
+    fun testStateRestoredBeforeApplicationIsCreatedResolvesOnceItIs() = runTest {
+        val clientId = UUID.randomUUID().toString()
+        val parcel = Parcel.obtain()
+        val restoredState = try {
+            parcel.writeStatePayload {
+                writeString("continuationToken")
+                writeString(UUID.randomUUID().toString())
+                writeStringList(null)
+                writeString("$clientId|${application.configuration.defaultAuthority.authorityURL}")
+            }
+            parcel.setDataPosition(0)
+            SignInCodeRequiredState.CREATOR.createFromParcel(parcel)
+        } finally {
+            parcel.recycle()
+        }
+        assertTrue(restoredState.isRestartRequired)
+
+        val configFile = File.createTempFile("native_auth_config", ".json")
+        try {
+            configFile.writeText(
+                File(configFilePath).readText().replace(application.configuration.clientId, clientId)
+            )
+            PublicClientApplication.createNativeAuthPublicClientApplication(
+                ApplicationProvider.getApplicationContext(),
+                configFile
+            )
+        } finally {
+            configFile.delete()
+        }
+
+        assertFalse(restoredState.isRestartRequired)
+    }
+
+    @Test
+    fun testRestoredStateDoesNotRequireRestart() = runTest {
+        server.signInChallengeType = MockNativeAuthServer.OOB_GRANT_TYPE
+        val codeRequiredState = (application.signIn(server.username) as SignInResult.CodeRequired).nextState
+
+        assertFalse(parcelAndRestore(codeRequiredState, SignInCodeRequiredState.CREATOR).isRestartRequired)
+    }
+
+    private fun assertRestartRequired(error: SubmitCodeError) {
+        val exception = error.exception as MsalClientException
+        assertEquals(MsalClientException.NATIVE_AUTH_STATE_RESTART_REQUIRED_ERROR_CODE, exception.errorCode)
+    }
+
+    private fun <T : Parcelable> parcelAndRestore(state: T, creator: Parcelable.Creator<T>): T {
+        val parcel = Parcel.obtain()
+        try {
+            state.writeToParcel(parcel, 0)
+            parcel.setDataPosition(0)
+            return creator.createFromParcel(parcel)
+        } finally {
+            parcel.recycle()
+        }
+    }
+
+    companion object {
+        private const val NEXT_VALUE = "next value"
+    }
+}
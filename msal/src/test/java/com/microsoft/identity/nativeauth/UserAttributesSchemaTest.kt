@@ -0,0 +1,118 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.nativeauth
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class UserAttributesSchemaTest {
+
+    private val schema = UserAttributesSchema(
+        listOf(
+            RequiredUserAttribute(
+                attributeName = "city",
+                type = "string",
+                required = true,
+                options = null
+            ),
+            RequiredUserAttribute(
+                attributeName = "postalCode",
+                type = "string",
+                required = true,
+                options = RequiredUserAttributeOptions(regex = "[0-9]{5}")
+            ),
+            RequiredUserAttribute(
+                attributeName = "jobTitle",
+                type = "string",
+                required = false,
+                options = RequiredUserAttributeOptions(regex = "[A-Za-z ]+")
+            )
+        )
+    )
+
+    @Test
+    fun testValidAttributes() {
+        val attributes = UserAttributes.Builder()
+            .city("Dublin")
+            .postalCode("12345")
+            .customAttribute("favouriteColour", "blue")
+            .build()
+
+        assertTrue(schema.findMissingAttributes(attributes).isEmpty())
+        assertTrue(schema.findInvalidAttributes(attributes).isEmpty())
+    }
+
+    @Test
+    fun testMissingRequiredAttributes() {
+        val attributes = UserAttributes.Builder()
+            .city(" ")
+            .build()
+
+        assertEquals(
+            listOf("city", "postalCode"),
+            schema.findMissingAttributes(attributes).map { it.attributeName }
+        )
+        assertTrue(schema.findInvalidAttributes(attributes).isEmpty())
+    }
+
+    @Test
+    fun testAttributesNotMatchingConstraint() {
+        val attributes = UserAttributes.Builder()
+            .city("Dublin")
+            .postalCode("1234")
+            .jobTitle("Engineer 2")
+            .build()
+
+        assertEquals(listOf("postalCode", "jobTitle"), schema.findInvalidAttributes(attributes))
+    }
+
+    @Test
+    fun testInvalidConstraintIsIgnored() {
+        val schema = UserAttributesSchema(
+            listOf(
+                RequiredUserAttribute(
+                    attributeName = "postalCode",
+                    type = "string",
+                    required = true,
+                    options = RequiredUserAttributeOptions(regex = "[0-9")
+                )
+            )
+        )
+
+        assertTrue(schema.findInvalidAttributes(UserAttributes.Builder().postalCode("1234").build()).isEmpty())
+    }
+
+    @Test
+    fun testBuilderCanBeReused() {
+        val builder = UserAttributes.Builder().city("Dublin")
+        val first = builder.build()
+        val second = builder.postalCode("12345").build()
+
+        assertEquals(mapOf("city" to "Dublin"), first.userAttributes)
+        assertEquals(mapOf("city" to "Dublin", "postalCode" to "12345"), second.userAttributes)
+    }
+}
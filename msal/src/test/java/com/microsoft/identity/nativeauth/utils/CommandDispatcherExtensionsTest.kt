@@ -0,0 +1,75 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.nativeauth.utils
+
+import com.microsoft.identity.common.java.util.ResultFuture
+import kotlinx.coroutines.asCoroutineDispatcher
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.withTimeout
+import org.junit.Assert.assertEquals
+import org.junit.Assert.fail
+import org.junit.Test
+import java.util.concurrent.Executors
+
+class CommandDispatcherExtensionsTest {
+
+    @Test
+    fun testAwaitDoesNotHoldThread() = runBlocking {
+        val executor = Executors.newSingleThreadExecutor()
+        try {
+            val singleThread = executor.asCoroutineDispatcher()
+            val futures = List(50) { ResultFuture<Int>() }
+
+            // All awaits share one thread, blocking on get() would never get past the first one.
+            val results = futures.map { future -> async(singleThread) { future.await() } }
+            futures.forEachIndexed { index, future -> future.setResult(index) }
+
+            assertEquals(List(50) { it }, withTimeout(5_000) { results.awaitAll() })
+        } finally {
+            executor.shutdownNow()
+        }
+    }
+
+    @Test
+    fun testAwaitAlreadyCompleted() = runBlocking {
+        val future = ResultFuture<String>()
+        future.setResult("done")
+
+        assertEquals("done", future.await())
+    }
+
+    @Test
+    fun testAwaitRethrowsException() = runBlocking {
+        val future = ResultFuture<String>()
+        future.setException(IllegalStateException("failed"))
+
+        try {
+            future.await()
+            fail("Expected the future's exception to be thrown")
+        } catch (e: IllegalStateException) {
+            assertEquals("failed", e.message)
+        }
+    }
+}
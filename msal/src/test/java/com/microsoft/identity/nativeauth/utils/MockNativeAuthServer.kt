@@ -0,0 +1,369 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.nativeauth.utils
+
+import com.google.gson.Gson
+import com.microsoft.identity.common.java.net.HttpClient
+import com.microsoft.identity.common.java.net.HttpResponse
+import com.microsoft.identity.http.HttpRequestInterceptor
+import com.microsoft.identity.http.HttpRequestMatcher
+import com.microsoft.identity.http.MockHttpClient
+import java.net.URL
+import java.net.URLDecoder
+import java.nio.charset.StandardCharsets
+import java.util.Base64
+import java.util.Collections
+import java.util.EnumMap
+import java.util.LinkedList
+import java.util.Random
+import java.util.UUID
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * In-process replacement for the native auth API, installed on a [MockHttpClient] so that native
+ * auth flows run offline. Each endpoint replays the responses a tenant returns for a user with
+ * [username] and [password] whose one time passcodes are [code]: sign in, sign up and reset
+ * password succeed when the expected credentials are submitted and fail with the service's
+ * invalid_grant errors otherwise.
+ *
+ * Responses for a single request can be replaced with [enqueue] or [enqueueError], [latencyMillis]
+ * delays every response and [errorRate] makes a share of requests fail with a server error.
+ */
+class MockNativeAuthServer(
+    private val clientId: String,
+    val username: String = "user@contoso.com",
+    val password: String = "verySafePassword",
+    val code: String = "12345678",
+    seed: Long = 0
+) : HttpRequestInterceptor {
+
+    enum class Endpoint(val path: String) {
+        SIGN_IN_INITIATE("/oauth2/v2.0/initiate"),
+        SIGN_IN_CHALLENGE("/oauth2/v2.0/challenge"),
+        TOKEN("/oauth2/v2.0/token"),
+        SIGN_UP_START("/signup/v1.0/start"),
+        SIGN_UP_CHALLENGE("/signup/v1.0/challenge"),
+        SIGN_UP_CONTINUE("/signup/v1.0/continue"),
+        RESET_PASSWORD_START("/resetpassword/v1.0/start"),
+        RESET_PASSWORD_CHALLENGE("/resetpassword/v1.0/challenge"),
+        RESET_PASSWORD_CONTINUE("/resetpassword/v1.0/continue"),
+        RESET_PASSWORD_SUBMIT("/resetpassword/v1.0/submit"),
+        RESET_PASSWORD_POLL_COMPLETION("/resetpassword/v1.0/poll_completion");
+
+        companion object {
+            fun fromUrl(url: URL): Endpoint? = values().firstOrNull { url.path.endsWith(it.path) }
+        }
+    }
+
+    /**
+     * A canned response for a single request.
+     */
+    data class Response(val statusCode: Int, val body: Map<String, Any?>)
+
+    /**
+     * Challenge returned by [Endpoint.SIGN_IN_CHALLENGE], "password" or "oob".
+     */
+    @Volatile
+    var signInChallengeType = PASSWORD_CHALLENGE_TYPE
+
+    /**
+     * Delay added to every response, to model the round trip to the service.
+     */
+    @Volatile
+    var latencyMillis = 0L
+
+    /**
+     * Share of requests, between 0 and 1, that fail with a server error.
+     */
+    @Volatile
+    var errorRate = 0.0
+
+    private val gson = Gson()
+    private val random = Random(seed)
+    private val queuedResponses = EnumMap<Endpoint, LinkedList<Response>>(Endpoint::class.java)
+    private val requestCounts = EnumMap<Endpoint, AtomicInteger>(Endpoint::class.java)
+    private val serverTimeNanos = AtomicLong()
+    private val objectId = UUID.randomUUID().toString()
+    private val tenantId = UUID.randomUUID().toString()
+
+    init {
+        Endpoint.values().forEach { requestCounts[it] = AtomicInteger() }
+    }
+
+    /**
+     * Routes the POST requests of [mockHttpClient] to this server.
+     */
+    fun install(mockHttpClient: MockHttpClient): MockNativeAuthServer {
+        mockHttpClient.intercept(HttpRequestMatcher.builder().isPOST().build(), this)
+        return this
+    }
+
+    /**
+     * Returns [response] to the next request to [endpoint] instead of the default one.
+     */
+    fun enqueue(endpoint: Endpoint, response: Response) {
+        synchronized(queuedResponses) {
+            queuedResponses.getOrPut(endpoint) { LinkedList() }.add(response)
+        }
+    }
+
+    /**
+     * Fails the next request to [endpoint] with the given service error.
+     */
+    fun enqueueError(
+        endpoint: Endpoint,
+        error: String,
+        errorDescription: String,
+        errorCodes: List<Int> = emptyList(),
+        subError: String? = null,
+        statusCode: Int = 400
+    ) {
+        enqueue(endpoint, Response(statusCode, errorBody(error, errorDescription, errorCodes, subError)))
+    }
+
+    /**
+     * @return the number of requests received by [endpoint].
+     */
+    fun requestCount(endpoint: Endpoint): Int = requestCounts.getValue(endpoint).get()
+
+    /**
+     * @return the number of requests received by all endpoints.
+     */
+    fun totalRequestCount(): Int = requestCounts.values.sumOf { it.get() }
+
+    /**
+     * @return the time spent producing responses, including [latencyMillis].
+     */
+    fun serverTimeNanos(): Long = serverTimeNanos.get()
+
+    fun resetCounters() {
+        requestCounts.values.forEach { it.set(0) }
+        serverTimeNanos.set(0)
+    }
+
+    override fun performIntercept(
+        httpMethod: HttpClient.HttpMethod,
+        requestUrl: URL,
+        requestHeaders: Map<String, String>,
+        requestContent: ByteArray?
+    ): HttpResponse {
+        val start = System.nanoTime()
+        try {
+            val endpoint = Endpoint.fromUrl(requestUrl)
+                ?: return jsonResponse(404, errorBody("invalid_request", "Unknown endpoint ${requestUrl.path}"), requestHeaders)
+            requestCounts.getValue(endpoint).incrementAndGet()
+
+            if (latencyMillis > 0) {
+                Thread.sleep(latencyMillis)
+            }
+
+            val response = nextQueuedResponse(endpoint)
+                ?: injectedServerError()
+                ?: respond(endpoint, readForm(requestContent))
+            return jsonResponse(response.statusCode, response.body, requestHeaders)
+        } finally {
+            serverTimeNanos.addAndGet(System.nanoTime() - start)
+        }
+    }
+
+    private fun nextQueuedResponse(endpoint: Endpoint): Response? {
+        synchronized(queuedResponses) {
+            return queuedResponses[endpoint]?.poll()
+        }
+    }
+
+    private fun injectedServerError(): Response? {
+        val fail = synchronized(random) { random.nextDouble() < errorRate }
+        return if (fail) {
+            Response(500, errorBody("server_error", "AADSTS50000: Injected server error."))
+        } else {
+            null
+        }
+    }
+
+    private fun respond(endpoint: Endpoint, form: Map<String, String>): Response {
+        return when (endpoint) {
+            Endpoint.SIGN_IN_INITIATE,
+            Endpoint.RESET_PASSWORD_START -> if (form["username"] == username) {
+                continuation()
+            } else {
+                Response(400, errorBody("user_not_found", "AADSTS50034: The user account does not exist.", listOf(50034)))
+            }
+
+            Endpoint.SIGN_IN_CHALLENGE -> if (signInChallengeType == PASSWORD_CHALLENGE_TYPE) {
+                continuation("challenge_type" to PASSWORD_CHALLENGE_TYPE)
+            } else {
+                oobChallenge()
+            }
+
+            Endpoint.SIGN_UP_START -> if (form["username"] == username) {
+                Response(400, errorBody("user_already_exists", "AADSTS1003037: It looks like you may already have an account.", listOf(1003037)))
+            } else {
+                continuation()
+            }
+
+            Endpoint.SIGN_UP_CHALLENGE,
+            Endpoint.RESET_PASSWORD_CHALLENGE -> oobChallenge()
+
+            Endpoint.SIGN_UP_CONTINUE,
+            Endpoint.RESET_PASSWORD_CONTINUE -> if (form["grant_type"] != OOB_GRANT_TYPE || form["oob"] == code) {
+                continuation("expires_in" to 600)
+            } else {
+                invalidCode()
+            }
+
+            Endpoint.RESET_PASSWORD_SUBMIT -> continuation("poll_interval" to 1)
+
+            Endpoint.RESET_PASSWORD_POLL_COMPLETION -> continuation("status" to "succeeded")
+
+            Endpoint.TOKEN -> token(form)
+        }
+    }
+
+    private fun token(form: Map<String, String>): Response {
+        return when (form["grant_type"]) {
+            PASSWORD_CHALLENGE_TYPE -> if (form["password"] == password) {
+                tokenSuccess()
+            } else {
+                Response(400, errorBody("invalid_grant", "AADSTS901007: Error validating credentials due to invalid username or password.", listOf(50126)))
+            }
+
+            OOB_GRANT_TYPE -> if (form["oob"] == code) tokenSuccess() else invalidCode()
+
+            else -> tokenSuccess()
+        }
+    }
+
+    private fun continuation(vararg fields: Pair<String, Any>): Response {
+        return Response(200, mapOf("continuation_token" to newContinuationToken()) + fields)
+    }
+
+    private fun oobChallenge(): Response {
+        return continuation(
+            "challenge_type" to OOB_GRANT_TYPE,
+            "binding_method" to "prompt",
+            "challenge_target_label" to "u***@c***.com",
+            "challenge_channel" to "email",
+            "code_length" to code.length,
+            "interval" to 300
+        )
+    }
+
+    private fun invalidCode(): Response {
+        return Response(
+            400,
+            errorBody("invalid_grant", "AADSTS50181: Unable to validate the otp.", listOf(50181), subError = "invalid_oob_value")
+        )
+    }
+
+    private fun tokenSuccess(): Response {
+        return Response(
+            200,
+            mapOf(
+                "token_type" to "Bearer",
+                "scope" to "openid profile offline_access",
+                "expires_in" to 3600,
+                "ext_expires_in" to 3600,
+                "access_token" to "access_token:" + UUID.randomUUID(),
+                "refresh_token" to "refresh_token:" + UUID.randomUUID(),
+                "id_token" to idToken(),
+                "client_info" to base64Url("{\"uid\":\"$objectId\",\"utid\":\"$tenantId\"}")
+            )
+        )
+    }
+
+    private fun idToken(): String {
+        val now = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis())
+        val claims = mapOf(
+            "aud" to clientId,
+            "iss" to "https://$tenantId.ciamlogin.com/$tenantId/v2.0",
+            "iat" to now,
+            "nbf" to now,
+            "exp" to now + 3600,
+            "name" to "Mock User",
+            "oid" to objectId,
+            "preferred_username" to username,
+            "sub" to objectId,
+            "tid" to tenantId,
+            "ver" to "2.0"
+        )
+
+        // Unsigned JWT, MSAL does not validate the id token signature.
+        return base64Url("{\"alg\":\"none\",\"typ\":\"JWT\"}") + "." + base64Url(gson.toJson(claims)) + "."
+    }
+
+    private fun errorBody(
+        error: String,
+        errorDescription: String,
+        errorCodes: List<Int> = emptyList(),
+        subError: String? = null
+    ): Map<String, Any?> {
+        return mapOf(
+            "error" to error,
+            "error_description" to errorDescription,
+            "error_codes" to errorCodes,
+            "suberror" to subError,
+            "timestamp" to "2024-01-01 00:00:00Z",
+            "trace_id" to UUID.randomUUID().toString(),
+            "correlation_id" to UUID.randomUUID().toString()
+        )
+    }
+
+    private fun jsonResponse(statusCode: Int, body: Map<String, Any?>, requestHeaders: Map<String, String>): HttpResponse {
+        val headers = HashMap<String, List<String>>()
+        headers["Content-Type"] = Collections.singletonList("application/json")
+        requestHeaders.entries.firstOrNull { it.key.equals(CORRELATION_ID_HEADER, ignoreCase = true) }?.let {
+            headers[CORRELATION_ID_HEADER] = Collections.singletonList(it.value)
+        }
+        return HttpResponse(statusCode, gson.toJson(body.filterValues { it != null }), headers)
+    }
+
+    private fun newContinuationToken(): String = "continuation_token:" + UUID.randomUUID()
+
+    private fun readForm(content: ByteArray?): Map<String, String> {
+        if (content == null) {
+            return emptyMap()
+        }
+
+        return String(content, StandardCharsets.UTF_8)
+            .split("&")
+            .filter { it.contains('=') }
+            .associate {
+                val separator = it.indexOf('=')
+                URLDecoder.decode(it.substring(0, separator), "UTF-8") to
+                    URLDecoder.decode(it.substring(separator + 1), "UTF-8")
+            }
+    }
+
+    private fun base64Url(value: String): String {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.toByteArray(StandardCharsets.UTF_8))
+    }
+
+    companion object {
+        const val PASSWORD_CHALLENGE_TYPE = "password"
+        const val OOB_GRANT_TYPE = "oob"
+        private const val CORRELATION_ID_HEADER = "client-request-id"
+    }
+}
@@ -0,0 +1,145 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.nativeauth.utils
+
+import com.microsoft.identity.client.exception.MsalClientException
+import com.microsoft.identity.common.java.exception.BaseException
+import com.microsoft.identity.nativeauth.NativeAuthRequest
+import com.microsoft.identity.nativeauth.statemachine.states.Callback
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.NonCancellable
+import kotlinx.coroutines.awaitCancellation
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.withContext
+import kotlinx.coroutines.withTimeout
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+class NativeAuthRequestGroupTest {
+
+    private val group = NativeAuthRequestGroup()
+
+    @Test
+    fun testResultIsDelivered() {
+        val callback = RecordingCallback<String>()
+
+        val request = group.launch(TAG, "testResultIsDelivered", callback) { "result" }
+
+        assertTrue(callback.done.await(5, TimeUnit.SECONDS))
+        assertEquals("result", callback.result)
+        awaitCompletion(request)
+        assertFalse(request.isCancelled())
+    }
+
+    @Test
+    fun testErrorIsDelivered() {
+        val callback = RecordingCallback<String>()
+
+        group.launch(TAG, "testErrorIsDelivered", callback) {
+            throw MsalClientException(MsalClientException.UNKNOWN_ERROR, "failed")
+        }
+
+        assertTrue(callback.done.await(5, TimeUnit.SECONDS))
+        assertEquals(MsalClientException.UNKNOWN_ERROR, callback.error?.errorCode)
+    }
+
+    @Test
+    fun testCancelledRequestDoesNotInvokeCallback() {
+        val started = CountDownLatch(1)
+        val callback = RecordingCallback<String>()
+
+        val request = group.launch(TAG, "testCancelledRequestDoesNotInvokeCallback", callback) {
+            started.countDown()
+            awaitCancellation()
+        }
+        assertTrue(started.await(5, TimeUnit.SECONDS))
+
+        request.cancel()
+
+        awaitCompletion(request)
+        assertTrue(request.isCancelled())
+        assertEquals(1L, callback.done.count)
+    }
+
+    @Test
+    fun testCancelAllDropsResultProducedAfterCancellation() {
+        val started = CountDownLatch(1)
+        val release = CompletableDeferred<Unit>()
+        val callback = RecordingCallback<String>()
+
+        // The block does not observe cancellation, like a command that cannot be interrupted.
+        val request = group.launch(TAG, "testCancelAllDropsResultProducedAfterCancellation", callback) {
+            started.countDown()
+            withContext(NonCancellable) {
+                release.await()
+            }
+            "stale"
+        }
+        assertTrue(started.await(5, TimeUnit.SECONDS))
+
+        group.cancelAll()
+        release.complete(Unit)
+
+        awaitCompletion(request)
+        assertTrue(request.isCancelled())
+        assertNull(callback.result)
+    }
+
+    private fun awaitCompletion(request: NativeAuthRequest) = runBlocking {
+        withTimeout(5_000) {
+            while (!request.isCompleted()) {
+                delay(10)
+            }
+        }
+    }
+
+    private class RecordingCallback<T> : Callback<T> {
+        val done = CountDownLatch(1)
+
+        @Volatile
+        var result: T? = null
+
+        @Volatile
+        var error: BaseException? = null
+
+        override fun onResult(result: T) {
+            this.result = result
+            done.countDown()
+        }
+
+        override fun onError(exception: BaseException) {
+            error = exception
+            done.countDown()
+        }
+    }
+
+    companion object {
+        private const val TAG = "NativeAuthRequestGroupTest"
+    }
+}
@@ -0,0 +1,86 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.platform;
+
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Iteration counts and concurrency levels for a benchmark run. Key generation is orders of
+ * magnitude slower than signing, so it has its own iteration counts.
+ */
+final class BenchmarkConfig {
+
+    final int mKeyGenerationWarmupIterations;
+    final int mKeyGenerationIterations;
+    final int mWarmupIterations;
+    final int mIterations;
+    final List<Integer> mSignerConcurrencyLevels;
+
+    private BenchmarkConfig(@NonNull final Builder builder) {
+        mKeyGenerationWarmupIterations = builder.mKeyGenerationWarmupIterations;
+        mKeyGenerationIterations = builder.mKeyGenerationIterations;
+        mWarmupIterations = builder.mWarmupIterations;
+        mIterations = builder.mIterations;
+        mSignerConcurrencyLevels = Collections.unmodifiableList(builder.mSignerConcurrencyLevels);
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    static final class Builder {
+        private int mKeyGenerationWarmupIterations = 2;
+        private int mKeyGenerationIterations = 10;
+        private int mWarmupIterations = 20;
+        private int mIterations = 200;
+        private List<Integer> mSignerConcurrencyLevels = Arrays.asList(1, 2, 4, 8, 16);
+
+        Builder keyGenerationIterations(final int warmup, final int measured) {
+            mKeyGenerationWarmupIterations = warmup;
+            mKeyGenerationIterations = measured;
+            return this;
+        }
+
+        Builder iterations(final int warmup, final int measured) {
+            mWarmupIterations = warmup;
+            mIterations = measured;
+            return this;
+        }
+
+        Builder signerConcurrencyLevels(@NonNull final List<Integer> levels) {
+            mSignerConcurrencyLevels = levels;
+            return this;
+        }
+
+        BenchmarkConfig build() {
+            if (mKeyGenerationIterations < 1 || mIterations < 1) {
+                throw new IllegalArgumentException("At least one measured iteration is required.");
+            }
+            return new BenchmarkConfig(this);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.platform;
+
+import androidx.annotation.NonNull;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A complete benchmark run: environment description, configuration and results, serialized as
+ * JSON so runs can be collected and compared across devices and releases.
+ */
+final class BenchmarkReport {
+
+    static final String FILE_NAME = "pop-benchmark.json";
+
+    private final Map<String, String> mEnvironment = new LinkedHashMap<>();
+    private final String mBackendName;
+    private final Boolean mHardwareIsolated;
+    private final BenchmarkConfig mConfig;
+    private final List<BenchmarkResult> mResults;
+
+    BenchmarkReport(@NonNull final String backendName,
+                    final Boolean hardwareIsolated,
+                    @NonNull final BenchmarkConfig config,
+                    @NonNull final List<BenchmarkResult> results) {
+        mBackendName = backendName;
+        mHardwareIsolated = hardwareIsolated;
+        mConfig = config;
+        mResults = results;
+    }
+
+    BenchmarkReport putEnvironment(@NonNull final String key, @NonNull final String value) {
+        mEnvironment.put(key, value);
+        return this;
+    }
+
+    @NonNull
+    List<BenchmarkResult> getResults() {
+        return mResults;
+    }
+
+    @NonNull
+    String toJson() {
+        final JsonWriter writer = new JsonWriter().beginObject();
+
+        writer.name("environment").beginObject();
+        for (final Map.Entry<String, String> entry : mEnvironment.entrySet()) {
+            writer.name(entry.getKey()).value(entry.getValue());
+        }
+        writer.endObject();
+
+        writer.name("backend").value(mBackendName)
+                .name("hardware_isolated").value(mHardwareIsolated)
+                .name("config").beginObject()
+                .name("key_generation_warmup_iterations").value(mConfig.mKeyGenerationWarmupIterations)
+                .name("key_generation_iterations").value(mConfig.mKeyGenerationIterations)
+                .name("warmup_iterations").value(mConfig.mWarmupIterations)
+                .name("iterations").value(mConfig.mIterations)
+                .endObject();
+
+        writer.name("results").beginArray();
+        for (final BenchmarkResult result : mResults) {
+            result.writeJson(writer);
+        }
+        writer.endArray();
+
+        return writer.endObject().toString();
+    }
+
+    void writeTo(@NonNull final File file) throws IOException {
+        final File parent = file.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Unable to create directory: " + parent);
+        }
+
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), Charset.forName("UTF-8"))) {
+            writer.write(toJson());
+        }
+    }
+}
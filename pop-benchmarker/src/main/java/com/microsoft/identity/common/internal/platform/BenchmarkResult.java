@@ -0,0 +1,82 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.platform;
+
+import androidx.annotation.NonNull;
+
+import java.util.Locale;
+
+/**
+ * The measured latencies of one benchmark at one concurrency level.
+ */
+final class BenchmarkResult {
+
+    final String mName;
+    final int mThreads;
+    final LatencyStats mStats;
+    final long mWallClockNanos;
+
+    BenchmarkResult(@NonNull final String name,
+                    final int threads,
+                    @NonNull final LatencyStats stats,
+                    final long wallClockNanos) {
+        mName = name;
+        mThreads = threads;
+        mStats = stats;
+        mWallClockNanos = wallClockNanos;
+    }
+
+    double getOpsPerSecond() {
+        return mStats.getCount() / (mWallClockNanos / 1e9);
+    }
+
+    void writeJson(@NonNull final JsonWriter writer) {
+        writer.beginObject()
+                .name("name").value(mName)
+                .name("threads").value(mThreads)
+                .name("iterations").value(mStats.getCount())
+                .name("ops_per_sec").value(getOpsPerSecond())
+                .name("mean_ms").value(LatencyStats.toMillis(mStats.getMeanNanos()))
+                .name("min_ms").value(LatencyStats.toMillis(mStats.getMinNanos()))
+                .name("p50_ms").value(LatencyStats.toMillis(mStats.getPercentileNanos(50)))
+                .name("p90_ms").value(LatencyStats.toMillis(mStats.getPercentileNanos(90)))
+                .name("p99_ms").value(LatencyStats.toMillis(mStats.getPercentileNanos(99)))
+                .name("max_ms").value(LatencyStats.toMillis(mStats.getMaxNanos()))
+                .endObject();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                Locale.US,
+                "%s x%d: p50=%.2fms p90=%.2fms p99=%.2fms max=%.2fms (%.1f ops/s)",
+                mName,
+                mThreads,
+                LatencyStats.toMillis(mStats.getPercentileNanos(50)),
+                LatencyStats.toMillis(mStats.getPercentileNanos(90)),
+                LatencyStats.toMillis(mStats.getPercentileNanos(99)),
+                LatencyStats.toMillis(mStats.getMaxNanos()),
+                getOpsPerSecond()
+        );
+    }
+}
@@ -0,0 +1,94 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.platform;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link KeyBackend} backed by the Android keystore through {@link DevicePopManager}, i.e. the
+ * same code path MSAL uses for PoP.
+ */
+class DevicePopManagerKeyBackend implements KeyBackend {
+
+    private final Context mContext;
+    private final Map<String, IDevicePopManager> mPopManagers = new ConcurrentHashMap<>();
+
+    DevicePopManagerKeyBackend(@NonNull final Context context) {
+        mContext = context.getApplicationContext();
+    }
+
+    @NonNull
+    @Override
+    public String getName() {
+        return "android-keystore";
+    }
+
+    @NonNull
+    @Override
+    public String generateKey() throws Exception {
+        final String alias = UUID.randomUUID().toString();
+        final IDevicePopManager popManager = new DevicePopManager(alias);
+        popManager.generateAsymmetricKey(mContext);
+        mPopManagers.put(alias, popManager);
+        return alias;
+    }
+
+    @Override
+    public void loadKey(@NonNull final String alias) throws Exception {
+        new DevicePopManager(alias);
+    }
+
+    @Override
+    public void sign(@NonNull final String alias, @NonNull final String input) throws Exception {
+        final IDevicePopManager popManager = mPopManagers.get(alias);
+        if (popManager == null) {
+            throw new IllegalArgumentException("No key generated for alias: " + alias);
+        }
+        popManager.sign(IDevicePopManager.SigningAlgorithm.SHA_256_WITH_RSA, input);
+    }
+
+    @Override
+    public void deleteKey(@NonNull final String alias) {
+        final IDevicePopManager popManager = mPopManagers.remove(alias);
+        if (popManager != null) {
+            popManager.clearAsymmetricKey();
+        }
+    }
+
+    @Override
+    public Boolean isHardwareIsolated() throws Exception {
+        final String alias = generateKey();
+        try {
+            return SecureHardwareState.TRUE_UNATTESTED
+                    == mPopManagers.get(alias).getSecureHardwareState();
+        } finally {
+            deleteKey(alias);
+        }
+    }
+}
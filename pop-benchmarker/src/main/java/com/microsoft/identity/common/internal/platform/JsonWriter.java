@@ -0,0 +1,129 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.platform;
+
+import androidx.annotation.NonNull;
+
+import java.util.Locale;
+
+/**
+ * Minimal streaming JSON writer for benchmark reports. Kept dependency free so the harness runs
+ * unchanged on a device and on a plain JVM.
+ */
+final class JsonWriter {
+
+    private final StringBuilder mOut = new StringBuilder();
+    private boolean mNeedsComma;
+
+    JsonWriter beginObject() {
+        separate();
+        mOut.append('{');
+        mNeedsComma = false;
+        return this;
+    }
+
+    JsonWriter endObject() {
+        mOut.append('}');
+        mNeedsComma = true;
+        return this;
+    }
+
+    JsonWriter beginArray() {
+        separate();
+        mOut.append('[');
+        mNeedsComma = false;
+        return this;
+    }
+
+    JsonWriter endArray() {
+        mOut.append(']');
+        mNeedsComma = true;
+        return this;
+    }
+
+    JsonWriter name(@NonNull final String name) {
+        separate();
+        appendString(name);
+        mOut.append(':');
+        mNeedsComma = false;
+        return this;
+    }
+
+    JsonWriter value(final String value) {
+        separate();
+        if (value == null) {
+            mOut.append("null");
+        } else {
+            appendString(value);
+        }
+        mNeedsComma = true;
+        return this;
+    }
+
+    JsonWriter value(final long value) {
+        separate();
+        mOut.append(value);
+        mNeedsComma = true;
+        return this;
+    }
+
+    JsonWriter value(final double value) {
+        separate();
+        mOut.append(String.format(Locale.US, "%.4f", value));
+        mNeedsComma = true;
+        return this;
+    }
+
+    JsonWriter value(final Boolean value) {
+        separate();
+        mOut.append(value == null ? "null" : value.toString());
+        mNeedsComma = true;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return mOut.toString();
+    }
+
+    private void separate() {
+        if (mNeedsComma) {
+            mOut.append(',');
+        }
+    }
+
+    private void appendString(@NonNull final String value) {
+        mOut.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                mOut.append('\\').append(c);
+            } else if (c < 0x20) {
+                mOut.append(String.format(Locale.US, "\\u%04x", (int) c));
+            } else {
+                mOut.append(c);
+            }
+        }
+        mOut.append('"');
+    }
+}
@@ -24,41 +24,41 @@ package com.microsoft.identity.common.internal.platform;
 
 import androidx.annotation.NonNull;
 
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+/**
+ * The key operations measured by the benchmark. Lets the same suite run against the Android
+ * keystore on a device and against a software stand-in on a plain JVM.
+ */
+interface KeyBackend {
 
-class Timer {
+    /**
+     * @return A short description of the backend, included in the report.
+     */
+    @NonNull
+    String getName();
 
-    static class TimerResult<T> {
-        long mDuration;
-        T mResult;
-    }
+    /**
+     * Generates a new key pair and returns its alias.
+     */
+    @NonNull
+    String generateKey() throws Exception;
 
-    private static ExecutorService sExecutorService = Executors.newCachedThreadPool();
+    /**
+     * Loads a previously generated key from storage.
+     */
+    void loadKey(@NonNull String alias) throws Exception;
 
-    static <T> TimerResult<T> execute(@NonNull final Callable<T> callable) {
-        try {
-            final TimerResult<T> result = new TimerResult<>();
+    /**
+     * Signs the supplied input with a previously generated key. Must be safe to call concurrently.
+     */
+    void sign(@NonNull String alias, @NonNull String input) throws Exception;
 
-            // Start timer
-            final long startTime = System.currentTimeMillis();
+    /**
+     * Deletes a previously generated key.
+     */
+    void deleteKey(@NonNull String alias);
 
-            // Execute command
-            final Future<T> future = sExecutorService.submit(callable);
-
-            // Get the result
-            result.mResult = future.get();
-
-            // Package result and return
-            result.mDuration = System.currentTimeMillis() - startTime;
-
-            return result;
-        } catch (final ExecutionException | InterruptedException e) {
-            e.printStackTrace();
-            throw new RuntimeException(e);
-        }
-    }
+    /**
+     * @return Whether keys are held in secure hardware, or null if unknown.
+     */
+    Boolean isHardwareIsolated() throws Exception;
 }
@@ -0,0 +1,87 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.platform;
+
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summary statistics over a set of latency samples, in nanoseconds. Percentiles use the
+ * nearest-rank method.
+ */
+final class LatencyStats {
+
+    private final long[] mSortedNanos;
+    private final long mSumNanos;
+
+    LatencyStats(@NonNull final long[] samplesNanos) {
+        if (samplesNanos.length == 0) {
+            throw new IllegalArgumentException("At least one sample is required.");
+        }
+
+        mSortedNanos = samplesNanos.clone();
+        Arrays.sort(mSortedNanos);
+
+        long sum = 0;
+        for (final long sample : mSortedNanos) {
+            sum += sample;
+        }
+        mSumNanos = sum;
+    }
+
+    int getCount() {
+        return mSortedNanos.length;
+    }
+
+    long getMinNanos() {
+        return mSortedNanos[0];
+    }
+
+    long getMaxNanos() {
+        return mSortedNanos[mSortedNanos.length - 1];
+    }
+
+    long getMeanNanos() {
+        return mSumNanos / mSortedNanos.length;
+    }
+
+    /**
+     * @param percentile In the range (0, 100].
+     * @return The smallest sample such that at least {@code percentile} percent of samples are
+     * less than or equal to it.
+     */
+    long getPercentileNanos(final double percentile) {
+        if (percentile <= 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be in (0, 100]: " + percentile);
+        }
+
+        final int rank = (int) Math.ceil(percentile / 100.0 * mSortedNanos.length);
+        return mSortedNanos[Math.max(rank, 1) - 1];
+    }
+
+    static double toMillis(final long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -24,6 +24,7 @@ package com.microsoft.identity.common.internal.platform;
 
 import android.os.Build;
 import android.os.Bundle;
+import android.util.Log;
 import android.view.View;
 import android.widget.Button;
 import android.widget.TextView;
@@ -31,28 +32,18 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 
-
-import java.io.IOException;
-import java.security.KeyStoreException;
-import java.security.NoSuchAlgorithmException;
-import java.security.cert.CertificateException;
-import java.util.ArrayList;
-import java.util.LinkedList;
+import java.io.File;
 import java.util.List;
-import java.util.UUID;
-import java.util.concurrent.Callable;
-import java.util.concurrent.Semaphore;
-
+import java.util.Locale;
 
+/**
+ * Runs {@link PopBenchmarkSuite} against the Android keystore, shows a summary on screen and
+ * writes the full report as JSON to the app's external files directory (falling back to internal
+ * storage), from where it can be pulled with adb.
+ */
 public class MainActivity extends AppCompatActivity {
 
-    private MainThreadMarshaller<String> mThreadMarshaller = new MainThreadMarshaller<>();
-
-    private List<Long> mKeyGenerationTimings = new ArrayList<>();
-    private List<Long> mKeyLoadTimings = new ArrayList<>();
-    private List<Long> mSigningTimings = new ArrayList<>();
-
-    private List<IDevicePopManager> mPopMgrs = new ArrayList<>();
+    private static final String TAG = MainActivity.class.getSimpleName();
 
     private TextView
             mTvManufacturer,
@@ -62,7 +53,9 @@ public class MainActivity extends AppCompatActivity {
             mTvKeyGen,
             mTvKeyLoad,
             mTvSigning,
-            mTvHardwareIsolated;
+            mTvSigningConcurrency,
+            mTvHardwareIsolated,
+            mTvReport;
 
     private Button mBtn_Restart;
 
@@ -78,41 +71,46 @@ public class MainActivity extends AppCompatActivity {
         executeBenchmarks();
     }
 
-    @Override
-    protected void onResume() {
-        super.onResume();
-    }
-
     private void executeBenchmarks() {
         new Thread(new Runnable() {
             @Override
             public void run() {
-                final int iterations = 20;
-                int thisIteration = iterations;
-
-                while (thisIteration >= 1) {
-                    final int finalThisIteration = thisIteration;
-                    runOnUiThread(new Runnable() {
-                        @Override
-                        public void run() {
-                            mBtn_Restart.setText("Remaining iterations: " + finalThisIteration + " of: " + iterations);
-                        }
-                    });
-                    populateViews();
-                    thisIteration--;
+                try {
+                    final KeyBackend backend = new DevicePopManagerKeyBackend(MainActivity.this);
+                    final BenchmarkConfig config = BenchmarkConfig.builder().build();
+                    final Boolean hardwareIsolated = backend.isHardwareIsolated();
+                    setText(mTvHardwareIsolated, String.valueOf(hardwareIsolated));
+
+                    final List<BenchmarkResult> results = new PopBenchmarkSuite(
+                            backend,
+                            config,
+                            new PopBenchmarkSuite.ProgressListener() {
+                                @Override
+                                public void onProgress(@NonNull final String message) {
+                                    setText(mBtn_Restart, message);
+                                }
+                            }
+                    ).run();
+
+                    final BenchmarkReport report = new BenchmarkReport(backend.getName(), hardwareIsolated, config, results)
+                            .putEnvironment("manufacturer", Build.MANUFACTURER)
+                            .putEnvironment("model", Build.MODEL)
+                            .putEnvironment("os_version", Build.VERSION.RELEASE)
+                            .putEnvironment("api_level", String.valueOf(Build.VERSION.SDK_INT));
+
+                    final File reportFile = new File(getReportDirectory(), BenchmarkReport.FILE_NAME);
+                    report.writeTo(reportFile);
+
+                    showResults(results);
+                    setText(mTvReport, reportFile.getAbsolutePath());
+                } catch (final Exception e) {
+                    Log.e(TAG, "Benchmark failed.", e);
+                    setText(mTvReport, "Failed: " + e);
                 }
 
-                computeAverages();
-
                 runOnUiThread(new Runnable() {
                     @Override
                     public void run() {
-                        // Clean up
-                        for (final IDevicePopManager devicePopManager : mPopMgrs) {
-                            devicePopManager.clearAsymmetricKey();
-                        }
-                        mPopMgrs.clear();
-
                         // Enable our button
                         mBtn_Restart.setText("Restart");
                         mBtn_Restart.setEnabled(true);
@@ -122,23 +120,49 @@ public class MainActivity extends AppCompatActivity {
         }).start();
     }
 
-    private void computeAverages() {
-        final long avgKeyGen = computeAvg(mKeyGenerationTimings);
-        final long avgKeyLoad = computeAvg(mKeyLoadTimings);
-        final long avgSign = computeAvg(mSigningTimings);
-        setText(mTvKeyGen, String.valueOf(avgKeyGen));
-        setText(mTvKeyLoad, String.valueOf(avgKeyLoad));
-        setText(mTvSigning, String.valueOf(avgSign));
+    @NonNull
+    private File getReportDirectory() {
+        final File external = getExternalFilesDir(null);
+        return external != null ? external : getFilesDir();
     }
 
-    private long computeAvg(List<Long> list) {
-        long sum = 0L;
+    private void showResults(@NonNull final List<BenchmarkResult> results) {
+        final StringBuilder concurrency = new StringBuilder();
+
+        for (final BenchmarkResult result : results) {
+            Log.i(TAG, result.toString());
 
-        for (final Long value : list) {
-            sum += value;
+            if (PopBenchmarkSuite.KEY_GENERATION.equals(result.mName)) {
+                setText(mTvKeyGen, summarize(result));
+            } else if (PopBenchmarkSuite.KEY_LOAD.equals(result.mName)) {
+                setText(mTvKeyLoad, summarize(result));
+            } else if (PopBenchmarkSuite.SIGNING.equals(result.mName)) {
+                if (result.mThreads == 1) {
+                    setText(mTvSigning, summarize(result));
+                }
+                concurrency.append(String.format(
+                        Locale.US,
+                        "x%d: %.1f ops/s, p99 %.1f\n",
+                        result.mThreads,
+                        result.getOpsPerSecond(),
+                        LatencyStats.toMillis(result.mStats.getPercentileNanos(99))
+                ));
+            }
         }
 
-        return sum / list.size();
+        setText(mTvSigningConcurrency, concurrency.toString().trim());
+    }
+
+    @NonNull
+    private static String summarize(@NonNull final BenchmarkResult result) {
+        return String.format(
+                Locale.US,
+                "p50 %.1f / p90 %.1f / p99 %.1f / max %.1f",
+                LatencyStats.toMillis(result.mStats.getPercentileNanos(50)),
+                LatencyStats.toMillis(result.mStats.getPercentileNanos(90)),
+                LatencyStats.toMillis(result.mStats.getPercentileNanos(99)),
+                LatencyStats.toMillis(result.mStats.getMaxNanos())
+        );
     }
 
     private void initializeViews() {
@@ -149,7 +173,9 @@ public class MainActivity extends AppCompatActivity {
         mTvKeyGen = findViewById(R.id.disp_key_gen);
         mTvKeyLoad = findViewById(R.id.disp_key_load);
         mTvSigning = findViewById(R.id.disp_signing);
+        mTvSigningConcurrency = findViewById(R.id.disp_signing_concurrency);
         mTvHardwareIsolated = findViewById(R.id.disp_hardware_iso);
+        mTvReport = findViewById(R.id.disp_report);
         mBtn_Restart = findViewById(R.id.btn_restart);
         mBtn_Restart.setEnabled(false);
         mBtn_Restart.setOnClickListener(new View.OnClickListener() {
@@ -165,165 +191,17 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void restartBenchmarks() {
-        mKeyGenerationTimings.clear();
-        mKeyLoadTimings.clear();
-        mSigningTimings.clear();
-
         final String calculating = "Calculating...";
 
         setText(mTvKeyGen, calculating);
         setText(mTvKeyLoad, calculating);
         setText(mTvSigning, calculating);
+        setText(mTvSigningConcurrency, calculating);
+        setText(mTvReport, calculating);
 
         executeBenchmarks();
     }
 
-    private static final Semaphore sLOCK = new Semaphore(1);
-
-    private void populateViews() {
-        try {
-            sLOCK.acquire();
-        } catch (InterruptedException e) {
-            crash(e);
-        }
-        final LinkedList<Runnable> tasks = new LinkedList<>();
-        tasks.add(new Runnable() {
-            @Override
-            public void run() {
-                getKeyLoadTiming(new AsyncResultCallback<String>() {
-                    @Override
-                    public void onDone(String result) {
-                        tasks.remove().run();
-                    }
-                });
-            }
-        });
-
-        tasks.add(new Runnable() {
-            @Override
-            public void run() {
-                getSigningTiming(new AsyncResultCallback<String>() {
-                    @Override
-                    public void onDone(String result) {
-                        tasks.remove().run();
-                    }
-                });
-            }
-        });
-
-        tasks.add(new Runnable() {
-            @Override
-            public void run() {
-                getIsHardwareIsolated(new AsyncResultCallback<String>() {
-                    @Override
-                    public void onDone(String result) {
-                        setText(mTvHardwareIsolated, result);
-                        // Done!
-                        sLOCK.release();
-                    }
-                });
-            }
-        });
-
-        getKeyGenerationTiming(new AsyncResultCallback<String>() {
-            @Override
-            public void onDone(String result) {
-                tasks.remove().run();
-            }
-        });
-    }
-
-    private IDevicePopManager getRandomPopMgr() {
-        try {
-            final IDevicePopManager popManager = new DevicePopManager(UUID.randomUUID().toString());
-            mPopMgrs.add(popManager);
-            return popManager;
-        } catch (KeyStoreException | CertificateException | NoSuchAlgorithmException | IOException e) {
-            throw new RuntimeException(e);
-        }
-    }
-
-    private void getIsHardwareIsolated(@NonNull final AsyncResultCallback<String> callback) {
-        try {
-            final IDevicePopManager devicePopManager = getRandomPopMgr();
-            devicePopManager.generateAsymmetricKey(MainActivity.this);
-            final Timer.TimerResult<Boolean> result = Timer.execute(new Callable<Boolean>() {
-                @Override
-                public Boolean call() throws Exception {
-                    return SecureHardwareState.TRUE_UNATTESTED
-                            == devicePopManager.getSecureHardwareState();
-                }
-            });
-            mThreadMarshaller.postResult(result.mResult.toString(), callback);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
-    }
-
-    private void getSigningTiming(@NonNull final AsyncResultCallback<String> callback) {
-        try {
-            final IDevicePopManager tmpPoPMgr = getRandomPopMgr();
-            tmpPoPMgr.generateAsymmetricKey(MainActivity.this);
-            final Timer.TimerResult<Void> result = Timer.execute(new Callable<Void>() {
-                @Override
-                public Void call() throws Exception {
-                    tmpPoPMgr.sign(
-                            IDevicePopManager.SigningAlgorithm.SHA_256_WITH_RSA,
-                            "The quick brown fox jumped over the lazy dog."
-                    );
-                    return null;
-                }
-            });
-            mSigningTimings.add(result.mDuration);
-            mThreadMarshaller.postResult(String.valueOf(result.mDuration), callback);
-        } catch (Exception e) {
-            crash(e);
-        }
-    }
-
-    private void getKeyLoadTiming(@NonNull final AsyncResultCallback<String> callback) {
-        // Pregenerate a key, to load it again for measurement.
-        try {
-            final String uuid = UUID.randomUUID().toString();
-            final IDevicePopManager devicePopManager = new DevicePopManager(uuid);
-            devicePopManager.generateAsymmetricKey(MainActivity.this);
-            mPopMgrs.add(devicePopManager);
-            final Timer.TimerResult<Void> result = Timer.execute(new Callable<Void>() {
-                @Override
-                public Void call() throws Exception {
-                    new DevicePopManager(uuid);
-                    return null;
-                }
-            });
-            mKeyLoadTimings.add(result.mDuration);
-            mThreadMarshaller.postResult(String.valueOf(result.mDuration), callback);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
-    }
-
-    private void getKeyGenerationTiming(@NonNull final AsyncResultCallback<String> callback) {
-        final IDevicePopManager tmpPopMgr = getRandomPopMgr();
-        final Timer.TimerResult<Void> result = Timer.execute(new Callable<Void>() {
-            @Override
-            public Void call() {
-                try {
-                    tmpPopMgr.generateAsymmetricKey(MainActivity.this);
-                    return null;
-                } catch (ClientException e) {
-                    throw new RuntimeException(e);
-                }
-            }
-        });
-        mKeyGenerationTimings.add(result.mDuration);
-        mThreadMarshaller.postResult(String.valueOf(result.mDuration), callback);
-    }
-
-    private void crash(final Exception e) {
-        e.printStackTrace();
-        throw new RuntimeException(e);
-    }
-
     private void setText(@NonNull final TextView textView,
                          @NonNull final Object result) {
         runOnUiThread(new Runnable() {
@@ -333,20 +211,4 @@ public class MainActivity extends AppCompatActivity {
             }
         });
     }
-
-    interface AsyncResultCallback<T> {
-        void onDone(T result);
-    }
-
-    class MainThreadMarshaller<T> {
-        void postResult(final T result,
-                        final AsyncResultCallback<T> callback) {
-            runOnUiThread(new Runnable() {
-                @Override
-                public void run() {
-                    callback.onDone(result);
-                }
-            });
-        }
-    }
 }
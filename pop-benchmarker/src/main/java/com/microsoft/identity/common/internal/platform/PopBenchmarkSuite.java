@@ -0,0 +1,215 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.platform;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures PoP key generation, key load and signing against a {@link KeyBackend}.
+ * <p>
+ * Every benchmark runs its warm-up iterations before measuring, and each operation is timed
+ * individually with {@link System#nanoTime()} on the thread executing it, so thread start-up and
+ * hand-off costs are not included. Signing is additionally measured with 1..N concurrent signers
+ * sharing one key, which is how MSAL signs requests.
+ */
+class PopBenchmarkSuite {
+
+    static final String KEY_GENERATION = "key_generation";
+    static final String KEY_LOAD = "key_load";
+    static final String SIGNING = "signing";
+
+    private static final String PAYLOAD = "The quick brown fox jumped over the lazy dog.";
+
+    /**
+     * Receives progress updates, e.g. to show them on screen.
+     */
+    interface ProgressListener {
+        void onProgress(@NonNull String message);
+    }
+
+    private interface Operation {
+        void run(int iteration) throws Exception;
+    }
+
+    private final KeyBackend mBackend;
+    private final BenchmarkConfig mConfig;
+    private final ProgressListener mListener;
+
+    PopBenchmarkSuite(@NonNull final KeyBackend backend,
+                      @NonNull final BenchmarkConfig config,
+                      @NonNull final ProgressListener listener) {
+        mBackend = backend;
+        mConfig = config;
+        mListener = listener;
+    }
+
+    @NonNull
+    List<BenchmarkResult> run() throws Exception {
+        final List<BenchmarkResult> results = new ArrayList<>();
+        final List<String> generatedAliases = new ArrayList<>();
+
+        try {
+            mListener.onProgress("Measuring " + KEY_GENERATION);
+            results.add(measure(
+                    KEY_GENERATION,
+                    mConfig.mKeyGenerationWarmupIterations,
+                    mConfig.mKeyGenerationIterations,
+                    new Operation() {
+                        @Override
+                        public void run(final int iteration) throws Exception {
+                            generatedAliases.add(mBackend.generateKey());
+                        }
+                    }
+            ));
+
+            final String alias = mBackend.generateKey();
+            generatedAliases.add(alias);
+
+            mListener.onProgress("Measuring " + KEY_LOAD);
+            results.add(measure(KEY_LOAD, mConfig.mWarmupIterations, mConfig.mIterations, new Operation() {
+                @Override
+                public void run(final int iteration) throws Exception {
+                    mBackend.loadKey(alias);
+                }
+            }));
+
+            for (final int threads : mConfig.mSignerConcurrencyLevels) {
+                mListener.onProgress("Measuring " + SIGNING + " with " + threads + " signer(s)");
+                results.add(measureConcurrent(
+                        SIGNING,
+                        threads,
+                        mConfig.mWarmupIterations,
+                        mConfig.mIterations,
+                        new Operation() {
+                            @Override
+                            public void run(final int iteration) throws Exception {
+                                mBackend.sign(alias, PAYLOAD);
+                            }
+                        }
+                ));
+            }
+        } finally {
+            for (final String alias : generatedAliases) {
+                mBackend.deleteKey(alias);
+            }
+        }
+
+        return results;
+    }
+
+    @NonNull
+    private static BenchmarkResult measure(@NonNull final String name,
+                                           final int warmupIterations,
+                                           final int iterations,
+                                           @NonNull final Operation operation) throws Exception {
+        for (int i = 0; i < warmupIterations; i++) {
+            operation.run(i);
+        }
+
+        final long[] samples = new long[iterations];
+        final long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            final long opStart = System.nanoTime();
+            operation.run(i);
+            samples[i] = System.nanoTime() - opStart;
+        }
+        final long wallClock = System.nanoTime() - start;
+
+        return new BenchmarkResult(name, 1, new LatencyStats(samples), wallClock);
+    }
+
+    /**
+     * Runs {@code iterations} operations spread over {@code threads} workers pulling from a shared
+     * counter. Workers are started and parked on a gate before timing begins.
+     */
+    @NonNull
+    private static BenchmarkResult measureConcurrent(@NonNull final String name,
+                                                     final int threads,
+                                                     final int warmupIterations,
+                                                     final int iterations,
+                                                     @NonNull final Operation operation) throws Exception {
+        if (threads == 1) {
+            return measure(name, warmupIterations, iterations, operation);
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            runOnWorkers(executor, threads, warmupIterations, operation, null);
+
+            final long[] samples = new long[iterations];
+            final long wallClock = runOnWorkers(executor, threads, iterations, operation, samples);
+
+            return new BenchmarkResult(name, threads, new LatencyStats(samples), wallClock);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static long runOnWorkers(@NonNull final ExecutorService executor,
+                                     final int threads,
+                                     final int iterations,
+                                     @NonNull final Operation operation,
+                                     final long[] samples) throws Exception {
+        final AtomicInteger next = new AtomicInteger();
+        final CountDownLatch ready = new CountDownLatch(threads);
+        final CountDownLatch gate = new CountDownLatch(1);
+        final List<Future<Void>> workers = new ArrayList<>(threads);
+
+        for (int t = 0; t < threads; t++) {
+            workers.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    ready.countDown();
+                    gate.await();
+
+                    int i;
+                    while ((i = next.getAndIncrement()) < iterations) {
+                        final long opStart = System.nanoTime();
+                        operation.run(i);
+                        if (samples != null) {
+                            samples[i] = System.nanoTime() - opStart;
+                        }
+                    }
+                    return null;
+                }
+            }));
+        }
+
+        ready.await();
+        final long start = System.nanoTime();
+        gate.countDown();
+        for (final Future<Void> worker : workers) {
+            worker.get();
+        }
+        return System.nanoTime() - start;
+    }
+}
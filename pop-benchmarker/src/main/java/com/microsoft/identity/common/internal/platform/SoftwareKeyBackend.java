@@ -0,0 +1,105 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.platform;
+
+import androidx.annotation.NonNull;
+
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.nio.charset.Charset;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Software stand-in for the Android keystore, using RSA keys held in memory. Used to run the
+ * benchmark headless on a JVM, so regressions in the harness and in relative costs show up in
+ * CI. Absolute numbers are not comparable to hardware-backed keys.
+ */
+class SoftwareKeyBackend implements KeyBackend {
+
+    private static final int KEY_SIZE = 2048;
+    private static final String KEY_ALGORITHM = "RSA";
+    private static final String SIGNING_ALGORITHM = "SHA256withRSA";
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    // Encoded private keys stand in for keystore entries, loading decodes them again.
+    private final Map<String, byte[]> mStoredKeys = new ConcurrentHashMap<>();
+    private final Map<String, PrivateKey> mLoadedKeys = new ConcurrentHashMap<>();
+
+    @NonNull
+    @Override
+    public String getName() {
+        return "software-" + KEY_ALGORITHM + "-" + KEY_SIZE;
+    }
+
+    @NonNull
+    @Override
+    public String generateKey() throws Exception {
+        final KeyPairGenerator generator = KeyPairGenerator.getInstance(KEY_ALGORITHM);
+        generator.initialize(KEY_SIZE);
+        final KeyPair keyPair = generator.generateKeyPair();
+
+        final String alias = UUID.randomUUID().toString();
+        mStoredKeys.put(alias, keyPair.getPrivate().getEncoded());
+        mLoadedKeys.put(alias, keyPair.getPrivate());
+        return alias;
+    }
+
+    @Override
+    public void loadKey(@NonNull final String alias) throws Exception {
+        final byte[] encoded = mStoredKeys.get(alias);
+        if (encoded == null) {
+            throw new IllegalArgumentException("No key stored for alias: " + alias);
+        }
+        mLoadedKeys.put(alias, KeyFactory.getInstance(KEY_ALGORITHM).generatePrivate(new PKCS8EncodedKeySpec(encoded)));
+    }
+
+    @Override
+    public void sign(@NonNull final String alias, @NonNull final String input) throws Exception {
+        final PrivateKey privateKey = mLoadedKeys.get(alias);
+        if (privateKey == null) {
+            throw new IllegalArgumentException("No key loaded for alias: " + alias);
+        }
+
+        final Signature signature = Signature.getInstance(SIGNING_ALGORITHM);
+        signature.initSign(privateKey);
+        signature.update(input.getBytes(UTF_8));
+        signature.sign();
+    }
+
+    @Override
+    public void deleteKey(@NonNull final String alias) {
+        mStoredKeys.remove(alias);
+        mLoadedKeys.remove(alias);
+    }
+
+    @Override
+    public Boolean isHardwareIsolated() {
+        return false;
+    }
+}
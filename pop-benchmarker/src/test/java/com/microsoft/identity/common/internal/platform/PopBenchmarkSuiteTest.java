@@ -0,0 +1,112 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.platform;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs the PoP benchmark headless against {@link SoftwareKeyBackend}, so the harness is exercised
+ * in CI on Linux. The report is written to the directory given by the
+ * {@code popBenchmarkReportDir} system property, if set.
+ */
+public class PopBenchmarkSuiteTest {
+
+    private static final String REPORT_DIR_PROPERTY = "popBenchmarkReportDir";
+
+    @Test
+    public void testSuiteProducesResultsForEveryBenchmark() throws Exception {
+        final BenchmarkConfig config = BenchmarkConfig.builder()
+                .keyGenerationIterations(1, 3)
+                .iterations(5, 50)
+                .signerConcurrencyLevels(Arrays.asList(1, 2, 4, 8, 16))
+                .build();
+        final KeyBackend backend = new SoftwareKeyBackend();
+
+        final List<BenchmarkResult> results = new PopBenchmarkSuite(
+                backend,
+                config,
+                new PopBenchmarkSuite.ProgressListener() {
+                    @Override
+                    public void onProgress(@NonNull final String message) {
+                        System.out.println(message);
+                    }
+                }
+        ).run();
+
+        // Key generation, key load, and one signing result per concurrency level.
+        Assert.assertEquals(2 + 5, results.size());
+        Assert.assertEquals(PopBenchmarkSuite.KEY_GENERATION, results.get(0).mName);
+        Assert.assertEquals(3, results.get(0).mStats.getCount());
+        Assert.assertEquals(PopBenchmarkSuite.KEY_LOAD, results.get(1).mName);
+        Assert.assertEquals(16, results.get(results.size() - 1).mThreads);
+
+        for (final BenchmarkResult result : results) {
+            System.out.println(result);
+            Assert.assertTrue(result.mStats.getMinNanos() > 0);
+            Assert.assertTrue(result.getOpsPerSecond() > 0);
+        }
+
+        final BenchmarkReport report = new BenchmarkReport(backend.getName(), backend.isHardwareIsolated(), config, results)
+                .putEnvironment("java_version", System.getProperty("java.version"))
+                .putEnvironment("os_name", System.getProperty("os.name"));
+        final String json = report.toJson();
+        Assert.assertTrue(json.contains("\"p99_ms\":"));
+        Assert.assertTrue(json.contains("\"backend\":\"software-RSA-2048\""));
+
+        final String reportDir = System.getProperty(REPORT_DIR_PROPERTY);
+        if (reportDir != null) {
+            report.writeTo(new File(reportDir, BenchmarkReport.FILE_NAME));
+        }
+    }
+
+    @Test
+    public void testPercentilesUseNearestRank() {
+        final long[] samples = new long[100];
+        for (int i = 0; i < samples.length; i++) {
+            // Deliberately unsorted.
+            samples[i] = samples.length - i;
+        }
+
+        final LatencyStats stats = new LatencyStats(samples);
+
+        Assert.assertEquals(1, stats.getMinNanos());
+        Assert.assertEquals(50, stats.getPercentileNanos(50));
+        Assert.assertEquals(90, stats.getPercentileNanos(90));
+        Assert.assertEquals(99, stats.getPercentileNanos(99));
+        Assert.assertEquals(100, stats.getPercentileNanos(100));
+        Assert.assertEquals(100, stats.getMaxNanos());
+        Assert.assertEquals(50, stats.getMeanNanos());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testStatsRequireSamples() {
+        new LatencyStats(new long[0]);
+    }
+}